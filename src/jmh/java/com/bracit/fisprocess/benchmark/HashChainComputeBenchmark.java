@@ -0,0 +1,82 @@
+package com.bracit.fisprocess.benchmark;
+
+import com.bracit.fisprocess.domain.model.DraftJournalLine;
+import com.bracit.fisprocess.service.impl.HashChainServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the streaming entry hasher behind
+ * {@link HashChainServiceImpl#computeHash} with the original
+ * {@code String.format}/{@code Collectors.joining} implementation, kept here
+ * verbatim as the baseline. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+public class HashChainComputeBenchmark {
+
+    @Param({"2", "4", "20"})
+    public int lineCount;
+
+    private HashChainServiceImpl hashChainService;
+    private UUID journalEntryId;
+    private String previousHash;
+    private OffsetDateTime createdAt;
+    private List<DraftJournalLine> lines;
+
+    @Setup
+    public void setUp() {
+        hashChainService = new HashChainServiceImpl(null);
+        journalEntryId = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+        previousHash = "9c56cc51b374c3ba189210d5b6d4bf57790d351c96c47c02190ecf1e430635ab";
+        createdAt = OffsetDateTime.parse("2026-04-13T09:15:30.123456+06:00");
+        lines = new ArrayList<>();
+        for (int i = 0; i < lineCount; i++) {
+            long amount = 100_000L + i * 1_337L;
+            lines.add(DraftJournalLine.builder()
+                    .accountCode("ACC-" + (lineCount - i))
+                    .amountCents(amount)
+                    .baseAmountCents(amount)
+                    .isCredit(i % 2 == 1)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public String streaming() {
+        return hashChainService.computeHash(journalEntryId, previousHash, createdAt, lines);
+    }
+
+    @Benchmark
+    public String stringConcatenation() throws NoSuchAlgorithmException {
+        String linesContent = lines.stream()
+                .sorted(Comparator.comparing(DraftJournalLine::getAccountCode)
+                        .thenComparing(DraftJournalLine::isCredit)
+                        .thenComparing(DraftJournalLine::getAmountCents))
+                .map(line -> String.format("%s|%d|%d|%b",
+                        line.getAccountCode(),
+                        line.getAmountCents(),
+                        line.getBaseAmountCents() != null ? line.getBaseAmountCents() : 0L,
+                        line.isCredit()))
+                .collect(Collectors.joining(";"));
+        String linesHash = HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(linesContent.getBytes(StandardCharsets.UTF_8)));
+
+        String input = journalEntryId.toString() + previousHash + createdAt.toString() + linesHash;
+        return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.bracit.fisprocess.benchmark;
+
+import com.bracit.fisprocess.domain.entity.JournalEntry;
+import com.bracit.fisprocess.domain.model.DraftJournalLine;
+import com.bracit.fisprocess.repository.JournalEntryRepository;
+import com.bracit.fisprocess.service.impl.HashChainHeadCache;
+import com.bracit.fisprocess.service.impl.HashChainServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Compares chaining a batch of journal entries with a latest-hash lookup per
+ * entry (previous behaviour) against a single chain-head read that is chained
+ * forward in memory.
+ * <p>
+ * The repository is a dynamic proxy that burns {@code lookupCostTokens} of CPU
+ * per latest-entry lookup as a stand-in for the database round trip.
+ */
+@State(Scope.Benchmark)
+public class HashChainHeadBenchmark {
+
+    private static final UUID TENANT_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final int FISCAL_YEAR = 2026;
+
+    @Param({"100", "1000"})
+    public int batchSize;
+
+    @Param({"0", "20000"})
+    public long lookupCostTokens;
+
+    private HashChainServiceImpl hashChainService;
+    private HashChainHeadCache hashChainHeadCache;
+    private List<DraftJournalLine> lines;
+    private OffsetDateTime createdAt;
+    private long committedSequence;
+
+    @Setup
+    public void setUp() {
+        JournalEntry latest = JournalEntry.builder().hash("genesis").sequenceNumber(0L).build();
+        JournalEntryRepository repository = (JournalEntryRepository) Proxy.newProxyInstance(
+                JournalEntryRepository.class.getClassLoader(),
+                new Class<?>[] { JournalEntryRepository.class },
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("findTopByTenantId")) {
+                        Blackhole.consumeCPU(lookupCostTokens);
+                        return Optional.of(latest);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        hashChainService = new HashChainServiceImpl(repository);
+        hashChainHeadCache = new HashChainHeadCache(repository, new SimpleMeterRegistry());
+        createdAt = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+        lines = List.of(
+                DraftJournalLine.builder().accountCode("CASH").amountCents(1000L).baseAmountCents(1000L).isCredit(false).build(),
+                DraftJournalLine.builder().accountCode("REV").amountCents(1000L).baseAmountCents(1000L).isCredit(true).build());
+        committedSequence = hashChainHeadCache.current(TENANT_ID, FISCAL_YEAR, 0L).sequenceNumber();
+    }
+
+    @Benchmark
+    public void latestHashPerEntry(Blackhole blackhole) {
+        for (int i = 0; i < batchSize; i++) {
+            String previousHash = hashChainService.getLatestHash(TENANT_ID, FISCAL_YEAR);
+            blackhole.consume(hashChainService.computeHash(UUID.randomUUID(), previousHash, createdAt, lines));
+        }
+    }
+
+    @Benchmark
+    public void cachedChainHead(Blackhole blackhole) {
+        HashChainHeadCache.ChainHead head = hashChainHeadCache.current(TENANT_ID, FISCAL_YEAR, committedSequence);
+        String previousHash = head.hash();
+        long sequence = head.sequenceNumber();
+        for (int i = 0; i < batchSize; i++) {
+            previousHash = hashChainService.computeHash(UUID.randomUUID(), previousHash, createdAt, lines);
+            sequence++;
+        }
+        hashChainHeadCache.advanceOnCommit(TENANT_ID, FISCAL_YEAR, new HashChainHeadCache.ChainHead(previousHash, sequence));
+        committedSequence = sequence;
+        blackhole.consume(previousHash);
+    }
+}
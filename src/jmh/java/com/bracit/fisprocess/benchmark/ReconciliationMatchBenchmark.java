@@ -0,0 +1,133 @@
+package com.bracit.fisprocess.benchmark;
+
+import com.bracit.fisprocess.repository.JournalLineRepository.JournalLineMatchProjection;
+import com.bracit.fisprocess.service.impl.BankStatementMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Compares auto-matching a month of bank statement lines with the previous
+ * three linear scans per statement line against the amount-indexed
+ * {@link BankStatementMatcher}.
+ * <p>
+ * The month has one journal line per statement line. Amounts are drawn from a
+ * skewed distribution, so recurring fees and salaries share buckets. About 60%
+ * of statement lines carry the journal reference, and posted dates drift up to
+ * three days from the statement date. Expect {@code linearScan} to take
+ * seconds per operation at 50k lines.
+ */
+@State(Scope.Benchmark)
+public class ReconciliationMatchBenchmark {
+
+    private static final LocalDate MONTH_START = LocalDate.of(2026, 1, 1);
+
+    @Param({"5000", "50000"})
+    public int statementLines;
+
+    private List<Line> journalLines;
+    private List<Line> statement;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        journalLines = new ArrayList<>(statementLines);
+        statement = new ArrayList<>(statementLines);
+        for (int i = 0; i < statementLines; i++) {
+            long amount = random.nextInt(10) < 3
+                    ? 1_000L * (1 + random.nextInt(20))
+                    : 100L + random.nextInt(5_000_000);
+            LocalDate posted = MONTH_START.plusDays(random.nextInt(31));
+            String reference = "INV-" + i;
+            journalLines.add(new Line(UUID.randomUUID(), posted, reference, amount));
+            statement.add(new Line(UUID.randomUUID(), posted.plusDays(random.nextInt(4)),
+                    random.nextInt(10) < 6 ? reference.toLowerCase() : null, -amount));
+        }
+        // findJournalLinesForMatching returns lines ordered by posted date.
+        journalLines.sort(Comparator.comparing(Line::getPostedDate));
+    }
+
+    @Benchmark
+    public void indexedMatcher(Blackhole blackhole) {
+        BankStatementMatcher matcher = new BankStatementMatcher(journalLines, BankStatementMatcher.defaultTiers(1, 7));
+        for (Line line : statement) {
+            blackhole.consume(matcher.match(line.amount(), line.postedDate(), line.referenceId()));
+        }
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        for (Line line : statement) {
+            blackhole.consume(linearMatch(line));
+        }
+    }
+
+    private JournalLineMatchProjection linearMatch(Line statementLine) {
+        long target = Math.abs(statementLine.amount());
+        LocalDate date = statementLine.postedDate();
+        String ref = statementLine.referenceId() != null ? statementLine.referenceId().toLowerCase() : "";
+        for (Line jl : journalLines) {
+            String jeRef = jl.referenceId() != null ? jl.referenceId().toLowerCase() : "";
+            if (Math.abs(jl.amount()) == target && Math.abs(ChronoUnit.DAYS.between(jl.postedDate(), date)) <= 1
+                    && !ref.isEmpty() && (jeRef.contains(ref) || ref.contains(jeRef))) {
+                return jl;
+            }
+        }
+        for (Line jl : journalLines) {
+            if (Math.abs(jl.amount()) == target && Math.abs(ChronoUnit.DAYS.between(jl.postedDate(), date)) <= 7) {
+                return jl;
+            }
+        }
+        for (Line jl : journalLines) {
+            if (Math.abs(jl.amount()) == target) {
+                return jl;
+            }
+        }
+        return null;
+    }
+
+    private record Line(UUID journalLineId, LocalDate postedDate, String referenceId, long amount)
+            implements JournalLineMatchProjection {
+
+        @Override
+        public UUID getJournalLineId() {
+            return journalLineId;
+        }
+
+        @Override
+        public UUID getJournalEntryId() {
+            return journalLineId;
+        }
+
+        @Override
+        public LocalDate getPostedDate() {
+            return postedDate;
+        }
+
+        @Override
+        public String getReferenceId() {
+            return referenceId;
+        }
+
+        @Override
+        public String getDescription() {
+            return "";
+        }
+
+        @Override
+        public Long getAmount() {
+            return amount;
+        }
+    }
+}
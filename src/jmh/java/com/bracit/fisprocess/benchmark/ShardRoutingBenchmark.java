@@ -0,0 +1,92 @@
+package com.bracit.fisprocess.benchmark;
+
+import com.bracit.fisprocess.config.ShardingProperties;
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardContextHolder;
+import com.bracit.fisprocess.service.ShardTopology;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+
+/**
+ * Compares routing every repository call through its own advice (previous
+ * behaviour) against resolving the shard once per unit of work.
+ * <p>
+ * The per-call variant reproduces what the repository advice did: inspect the
+ * first argument, resolve a tenant on the ring or parse an account code with
+ * a regex, bind the shard and clear it again. Both variants read the bound
+ * shard once per repository call, as the routing data source does.
+ */
+@State(Scope.Benchmark)
+public class ShardRoutingBenchmark {
+
+    private static final UUID TENANT_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+    private static final ThreadLocal<Shard> LEGACY_SHARD = new ThreadLocal<>();
+
+    @Param({"1", "10", "50"})
+    public int repositoryCalls;
+
+    private ShardTopology topology;
+    private Object[][] repositoryArgs;
+
+    @Setup
+    public void setUp() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        topology = properties.shardTopology();
+        repositoryArgs = new Object[repositoryCalls][];
+        for (int i = 0; i < repositoryCalls; i++) {
+            repositoryArgs[i] = i % 2 == 0
+                    ? new Object[] { TENANT_ID, "2026-01" }
+                    : new Object[] { "ACCT-" + (1000 + i), TENANT_ID };
+        }
+    }
+
+    @Benchmark
+    public void perRepositoryCallAdvice(Blackhole blackhole) {
+        for (Object[] args : repositoryArgs) {
+            Object[] copy = args.clone();
+            Shard shard = null;
+            if (copy.length > 0 && copy[0] != null) {
+                if (copy[0] instanceof UUID tenantId) {
+                    shard = topology.ring().shardFor(tenantId);
+                } else if (copy[0] instanceof String accountCode) {
+                    shard = topology.forAccountCode(Integer.parseInt(accountCode.replaceAll("[^0-9]", "")));
+                }
+            }
+            if (shard != null) {
+                LEGACY_SHARD.set(shard);
+            }
+            try {
+                blackhole.consume(LEGACY_SHARD.get());
+            } finally {
+                LEGACY_SHARD.remove();
+            }
+        }
+    }
+
+    @Benchmark
+    public void unitOfWorkScope(Blackhole blackhole) {
+        try (ShardContextHolder.Scope ignored =
+                ShardContextHolder.enter(topology.ring().shardFor(TENANT_ID), TENANT_ID)) {
+            for (int i = 0; i < repositoryArgs.length; i++) {
+                blackhole.consume(ShardContextHolder.getCurrentShard());
+            }
+        }
+    }
+
+    @Benchmark
+    public Shard accountCodeRegex() {
+        return topology.forAccountCode(Integer.parseInt("ACCT-4711".replaceAll("[^0-9]", "")));
+    }
+
+    @Benchmark
+    public Shard accountCodeDigits() {
+        return topology.forAccountCode("ACCT-4711");
+    }
+}
@@ -1,5 +1,8 @@
 package com.bracit.fisprocess.config;
 
+import com.bracit.fisprocess.config.TwoTierCacheManager.LocalCacheSpec;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -7,6 +10,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -21,7 +26,6 @@ import java.util.Map;
  * Provides distributed caching for frequently accessed, rarely-changing data:
  * <ul>
  * <li><b>accounts</b>: Chart of Accounts entries (1 hour TTL)</li>
- * <li><b>exchangeRates</b>: Daily FX conversion rates (15 minute TTL)</li>
  * <li><b>mappingRules</b>: Event-to-journal mapping rules (2 hour TTL)</li>
  * <li><b>accountingPeriods</b>: Accounting period data (30 min TTL)</li>
  * <li><b>tenants</b>: Tenant configuration (1 hour TTL)</li>
@@ -34,13 +38,19 @@ import java.util.Map;
  * <li>Data is tenant-scoped and must be consistent across all nodes</li>
  * <li>Entities are serializable to JSON (unlike compiled SpEL expressions)</li>
  * </ul>
+ * <p>
+ * Unless {@code fis.cache.local.enabled} is off, the hot caches are fronted by
+ * a bounded Caffeine tier with a shorter TTL (see {@link TwoTierCacheManager}),
+ * so that repeat hits skip the Redis round trip and JSON deserialization.
+ * Reports stay Redis-only. Exchange rates are not cached here but as
+ * in-process rate curves (see
+ * {@link com.bracit.fisprocess.service.impl.ExchangeRateCurveCache}).
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     public static final String CACHE_ACCOUNTS = "accounts";
-    public static final String CACHE_EXCHANGE_RATES = "exchangeRates";
     public static final String CACHE_MAPPING_RULES = "mappingRules";
     public static final String CACHE_ACCOUNTING_PERIODS = "accountingPeriods";
     public static final String CACHE_TENANTS = "tenants";
@@ -50,7 +60,12 @@ public class CacheConfig {
      * Creates a Redis-backed cache manager with JSON serialization and per-cache TTLs.
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${fis.cache.local.enabled:true}") boolean localTierEnabled) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
                 .serializeKeysWith(
@@ -63,16 +78,46 @@ public class CacheConfig {
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
 
         cacheConfigurations.put(CACHE_ACCOUNTS, defaultConfig.entryTtl(Duration.ofHours(1)));
-        cacheConfigurations.put(CACHE_EXCHANGE_RATES, defaultConfig.entryTtl(Duration.ofMinutes(15)));
         cacheConfigurations.put(CACHE_MAPPING_RULES, defaultConfig.entryTtl(Duration.ofHours(2)));
         cacheConfigurations.put(CACHE_ACCOUNTING_PERIODS, defaultConfig.entryTtl(Duration.ofMinutes(30)));
         cacheConfigurations.put(CACHE_TENANTS, defaultConfig.entryTtl(Duration.ofHours(1)));
         cacheConfigurations.put(CACHE_REPORTS, defaultConfig.entryTtl(Duration.ofSeconds(30)));
 
-        return RedisCacheManager.builder(connectionFactory)
+        if (!localTierEnabled) {
+            return RedisCacheManager.builder(connectionFactory)
+                    .cacheDefaults(defaultConfig)
+                    .withInitialCacheConfigurations(cacheConfigurations)
+                    .transactionAware()
+                    .build();
+        }
+
+        // Transaction awareness is applied once, by the layered manager
+        RedisCacheManager remoteCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
-                .transactionAware()
                 .build();
+
+        Map<String, LocalCacheSpec> localSpecs = new HashMap<>();
+        localSpecs.put(CACHE_ACCOUNTS, new LocalCacheSpec(50_000, Duration.ofMinutes(10)));
+        localSpecs.put(CACHE_MAPPING_RULES, new LocalCacheSpec(5_000, Duration.ofMinutes(10)));
+        localSpecs.put(CACHE_ACCOUNTING_PERIODS, new LocalCacheSpec(5_000, Duration.ofMinutes(5)));
+        localSpecs.put(CACHE_TENANTS, new LocalCacheSpec(1_000, Duration.ofMinutes(10)));
+
+        TwoTierCacheManager cacheManager = new TwoTierCacheManager(
+                remoteCacheManager, localSpecs, redisTemplate, meterRegistry);
+        cacheManager.setTransactionAware(true);
+        cacheManager.subscribe(redisMessageListenerContainer);
+        return cacheManager;
+    }
+
+    /**
+     * Shared pub/sub listener container for cross-instance invalidation of
+     * in-process caches.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
     }
 }
@@ -0,0 +1,36 @@
+package com.bracit.fisprocess.config;
+
+import com.bracit.fisprocess.service.CacheWarmingService;
+import com.bracit.fisprocess.service.CacheWarmingService.WarmingProgress;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} until the startup cache warming has finished.
+ * <p>
+ * Included in the readiness group ({@code management.endpoint.health.group.readiness}),
+ * so that during a rolling deploy an instance only receives traffic once its
+ * caches are warm or the warming time budget has run out.
+ */
+@Component("cacheWarming")
+public class CacheWarmingHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmingService cacheWarmingService;
+
+    public CacheWarmingHealthIndicator(CacheWarmingService cacheWarmingService) {
+        this.cacheWarmingService = cacheWarmingService;
+    }
+
+    @Override
+    public Health health() {
+        WarmingProgress progress = cacheWarmingService.progress();
+        Health.Builder builder = cacheWarmingService.isReady() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("state", progress.state())
+                .withDetail("tenantsTotal", progress.tenantsTotal())
+                .withDetail("tenantsWarmed", progress.tenantsWarmed())
+                .withDetail("tenantsFailed", progress.tenantsFailed())
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.bracit.fisprocess.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Declarables;
@@ -74,6 +76,14 @@ public class RabbitMqConfig {
                 .withArgument("x-queue-type", "quorum")
                 .build();
 
+        // Writes that failed retryably wait here and expire back into the write queue
+        Queue retryQueue = QueueBuilder.durable(RabbitMqTopology.JOURNAL_WRITE_RETRY_QUEUE)
+                .withArgument("x-queue-type", "quorum")
+                .withArgument("x-message-ttl", RabbitMqTopology.JOURNAL_WRITE_RETRY_DELAY_MS)
+                .withArgument("x-dead-letter-exchange", RabbitMqTopology.JOURNAL_WRITE_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", RabbitMqTopology.JOURNAL_WRITE_ROUTING_KEY)
+                .build();
+
         Binding writeBinding = BindingBuilder.bind(writeQueue)
                 .to(writeExchange)
                 .with(RabbitMqTopology.JOURNAL_WRITE_ROUTING_KEY);
@@ -88,10 +98,21 @@ public class RabbitMqConfig {
                 writeQueue,
                 replyQueue,
                 dlq,
+                retryQueue,
                 writeBinding,
                 dlqBinding);
     }
 
+    /**
+     * Reply queue of this instance, so that a journal write reply reaches the
+     * instance awaiting it rather than whichever consumes the shared reply
+     * queue first. Exclusive and auto-deleted with the connection.
+     */
+    @Bean
+    Queue journalWriteInstanceReplyQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(RabbitMqTopology.JOURNAL_WRITE_REPLY_QUEUE + "."));
+    }
+
     @Bean
     MessageConverter rabbitMessageConverter(JsonMapper jsonMapper) {
         return new JacksonJsonMessageConverter(jsonMapper);
@@ -17,6 +17,8 @@ public final class RabbitMqTopology {
     public static final String JOURNAL_WRITE_DLQ_QUEUE = "fis.journal.write.dlq.queue";
     public static final String JOURNAL_WRITE_DLQ_ROUTING_KEY = "fis.journal.write.dlq";
     public static final String JOURNAL_WRITE_ROUTING_KEY = "fis.journal.write";
+    public static final String JOURNAL_WRITE_RETRY_QUEUE = "fis.journal.write.retry.queue";
+    public static final int JOURNAL_WRITE_RETRY_DELAY_MS = 2000;
 
     private RabbitMqTopology() {
     }
@@ -1,10 +1,42 @@
 package com.bracit.fisprocess.config;
 
-import lombok.extern.slf4j.Slf4j;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typed configuration of read replicas.
+ * <p>
+ * Bound to {@code fis.read-replica.*} in {@code application.yml}. Without
+ * sharding the replicas of the single database are listed here; with
+ * sharding each shard lists its own in {@code fis.sharding.shards[].replica-urls}.
+ */
 @Configuration
-@Slf4j
+@ConfigurationProperties(prefix = "fis.read-replica")
+@Getter
+@Setter
 public class ReadReplicaConfig {
 
-}
\ No newline at end of file
+    private boolean enabled = false;
+
+    private List<String> replicaUrls = new ArrayList<>();
+
+    /**
+     * Replay lag beyond which a replica receives no reads until it catches up.
+     */
+    private long maxLagMs = 5000;
+
+    /**
+     * Interval at which every replica's replay position and lag are measured.
+     */
+    private long lagCheckIntervalMs = 1000;
+
+    /**
+     * Connection pool size per replica.
+     */
+    private int maximumPoolSize = 10;
+}
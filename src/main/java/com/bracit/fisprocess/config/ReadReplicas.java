@@ -0,0 +1,32 @@
+package com.bracit.fisprocess.config;
+
+import com.bracit.fisprocess.service.Shard;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The configured {@link ReplicaSet}s by shard; empty when read replicas are
+ * disabled. Without sharding the single database is the default shard.
+ */
+public final class ReadReplicas {
+
+    private final Map<Shard, ReplicaSet> replicaSets;
+
+    ReadReplicas(Map<Shard, ReplicaSet> replicaSets) {
+        this.replicaSets = Map.copyOf(replicaSets);
+    }
+
+    public boolean isEmpty() {
+        return replicaSets.isEmpty();
+    }
+
+    public @Nullable ReplicaSet forShard(Shard shard) {
+        return replicaSets.get(shard);
+    }
+
+    public Collection<ReplicaSet> all() {
+        return replicaSets.values();
+    }
+}
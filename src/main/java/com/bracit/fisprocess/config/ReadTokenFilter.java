@@ -0,0 +1,46 @@
+package com.bracit.fisprocess.config;
+
+import com.bracit.fisprocess.service.ReadConsistencyContext;
+import com.bracit.fisprocess.service.ReadToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the request's {@value #READ_TOKEN_HEADER} to the thread, so that its
+ * read-only transactions skip replicas that have not yet replayed the write
+ * the token was issued for.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ReadTokenFilter extends OncePerRequestFilter {
+
+    public static final String READ_TOKEN_HEADER = "X-Read-Token";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = request.getHeader(READ_TOKEN_HEADER);
+        if (token != null && !token.isBlank()) {
+            try {
+                ReadConsistencyContext.require(ReadToken.parse(token.trim()));
+            } catch (IllegalArgumentException ex) {
+                log.debug("Ignoring malformed read token '{}'", token);
+            }
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadConsistencyContext.clear();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.bracit.fisprocess.config;
+
+import com.bracit.fisprocess.service.ReadToken;
+import com.bracit.fisprocess.service.Shard;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A primary and its streaming replicas, with each replica's last measured
+ * replay position and lag.
+ * <p>
+ * Replicas start out ineligible and become eligible once a measurement finds
+ * them within the lag bound; a replica that cannot be measured is
+ * ineligible until the next successful measurement. Eligible replicas are
+ * chosen round-robin.
+ */
+@Slf4j
+public final class ReplicaSet {
+
+    private static final String PRIMARY_LSN_SQL = "SELECT pg_current_wal_lsn()::text";
+
+    /**
+     * Replay position, and milliseconds since the last replayed transaction
+     * was committed on the primary.
+     */
+    private static final String REPLAY_SQL = """
+            SELECT pg_last_wal_replay_lsn()::text AS replay_lsn,
+                   (EXTRACT(EPOCH FROM (clock_timestamp() - pg_last_xact_replay_timestamp())) * 1000)::bigint
+                       AS replay_age_ms
+            """;
+
+    private final Shard shard;
+    private final DataSource primary;
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaSet(Shard shard, DataSource primary, List<Replica> replicas) {
+        this.shard = shard;
+        this.primary = primary;
+        this.primaryJdbcTemplate = new JdbcTemplate(primary);
+        this.replicas = List.copyOf(replicas);
+    }
+
+    public Shard shard() {
+        return shard;
+    }
+
+    public DataSource primary() {
+        return primary;
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * A replica that lags at most {@code maxLagMs} and has replayed at least
+     * up to {@code minimumLsn}, or null if none qualifies.
+     */
+    public @Nullable DataSource chooseReplica(long maxLagMs, long minimumLsn) {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.lagMs <= maxLagMs && Long.compareUnsigned(replica.replayedLsn, minimumLsn) >= 0) {
+                return replica.dataSource;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The primary's current WAL position, at or after every transaction
+     * committed on it so far.
+     */
+    public long currentPrimaryLsn() {
+        return ReadToken.parseLsn(primaryJdbcTemplate.queryForObject(PRIMARY_LSN_SQL, String.class));
+    }
+
+    /**
+     * Measures every replica against the primary's current position. A
+     * replica that has replayed up to that position has no lag; otherwise its
+     * lag is the age of the last transaction it replayed.
+     */
+    public void measureLag() {
+        long primaryLsn = currentPrimaryLsn();
+        for (Replica replica : replicas) {
+            try {
+                Map<String, Object> row = replica.jdbcTemplate.queryForMap(REPLAY_SQL);
+                String replayLsn = (String) row.get("replay_lsn");
+                Number replayAge = (Number) row.get("replay_age_ms");
+                if (replayLsn == null) {
+                    // Not in recovery: a promoted or misconfigured replica
+                    replica.markUnavailable();
+                    continue;
+                }
+                long replayed = ReadToken.parseLsn(replayLsn);
+                long lag = Long.compareUnsigned(replayed, primaryLsn) >= 0
+                        ? 0L
+                        : replayAge != null ? Math.max(0L, replayAge.longValue()) : Long.MAX_VALUE;
+                replica.update(replayed, lag);
+            } catch (RuntimeException ex) {
+                replica.markUnavailable();
+                log.warn("Failed to measure replica {} of {}: {}", replica.name, shard, ex.getMessage());
+            }
+        }
+    }
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile long replayedLsn;
+        private volatile long lagMs = Long.MAX_VALUE;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public long replayedLsn() {
+            return replayedLsn;
+        }
+
+        /**
+         * Last measured lag in milliseconds; {@link Long#MAX_VALUE} if unknown.
+         */
+        public long lagMs() {
+            return lagMs;
+        }
+
+        void update(long replayedLsn, long lagMs) {
+            this.replayedLsn = replayedLsn;
+            this.lagMs = lagMs;
+        }
+
+        void markUnavailable() {
+            this.lagMs = Long.MAX_VALUE;
+        }
+    }
+}
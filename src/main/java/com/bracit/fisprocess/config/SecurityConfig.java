@@ -201,13 +201,15 @@ public class SecurityConfig {
             "X-Actor-Id",
             "traceparent",
             "API-Version",
-            "Idempotency-Key"));
+            "Idempotency-Key",
+            "X-Read-Token"));
         config.setExposedHeaders(List.of(
             "Retry-After",
             "API-Version",
             "Deprecation",
             "Sunset",
-            "Link"));
+            "Link",
+            "X-Read-Token"));
         config.setAllowCredentials(true);
         config.setMaxAge(1800L);
 
@@ -6,10 +6,11 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Marks a repository method to use explicit shard routing.
- * When present, the shard is determined from the annotated parameter.
+ * Marks a non-transactional service method as a unit of work for shard
+ * routing. The shard is resolved from its {@code UUID tenantId} parameter
+ * once, when the method is entered; see {@link ShardRoutingAspect}.
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ShardAware {
-}
\ No newline at end of file
+}
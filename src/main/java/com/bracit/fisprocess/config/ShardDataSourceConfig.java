@@ -1,20 +1,27 @@
 package com.bracit.fisprocess.config;
 
+import com.bracit.fisprocess.service.ReadConsistencyContext;
 import com.bracit.fisprocess.service.Shard;
 import com.bracit.fisprocess.service.ShardContextHolder;
+import com.bracit.fisprocess.service.ShardTopology;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -22,6 +29,17 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class ShardDataSourceConfig {
 
+    private final ShardingProperties shardingProperties;
+    private final ShardTopology shardTopology;
+    private final ReadReplicaConfig readReplicaConfig;
+
+    public ShardDataSourceConfig(ShardingProperties shardingProperties, ShardTopology shardTopology,
+            ReadReplicaConfig readReplicaConfig) {
+        this.shardingProperties = shardingProperties;
+        this.shardTopology = shardTopology;
+        this.readReplicaConfig = readReplicaConfig;
+    }
+
     @Value("${spring.datasource.url:jdbc:postgresql://localhost:5432/fisdb}")
     private String baseUrl;
 
@@ -37,8 +55,8 @@ public class ShardDataSourceConfig {
     @Value("${spring.datasource.hikari.minimum-idle:5}")
     private int minIdle;
 
-    @Value("${fis.sharding.enabled:false}")
-    private boolean shardingEnabled;
+    @Value("${fis.sequence.reservation-pool-size:2}")
+    private int sequenceReservationPoolSize;
 
     @Value("${fis.citus.enabled:false}")
     private boolean citusEnabled;
@@ -55,15 +73,12 @@ public class ShardDataSourceConfig {
     @Value("${fis.citus.database:fisdb}")
     private String citusDatabase;
 
-    @Value("${fis.read-replica.enabled:false}")
-    private boolean readReplicaEnabled;
-
-    @Value("${fis.read-replica.replica-urls:}")
-    private String replicaUrls;
-
     private final Map<Shard, HikariDataSource> shardDataSources = new ConcurrentHashMap<>();
+    private final Map<Shard, ReplicaSet> replicaSets = new ConcurrentHashMap<>();
+    private final List<HikariDataSource> replicaDataSources = new ArrayList<>();
+    private final List<HikariDataSource> sequenceDataSources = new ArrayList<>();
     private HikariDataSource singleDataSource;
-    private HikariDataSource replicaDataSource;
+    private boolean replicaSetsInitialized;
 
     @Bean
     @Primary
@@ -73,21 +88,24 @@ public class ShardDataSourceConfig {
             return createCitusDataSource();
         }
 
-        if (!shardingEnabled) {
+        initializeReplicaSets();
+        if (!shardingProperties.isEnabled()) {
             log.info("Sharding disabled, using single DataSource");
-            singleDataSource = createSingleDataSource();
-            if (readReplicaEnabled) {
-                log.info("Read replica enabled, wrapping with replica routing");
-                return createReplicaRoutingDataSource(singleDataSource);
+            if (singleDataSource == null) {
+                singleDataSource = createSingleDataSource();
+            }
+            ReplicaSet replicaSet = replicaSets.get(shardTopology.defaultShard());
+            if (replicaSet != null) {
+                log.info("Read replica enabled, routing read-only transactions across {} replicas",
+                        replicaSet.replicas().size());
+                return new LazyConnectionDataSourceProxy(createReadRoutingDataSource(replicaSet));
             }
             return singleDataSource;
         }
         log.info("Sharding enabled, initializing ShardRoutingDataSource");
         initializeShardDataSources();
-        if (readReplicaEnabled) {
-            log.warn("Both sharding and read-replica enabled - using shard routing only (replica not yet supported with sharding)");
-        }
-        return createShardRoutingDataSource();
+        DataSource shardRouting = createShardRoutingDataSource();
+        return replicaSets.isEmpty() ? shardRouting : new LazyConnectionDataSourceProxy(shardRouting);
     }
 
     private DataSource createCitusDataSource() {
@@ -111,41 +129,119 @@ public class ShardDataSourceConfig {
     }
 
     @Bean
-    public Map<Shard, DataSource> shardDataSourcesMap() {
-        Map<Shard, DataSource> map = new ConcurrentHashMap<>();
-        if (shardingEnabled) {
+    public ShardDataSources shardDataSources() {
+        Map<Shard, DataSource> map = new HashMap<>();
+        Map<Object, Object> sequenceMap = new HashMap<>();
+        if (shardingProperties.isEnabled()) {
             initializeShardDataSources();
             map.putAll(shardDataSources);
+            for (ShardingProperties.ShardDefinition definition : shardingProperties.getShards()) {
+                Shard shard = Shard.of(definition.getName());
+                sequenceMap.put(shard, createSequenceDataSource(definition.getUrl(), shard.name()));
+            }
         } else {
-            DataSource ds = singleDataSource != null ? singleDataSource : createSingleDataSource();
-            for (Shard shard : Shard.values()) {
-                map.put(shard, ds);
+            if (singleDataSource == null) {
+                singleDataSource = createSingleDataSource();
+            }
+            DataSource sequenceDataSource = createSequenceDataSource(baseUrl, "Single");
+            for (Shard shard : shardTopology.shards()) {
+                map.put(shard, singleDataSource);
+                sequenceMap.put(shard, sequenceDataSource);
             }
         }
-        return map;
+        ShardRoutingDataSource sequenceReservation = new ShardRoutingDataSource(shardTopology.defaultShard());
+        sequenceReservation.setDefaultTargetDataSource(sequenceMap.get(shardTopology.defaultShard()));
+        sequenceReservation.setTargetDataSources(sequenceMap);
+        sequenceReservation.afterPropertiesSet();
+        return new ShardDataSources(map, shardTopology, sequenceReservation);
     }
 
-    @Bean
-    public DataSource replicaDataSource() {
-        if (replicaDataSource != null) {
-            return replicaDataSource;
-        }
-        String[] replicaUrlArray = replicaUrls.isEmpty()
-                ? new String[]{"jdbc:postgresql://localhost:5433/fisdb"}
-                : replicaUrls.split(",");
-
+    /**
+     * Pool used only to reserve journal sequence blocks. Postings wait for a
+     * reservation while holding a connection of the main pool, so it must not
+     * come from there.
+     */
+    private HikariDataSource createSequenceDataSource(String url, String name) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(replicaUrlArray[0].trim());
+        config.setJdbcUrl(url);
         config.setUsername(username);
         config.setPassword(password);
-        config.setMaximumPoolSize(maxPoolSize / 2);
-        config.setPoolName("FisPool-Replica");
+        config.setMaximumPoolSize(sequenceReservationPoolSize);
+        config.setMinimumIdle(1);
+        config.setPoolName("FisPool-" + name + "-sequence");
         config.setAutoCommit(true);
-        config.setReadOnly(true);
 
-        replicaDataSource = new HikariDataSource(config);
-        log.info("Configured replica DataSource: {}", replicaUrlArray[0].trim());
-        return replicaDataSource;
+        HikariDataSource ds = new HikariDataSource(config);
+        sequenceDataSources.add(ds);
+        return ds;
+    }
+
+    @Bean
+    public ReadReplicas readReplicas() {
+        initializeReplicaSets();
+        return new ReadReplicas(replicaSets);
+    }
+
+    /**
+     * Builds a {@link ReplicaSet} for every primary that has replicas
+     * configured: the single database, or each shard.
+     */
+    private synchronized void initializeReplicaSets() {
+        if (replicaSetsInitialized) {
+            return;
+        }
+        replicaSetsInitialized = true;
+        if (!readReplicaConfig.isEnabled() || citusEnabled) {
+            return;
+        }
+        if (shardingProperties.isEnabled()) {
+            initializeShardDataSources();
+            for (ShardingProperties.ShardDefinition definition : shardingProperties.getShards()) {
+                Shard shard = Shard.of(definition.getName());
+                List<String> urls = nonBlank(definition.getReplicaUrls());
+                if (!urls.isEmpty()) {
+                    replicaSets.put(shard, createReplicaSet(shard, shardDataSources.get(shard), urls));
+                }
+            }
+        } else {
+            List<String> urls = nonBlank(readReplicaConfig.getReplicaUrls());
+            if (!urls.isEmpty()) {
+                if (singleDataSource == null) {
+                    singleDataSource = createSingleDataSource();
+                }
+                Shard shard = shardTopology.defaultShard();
+                replicaSets.put(shard, createReplicaSet(shard, singleDataSource, urls));
+            }
+        }
+        if (replicaSets.isEmpty()) {
+            log.warn("Read replica enabled but no replica URLs configured - all reads go to the primary");
+        }
+    }
+
+    private static List<String> nonBlank(List<String> urls) {
+        return urls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+    }
+
+    private ReplicaSet createReplicaSet(Shard shard, DataSource primary, List<String> urls) {
+        List<ReplicaSet.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String url = urls.get(i);
+            String name = shard.name() + "-replica-" + (i + 1);
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl(url);
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(readReplicaConfig.getMaximumPoolSize());
+            config.setPoolName("FisPool-" + name);
+            config.setAutoCommit(true);
+            config.setReadOnly(true);
+
+            HikariDataSource ds = new HikariDataSource(config);
+            replicaDataSources.add(ds);
+            replicas.add(new ReplicaSet.Replica(name, ds));
+            log.info("Configured replica {} with URL: {}", name, url);
+        }
+        return new ReplicaSet(shard, primary, replicas);
     }
 
     private synchronized void initializeShardDataSources() {
@@ -153,26 +249,21 @@ public class ShardDataSourceConfig {
             return;
         }
 
-        String[] urls = {
-                "jdbc:postgresql://localhost:5432/fisdb_shard1",
-                "jdbc:postgresql://localhost:5432/fisdb_shard2",
-                "jdbc:postgresql://localhost:5432/fisdb_shard3"
-        };
-
-        for (int i = 0; i < Shard.values().length; i++) {
-            Shard shard = Shard.values()[i];
+        List<ShardingProperties.ShardDefinition> definitions = shardingProperties.getShards();
+        for (ShardingProperties.ShardDefinition definition : definitions) {
+            Shard shard = Shard.of(definition.getName());
             HikariConfig config = new HikariConfig();
-            config.setJdbcUrl(urls[i]);
+            config.setJdbcUrl(definition.getUrl());
             config.setUsername(username);
             config.setPassword(password);
-            config.setMaximumPoolSize(maxPoolSize / Shard.values().length);
+            config.setMaximumPoolSize(Math.max(2, maxPoolSize / definitions.size()));
             config.setMinimumIdle(minIdle / 2);
             config.setPoolName("FisPool-" + shard.name());
             config.setAutoCommit(true);
 
             HikariDataSource ds = new HikariDataSource(config);
             shardDataSources.put(shard, ds);
-            log.info("Initialized DataSource for shard {} with URL: {}", shard.name(), urls[i]);
+            log.info("Initialized DataSource for shard {} with URL: {}", shard.name(), definition.getUrl());
         }
     }
 
@@ -188,32 +279,25 @@ public class ShardDataSourceConfig {
     }
 
     private DataSource createShardRoutingDataSource() {
-        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
-        routingDataSource.setDefaultTargetDataSource(shardDataSources.get(Shard.SHARD_1));
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(shardTopology.defaultShard());
+        routingDataSource.setDefaultTargetDataSource(shardDataSources.get(shardTopology.defaultShard()));
 
         Map<Object, Object> dataSourceMap = new HashMap<>();
         for (Map.Entry<Shard, HikariDataSource> entry : shardDataSources.entrySet()) {
-            dataSourceMap.put(entry.getKey(), entry.getValue());
+            ReplicaSet replicaSet = replicaSets.get(entry.getKey());
+            dataSourceMap.put(entry.getKey(),
+                    replicaSet != null ? createReadRoutingDataSource(replicaSet) : entry.getValue());
         }
         routingDataSource.setTargetDataSources(dataSourceMap);
         routingDataSource.afterPropertiesSet();
 
-        log.info("Configured ShardRoutingDataSource with {} shards", shardDataSources.size());
+        log.info("Configured ShardRoutingDataSource with {} shards, {} with replicas",
+                shardDataSources.size(), replicaSets.size());
         return routingDataSource;
     }
 
-    private DataSource createReplicaRoutingDataSource(DataSource primaryDs) {
-        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource();
-        routingDataSource.setDefaultTargetDataSource(primaryDs);
-
-        Map<Object, Object> dataSourceMap = new HashMap<>();
-        dataSourceMap.put(ReplicaRoutingDataSource.DataSourceType.PRIMARY, primaryDs);
-        dataSourceMap.put(ReplicaRoutingDataSource.DataSourceType.REPLICA, replicaDataSource());
-        routingDataSource.setTargetDataSources(dataSourceMap);
-        routingDataSource.afterPropertiesSet();
-
-        log.info("Configured ReplicaRoutingDataSource");
-        return routingDataSource;
+    private DataSource createReadRoutingDataSource(ReplicaSet replicaSet) {
+        return new ReadRoutingDataSource(replicaSet, readReplicaConfig.getMaxLagMs());
     }
 
     public void closeShardDataSources() {
@@ -226,54 +310,79 @@ public class ShardDataSourceConfig {
         if (singleDataSource != null && !singleDataSource.isClosed()) {
             singleDataSource.close();
         }
-        if (replicaDataSource != null && !replicaDataSource.isClosed()) {
-            replicaDataSource.close();
+        for (HikariDataSource ds : replicaDataSources) {
+            if (!ds.isClosed()) {
+                ds.close();
+            }
+        }
+        for (HikariDataSource ds : sequenceDataSources) {
+            if (!ds.isClosed()) {
+                ds.close();
+            }
         }
     }
 
     public static class ShardRoutingDataSource extends AbstractRoutingDataSource {
 
+        private final Shard defaultShard;
+
+        public ShardRoutingDataSource(Shard defaultShard) {
+            this.defaultShard = defaultShard;
+        }
+
         @Override
         protected Object determineCurrentLookupKey() {
             Shard shard = ShardContextHolder.getCurrentShard();
             if (shard == null) {
                 log.debug("No shard set in context, using default");
-                return Shard.SHARD_1;
+                return defaultShard;
             }
             log.trace("Routing to shard: {}", shard);
             return shard;
         }
     }
 
-    public static class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
-
-        public enum DataSourceType {
-            PRIMARY,
-            REPLICA
+    /**
+     * Routes read-only transactions to a replica of the primary that is
+     * within the lag bound and has replayed the current thread's read token,
+     * and everything else, or reads no replica qualifies for, to the primary.
+     * <p>
+     * Must be wrapped in a {@link LazyConnectionDataSourceProxy}: the
+     * transaction manager marks a transaction read-only only after it has
+     * asked for the connection, so the choice has to wait for the first
+     * statement.
+     */
+    public static class ReadRoutingDataSource extends AbstractDataSource {
+
+        private final ReplicaSet replicaSet;
+        private final long maxLagMs;
+
+        public ReadRoutingDataSource(ReplicaSet replicaSet, long maxLagMs) {
+            this.replicaSet = replicaSet;
+            this.maxLagMs = maxLagMs;
         }
 
-        private static final ThreadLocal<DataSourceType> currentDataSource = ThreadLocal.withInitial(() -> null);
-
-        public static void setCurrentDataSourceType(DataSourceType type) {
-            currentDataSource.set(type);
-        }
-
-        public static DataSourceType getCurrentDataSourceType() {
-            return currentDataSource.get();
+        @Override
+        public Connection getConnection() throws SQLException {
+            return determineTargetDataSource().getConnection();
         }
 
-        public static void clearCurrentDataSourceType() {
-            currentDataSource.remove();
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return determineTargetDataSource().getConnection(username, password);
         }
 
-        @Override
-        protected Object determineCurrentLookupKey() {
-            DataSourceType type = currentDataSource.get();
-            if (type != null) {
-                return type;
+        DataSource determineTargetDataSource() {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return replicaSet.primary();
+            }
+            DataSource replica = replicaSet.chooseReplica(maxLagMs,
+                    ReadConsistencyContext.minimumLsn(replicaSet.shard()));
+            if (replica == null) {
+                log.trace("No replica of {} is fresh enough, reading from primary", replicaSet.shard());
+                return replicaSet.primary();
             }
-            boolean isReadOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
-            return isReadOnly ? DataSourceType.REPLICA : DataSourceType.PRIMARY;
+            return replica;
         }
     }
-}
\ No newline at end of file
+}
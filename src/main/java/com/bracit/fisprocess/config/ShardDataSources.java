@@ -0,0 +1,49 @@
+package com.bracit.fisprocess.config;
+
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardTopology;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Direct, non-routing access to each shard's DataSource, for work that spans
+ * shards such as tenant migration and the placement directory.
+ */
+public final class ShardDataSources {
+
+    private final Map<Shard, DataSource> dataSources;
+    private final Shard defaultShard;
+    private final DataSource sequenceReservation;
+
+    ShardDataSources(Map<Shard, DataSource> dataSources, ShardTopology topology, DataSource sequenceReservation) {
+        this.dataSources = Map.copyOf(dataSources);
+        this.defaultShard = topology.defaultShard();
+        this.sequenceReservation = sequenceReservation;
+    }
+
+    public DataSource get(Shard shard) {
+        DataSource dataSource = dataSources.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return dataSource;
+    }
+
+    /**
+     * DataSource of the default shard, which holds the tenant placement
+     * directory.
+     */
+    public DataSource directory() {
+        return get(defaultShard);
+    }
+
+    /**
+     * Small pools, one per shard and separate from the posting pools, for
+     * reserving journal sequence blocks. Routes by the current shard like the
+     * main DataSource.
+     */
+    public DataSource sequenceReservation() {
+        return sequenceReservation;
+    }
+}
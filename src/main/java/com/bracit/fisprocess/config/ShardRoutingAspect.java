@@ -1,6 +1,5 @@
 package com.bracit.fisprocess.config;
 
-import com.bracit.fisprocess.service.Shard;
 import com.bracit.fisprocess.service.ShardContextHolder;
 import com.bracit.fisprocess.service.ShardRouter;
 import lombok.RequiredArgsConstructor;
@@ -9,12 +8,32 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Routes each unit of work to its tenant's shard.
+ * <p>
+ * A unit of work is a public service method that is {@code @Transactional}
+ * (on the method or its class) or {@link ShardAware}, and that takes a
+ * {@code UUID tenantId} parameter. The shard is resolved once when the unit
+ * of work starts and stays bound for every repository call inside it; this
+ * aspect runs before the transaction interceptor, so the transaction's
+ * connection is already taken from that shard. A nested unit of work for the
+ * same tenant reuses the bound shard, one for another tenant binds its own
+ * and restores the caller's when it returns.
+ * <p>
+ * Repositories are not advised: a repository call costs nothing beyond the
+ * {@link ShardContextHolder} lookup of the routing data source.
+ */
 @Aspect
 @Component
 @RequiredArgsConstructor
@@ -22,54 +41,47 @@ import java.util.UUID;
 @Slf4j
 public class ShardRoutingAspect {
 
-    private final ShardRouter shardRouter;
+    private static final String TENANT_PARAMETER = "tenantId";
+    private static final int NO_TENANT = -1;
 
-    @Pointcut("execution(* com.bracit.fisprocess.repository.*Repository.*(..))")
-    public void repositoryMethods() {}
+    private final ShardRouter shardRouter;
+    private final Map<Method, Integer> tenantParameterIndexes = new ConcurrentHashMap<>();
 
-    @Around("repositoryMethods() && @annotation(shardAware)")
-    public Object routeShardExplicit(ProceedingJoinPoint joinPoint, ShardAware shardAware) throws Throwable {
-        return routeAndExecute(joinPoint, "explicit");
-    }
+    @Pointcut("execution(public * com.bracit.fisprocess.service..*(..))")
+    public void serviceMethods() {}
 
-    @Around("repositoryMethods()")
-    public Object routeShardAuto(ProceedingJoinPoint joinPoint) throws Throwable {
-        return routeAndExecute(joinPoint, "auto");
-    }
+    @Pointcut("@within(org.springframework.transaction.annotation.Transactional)"
+            + " || @annotation(org.springframework.transaction.annotation.Transactional)"
+            + " || @annotation(com.bracit.fisprocess.config.ShardAware)")
+    public void unitOfWork() {}
 
-    private Object routeAndExecute(ProceedingJoinPoint joinPoint, String routingType) throws Throwable {
-        String methodName = joinPoint.getSignature().getName();
-        Object[] args = joinPoint.getArgs();
+    @Around("serviceMethods() && unitOfWork()")
+    public Object routeUnitOfWork(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        int index = tenantParameterIndexes.computeIfAbsent(method, ShardRoutingAspect::tenantParameterIndex);
+        if (index == NO_TENANT) {
+            return joinPoint.proceed();
+        }
 
-        Shard shard = null;
-        if (args.length > 0 && args[0] != null) {
-            shard = determineShard(args[0], methodName);
-            if (shard != null) {
-                log.trace("Routing {} ({}) to shard {}", methodName, routingType, shard);
-                ShardContextHolder.setCurrentShard(shard);
-            }
+        UUID tenantId = (UUID) joinPoint.getArgs()[index];
+        if (tenantId == null || tenantId.equals(ShardContextHolder.getCurrentTenantId())) {
+            return joinPoint.proceed();
         }
 
-        try {
+        try (ShardContextHolder.Scope ignored = shardRouter.enterTenant(tenantId)) {
+            log.trace("Routing {} for tenant {} to shard {}",
+                    method.getName(), tenantId, ShardContextHolder.getCurrentShard());
             return joinPoint.proceed();
-        } finally {
-            ShardContextHolder.clear();
         }
     }
 
-    private Shard determineShard(Object firstArg, String methodName) {
-        try {
-            if (firstArg instanceof UUID tenantId) {
-                return shardRouter.getShardForTenant(tenantId);
-            } else if (firstArg instanceof String accountCode) {
-                return shardRouter.getShardForAccount(accountCode);
-            } else if (firstArg instanceof Integer accountCode) {
-                return shardRouter.getShardForAccount(accountCode);
+    private static int tenantParameterIndex(Method method) {
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].getType() == UUID.class && TENANT_PARAMETER.equals(parameters[i].getName())) {
+                return i;
             }
-        } catch (Exception e) {
-            log.debug("Could not determine shard for {} in method {}: {}",
-                    firstArg, methodName, e.getMessage());
         }
-        return null;
+        return NO_TENANT;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,153 @@
+package com.bracit.fisprocess.config;
+
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardRing;
+import com.bracit.fisprocess.service.ShardTopology;
+import lombok.Getter;
+import lombok.Setter;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Typed configuration of the shard topology.
+ * <p>
+ * Bound to {@code fis.sharding.*} in {@code application.yml}. The defaults
+ * describe the original three local shards, so an unconfigured deployment
+ * keeps its routing.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "fis.sharding")
+@Getter
+@Setter
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Shard used when sharding is disabled; also holds the tenant placement
+     * directory.
+     */
+    private String defaultShard = "SHARD_1";
+
+    /**
+     * Ring points per unit of shard weight. More points spread tenants more
+     * evenly at the cost of a larger ring.
+     */
+    private int virtualNodes = 160;
+
+    private List<ShardDefinition> shards = new ArrayList<>(List.of(
+            new ShardDefinition("SHARD_1", "jdbc:postgresql://localhost:5432/fisdb_shard1", 1, 1000, 4999),
+            new ShardDefinition("SHARD_2", "jdbc:postgresql://localhost:5432/fisdb_shard2", 1, 5000, 9999),
+            new ShardDefinition("SHARD_3", "jdbc:postgresql://localhost:5432/fisdb_shard3", 1, 10000,
+                    Integer.MAX_VALUE)));
+
+    /**
+     * Tenants that always route to the given shard, bypassing the ring and
+     * the placement directory.
+     */
+    private Map<UUID, String> pinnedTenants = new HashMap<>();
+
+    /**
+     * Place tenants that have no recorded placement by the former
+     * {@code |hashCode| % shards} rule instead of the ring, which is where a
+     * deployment that sharded before placements were recorded keeps their
+     * data. The rebalance plan then lists the tenants to migrate onto the
+     * ring. On by default so that such a deployment cannot route its tenants
+     * away from their data; turn it off once every tenant has a recorded
+     * placement, or for a deployment that starts out sharded.
+     */
+    private boolean legacyPlacement = true;
+
+    private Migration migration = new Migration();
+
+    @Getter
+    @Setter
+    public static class ShardDefinition {
+
+        private String name;
+
+        private String url;
+
+        /**
+         * Relative capacity; a shard of weight 2 receives twice the tenants.
+         */
+        private int weight = 1;
+
+        @Nullable
+        private Integer accountRangeStart;
+
+        @Nullable
+        private Integer accountRangeEnd;
+
+        /**
+         * Streaming replicas of this shard, used when
+         * {@code fis.read-replica.enabled} is set.
+         */
+        private List<String> replicaUrls = new ArrayList<>();
+
+        public ShardDefinition() {
+        }
+
+        ShardDefinition(String name, String url, int weight, Integer accountRangeStart, Integer accountRangeEnd) {
+            this.name = name;
+            this.url = url;
+            this.weight = weight;
+            this.accountRangeStart = accountRangeStart;
+            this.accountRangeEnd = accountRangeEnd;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Migration {
+
+        /**
+         * Rows per insert batch when copying a tenant.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Time to let every instance see that the tenant is migrating
+         * before its writes are fenced; not shorter than the directory's
+         * {@code expire-after-write-seconds}.
+         */
+        private long drainMillis = 65000;
+
+        /**
+         * Whether to delete the tenant's rows from the source shard once
+         * routing has been flipped.
+         */
+        private boolean purgeSource = false;
+    }
+
+    @Bean
+    public ShardTopology shardTopology() {
+        List<Shard> shardList = new ArrayList<>();
+        Map<Shard, Integer> weights = new LinkedHashMap<>();
+        Map<Shard, ShardTopology.AccountRange> accountRanges = new HashMap<>();
+        for (ShardDefinition definition : shards) {
+            Shard shard = Shard.of(definition.getName());
+            if (weights.put(shard, definition.getWeight()) != null) {
+                throw new IllegalStateException("Duplicate shard name: " + shard);
+            }
+            shardList.add(shard);
+            if (definition.getAccountRangeStart() != null && definition.getAccountRangeEnd() != null) {
+                accountRanges.put(shard, new ShardTopology.AccountRange(
+                        definition.getAccountRangeStart(), definition.getAccountRangeEnd()));
+            }
+        }
+        Map<UUID, Shard> pinned = new HashMap<>();
+        pinnedTenants.forEach((tenantId, shardName) -> pinned.put(tenantId, Shard.of(shardName)));
+        return new ShardTopology(shardList, Shard.of(defaultShard),
+                ShardRing.of(weights, virtualNodes), accountRanges, pinned);
+    }
+}
@@ -0,0 +1,41 @@
+package com.bracit.fisprocess.config;
+
+import com.bracit.fisprocess.repository.TenantWriteFence;
+import com.bracit.fisprocess.service.ShardContextHolder;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.util.UUID;
+
+/**
+ * Takes the tenant's {@link TenantWriteFence} at the start of each routed
+ * unit of work, inside its transaction, so that a migration cannot copy the
+ * tenant while a write to its source shard is still open.
+ * <p>
+ * The aspect has to run after the transaction interceptor has begun the
+ * transaction, so transaction management is ordered just ahead of it here
+ * instead of at its default lowest precedence.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.LOWEST_PRECEDENCE)
+@EnableTransactionManagement(proxyTargetClass = true, order = Ordered.LOWEST_PRECEDENCE - 1)
+public class TenantWriteFenceAspect {
+
+    private final TenantWriteFence tenantWriteFence;
+
+    @Before("com.bracit.fisprocess.config.ShardRoutingAspect.serviceMethods()"
+            + " && com.bracit.fisprocess.config.ShardRoutingAspect.unitOfWork()")
+    public void fenceUnitOfWork() {
+        UUID tenantId = ShardContextHolder.getCurrentTenantId();
+        if (tenantId != null) {
+            tenantWriteFence.enterWrite(tenantId);
+        }
+    }
+}
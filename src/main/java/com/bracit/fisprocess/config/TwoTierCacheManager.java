@@ -0,0 +1,140 @@
+package com.bracit.fisprocess.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache manager that layers a local Caffeine tier over the Redis caches.
+ * <p>
+ * Caches with a {@link LocalCacheSpec} become {@link TwoTierCache}s; all
+ * others are served by Redis alone. Writes and evictions are broadcast on
+ * {@link #INVALIDATION_CHANNEL} as {@code instanceId|op|cacheName|key}, and
+ * every other instance drops the key (op {@code E}) or its whole local tier
+ * (op {@code C}). Local entries expire on their own TTL, which bounds
+ * staleness if a message is lost.
+ */
+@Slf4j
+public class TwoTierCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    static final String INVALIDATION_CHANNEL = "fis:cache:invalidate";
+
+    /**
+     * Bounds of the local tier of one cache.
+     */
+    public record LocalCacheSpec(long maximumSize, Duration expireAfterWrite) {
+    }
+
+    private final RedisCacheManager remoteCacheManager;
+    private final Map<String, LocalCacheSpec> localSpecs;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> twoTierCaches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(RedisCacheManager remoteCacheManager, Map<String, LocalCacheSpec> localSpecs,
+            StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localSpecs = Map.copyOf(localSpecs);
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts receiving invalidations published by other instances.
+     */
+    public void subscribe(RedisMessageListenerContainer listenerContainer) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        remoteCacheManager.initializeCaches();
+        List<Cache> caches = new ArrayList<>();
+        for (String name : remoteCacheManager.getCacheNames()) {
+            Cache remote = remoteCacheManager.getCache(name);
+            if (remote != null) {
+                caches.add(layer(remote));
+            }
+        }
+        return caches;
+    }
+
+    @Override
+    protected @Nullable Cache getMissingCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        return remote != null ? layer(remote) : null;
+    }
+
+    private Cache layer(Cache remote) {
+        LocalCacheSpec spec = localSpecs.get(remote.getName());
+        if (spec == null) {
+            return remote;
+        }
+        return twoTierCaches.computeIfAbsent(remote.getName(), name -> {
+            TwoTierCache cache = new TwoTierCache(
+                    Caffeine.newBuilder()
+                            .maximumSize(spec.maximumSize())
+                            .expireAfterWrite(spec.expireAfterWrite())
+                            .build(),
+                    remote,
+                    this::publishInvalidation,
+                    meterRegistry);
+            Gauge.builder("fis.cache.l1.size", cache, TwoTierCache::localSize)
+                    .tag("cache", name)
+                    .register(meterRegistry);
+            return cache;
+        });
+    }
+
+    void publishInvalidation(String cacheName, @Nullable String key) {
+        String message = key != null
+                ? instanceId + "|E|" + cacheName + "|" + key
+                : instanceId + "|C|" + cacheName + "|";
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (RuntimeException ex) {
+            // Other instances fall back to local expiry
+            log.warn("Failed to broadcast cache invalidation for '{}': {}", cacheName, ex.getMessage());
+        }
+    }
+
+    void onInvalidation(String message) {
+        String[] parts = message.split("\\|", 4);
+        if (parts.length != 4) {
+            log.warn("Ignoring malformed cache invalidation '{}'", message);
+            return;
+        }
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = twoTierCaches.get(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if ("C".equals(parts[1])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+    }
+}
@@ -6,13 +6,18 @@ import com.bracit.fisprocess.service.AgingService;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.Nullable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -28,7 +33,10 @@ import java.util.UUID;
 @ApiVersion(1)
 public class AgingReportController {
 
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     private final AgingService agingService;
+    private final JsonMapper jsonMapper;
 
     /**
      * Generates an AR aging report as of a given date.
@@ -46,4 +54,30 @@ public class AgingReportController {
         ARAgingReportDto report = agingService.getAgingReport(tenantId, customerId, asOfDate);
         return ResponseEntity.ok(report);
     }
+
+    /**
+     * Streams one aging report per customer with open invoices as
+     * newline-delimited JSON.
+     *
+     * @param tenantId the tenant UUID
+     * @param asOfDate the date to calculate aging against
+     * @return 200 OK with the per-customer reports
+     */
+    @GetMapping(value = "/by-customer", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> getAgingByCustomer(
+            @RequestHeader("X-Tenant-Id") UUID tenantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOfDate) {
+        StreamingResponseBody body = out -> agingService.streamAgingByCustomer(tenantId, asOfDate,
+                report -> {
+                    try {
+                        out.write(jsonMapper.writeValueAsBytes(report));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
 }
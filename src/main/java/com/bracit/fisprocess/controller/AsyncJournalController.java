@@ -18,7 +18,9 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/v1/async/journal-entries")
@@ -29,25 +31,23 @@ public class AsyncJournalController {
     private final AsyncJournalService asyncJournalService;
 
     @PostMapping
-    public ResponseEntity<AsyncJobResponseDto> submitAsyncJournalEntry(
+    public CompletableFuture<ResponseEntity<AsyncJobResponseDto>> submitAsyncJournalEntry(
             @RequestHeader("X-Tenant-Id") UUID tenantId,
             @RequestHeader(value = "X-Actor-Role", required = false) @Nullable String actorRole,
             @RequestHeader(value = "traceparent", required = false) @Nullable String traceparent,
             @Valid @RequestBody CreateJournalEntryRequestDto request) {
-        AsyncJobResponseDto response = asyncJournalService.submitAsyncJournalEntry(
-                tenantId, request, actorRole, traceparent);
-        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        return asyncJournalService.submitAsyncJournalEntry(tenantId, request, actorRole, traceparent)
+                .thenApply(response -> ResponseEntity.status(HttpStatus.ACCEPTED).body(response));
     }
 
     @PostMapping("/batch")
-    public ResponseEntity<AsyncJobResponseDto> submitAsyncJournalEntryBatch(
+    public CompletableFuture<ResponseEntity<List<AsyncJobResponseDto>>> submitAsyncJournalEntryBatch(
             @RequestHeader("X-Tenant-Id") UUID tenantId,
             @RequestHeader(value = "X-Actor-Role", required = false) @Nullable String actorRole,
             @RequestHeader(value = "traceparent", required = false) @Nullable String traceparent,
             @Valid @RequestBody CreateJournalEntryBatchRequestDto request) {
-        AsyncJobResponseDto response = asyncJournalService.submitAsyncJournalEntryBatch(
-                tenantId, request, actorRole, traceparent);
-        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        return asyncJournalService.submitAsyncJournalEntryBatch(tenantId, request, actorRole, traceparent)
+                .thenApply(responses -> ResponseEntity.status(HttpStatus.ACCEPTED).body(responses));
     }
 
     @GetMapping("/{trackingId}/status")
@@ -15,7 +15,9 @@ import com.bracit.fisprocess.service.ReportingService;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -23,7 +25,11 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -41,7 +47,10 @@ import java.util.UUID;
 @ApiVersion(1)
 public class FinancialReportingController {
 
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     private final ReportingService reportingService;
+    private final JsonMapper jsonMapper;
 
     /**
      * Trial Balance — verifies Σ Debits = Σ Credits across all accounts.
@@ -112,15 +121,46 @@ public class FinancialReportingController {
 
     /**
      * Journal Register — chronological listing of all journal entries with totals.
+     * <p>
+     * Pages are chained with the opaque {@code nextPageToken} of the previous
+     * response. The {@code page} parameter is kept for existing clients and
+     * is only used when no token is given.
      */
     @GetMapping("/journal-register")
     public ResponseEntity<JournalRegisterReportDto> journalRegister(
             @RequestHeader("X-Tenant-Id") UUID tenantId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) @Nullable String pageToken,
             @RequestParam(defaultValue = "0") @Min(0) int page,
             @RequestParam(defaultValue = "50") @Min(1) @Max(200) int size) {
-        return ResponseEntity.ok(reportingService.generateJournalRegister(tenantId, fromDate, toDate, page, size));
+        if (pageToken == null && page > 0) {
+            return ResponseEntity.ok(reportingService.generateJournalRegister(tenantId, fromDate, toDate, page, size));
+        }
+        return ResponseEntity.ok(reportingService.generateJournalRegister(tenantId, fromDate, toDate, pageToken, size));
+    }
+
+    /**
+     * Journal Register export — every entry of the range as newline-delimited
+     * JSON, streamed from a database cursor.
+     */
+    @GetMapping(value = "/journal-register/export", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportJournalRegister(
+            @RequestHeader("X-Tenant-Id") UUID tenantId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        StreamingResponseBody body = out -> reportingService.exportJournalRegister(tenantId, fromDate, toDate,
+                entry -> {
+                    try {
+                        out.write(jsonMapper.writeValueAsBytes(entry));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                .body(body);
     }
 
     /**
@@ -0,0 +1,60 @@
+package com.bracit.fisprocess.controller;
+
+import com.bracit.fisprocess.annotation.ApiVersion;
+import com.bracit.fisprocess.dto.request.TenantShardMigrationRequestDto;
+import com.bracit.fisprocess.dto.response.TenantShardMoveResponseDto;
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardRebalancingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Admin-only endpoints for rebalancing tenants across shards.
+ * <p>
+ * All routes are under {@code /v1/admin/shards/**} which is secured
+ * to the {@code FIS_ADMIN} role in {@code SecurityConfig}.
+ */
+@RestController
+@RequestMapping("/v1/admin/shards")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('FIS_ADMIN')")
+@ApiVersion(1)
+public class ShardAdminController {
+
+    private final ShardRebalancingService shardRebalancingService;
+
+    /**
+     * GET /v1/admin/shards/rebalance-plan
+     * Lists the tenants whose shard differs from the one the current
+     * topology assigns.
+     */
+    @GetMapping("/rebalance-plan")
+    public ResponseEntity<List<TenantShardMoveResponseDto>> rebalancePlan() {
+        return ResponseEntity.ok(shardRebalancingService.planRebalance().stream()
+                .map(TenantShardMoveResponseDto::of)
+                .toList());
+    }
+
+    /**
+     * POST /v1/admin/shards/tenants/{tenantId}/migrate
+     * Copies the tenant's data to the target shard and routes it there.
+     */
+    @PostMapping("/tenants/{tenantId}/migrate")
+    public ResponseEntity<TenantShardMoveResponseDto> migrateTenant(
+            @PathVariable("tenantId") UUID tenantId,
+            @Valid @RequestBody TenantShardMigrationRequestDto request) {
+        return ResponseEntity.ok(TenantShardMoveResponseDto.of(
+                shardRebalancingService.migrateTenant(tenantId, Shard.of(request.getTargetShard()))));
+    }
+}
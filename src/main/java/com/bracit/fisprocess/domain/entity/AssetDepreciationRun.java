@@ -37,6 +37,10 @@ public class AssetDepreciationRun {
     @Column(name = "total_depreciation", nullable = false)
     private Long totalDepreciation;
 
+    @Column(name = "assets_processed", nullable = false)
+    @Builder.Default
+    private Long assetsProcessed = 0L;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
     @Builder.Default
@@ -0,0 +1,58 @@
+package com.bracit.fisprocess.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A FIFO cost layer: the part of one inbound movement that has not been
+ * issued yet. Issues consume the oldest open layers first.
+ */
+@Entity
+@Table(name = "fis_inventory_cost_layer")
+@Getter
+@Setter
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCostLayer {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "item_id", nullable = false)
+    private UUID itemId;
+
+    @Column(name = "movement_id", nullable = false)
+    private UUID movementId;
+
+    @Column(name = "received_date", nullable = false)
+    private LocalDate receivedDate;
+
+    @Column(name = "original_quantity", nullable = false)
+    private Long originalQuantity;
+
+    @Column(name = "remaining_quantity", nullable = false)
+    private Long remainingQuantity;
+
+    @Column(name = "unit_cost", nullable = false)
+    private Long unitCost;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now();
+    }
+}
@@ -2,6 +2,7 @@ package com.bracit.fisprocess.domain.enums;
 
 public enum DepreciationRunStatus {
     PENDING,
+    RUNNING,
     COMPLETED,
     FAILED,
     REVERSED
@@ -0,0 +1,6 @@
+package com.bracit.fisprocess.domain.enums;
+
+public enum ShardPlacementStatus {
+    ACTIVE,
+    MIGRATING
+}
@@ -0,0 +1,18 @@
+package com.bracit.fisprocess.domain.model;
+
+import com.bracit.fisprocess.domain.entity.Account;
+
+import java.util.UUID;
+
+/**
+ * Posting-relevant attributes of an {@link Account}: enough to validate a
+ * journal line and to reference the account when persisting it.
+ * Not a JPA entity.
+ */
+public record AccountSnapshot(UUID accountId, String code, boolean active, String currencyCode) {
+
+    public static AccountSnapshot of(Account account) {
+        return new AccountSnapshot(account.getAccountId(), account.getCode(), account.isActive(),
+                account.getCurrencyCode());
+    }
+}
@@ -0,0 +1,11 @@
+package com.bracit.fisprocess.domain.model;
+
+import com.bracit.fisprocess.service.Shard;
+
+import java.util.UUID;
+
+/**
+ * A tenant that is, or should be, moved from one shard to another.
+ */
+public record TenantShardMove(UUID tenantId, Shard fromShard, Shard toShard) {
+}
@@ -0,0 +1,22 @@
+package com.bracit.fisprocess.domain.model;
+
+import com.bracit.fisprocess.domain.enums.ShardPlacementStatus;
+import com.bracit.fisprocess.service.Shard;
+import org.jspecify.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Where a tenant's data lives, and where it is being moved to while a
+ * migration is in progress.
+ */
+public record TenantShardPlacement(
+        UUID tenantId,
+        Shard shard,
+        ShardPlacementStatus status,
+        @Nullable Shard targetShard) {
+
+    public boolean isMigrating() {
+        return status == ShardPlacementStatus.MIGRATING;
+    }
+}
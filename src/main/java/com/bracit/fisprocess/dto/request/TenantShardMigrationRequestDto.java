@@ -0,0 +1,17 @@
+package com.bracit.fisprocess.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantShardMigrationRequestDto {
+
+    @NotBlank(message = "targetShard is required")
+    private String targetShard;
+}
@@ -18,6 +18,7 @@ public class AssetDepreciationRunResponseDto {
     private String period;
     private LocalDate runDate;
     private Long totalDepreciation;
+    private Long assetsProcessed;
     private String status;
     private String createdBy;
 }
\ No newline at end of file
@@ -9,6 +9,9 @@ import java.util.List;
 
 /**
  * Journal Register report — chronological listing of all journal entries.
+ * <p>
+ * {@code nextPageToken} is set when more entries follow. Pages fetched with a
+ * token leave {@code totalEntries}, {@code page} and {@code totalPages} unset.
  */
 @Data
 @Builder
@@ -18,8 +21,9 @@ public class JournalRegisterReportDto {
 
     private ReportMetadataDto metadata;
     private List<JournalRegisterEntryDto> entries;
-    private long totalEntries;
-    private int page;
+    private Long totalEntries;
+    private Integer page;
     private int size;
-    private long totalPages;
+    private Long totalPages;
+    private String nextPageToken;
 }
@@ -0,0 +1,31 @@
+package com.bracit.fisprocess.dto.response;
+
+import com.bracit.fisprocess.domain.model.TenantShardMove;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * A tenant move between shards, planned or completed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantShardMoveResponseDto {
+
+    private UUID tenantId;
+    private String fromShard;
+    private String toShard;
+
+    public static TenantShardMoveResponseDto of(TenantShardMove move) {
+        return TenantShardMoveResponseDto.builder()
+                .tenantId(move.tenantId())
+                .fromShard(move.fromShard().name())
+                .toShard(move.toShard().name())
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.bracit.fisprocess.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+public class DepreciationRunInProgressException extends FisBusinessException {
+
+    public DepreciationRunInProgressException(UUID runId) {
+        super("Depreciation run '" + runId + "' is being processed by another worker.", HttpStatus.CONFLICT,
+                "/problems/depreciation-run-in-progress");
+    }
+}
@@ -0,0 +1,10 @@
+package com.bracit.fisprocess.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class HashChainConflictException extends FisBusinessException {
+
+    public HashChainConflictException(String detail) {
+        super(detail, HttpStatus.CONFLICT, "/problems/hash-chain-conflict");
+    }
+}
@@ -0,0 +1,14 @@
+package com.bracit.fisprocess.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+public class JournalSequenceBlockOwnedException extends FisBusinessException {
+
+    public JournalSequenceBlockOwnedException(UUID tenantId, int fiscalYear) {
+        super("Journal sequence blocks of tenant '" + tenantId + "' for fiscal year " + fiscalYear
+                        + " are leased by another instance; retry shortly.",
+                HttpStatus.SERVICE_UNAVAILABLE, "/problems/journal-sequence-block-owned");
+    }
+}
@@ -0,0 +1,13 @@
+package com.bracit.fisprocess.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+public class TenantShardMigrationInProgressException extends FisBusinessException {
+
+    public TenantShardMigrationInProgressException(UUID tenantId) {
+        super("Tenant '" + tenantId + "' is being moved to another shard; retry shortly.",
+                HttpStatus.SERVICE_UNAVAILABLE, "/problems/tenant-shard-migration");
+    }
+}
@@ -4,10 +4,14 @@ import com.bracit.fisprocess.domain.entity.BusinessEntity;
 import com.bracit.fisprocess.domain.model.DraftJournalEntry;
 import com.bracit.fisprocess.dto.request.CreateJournalEntryRequestDto;
 import com.bracit.fisprocess.dto.response.JournalEntryResponseDto;
+import com.bracit.fisprocess.exception.TenantShardMigrationInProgressException;
 import com.bracit.fisprocess.repository.BusinessEntityRepository;
 import com.bracit.fisprocess.service.AsyncJobStatusService;
 import com.bracit.fisprocess.service.LedgerPersistenceService;
+import com.bracit.fisprocess.service.ShardContextHolder;
 import com.bracit.fisprocess.service.ShardRouter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
@@ -17,15 +21,31 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
-
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Groups asynchronous journal writes per tenant and persists them in batches.
+ * <p>
+ * Each tenant gets a bounded lock-free {@link MpscRingBuffer}; producers never
+ * take a lock. Tenants are sharded across {@code fis.batch.flush-workers}
+ * flush threads, each the single consumer of its tenants' buffers. A worker
+ * drains up to {@code fis.batch.max-size} messages into a reusable array and
+ * flushes when a batch is full or every {@code fis.batch.flush-interval-ms}.
+ * When a buffer is full, {@link #submit} waits up to
+ * {@code fis.batch.offer-timeout-ms} for room and then rejects the message so
+ * the broker redelivers it later.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -47,23 +67,52 @@ public class BatchingJournalWriter {
     @Value("${fis.batch.enabled:false}")
     private boolean batchEnabled;
 
+    @Value("${fis.batch.bucket-capacity:4096}")
+    private int bucketCapacity;
+
+    @Value("${fis.batch.flush-workers:4}")
+    private int flushWorkerCount;
+
+    @Value("${fis.batch.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    private static final int ABSOLUTE_MAX_BATCH_SIZE = 1000;
+    private static final long BACKPRESSURE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long SHUTDOWN_JOIN_MS = 5_000;
+
     private final Map<UUID, BatchBucket> tenantBuckets = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private FlushWorker[] flushWorkers = new FlushWorker[0];
     private volatile boolean running = true;
 
+    private DistributionSummary fillRatio;
+    private Timer timeToFlush;
+
     public void initialize() {
         if (!batchEnabled) {
             log.info("BatchingJournalWriter disabled");
             return;
         }
 
-        scheduler.scheduleAtFixedRate(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
-        log.info("BatchingJournalWriter initialized with maxSize={}, flushInterval={}ms",
-                maxBatchSize, flushIntervalMs);
+        Gauge.builder("fis.batch.queue.depth", tenantBuckets,
+                        buckets -> buckets.values().stream().mapToInt(b -> b.queue.size()).sum())
+                .register(meterRegistry);
+        fillRatio = DistributionSummary.builder("fis.batch.fill.ratio")
+                .description("Drained batch size relative to fis.batch.max-size")
+                .register(meterRegistry);
+        timeToFlush = Timer.builder("fis.batch.time.to.flush")
+                .description("Age of the oldest message in a bucket when it is drained")
+                .register(meterRegistry);
+
+        int workers = Math.max(1, flushWorkerCount);
+        flushWorkers = new FlushWorker[workers];
+        for (int i = 0; i < workers; i++) {
+            flushWorkers[i] = new FlushWorker(i);
+            flushWorkers[i].start();
+        }
+        log.info("BatchingJournalWriter initialized with maxSize={}, flushInterval={}ms, bucketCapacity={}, flushWorkers={}",
+                maxBatchSize, flushIntervalMs, bucketCapacity, workers);
     }
 
-    private static final int ABSOLUTE_MAX_BATCH_SIZE = 1000;
-
     public List<JournalEntryResponseDto> submitBatch(List<JournalWriteMessage> messages) {
         if (!batchEnabled || messages.isEmpty()) {
             return processIndividually(messages);
@@ -93,25 +142,29 @@ public class BatchingJournalWriter {
                     ledgerPersistenceService.persistBatch(drafts);
 
             List<JournalEntryResponseDto> results = new ArrayList<>();
+            Map<UUID, JournalEntryResponseDto> completed = new LinkedHashMap<>();
             for (int i = 0; i < entries.size(); i++) {
-                UUID trackingId = trackingIds.get(i);
                 JournalEntryResponseDto dto = toResponseDto(entries.get(i));
-                asyncJobStatusService.markCompleted(trackingId, dto);
+                completed.put(trackingIds.get(i), dto);
                 results.add(dto);
             }
+            asyncJobStatusService.markAllCompleted(completed);
 
             meterRegistry.counter("fis.batch.submissions").increment();
             meterRegistry.gauge("fis.batch.last.size", drafts.size());
             log.info("Batch processed {} journal entries", drafts.size());
 
             return results;
+        } catch (TenantShardMigrationInProgressException e) {
+            // Not a failure of the messages; they are retried once the move completes
+            meterRegistry.counter("fis.batch.route.deferred").increment();
+            throw e;
         } catch (Exception e) {
             log.error("Batch submission failed for {} messages", messages.size(), e);
             meterRegistry.counter("fis.batch.error").increment();
-            for (int i = 0; i < messages.size(); i++) {
-                asyncJobStatusService.markFailed(messages.get(i).getTrackingId(),
-                        e.getMessage(), e.getClass().getSimpleName());
-            }
+            asyncJobStatusService.markAllFailed(
+                    messages.stream().map(JournalWriteMessage::getTrackingId).toList(),
+                    e.getMessage(), e.getClass().getSimpleName());
             throw e;
         } finally {
             sample.stop(Timer.builder("fis.batch.submission.duration").register(meterRegistry));
@@ -150,74 +203,204 @@ public class BatchingJournalWriter {
             return;
         }
 
+        if (!running) {
+            throw new RejectedExecutionException("BatchingJournalWriter is shut down");
+        }
+
         shardRouter.getShardForTenant(message.getTenantId());
 
-        BatchBucket bucket = tenantBuckets.computeIfAbsent(message.getTenantId(),
-                k -> new BatchBucket(message.getTenantId()));
+        BatchBucket bucket = tenantBuckets.computeIfAbsent(message.getTenantId(), this::newBucket);
+        if (!bucket.queue.offer(message)) {
+            awaitCapacity(bucket, message);
+        }
+        bucket.oldestEnqueueNanos.compareAndSet(0L, System.nanoTime());
 
-        synchronized (bucket) {
-            bucket.messages.add(message);
-            if (bucket.messages.size() >= maxBatchSize) {
-                flushBucket(bucket);
-            }
+        if (bucket.queue.size() >= maxBatchSize) {
+            bucket.worker.wake();
+        }
+    }
+
+    private BatchBucket newBucket(UUID tenantId) {
+        if (flushWorkers.length == 0) {
+            throw new IllegalStateException("BatchingJournalWriter has not been initialized");
         }
+        FlushWorker worker = flushWorkers[Math.floorMod(tenantId.hashCode(), flushWorkers.length)];
+        BatchBucket bucket = new BatchBucket(tenantId, new MpscRingBuffer<>(bucketCapacity), worker);
+        worker.buckets.add(bucket);
+        return bucket;
     }
 
-    private void flushBucket(BatchBucket bucket) {
-        List<JournalWriteMessage> toFlush;
-        synchronized (bucket) {
-            if (bucket.messages.isEmpty()) {
-                return;
+    /**
+     * Backpressure: nudges the owning worker and retries until there is room
+     * or {@code offerTimeoutMs} has elapsed.
+     */
+    private void awaitCapacity(BatchBucket bucket, JournalWriteMessage message) {
+        meterRegistry.counter("fis.batch.backpressure").increment();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        do {
+            bucket.worker.wake();
+            if (!running || System.nanoTime() - deadline >= 0) {
+                meterRegistry.counter("fis.batch.rejected").increment();
+                throw new RejectedExecutionException("Batch queue full for tenant " + bucket.tenantId);
             }
-            toFlush = new ArrayList<>(bucket.messages);
-            bucket.messages.clear();
+            LockSupport.parkNanos(BACKPRESSURE_PARK_NANOS);
+        } while (!bucket.queue.offer(message));
+    }
+
+    /**
+     * Drains at most one batch from the bucket and persists it. Must only be
+     * called by the bucket's single consumer.
+     * <p>
+     * The tenant's shard is resolved before anything is drained. While the
+     * tenant is being moved to another shard its messages stay queued and are
+     * retried on the next pass; once the bucket is full, {@link #submit}
+     * rejects further messages so the broker redelivers them later. A batch
+     * the move fences off after it was drained is kept aside and retried
+     * before anything else is drained. Messages of a tenant that cannot be
+     * routed for any other reason are marked failed.
+     *
+     * @return number of messages flushed
+     */
+    private int flushBucket(BatchBucket bucket, JournalWriteMessage[] scratch) {
+        if (bucket.queue.isEmpty()) {
+            return 0;
         }
 
+        ShardContextHolder.Scope scope;
         try {
-            submitBatch(toFlush);
+            // A bucket holds a single tenant, so the whole batch runs on its shard
+            scope = shardRouter.enterTenant(bucket.tenantId);
+        } catch (TenantShardMigrationInProgressException e) {
+            meterRegistry.counter("fis.batch.route.deferred").increment();
+            log.debug("Deferring bucket for tenant {} until its shard move completes", bucket.tenantId);
+            return 0;
+        } catch (Exception e) {
+            log.error("Failed to route bucket for tenant {}", bucket.tenantId, e);
+            int drained = drain(bucket, scratch);
+            List<JournalWriteMessage> batch = Arrays.asList(scratch).subList(0, drained);
+            asyncJobStatusService.markAllFailed(
+                    batch.stream().map(JournalWriteMessage::getTrackingId).toList(),
+                    e.getMessage(), e.getClass().getSimpleName());
+            Arrays.fill(scratch, 0, drained, null);
+            return drained;
+        }
+
+        if (!bucket.deferred.isEmpty()) {
+            return flushDeferred(bucket, scope);
+        }
+
+        int drained = 0;
+        try (scope) {
+            drained = drain(bucket, scratch);
+            if (drained > 0) {
+                submitBatch(Arrays.asList(scratch).subList(0, drained));
+            }
+        } catch (TenantShardMigrationInProgressException e) {
+            bucket.deferred.addAll(Arrays.asList(scratch).subList(0, drained));
+            log.debug("Deferring {} drained messages of tenant {} until its shard move completes",
+                    drained, bucket.tenantId);
+            return 0;
         } catch (Exception e) {
             log.error("Failed to flush bucket for tenant {}", bucket.tenantId, e);
+        } finally {
+            Arrays.fill(scratch, 0, drained, null);
         }
+        return drained;
     }
 
-    private void flushAll() {
-        if (!running) {
-            return;
+    /**
+     * Retries the batch the bucket kept aside when a shard move fenced it off.
+     */
+    private int flushDeferred(BatchBucket bucket, ShardContextHolder.Scope scope) {
+        int deferred = bucket.deferred.size();
+        try (scope) {
+            submitBatch(bucket.deferred);
+        } catch (TenantShardMigrationInProgressException e) {
+            return 0;
+        } catch (Exception e) {
+            log.error("Failed to flush deferred batch for tenant {}", bucket.tenantId, e);
         }
+        bucket.deferred.clear();
+        return deferred;
+    }
 
-        for (Map.Entry<UUID, BatchBucket> entry : tenantBuckets.entrySet()) {
-            BatchBucket bucket = entry.getValue();
-            boolean shouldFlush;
-            synchronized (bucket) {
-                shouldFlush = !bucket.messages.isEmpty();
-            }
-            if (shouldFlush) {
-                flushBucket(bucket);
-            }
+    /**
+     * Moves up to one batch from the bucket into {@code scratch} and records
+     * how long the oldest message waited and how full the batch is.
+     */
+    private int drain(BatchBucket bucket, JournalWriteMessage[] scratch) {
+        int drained = bucket.queue.drainTo(scratch, scratch.length);
+        if (drained == 0) {
+            return 0;
         }
+
+        long now = System.nanoTime();
+        long oldest = bucket.oldestEnqueueNanos.getAndSet(bucket.queue.isEmpty() ? 0L : now);
+        if (oldest != 0L) {
+            timeToFlush.record(now - oldest, TimeUnit.NANOSECONDS);
+        }
+        fillRatio.record((double) drained / scratch.length);
+        return drained;
     }
 
+    /**
+     * Stops the flush workers and flushes what they left queued. The buckets
+     * of a worker that is still running after {@code SHUTDOWN_JOIN_MS}, e.g.
+     * inside a slow flush, are left to it: draining them here as well would
+     * make two consumers of a single-consumer buffer. Messages of tenants
+     * whose shard move is still in progress are left unflushed as well.
+     */
     public void shutdown() {
         running = false;
-        scheduler.shutdown();
-        flushAll();
+        for (FlushWorker worker : flushWorkers) {
+            worker.wake();
+        }
+        for (FlushWorker worker : flushWorkers) {
+            if (!worker.join()) {
+                int queued = worker.buckets.stream().mapToInt(bucket -> bucket.queue.size()).sum();
+                meterRegistry.counter("fis.batch.shutdown.unflushed").increment(queued);
+                log.warn("Flush worker {} did not stop within {}ms; leaving {} queued messages unflushed",
+                        worker.thread.getName(), SHUTDOWN_JOIN_MS, queued);
+                continue;
+            }
+            // The worker has exited, so this thread is now the only consumer
+            JournalWriteMessage[] scratch = worker.newScratch();
+            int deferredBuckets = 0;
+            int deferredMessages = 0;
+            for (BatchBucket bucket : worker.buckets) {
+                while (flushBucket(bucket, scratch) > 0) {
+                    // keep draining until empty
+                }
+                int left = bucket.queue.size() + bucket.deferred.size();
+                if (left > 0) {
+                    deferredBuckets++;
+                    deferredMessages += left;
+                }
+            }
+            if (deferredBuckets > 0) {
+                meterRegistry.counter("fis.batch.shutdown.unflushed").increment(deferredMessages);
+                log.warn("Flush worker {} left {} queued messages of {} tenants being migrated unflushed",
+                        worker.thread.getName(), deferredMessages, deferredBuckets);
+            }
+        }
     }
 
     private List<JournalEntryResponseDto> processIndividually(List<JournalWriteMessage> messages) {
         List<JournalEntryResponseDto> results = new ArrayList<>();
         for (JournalWriteMessage message : messages) {
-            try {
+            try (ShardContextHolder.Scope ignored = shardRouter.enterTenant(message.getTenantId())) {
                 BusinessEntity tenant = businessEntityRepository.findById(message.getTenantId())
                         .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + message.getTenantId()));
 
                 DraftJournalEntry draft = buildDraft(message.getTenantId(), tenant, message.getRequest());
-
-                shardRouter.getShardForTenant(message.getTenantId());
                 var entries = ledgerPersistenceService.persistBatch(List.of(draft));
 
                 JournalEntryResponseDto dto = toResponseDto(entries.getFirst());
                 asyncJobStatusService.markCompleted(message.getTrackingId(), dto);
                 results.add(dto);
+            } catch (TenantShardMigrationInProgressException e) {
+                // Not a failure of the message; the caller has the broker redeliver it
+                throw e;
             } catch (Exception e) {
                 log.error("Failed to process message {}", message.getTrackingId(), e);
                 asyncJobStatusService.markFailed(message.getTrackingId(),
@@ -251,13 +434,82 @@ public class BatchingJournalWriter {
         return response;
     }
 
-    private static class BatchBucket {
+    private static final class BatchBucket {
         final UUID tenantId;
-        final List<JournalWriteMessage> messages = new ArrayList<>();
-        volatile long lastFlushTime;
-
-        BatchBucket(UUID tenantId) {
+        final MpscRingBuffer<JournalWriteMessage> queue;
+        final FlushWorker worker;
+        final AtomicLong oldestEnqueueNanos = new AtomicLong();
+        /**
+         * Drained batch fenced off by a shard move; owned by the consumer.
+         */
+        final List<JournalWriteMessage> deferred = new ArrayList<>();
+
+        BatchBucket(UUID tenantId, MpscRingBuffer<JournalWriteMessage> queue, FlushWorker worker) {
             this.tenantId = tenantId;
+            this.queue = queue;
+            this.worker = worker;
+        }
+    }
+
+    /**
+     * Single consumer for the buckets of the tenants hashed to its shard.
+     */
+    private final class FlushWorker implements Runnable {
+        final List<BatchBucket> buckets = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean wakeRequested = new AtomicBoolean();
+        private final Thread thread;
+
+        FlushWorker(int shard) {
+            this.thread = Thread.ofPlatform()
+                    .name("batch-journal-flush-" + shard)
+                    .daemon(true)
+                    .unstarted(this);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void wake() {
+            if (wakeRequested.compareAndSet(false, true)) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        /**
+         * Waits up to {@code SHUTDOWN_JOIN_MS} for the worker to exit.
+         *
+         * @return whether the worker has exited
+         */
+        boolean join() {
+            try {
+                thread.join(SHUTDOWN_JOIN_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return !thread.isAlive();
+        }
+
+        JournalWriteMessage[] newScratch() {
+            return new JournalWriteMessage[Math.min(Math.max(1, maxBatchSize), ABSOLUTE_MAX_BATCH_SIZE)];
+        }
+
+        @Override
+        public void run() {
+            JournalWriteMessage[] scratch = newScratch();
+            long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+            while (running) {
+                wakeRequested.set(false);
+                boolean backlog = false;
+                for (BatchBucket bucket : buckets) {
+                    if (flushBucket(bucket, scratch) == scratch.length) {
+                        backlog = true;
+                    }
+                }
+                if (!backlog && running) {
+                    LockSupport.parkNanos(this, intervalNanos);
+                }
+            }
         }
     }
-}
\ No newline at end of file
+}
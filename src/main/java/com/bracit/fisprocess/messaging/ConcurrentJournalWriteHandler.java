@@ -3,6 +3,7 @@ package com.bracit.fisprocess.messaging;
 import com.bracit.fisprocess.config.RabbitMqTopology;
 import com.bracit.fisprocess.service.Shard;
 import com.bracit.fisprocess.service.ShardAwareExecutorService;
+import com.bracit.fisprocess.service.ShardRouter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
@@ -29,6 +30,7 @@ public class ConcurrentJournalWriteHandler {
 
     private final JournalWriteWorker worker;
     private final ShardAwareExecutorService executorService;
+    private final ShardRouter shardRouter;
     private final RabbitTemplate rabbitTemplate;
     private final MeterRegistry meterRegistry;
 
@@ -84,7 +86,7 @@ public class ConcurrentJournalWriteHandler {
 
         for (JournalWriteMessage message : messages) {
             try {
-                Shard shard = Shard.forTenant(message.getTenantId());
+                Shard shard = shardRouter.getShardForTenant(message.getTenantId());
 
                 if (backpressureEnabled && executorService.isOverloaded(shard, queueThreshold)) {
                     log.warn("Shard {} overloaded, requeuing message {}", shard, message.getTrackingId());
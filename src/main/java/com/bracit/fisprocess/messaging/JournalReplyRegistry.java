@@ -0,0 +1,101 @@
+package com.bracit.fisprocess.messaging;
+
+import com.bracit.fisprocess.config.RabbitMqTopology;
+import com.rabbitmq.client.Channel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Correlates {@link JournalWriteReply} messages with the requests awaiting
+ * them.
+ * <p>
+ * A request registers its tracking id before publishing and gets a future that
+ * the reply listener completes, so no thread is parked while the worker
+ * posts. Workers reply to the queue named in {@link JournalWriteMessage#getReplyTo()},
+ * which is this instance's own reply queue, so a reply is consumed by the
+ * instance holding the future. Replies on the shared
+ * {@link RabbitMqTopology#JOURNAL_WRITE_REPLY_QUEUE}, sent by workers that
+ * predate per-instance queues, are drained too; those for requests of other
+ * instances are dropped, their outcome stays readable from the job status.
+ */
+@Component
+@Slf4j
+public class JournalReplyRegistry {
+
+    private final ConcurrentMap<UUID, CompletableFuture<JournalWriteReply>> pending = new ConcurrentHashMap<>();
+    private final Queue instanceReplyQueue;
+
+    public JournalReplyRegistry(@Qualifier("journalWriteInstanceReplyQueue") Queue instanceReplyQueue) {
+        this.instanceReplyQueue = instanceReplyQueue;
+    }
+
+    /**
+     * Name of the queue replies for this instance's requests must be sent to.
+     */
+    public String replyQueueName() {
+        return instanceReplyQueue.getName();
+    }
+
+    /**
+     * Registers a request; the returned future completes with its reply. The
+     * registration is removed however the future completes, including by
+     * {@link CompletableFuture#orTimeout}.
+     */
+    public CompletableFuture<JournalWriteReply> register(UUID trackingId) {
+        CompletableFuture<JournalWriteReply> future = new CompletableFuture<>();
+        pending.put(trackingId, future);
+        future.whenComplete((reply, ex) -> pending.remove(trackingId, future));
+        return future;
+    }
+
+    /**
+     * Drops the registration of a request that could not be published.
+     */
+    public void cancel(UUID trackingId) {
+        CompletableFuture<JournalWriteReply> future = pending.remove(trackingId);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @RabbitListener(queues = { RabbitMqTopology.JOURNAL_WRITE_REPLY_QUEUE, "#{journalWriteInstanceReplyQueue.name}" })
+    public void onReply(JournalWriteReply reply, Channel channel,
+            @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) throws IOException {
+        if (reply == null || reply.getTrackingId() == null) {
+            log.error("Rejecting malformed journal write reply: {}", reply);
+            channel.basicReject(deliveryTag, false);
+            return;
+        }
+        complete(reply);
+        channel.basicAck(deliveryTag, false);
+    }
+
+    /**
+     * Completes the request the reply belongs to, if it is still awaited here.
+     *
+     * @return whether a request was completed
+     */
+    boolean complete(JournalWriteReply reply) {
+        CompletableFuture<JournalWriteReply> future = pending.remove(reply.getTrackingId());
+        if (future == null) {
+            log.debug("No pending request for journal write reply trackingId={}", reply.getTrackingId());
+            return false;
+        }
+        return future.complete(reply);
+    }
+}
@@ -25,5 +25,16 @@ public class JournalWriteMessage {
     @Nullable
     private String traceparent;
 
+    /**
+     * Queue the reply is sent to; the shared reply queue when absent.
+     */
+    @Nullable
+    private String replyTo;
+
     private CreateJournalEntryRequestDto request;
+
+    /**
+     * Times the write was put back on the queue after a retryable failure.
+     */
+    private int redeliveries;
 }
\ No newline at end of file
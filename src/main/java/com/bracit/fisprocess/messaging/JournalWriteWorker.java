@@ -5,6 +5,9 @@ import com.bracit.fisprocess.domain.entity.BusinessEntity;
 import com.bracit.fisprocess.domain.model.DraftJournalEntry;
 import com.bracit.fisprocess.dto.request.CreateJournalEntryRequestDto;
 import com.bracit.fisprocess.dto.response.JournalEntryResponseDto;
+import com.bracit.fisprocess.exception.HashChainConflictException;
+import com.bracit.fisprocess.exception.JournalSequenceBlockOwnedException;
+import com.bracit.fisprocess.exception.TenantShardMigrationInProgressException;
 import com.bracit.fisprocess.repository.BusinessEntityRepository;
 import com.bracit.fisprocess.service.AsyncJobStatusService;
 import com.bracit.fisprocess.service.Shard;
@@ -19,6 +22,7 @@ import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.Nullable;
 import org.modelmapper.ModelMapper;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.AmqpHeaders;
@@ -39,6 +43,12 @@ public class JournalWriteWorker {
 
     private static final int MAX_RETRY_ATTEMPTS = 3;
 
+    /**
+     * Redeliveries through the retry queue before a retryable failure is
+     * final; with its delay this outlasts a sequence block lease.
+     */
+    private static final int MAX_REDELIVERIES = 60;
+
     private final JournalPostingEngine journalPostingEngine;
     private final AsyncJobStatusService asyncJobStatusService;
     private final BusinessEntityRepository businessEntityRepository;
@@ -92,7 +102,7 @@ public class JournalWriteWorker {
             JournalEntryResponseDto result = executeWithCircuitBreakerAndRetry(message);
 
             asyncJobStatusService.markCompleted(message.getTrackingId(), result);
-            sendReply(message.getTrackingId(), true, result, null, null);
+            sendReply(message, true, result, null, null);
             channel.basicAck(deliveryTag, false);
             log.info("Successfully processed journal write: trackingId={}, journalEntryId={}",
                     message.getTrackingId(), result.getJournalEntryId());
@@ -100,21 +110,34 @@ public class JournalWriteWorker {
             meterRegistry.counter("fis.worker.messages.success", "shard", shard.name()).increment();
 
         } catch (Exception ex) {
+            meterRegistry.counter("fis.worker.messages.error", "shard", shard.name()).increment();
+
+            if (isRetryableError(ex) && message.getRedeliveries() < MAX_REDELIVERIES) {
+                // Not failed yet: callers waiting on the job or the reply only hear the final outcome
+                log.warn("Retryable error for trackingId={}, retrying in {} ms: {}", message.getTrackingId(),
+                        RabbitMqTopology.JOURNAL_WRITE_RETRY_DELAY_MS, ex.getMessage());
+                message.setRedeliveries(message.getRedeliveries() + 1);
+                try {
+                    rabbitTemplate.convertAndSend("", RabbitMqTopology.JOURNAL_WRITE_RETRY_QUEUE, message);
+                } catch (AmqpException publishFailure) {
+                    log.warn("Could not delay trackingId={}, requeuing", message.getTrackingId(), publishFailure);
+                    channel.basicNack(deliveryTag, false, true);
+                    return;
+                }
+                channel.basicAck(deliveryTag, false);
+                meterRegistry.counter("fis.worker.messages.delayed", "shard", shard.name()).increment();
+                return;
+            }
+
             log.error("Failed to process journal write: trackingId={}, error={}",
                     message.getTrackingId(), ex.getMessage(), ex);
 
             asyncJobStatusService.markFailed(message.getTrackingId(), ex.getMessage(), ex.getClass().getSimpleName());
-            sendReply(message.getTrackingId(), false, null, ex.getMessage(), ex.getClass().getSimpleName());
+            sendReply(message, false, null, ex.getMessage(), ex.getClass().getSimpleName());
 
-            meterRegistry.counter("fis.worker.messages.error", "shard", shard.name()).increment();
-
-            if (isRetryableError(ex)) {
-                log.warn("Retryable error for trackingId={}, requeuing", message.getTrackingId());
-                channel.basicNack(deliveryTag, false, true);
-            } else {
-                log.error("Non-retryable error for trackingId={}, sending to DLQ", message.getTrackingId());
-                channel.basicNack(deliveryTag, false, false);
-            }
+            log.error("Giving up on trackingId={} after {} redeliveries, sending to DLQ",
+                    message.getTrackingId(), message.getRedeliveries());
+            channel.basicNack(deliveryTag, false, false);
         }
     }
 
@@ -122,8 +145,9 @@ public class JournalWriteWorker {
         try {
             return shardRouter.getShardForTenant(message.getTenantId());
         } catch (Exception e) {
-            log.warn("Could not determine shard for tenant {}, using SHARD_1", message.getTenantId());
-            return Shard.SHARD_1;
+            Shard defaultShard = shardRouter.getDefaultShard();
+            log.warn("Could not determine shard for tenant {}, using {}", message.getTenantId(), defaultShard);
+            return defaultShard;
         }
     }
 
@@ -160,18 +184,18 @@ public class JournalWriteWorker {
     }
 
     private JournalEntryResponseDto executeJournalPost(JournalWriteMessage message) {
-        BusinessEntity tenant = businessEntityRepository.findById(message.getTenantId())
-                .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + message.getTenantId()));
+        try (ShardContextHolder.Scope ignored = shardRouter.enterTenant(message.getTenantId())) {
+            BusinessEntity tenant = businessEntityRepository.findById(message.getTenantId())
+                    .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + message.getTenantId()));
 
-        DraftJournalEntry draft = buildDraft(message.getTenantId(), tenant, message.getRequest());
+            DraftJournalEntry draft = buildDraft(message.getTenantId(), tenant, message.getRequest());
 
-        shardRouter.getShardForTenant(message.getTenantId());
-
-        return journalPostingEngine.post(
-                message.getTenantId(),
-                draft,
-                message.getActorRoleHeader(),
-                message.getTraceparent());
+            return journalPostingEngine.post(
+                    message.getTenantId(),
+                    draft,
+                    message.getActorRoleHeader(),
+                    message.getTraceparent());
+        }
     }
 
     private DraftJournalEntry buildDraft(UUID tenantId, BusinessEntity tenant, CreateJournalEntryRequestDto request) {
@@ -190,8 +214,9 @@ public class JournalWriteWorker {
         return draft;
     }
 
-    private void sendReply(UUID trackingId, boolean success, @Nullable JournalEntryResponseDto journalEntry,
+    private void sendReply(JournalWriteMessage message, boolean success, @Nullable JournalEntryResponseDto journalEntry,
             @Nullable String errorMessage, @Nullable String errorCode) {
+        UUID trackingId = message.getTrackingId();
         try {
             JournalWriteReply reply = JournalWriteReply.builder()
                     .trackingId(trackingId)
@@ -201,13 +226,21 @@ public class JournalWriteWorker {
                     .errorCode(errorCode)
                     .build();
 
-            rabbitTemplate.convertAndSend(RabbitMqTopology.JOURNAL_WRITE_REPLY_QUEUE, reply);
+            String replyTo = message.getReplyTo() != null
+                    ? message.getReplyTo()
+                    : RabbitMqTopology.JOURNAL_WRITE_REPLY_QUEUE;
+            rabbitTemplate.convertAndSend(replyTo, reply);
         } catch (Exception e) {
             log.error("Failed to send reply for trackingId={}", trackingId, e);
         }
     }
 
     private boolean isRetryableError(Exception ex) {
+        if (ex instanceof TenantShardMigrationInProgressException
+                || ex instanceof JournalSequenceBlockOwnedException
+                || ex instanceof HashChainConflictException) {
+            return true;
+        }
         String message = ex.getMessage();
         if (message == null) {
             return false;
@@ -0,0 +1,98 @@
+package com.bracit.fisprocess.messaging;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer single-consumer ring buffer.
+ * <p>
+ * Producers claim a slot by CAS on the producer index and publish the element
+ * with a release store; the single consumer drains published elements into a
+ * caller-supplied array and frees the slots with one release store of the
+ * consumer index. {@link #offer} fails instead of blocking when the buffer is
+ * full, so callers decide how to apply backpressure.
+ * <p>
+ * {@link #drainTo} must only ever be called from one thread at a time.
+ */
+final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + requestedCapacity);
+        }
+        this.capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Appends the element if there is room.
+     *
+     * @return {@code false} if the buffer is full
+     */
+    boolean offer(E element) {
+        Objects.requireNonNull(element, "element");
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        slots.setRelease((int) index & mask, element);
+        return true;
+    }
+
+    /**
+     * Moves up to {@code limit} published elements into {@code target},
+     * starting at index 0, in FIFO order. Stops early at a slot that has been
+     * claimed but not yet published; that element is picked up by the next
+     * drain.
+     *
+     * @return number of elements written to {@code target}
+     */
+    int drainTo(E[] target, int limit) {
+        int max = Math.min(limit, target.length);
+        long index = consumerIndex.getPlain();
+        int count = 0;
+        while (count < max) {
+            int offset = (int) index & mask;
+            E element = slots.getAcquire(offset);
+            if (element == null) {
+                break;
+            }
+            slots.setPlain(offset, null);
+            target[count++] = element;
+            index++;
+        }
+        if (count > 0) {
+            consumerIndex.setRelease(index);
+        }
+        return count;
+    }
+
+    /**
+     * Approximate number of queued elements, including claimed slots whose
+     * element is not yet visible.
+     */
+    int size() {
+        long consumed = consumerIndex.get();
+        long size = producerIndex.get() - consumed;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
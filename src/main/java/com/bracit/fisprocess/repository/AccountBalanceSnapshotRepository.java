@@ -0,0 +1,251 @@
+package com.bracit.fisprocess.repository;
+
+import com.bracit.fisprocess.domain.entity.JournalEntry;
+import com.bracit.fisprocess.domain.entity.JournalLine;
+import com.bracit.fisprocess.domain.enums.JournalStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code fis_account_balance_daily}, the per-account daily movement
+ * totals that back the as-of-date balance reports.
+ * <p>
+ * Postings add their lines to the daily rows inside the posting transaction
+ * under a shared per-tenant advisory lock. {@link #rebuild(UUID)} recomputes a
+ * tenant's rows from the journal under the exclusive lock, so no posting can
+ * commit between the rebuild's read of the journal and its write of the rows.
+ * Reports use the rows only for tenants that have been rebuilt at least once.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBalanceSnapshotRepository {
+
+    private static final Set<JournalStatus> REPORTED_STATUSES = Set.of(JournalStatus.POSTED, JournalStatus.CORRECTION);
+
+    /** {@link #REPORTED_STATUSES} as an SQL list, for queries that must count the same entries. */
+    private static final String REPORTED_STATUS_LIST = REPORTED_STATUSES.stream()
+            .map(status -> "'" + status.name() + "'")
+            .sorted()
+            .collect(Collectors.joining(", "));
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO fis_account_balance_daily
+                (tenant_id, account_id, balance_date, debit_total, credit_total, updated_at)
+            VALUES (?, ?, ?, ?, ?, NOW())
+            ON CONFLICT (tenant_id, account_id, balance_date) DO UPDATE
+            SET debit_total = fis_account_balance_daily.debit_total + EXCLUDED.debit_total,
+                credit_total = fis_account_balance_daily.credit_total + EXCLUDED.credit_total,
+                updated_at = NOW()
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<UUID> readyTenants = ConcurrentHashMap.newKeySet();
+    private volatile Boolean postgres;
+
+    @Value("${fis.balance-snapshot.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Whether the daily rows are maintained at all. They rely on PostgreSQL
+     * upserts and advisory locks and are skipped on other databases.
+     */
+    public boolean isEnabled() {
+        if (!enabled) {
+            return false;
+        }
+        Boolean isPostgres = postgres;
+        if (isPostgres == null) {
+            isPostgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgres = isPostgres;
+        }
+        return Boolean.TRUE.equals(isPostgres);
+    }
+
+    /**
+     * Whether the tenant's daily rows are complete and may replace journal
+     * aggregation in reports. A tenant never becomes unready once backfilled.
+     */
+    public boolean isReady(UUID tenantId) {
+        if (!isEnabled()) {
+            return false;
+        }
+        if (readyTenants.contains(tenantId)) {
+            return true;
+        }
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM fis_account_balance_snapshot_state WHERE tenant_id = ?",
+                Integer.class, tenantId);
+        if (count != null && count > 0) {
+            readyTenants.add(tenantId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the lines of reportable entries to their daily rows. Must run in
+     * the transaction that persists the entries.
+     */
+    @Transactional
+    public void applyEntries(Collection<JournalEntry> entries) {
+        if (!isEnabled() || entries.isEmpty()) {
+            return;
+        }
+        Map<DailyKey, long[]> totals = new HashMap<>();
+        for (JournalEntry entry : entries) {
+            if (!REPORTED_STATUSES.contains(entry.getStatus())) {
+                continue;
+            }
+            for (JournalLine line : entry.getLines()) {
+                long[] total = totals.computeIfAbsent(new DailyKey(entry.getTenantId(),
+                        line.getAccount().getAccountId(), entry.getEffectiveDate()), key -> new long[2]);
+                total[line.isCredit() ? 1 : 0] += line.getBaseAmount();
+            }
+        }
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> tenants = new TreeSet<>();
+        totals.keySet().forEach(key -> tenants.add(key.tenantId()));
+        for (UUID tenantId : tenants) {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock_shared(?)", lockKey(tenantId));
+        }
+
+        // Upsert in key order so concurrent postings lock rows in the same order.
+        List<Map.Entry<DailyKey, long[]>> rows = new ArrayList<>(totals.entrySet());
+        rows.sort(Map.Entry.comparingByKey(DailyKey.ORDER));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<DailyKey, long[]> row = rows.get(i);
+                ps.setObject(1, row.getKey().tenantId());
+                ps.setObject(2, row.getKey().accountId());
+                ps.setDate(3, Date.valueOf(row.getKey().balanceDate()));
+                ps.setLong(4, row.getValue()[0]);
+                ps.setLong(5, row.getValue()[1]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        meterRegistry.counter("fis.balance.snapshot.rows.upserted").increment(rows.size());
+    }
+
+    /**
+     * Replaces the tenant's daily rows with totals aggregated from the journal
+     * and marks the tenant ready. Blocks the tenant's postings while it runs.
+     *
+     * @return number of daily rows written
+     */
+    @Transactional
+    public int rebuild(UUID tenantId) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", lockKey(tenantId));
+        jdbcTemplate.update("DELETE FROM fis_account_balance_daily WHERE tenant_id = ?", tenantId);
+        int rows = jdbcTemplate.update("""
+                INSERT INTO fis_account_balance_daily
+                    (tenant_id, account_id, balance_date, debit_total, credit_total, updated_at)
+                SELECT je.tenant_id, jl.account_id, je.effective_date,
+                       COALESCE(SUM(CASE WHEN NOT jl.is_credit THEN jl.base_amount ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN jl.is_credit THEN jl.base_amount ELSE 0 END), 0),
+                       NOW()
+                FROM fis_journal_line jl
+                JOIN fis_journal_entry je ON je.journal_entry_id = jl.journal_entry_id
+                WHERE je.tenant_id = ?
+                  AND je.status IN (%s)
+                GROUP BY je.tenant_id, jl.account_id, je.effective_date
+                """.formatted(REPORTED_STATUS_LIST), tenantId);
+        jdbcTemplate.update("""
+                INSERT INTO fis_account_balance_snapshot_state (tenant_id, backfilled_at)
+                VALUES (?, NOW())
+                ON CONFLICT (tenant_id) DO UPDATE SET backfilled_at = NOW()
+                """, tenantId);
+        readyTenants.add(tenantId);
+        log.info("Rebuilt {} daily balance rows for tenant {}", rows, tenantId);
+        return rows;
+    }
+
+    /**
+     * Net balance (debits minus credits) per account over all daily rows.
+     */
+    public Map<UUID, Long> findNetBalances(UUID tenantId) {
+        Map<UUID, Long> balances = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT account_id, SUM(debit_total - credit_total) AS net_balance
+                FROM fis_account_balance_daily
+                WHERE tenant_id = ?
+                GROUP BY account_id
+                """, rs -> {
+            balances.put(rs.getObject("account_id", UUID.class), rs.getLong("net_balance"));
+        }, tenantId);
+        return balances;
+    }
+
+    /**
+     * Net balance (debits minus credits) per account aggregated from the
+     * journal, over the same statuses the daily rows include.
+     */
+    public Map<UUID, Long> findJournalNetBalances(UUID tenantId) {
+        Map<UUID, Long> balances = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT jl.account_id,
+                       SUM(CASE WHEN jl.is_credit THEN -jl.base_amount ELSE jl.base_amount END) AS net_balance
+                FROM fis_journal_line jl
+                JOIN fis_journal_entry je ON je.journal_entry_id = jl.journal_entry_id
+                WHERE je.tenant_id = ?
+                  AND je.status IN (%s)
+                GROUP BY jl.account_id
+                """.formatted(REPORTED_STATUS_LIST), rs -> {
+            balances.put(rs.getObject("account_id", UUID.class), rs.getLong("net_balance"));
+        }, tenantId);
+        return balances;
+    }
+
+    public List<UUID> findAccountIds(UUID tenantId) {
+        return jdbcTemplate.queryForList("SELECT account_id FROM fis_account WHERE tenant_id = ?", UUID.class, tenantId);
+    }
+
+    public void markVerified(UUID tenantId) {
+        jdbcTemplate.update("UPDATE fis_account_balance_snapshot_state SET verified_at = NOW() WHERE tenant_id = ?",
+                tenantId);
+    }
+
+    private static long lockKey(UUID tenantId) {
+        return tenantId.getMostSignificantBits() ^ tenantId.getLeastSignificantBits();
+    }
+
+    private record DailyKey(UUID tenantId, UUID accountId, LocalDate balanceDate) {
+        static final Comparator<DailyKey> ORDER = Comparator.comparing(DailyKey::tenantId)
+                .thenComparing(DailyKey::accountId)
+                .thenComparing(DailyKey::balanceDate);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,11 +28,25 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
    */
   Optional<Account> findByTenantIdAndCode(UUID tenantId, String code);
 
+  /**
+   * Finds all accounts of a tenant whose code is in the given set, in a single
+   * query. Codes that do not exist are simply absent from the result.
+   */
+  List<Account> findByTenantIdAndCodeIn(UUID tenantId, Collection<String> codes);
+
   /**
    * Checks if an account code already exists for a given tenant.
    */
   boolean existsByTenantIdAndCode(UUID tenantId, String code);
 
+  /**
+   * Posting-relevant attributes of every account of a tenant, as
+   * {@code [accountId, code, isActive, currencyCode]} rows, without loading
+   * the entities.
+   */
+  @Query("SELECT a.accountId, a.code, a.isActive, a.currencyCode FROM Account a WHERE a.tenantId = :tenantId")
+  List<Object[]> findSnapshotRowsByTenantId(@Param("tenantId") UUID tenantId);
+
   /**
    * Lists accounts for a tenant with optional filters for account type and active
    * status.
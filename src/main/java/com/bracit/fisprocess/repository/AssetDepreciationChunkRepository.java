@@ -0,0 +1,198 @@
+package com.bracit.fisprocess.repository;
+
+import com.bracit.fisprocess.domain.entity.FixedAsset;
+import com.bracit.fisprocess.domain.entity.FixedAsset.AssetStatus;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Set-based reads and writes for chunked depreciation runs.
+ * <p>
+ * A run depreciates each asset category independently. Per category, a
+ * checkpoint row records the last asset id processed; assets are read in id
+ * order after that cursor, so a run resumed after a crash continues where the
+ * last committed chunk stopped. Each chunk's asset updates, checkpoint and
+ * run totals commit together.
+ * <p>
+ * One worker processes a run at a time: it claims the run under a lease that
+ * every chunk extends, and each chunk locks its checkpoint and re-checks the
+ * cursor before applying anything, so a worker whose lease was taken over
+ * cannot count a page twice.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AssetDepreciationChunkRepository {
+
+    /**
+     * Progress of one category within a run.
+     */
+    public record CategoryCheckpoint(UUID categoryId, @Nullable UUID lastAssetId) {
+    }
+
+    /**
+     * New depreciation state of one asset.
+     */
+    public record AssetDepreciationUpdate(UUID assetId, long accumulatedDepreciation, long netBookValue,
+            AssetStatus status) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates one open checkpoint per category that has active assets.
+     */
+    public void createCheckpoints(UUID tenantId, UUID runId) {
+        jdbcTemplate.update("""
+                INSERT INTO fis_asset_depreciation_checkpoint (run_id, tenant_id, category_id, completed, updated_at)
+                SELECT DISTINCT ?, tenant_id, category_id, FALSE, NOW()
+                FROM fis_fixed_asset
+                WHERE tenant_id = ? AND status = 'ACTIVE'
+                ON CONFLICT (run_id, category_id) DO NOTHING
+                """, runId, tenantId);
+    }
+
+    /**
+     * Sets the run RUNNING for {@code leaseSeconds} if it is PENDING, FAILED,
+     * or RUNNING under an expired lease.
+     *
+     * @return whether the caller now owns the run
+     */
+    public boolean claimRun(UUID tenantId, UUID runId, int leaseSeconds) {
+        return jdbcTemplate.update("""
+                UPDATE fis_asset_depreciation_run
+                SET status = 'RUNNING', lease_until = NOW() + make_interval(secs => ?)
+                WHERE id = ? AND tenant_id = ?
+                  AND (status IN ('PENDING', 'FAILED') OR (status = 'RUNNING' AND lease_until < NOW()))
+                """, leaseSeconds, runId, tenantId) == 1;
+    }
+
+    /**
+     * Sets a RUNNING run FAILED and drops its lease, so that the next call
+     * resumes it at once instead of waiting for the lease to run out.
+     */
+    public void releaseRun(UUID tenantId, UUID runId) {
+        jdbcTemplate.update("""
+                UPDATE fis_asset_depreciation_run
+                SET status = 'FAILED', lease_until = NULL
+                WHERE id = ? AND tenant_id = ? AND status = 'RUNNING'
+                """, runId, tenantId);
+    }
+
+    /**
+     * Locks the run row until the end of the transaction and tells whether it
+     * is still RUNNING, i.e. not completed by another worker in the meantime.
+     */
+    public boolean lockRunningRun(UUID tenantId, UUID runId) {
+        List<String> status = jdbcTemplate.queryForList("""
+                SELECT status FROM fis_asset_depreciation_run
+                WHERE id = ? AND tenant_id = ?
+                FOR UPDATE
+                """, String.class, runId, tenantId);
+        return status.size() == 1 && "RUNNING".equals(status.getFirst());
+    }
+
+    public List<CategoryCheckpoint> findOpenCheckpoints(UUID tenantId, UUID runId) {
+        return jdbcTemplate.query("""
+                SELECT category_id, last_asset_id
+                FROM fis_asset_depreciation_checkpoint
+                WHERE tenant_id = ? AND run_id = ? AND completed = FALSE
+                ORDER BY category_id
+                """, (rs, rowNum) -> new CategoryCheckpoint(
+                        rs.getObject("category_id", UUID.class),
+                        rs.getObject("last_asset_id", UUID.class)),
+                tenantId, runId);
+    }
+
+    /**
+     * Locks a category's checkpoint until the end of the transaction. Empty
+     * once the category is completed.
+     */
+    public Optional<CategoryCheckpoint> lockOpenCheckpoint(UUID tenantId, UUID runId, UUID categoryId) {
+        return jdbcTemplate.query("""
+                SELECT category_id, last_asset_id
+                FROM fis_asset_depreciation_checkpoint
+                WHERE run_id = ? AND category_id = ? AND tenant_id = ? AND completed = FALSE
+                FOR UPDATE
+                """, (rs, rowNum) -> new CategoryCheckpoint(
+                        rs.getObject("category_id", UUID.class),
+                        rs.getObject("last_asset_id", UUID.class)),
+                runId, categoryId, tenantId).stream().findFirst();
+    }
+
+    /**
+     * Next page of active assets of a category, in id order after the cursor.
+     */
+    public List<FixedAsset> findActiveAssetsAfter(UUID tenantId, UUID categoryId, @Nullable UUID afterAssetId,
+            int limit) {
+        String sql = """
+                SELECT id, tenant_id, category_id, acquisition_date, acquisition_cost, salvage_value,
+                       useful_life_months, depreciation_method, accumulated_depreciation, net_book_value
+                FROM fis_fixed_asset
+                WHERE tenant_id = ? AND category_id = ? AND status = 'ACTIVE'
+                """ + (afterAssetId != null ? "  AND id > ?\n" : "") + """
+                ORDER BY id
+                LIMIT ?
+                """;
+        Object[] args = afterAssetId != null
+                ? new Object[] { tenantId, categoryId, afterAssetId, limit }
+                : new Object[] { tenantId, categoryId, limit };
+        return jdbcTemplate.query(sql, (rs, rowNum) -> FixedAsset.builder()
+                .id(rs.getObject("id", UUID.class))
+                .tenantId(rs.getObject("tenant_id", UUID.class))
+                .categoryId(rs.getObject("category_id", UUID.class))
+                .acquisitionDate(rs.getObject("acquisition_date", LocalDate.class))
+                .acquisitionCost(rs.getLong("acquisition_cost"))
+                .salvageValue(rs.getObject("salvage_value", Long.class))
+                .usefulLifeMonths(rs.getInt("useful_life_months"))
+                .depreciationMethod(rs.getString("depreciation_method"))
+                .accumulatedDepreciation(rs.getLong("accumulated_depreciation"))
+                .netBookValue(rs.getObject("net_book_value", Long.class))
+                .status(AssetStatus.ACTIVE)
+                .build(), args);
+    }
+
+    public void applyDepreciation(UUID tenantId, List<AssetDepreciationUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                UPDATE fis_fixed_asset
+                SET accumulated_depreciation = ?, net_book_value = ?, status = ?
+                WHERE id = ? AND tenant_id = ?
+                """, updates, updates.size(), (PreparedStatement ps, AssetDepreciationUpdate update) -> {
+            ps.setLong(1, update.accumulatedDepreciation());
+            ps.setLong(2, update.netBookValue());
+            ps.setString(3, update.status().name());
+            ps.setObject(4, update.assetId());
+            ps.setObject(5, tenantId);
+        });
+    }
+
+    /**
+     * Moves a category's cursor, adds the chunk to the run totals and extends
+     * the run's lease. The run row is updated last to keep its lock short
+     * while categories run in parallel.
+     */
+    public void advanceCheckpoint(UUID tenantId, UUID runId, UUID categoryId, @Nullable UUID lastAssetId,
+            boolean completed, long assetsProcessed, long depreciation, int leaseSeconds) {
+        jdbcTemplate.update("""
+                UPDATE fis_asset_depreciation_checkpoint
+                SET last_asset_id = COALESCE(CAST(? AS UUID), last_asset_id), completed = ?, updated_at = NOW()
+                WHERE run_id = ? AND category_id = ? AND tenant_id = ?
+                """, lastAssetId, completed, runId, categoryId, tenantId);
+        jdbcTemplate.update("""
+                UPDATE fis_asset_depreciation_run
+                SET assets_processed = assets_processed + ?, total_depreciation = total_depreciation + ?,
+                    lease_until = NOW() + make_interval(secs => ?)
+                WHERE id = ? AND tenant_id = ?
+                """, assetsProcessed, depreciation, leaseSeconds, runId, tenantId);
+    }
+}
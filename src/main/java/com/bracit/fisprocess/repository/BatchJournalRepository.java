@@ -7,16 +7,23 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
 
+import javax.sql.DataSource;
 import java.io.ByteArrayInputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Repository
@@ -26,6 +33,28 @@ public class BatchJournalRepository {
 
     private final JdbcTemplate jdbcTemplate;
     private final MeterRegistry meterRegistry;
+    private final JsonMapper jsonMapper;
+
+    /** Size of the single reusable buffer rows are encoded into for binary COPY. */
+    private static final int BINARY_COPY_BUFFER_BYTES = 64 * 1024;
+    private static final int ENTRY_COLUMN_COUNT = 20;
+    private static final int LINE_COLUMN_COUNT = 8;
+
+    private static final String COPY_JOURNAL_ENTRY_BINARY_SQL = """
+            COPY fis_journal_entry (
+                journal_entry_id, tenant_id, event_id, posted_date, effective_date,
+                transaction_date, description, reference_id, status, reversal_of_id,
+                transaction_currency, base_currency, exchange_rate, created_by,
+                created_at, previous_hash, hash, fiscal_year, sequence_number, auto_reverse
+            ) FROM STDIN WITH (FORMAT binary)
+            """;
+
+    private static final String COPY_JOURNAL_LINE_BINARY_SQL = """
+            COPY fis_journal_line (
+                line_id, journal_entry_id, account_id, amount, base_amount,
+                is_credit, dimensions, created_at
+            ) FROM STDIN WITH (FORMAT binary)
+            """;
 
     private static final String COPY_JOURNAL_ENTRY_SQL = """
             COPY fis_journal_entry (
@@ -156,6 +185,110 @@ public class BatchJournalRepository {
         }
     }
 
+    /**
+     * Inserts entries and lines with PostgreSQL {@code COPY ... FORMAT binary}.
+     * <p>
+     * Rows are encoded straight from the entities into one fixed-size buffer
+     * and streamed through the driver's {@link CopyManager}, so memory use does
+     * not grow with the batch. Runs on the connection bound to the current
+     * transaction, so the rows commit or roll back together with the sequence
+     * allocation. Lines without an id or creation timestamp get one assigned.
+     * A COPY interrupted by a failure is cancelled before the error is
+     * rethrown, as a connection left in copy mode cannot roll back.
+     */
+    @Transactional
+    public void copyBinaryFromEntries(List<JournalEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        DataSource dataSource = jdbcTemplate.getDataSource();
+        Connection conn = DataSourceUtils.getConnection(dataSource);
+        PgBinaryCopyWriter writer = null;
+
+        try {
+            CopyManager copyManager = conn.unwrap(PGConnection.class).getCopyAPI();
+
+            PgBinaryCopyWriter entryWriter = new PgBinaryCopyWriter(
+                    copyManager.copyIn(COPY_JOURNAL_ENTRY_BINARY_SQL), BINARY_COPY_BUFFER_BYTES);
+            writer = entryWriter;
+            for (JournalEntry entry : entries) {
+                writeEntryRow(entryWriter, entry);
+            }
+            long entryCount = entryWriter.finish();
+
+            PgBinaryCopyWriter lineWriter = new PgBinaryCopyWriter(
+                    copyManager.copyIn(COPY_JOURNAL_LINE_BINARY_SQL), BINARY_COPY_BUFFER_BYTES);
+            writer = lineWriter;
+            for (JournalEntry entry : entries) {
+                for (JournalLine line : entry.getLines()) {
+                    writeLineRow(lineWriter, entry, line);
+                }
+            }
+            long lineCount = lineWriter.finish();
+
+            meterRegistry.counter("fis.batch.entries.copied").increment(entryCount);
+            meterRegistry.counter("fis.batch.lines.copied").increment(lineCount);
+
+            log.debug("Binary COPY inserted {} entries with {} lines", entryCount, lineCount);
+        } catch (Exception e) {
+            if (writer != null) {
+                writer.cancel();
+            }
+            log.error("Binary COPY batch insert failed for {} entries", entries.size(), e);
+            meterRegistry.counter("fis.batch.copy.error").increment();
+            throw new RuntimeException("Binary COPY batch insert failed", e);
+        } finally {
+            DataSourceUtils.releaseConnection(conn, dataSource);
+            sample.stop(Timer.builder("fis.batch.copy.binary.duration").register(meterRegistry));
+        }
+    }
+
+    private void writeEntryRow(PgBinaryCopyWriter writer, JournalEntry entry) throws SQLException {
+        writer.startRow(ENTRY_COLUMN_COUNT);
+        writer.writeUuid(entry.getId());
+        writer.writeUuid(entry.getTenantId());
+        writer.writeText(entry.getEventId());
+        writer.writeDate(entry.getPostedDate());
+        writer.writeDate(entry.getEffectiveDate());
+        writer.writeDate(entry.getTransactionDate());
+        writer.writeText(entry.getDescription());
+        writer.writeText(entry.getReferenceId());
+        writer.writeText(entry.getStatus().name());
+        writer.writeUuid(entry.getReversalOfId());
+        writer.writeText(entry.getTransactionCurrency());
+        writer.writeText(entry.getBaseCurrency());
+        writer.writeNumeric(entry.getExchangeRate());
+        writer.writeText(entry.getCreatedBy());
+        writer.writeTimestamptz(entry.getCreatedAt());
+        writer.writeText(entry.getPreviousHash());
+        writer.writeText(entry.getHash());
+        writer.writeInt(entry.getFiscalYear());
+        writer.writeLong(entry.getSequenceNumber());
+        writer.writeBoolean(entry.isAutoReverse());
+    }
+
+    private void writeLineRow(PgBinaryCopyWriter writer, JournalEntry entry, JournalLine line) throws SQLException {
+        if (line.getId() == null) {
+            line.setId(UUID.randomUUID());
+        }
+        if (line.getCreatedAt() == null) {
+            line.setCreatedAt(entry.getCreatedAt());
+        }
+        writer.startRow(LINE_COLUMN_COUNT);
+        writer.writeUuid(line.getId());
+        writer.writeUuid(entry.getId());
+        writer.writeUuid(line.getAccount().getAccountId());
+        writer.writeLong(line.getAmount());
+        writer.writeLong(line.getBaseAmount());
+        writer.writeBoolean(line.isCredit());
+        writer.writeJsonb(line.getDimensions() != null && !line.getDimensions().isEmpty()
+                ? jsonMapper.writeValueAsBytes(line.getDimensions())
+                : null);
+        writer.writeTimestamptz(line.getCreatedAt());
+    }
+
     private void setEntryParameters(PreparedStatement stmt, JournalEntry entry) throws Exception {
         stmt.setObject(1, entry.getId());
         stmt.setObject(2, entry.getTenantId());
@@ -0,0 +1,165 @@
+package com.bracit.fisprocess.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Stores each consolidation member's untranslated trial balance per group and
+ * period, together with a watermark of the member ledger it was computed
+ * from.
+ * <p>
+ * The journal is append-only, so the number of reportable entries up to the
+ * as-of date only grows when the member's balances can have changed. Together
+ * with the member's account count and latest account update, it decides
+ * whether a re-run can reuse the stored balances instead of aggregating the
+ * member's journal again.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConsolidationMemberBalanceRepository {
+
+    /**
+     * State of a member ledger that its trial balance as of a date depends on.
+     */
+    public record LedgerWatermark(long entryCount, long accountCount, @Nullable OffsetDateTime accountsUpdatedAt) {
+
+        public boolean matches(@Nullable LedgerWatermark stored) {
+            if (stored == null || entryCount != stored.entryCount || accountCount != stored.accountCount) {
+                return false;
+            }
+            if (accountsUpdatedAt == null || stored.accountsUpdatedAt == null) {
+                return accountsUpdatedAt == stored.accountsUpdatedAt;
+            }
+            return accountsUpdatedAt.isEqual(stored.accountsUpdatedAt);
+        }
+    }
+
+    /**
+     * A member's trial balance: net balance (debits minus credits) per
+     * account, in the member's currency and before ownership.
+     */
+    public record MemberBalances(String[] accountCodes, String[] accountTypes, long[] netBalances) {
+
+        public int size() {
+            return accountCodes.length;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LedgerWatermark findLedgerWatermark(UUID memberTenantId, LocalDate asOfDate) {
+        return Objects.requireNonNull(jdbcTemplate.queryForObject("""
+                SELECT
+                    (SELECT COUNT(*) FROM fis_journal_entry
+                      WHERE tenant_id = ?
+                        AND effective_date <= ?
+                        AND status IN ('POSTED', 'CORRECTION')) AS entry_count,
+                    (SELECT COUNT(*) FROM fis_account WHERE tenant_id = ?) AS account_count,
+                    (SELECT MAX(updated_at) FROM fis_account WHERE tenant_id = ?) AS accounts_updated_at
+                """, (rs, rowNum) -> new LedgerWatermark(
+                        rs.getLong("entry_count"),
+                        rs.getLong("account_count"),
+                        rs.getObject("accounts_updated_at", OffsetDateTime.class)),
+                memberTenantId, asOfDate, memberTenantId, memberTenantId));
+    }
+
+    /**
+     * Watermarks of the members whose balances are stored for the group and
+     * period, keyed by member tenant.
+     */
+    public Map<UUID, LedgerWatermark> findStoredWatermarks(UUID tenantId, UUID groupId, String period) {
+        Map<UUID, LedgerWatermark> watermarks = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT member_tenant_id, ledger_entry_count, account_count, accounts_updated_at
+                FROM fis_consolidation_member_state
+                WHERE tenant_id = ? AND group_id = ? AND period = ?
+                """, rs -> {
+            watermarks.put(rs.getObject("member_tenant_id", UUID.class), new LedgerWatermark(
+                    rs.getLong("ledger_entry_count"),
+                    rs.getLong("account_count"),
+                    rs.getObject("accounts_updated_at", OffsetDateTime.class)));
+        }, tenantId, groupId, period);
+        return watermarks;
+    }
+
+    public MemberBalances findMemberBalances(UUID tenantId, UUID groupId, String period, UUID memberTenantId) {
+        List<String> codes = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        List<Long> balances = new ArrayList<>();
+        jdbcTemplate.query("""
+                SELECT account_code, account_type, net_balance
+                FROM fis_consolidation_member_balance
+                WHERE tenant_id = ? AND group_id = ? AND period = ? AND member_tenant_id = ?
+                """, rs -> {
+            codes.add(rs.getString("account_code"));
+            types.add(rs.getString("account_type"));
+            balances.add(rs.getLong("net_balance"));
+        }, tenantId, groupId, period, memberTenantId);
+        long[] netBalances = new long[balances.size()];
+        for (int i = 0; i < netBalances.length; i++) {
+            netBalances[i] = balances.get(i);
+        }
+        return new MemberBalances(codes.toArray(String[]::new), types.toArray(String[]::new), netBalances);
+    }
+
+    /**
+     * Replaces the stored balances and watermark of one member. Runs in the
+     * caller's transaction.
+     */
+    public void replaceMemberBalances(UUID tenantId, UUID groupId, String period, UUID memberTenantId,
+            LedgerWatermark watermark, MemberBalances balances) {
+        jdbcTemplate.update("""
+                DELETE FROM fis_consolidation_member_balance
+                WHERE tenant_id = ? AND group_id = ? AND period = ? AND member_tenant_id = ?
+                """, tenantId, groupId, period, memberTenantId);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO fis_consolidation_member_balance
+                    (tenant_id, group_id, period, member_tenant_id, account_code, account_type, net_balance)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setObject(1, tenantId);
+                ps.setObject(2, groupId);
+                ps.setString(3, period);
+                ps.setObject(4, memberTenantId);
+                ps.setString(5, balances.accountCodes()[i]);
+                ps.setString(6, balances.accountTypes()[i]);
+                ps.setLong(7, balances.netBalances()[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return balances.size();
+            }
+        });
+        OffsetDateTime accountsUpdatedAt = watermark.accountsUpdatedAt();
+        jdbcTemplate.update("""
+                INSERT INTO fis_consolidation_member_state
+                    (tenant_id, group_id, period, member_tenant_id, ledger_entry_count, account_count,
+                     accounts_updated_at, computed_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, NOW())
+                ON CONFLICT (group_id, period, member_tenant_id) DO UPDATE
+                SET ledger_entry_count = EXCLUDED.ledger_entry_count,
+                    account_count = EXCLUDED.account_count,
+                    accounts_updated_at = EXCLUDED.accounts_updated_at,
+                    computed_at = NOW()
+                """, tenantId, groupId, period, memberTenantId, watermark.entryCount(), watermark.accountCount(),
+                accountsUpdatedAt != null ? Timestamp.from(accountsUpdatedAt.toInstant()) : null);
+    }
+}
@@ -9,7 +9,6 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.math.BigDecimal;
 
 /**
  * Repository for FX rates.
@@ -19,19 +18,16 @@ public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, UUID
     Optional<ExchangeRate> findByTenantIdAndSourceCurrencyAndTargetCurrencyAndEffectiveDate(
             UUID tenantId, String sourceCurrency, String targetCurrency, LocalDate effectiveDate);
 
-    @Query("""
-            SELECT r FROM ExchangeRate r
-            WHERE r.tenantId = :tenantId
-              AND r.sourceCurrency = :sourceCurrency
-              AND r.targetCurrency = :targetCurrency
-              AND r.effectiveDate <= :effectiveDate
-            ORDER BY r.effectiveDate DESC
-            """)
-    List<ExchangeRate> findLatestPrior(
-            @Param("tenantId") UUID tenantId,
-            @Param("sourceCurrency") String sourceCurrency,
-            @Param("targetCurrency") String targetCurrency,
-            @Param("effectiveDate") LocalDate effectiveDate);
+    /**
+     * Full rate history of one currency pair, oldest first.
+     */
+    List<ExchangeRate> findByTenantIdAndSourceCurrencyAndTargetCurrencyOrderByEffectiveDateAsc(
+            UUID tenantId, String sourceCurrency, String targetCurrency);
+
+    /**
+     * Full rate history of every currency pair of a tenant, oldest first.
+     */
+    List<ExchangeRate> findByTenantIdOrderByEffectiveDateAsc(UUID tenantId);
 
     @Query("""
             SELECT r FROM ExchangeRate r
@@ -46,19 +42,4 @@ public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, UUID
             @Param("sourceCurrency") String sourceCurrency,
             @Param("targetCurrency") String targetCurrency,
             @Param("effectiveDate") LocalDate effectiveDate);
-
-    @Query("""
-            SELECT AVG(r.rate)
-            FROM ExchangeRate r
-            WHERE r.tenantId = :tenantId
-              AND r.sourceCurrency = :sourceCurrency
-              AND r.targetCurrency = :targetCurrency
-              AND r.effectiveDate BETWEEN :fromDate AND :toDate
-            """)
-    Optional<BigDecimal> findAverageRateInRange(
-            @Param("tenantId") UUID tenantId,
-            @Param("sourceCurrency") String sourceCurrency,
-            @Param("targetCurrency") String targetCurrency,
-            @Param("fromDate") LocalDate fromDate,
-            @Param("toDate") LocalDate toDate);
 }
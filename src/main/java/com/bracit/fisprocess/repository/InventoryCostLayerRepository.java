@@ -0,0 +1,51 @@
+package com.bracit.fisprocess.repository;
+
+import com.bracit.fisprocess.domain.entity.InventoryCostLayer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface InventoryCostLayerRepository extends JpaRepository<InventoryCostLayer, UUID> {
+
+    /**
+     * Open layers of an item, oldest first, locked so that concurrent issues
+     * of the same item consume them one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT l FROM InventoryCostLayer l
+            WHERE l.tenantId = :tenantId
+              AND l.itemId = :itemId
+              AND l.remainingQuantity > 0
+            ORDER BY l.receivedDate, l.createdAt, l.id
+            """)
+    List<InventoryCostLayer> findOpenLayersForUpdate(
+            @Param("tenantId") UUID tenantId,
+            @Param("itemId") UUID itemId);
+
+    /**
+     * Remaining quantity and value of every item of the tenant that has open
+     * layers, in one pass over the open layers.
+     */
+    @Query("""
+            SELECT l.itemId AS itemId,
+                   SUM(l.remainingQuantity) AS quantity,
+                   SUM(l.remainingQuantity * l.unitCost) AS totalValue
+            FROM InventoryCostLayer l
+            WHERE l.tenantId = :tenantId
+              AND l.remainingQuantity > 0
+            GROUP BY l.itemId
+            """)
+    List<ItemLayerTotalProjection> sumOpenLayersByItem(@Param("tenantId") UUID tenantId);
+
+    interface ItemLayerTotalProjection {
+        UUID getItemId();
+        Long getQuantity();
+        Long getTotalValue();
+    }
+}
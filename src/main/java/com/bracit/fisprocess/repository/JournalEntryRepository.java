@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.jspecify.annotations.Nullable;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -43,6 +44,20 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
 
         long countByTenantIdAndEventId(UUID tenantId, String eventId);
 
+        /**
+         * Tenants ordered by the number of journal entries created since the
+         * given instant, most active first.
+         */
+        @Query(value = """
+                        SELECT tenant_id
+                        FROM fis_journal_entry
+                        WHERE created_at >= :since
+                        GROUP BY tenant_id
+                        ORDER BY COUNT(*) DESC
+                        LIMIT :limit
+                        """, nativeQuery = true)
+        List<UUID> findMostActiveTenantIds(@Param("since") OffsetDateTime since, @Param("limit") int limit);
+
         @Query("""
                         SELECT je.eventId
                         FROM JournalEntry je
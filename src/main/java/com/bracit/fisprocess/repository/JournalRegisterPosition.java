@@ -0,0 +1,11 @@
+package com.bracit.fisprocess.repository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Position of a journal entry in journal register order, used as the keyset
+ * for fetching the next page.
+ */
+public record JournalRegisterPosition(LocalDate effectiveDate, long sequenceNumber, UUID journalEntryId) {
+}
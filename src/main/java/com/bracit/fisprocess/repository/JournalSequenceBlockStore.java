@@ -0,0 +1,58 @@
+package com.bracit.fisprocess.repository;
+
+import com.bracit.fisprocess.config.ShardDataSources;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reserves blocks of journal sequence numbers on a connection pool of its
+ * own.
+ * <p>
+ * A reservation happens while postings wait on the in-memory block lock,
+ * and each of them already holds a connection from the main pool for its
+ * own transaction. Reserving from that same pool would let the waiters take
+ * every connection and starve the reservation they are waiting for, so the
+ * statements run in auto-commit on {@link ShardDataSources#sequenceReservation()},
+ * routed to the shard of the current tenant. Each statement commits on its
+ * own, which releases the row lock at once and keeps the reservation when
+ * the posting rolls back.
+ */
+@Repository
+public class JournalSequenceBlockStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JournalSequenceBlockStore(ShardDataSources shardDataSources) {
+        this.jdbcTemplate = new JdbcTemplate(shardDataSources.sequenceReservation());
+    }
+
+    /**
+     * Reserves {@code count} numbers and leases the row to {@code owner} for
+     * {@code leaseSeconds}, returning the first number. Empty if the row does
+     * not exist yet or another owner's lease has not run out.
+     */
+    public Optional<Long> reserve(UUID tenantId, int fiscalYear, int count, String owner, int leaseSeconds) {
+        List<Long> start = jdbcTemplate.queryForList("""
+                UPDATE fis_journal_sequence
+                SET next_value = next_value + ?,
+                    block_owner = ?,
+                    block_owner_until = now() + make_interval(secs => ?)
+                WHERE tenant_id = ? AND fiscal_year = ?
+                  AND (block_owner IS NULL OR block_owner = ? OR block_owner_until < now())
+                RETURNING next_value - ?
+                """, Long.class, count, owner, leaseSeconds, tenantId, fiscalYear, owner, count);
+        return start.stream().findFirst();
+    }
+
+    public int initializeIfAbsent(UUID tenantId, int fiscalYear) {
+        return jdbcTemplate.update("""
+                INSERT INTO fis_journal_sequence (tenant_id, fiscal_year, next_value)
+                VALUES (?, ?, 1)
+                ON CONFLICT (tenant_id, fiscal_year) DO NOTHING
+                """, tenantId, fiscalYear);
+    }
+}
@@ -34,7 +34,11 @@ public interface JournalSequenceRepository extends JpaRepository<JournalSequence
             """, nativeQuery = true)
     int initializeIfAbsent(@Param("tenantId") UUID tenantId, @Param("fiscalYear") int fiscalYear);
 
-    @Modifying
+    /**
+     * Reserves {@code count} numbers and returns the first one, or empty if the
+     * row does not exist yet. Not {@code @Modifying}: the {@code RETURNING}
+     * clause makes this a result-producing statement.
+     */
     @Query(value = """
             UPDATE fis_journal_sequence
             SET next_value = next_value + :count
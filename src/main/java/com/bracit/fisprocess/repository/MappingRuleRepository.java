@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,6 +21,9 @@ public interface MappingRuleRepository extends JpaRepository<MappingRule, UUID>
     @EntityGraph(attributePaths = "lines")
     Optional<MappingRule> findByTenantIdAndId(UUID tenantId, UUID id);
 
+    @EntityGraph(attributePaths = "lines")
+    List<MappingRule> findByTenantIdAndIsActiveTrue(UUID tenantId);
+
     @Query("""
             SELECT mr FROM MappingRule mr
             WHERE mr.tenantId = :tenantId
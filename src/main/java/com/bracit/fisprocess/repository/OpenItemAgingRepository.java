@@ -0,0 +1,151 @@
+package com.bracit.fisprocess.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Aggregates outstanding invoice (AR) and bill (AP) balances into aging
+ * buckets in the database.
+ * <p>
+ * Bucket {@code 0} holds items not yet due. Bucket {@code i} (1-based) holds
+ * items between {@code boundaries[i-2] + 1} and {@code boundaries[i-1]} days
+ * overdue, and bucket {@code boundaries.length + 1} everything older. Only open
+ * items with an outstanding balance are read, which the partial indexes
+ * {@code idx_invoice_open_aging} and {@code idx_bill_open_aging} cover.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OpenItemAgingRepository {
+
+    /**
+     * The sub-ledger an aging query runs against.
+     */
+    public enum Ledger {
+        RECEIVABLES("fis_invoice", "customer_id"),
+        PAYABLES("fis_bill", "vendor_id");
+
+        private final String table;
+        private final String partyColumn;
+
+        Ledger(String table, String partyColumn) {
+            this.table = table;
+            this.partyColumn = partyColumn;
+        }
+    }
+
+    public record BucketTotal(int bucket, long count, long amount, String currency) {
+    }
+
+    public record PartyBucketTotal(UUID partyId, int bucket, long count, long amount, String currency) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${fis.reporting.export-fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    /**
+     * Totals per bucket over the tenant's open items, optionally for one
+     * customer or vendor.
+     */
+    public List<BucketTotal> findBucketTotals(
+            Ledger ledger,
+            UUID tenantId,
+            @Nullable UUID partyId,
+            LocalDate asOfDate,
+            int[] boundaries) {
+        String sql = "SELECT " + bucketExpression(boundaries) + """
+                 AS bucket,
+                    COUNT(*) AS item_count,
+                    SUM(outstanding) AS amount,
+                    MIN(currency) AS currency
+                FROM (
+                    SELECT (? - due_date) AS days_overdue,
+                           total_amount - paid_amount AS outstanding,
+                           currency
+                    FROM %s
+                    WHERE tenant_id = ?
+                      AND status IN ('POSTED', 'PARTIALLY_PAID', 'OVERDUE')
+                      AND total_amount > paid_amount
+                """.formatted(ledger.table)
+                + (partyId != null ? "  AND " + ledger.partyColumn + " = ?\n" : "")
+                + """
+                ) open_items
+                GROUP BY 1
+                ORDER BY 1
+                """;
+        Object[] args = partyId != null
+                ? new Object[] { asOfDate, tenantId, partyId }
+                : new Object[] { asOfDate, tenantId };
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new BucketTotal(
+                rs.getInt("bucket"), rs.getLong("item_count"), rs.getLong("amount"), rs.getString("currency")), args);
+    }
+
+    /**
+     * Streams bucket totals per customer or vendor, ordered by party and
+     * bucket, from a forward-only cursor. Rows of one party arrive
+     * consecutively.
+     */
+    @Transactional(readOnly = true)
+    public void streamPartyBucketTotals(
+            Ledger ledger,
+            UUID tenantId,
+            LocalDate asOfDate,
+            int[] boundaries,
+            Consumer<PartyBucketTotal> rowConsumer) {
+        String sql = "SELECT party_id, " + bucketExpression(boundaries) + """
+                 AS bucket,
+                    COUNT(*) AS item_count,
+                    SUM(outstanding) AS amount,
+                    MIN(currency) AS currency
+                FROM (
+                    SELECT %s AS party_id,
+                           (? - due_date) AS days_overdue,
+                           total_amount - paid_amount AS outstanding,
+                           currency
+                    FROM %s
+                    WHERE tenant_id = ?
+                      AND status IN ('POSTED', 'PARTIALLY_PAID', 'OVERDUE')
+                      AND total_amount > paid_amount
+                ) open_items
+                GROUP BY 1, 2
+                ORDER BY 1, 2
+                """.formatted(ledger.partyColumn, ledger.table);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, asOfDate);
+            statement.setObject(2, tenantId);
+            return statement;
+        }, rs -> {
+            rowConsumer.accept(new PartyBucketTotal(rs.getObject("party_id", UUID.class), rs.getInt("bucket"),
+                    rs.getLong("item_count"), rs.getLong("amount"), rs.getString("currency")));
+        });
+    }
+
+    /**
+     * Builds the bucket {@code CASE} over {@code days_overdue}. Boundaries are
+     * validated integers, so they are inlined rather than bound.
+     */
+    private static String bucketExpression(int[] boundaries) {
+        List<String> branches = new ArrayList<>(boundaries.length + 1);
+        branches.add("WHEN days_overdue <= 0 THEN 0");
+        for (int i = 0; i < boundaries.length; i++) {
+            branches.add("WHEN days_overdue <= " + boundaries[i] + " THEN " + (i + 1));
+        }
+        return "CASE " + String.join(" ", branches) + " ELSE " + (boundaries.length + 1) + " END";
+    }
+}
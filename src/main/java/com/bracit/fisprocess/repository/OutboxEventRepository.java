@@ -4,8 +4,10 @@ import com.bracit.fisprocess.domain.entity.OutboxEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,7 +18,33 @@ import java.util.UUID;
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID>,
         org.springframework.data.jpa.repository.JpaSpecificationExecutor<OutboxEvent> {
 
-    List<OutboxEvent> findTop100ByPublishedFalseAndDlqFalseOrderByCreatedAtAsc();
+    /**
+     * Locks up to {@code limit} of the oldest unpublished, non-DLQ events for
+     * the current transaction. Rows already locked by another relay are
+     * skipped, so several instances can relay disjoint batches in parallel.
+     */
+    @Query(value = """
+            SELECT * FROM fis_outbox
+            WHERE published = FALSE AND dlq = FALSE
+            ORDER BY created_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> claimUnpublishedBatch(@Param("limit") int limit);
+
+    /**
+     * Marks a batch of events as published in one statement.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.published = true, o.publishedAt = :publishedAt WHERE o.outboxId IN :ids")
+    int markPublished(@Param("ids") Collection<UUID> ids, @Param("publishedAt") OffsetDateTime publishedAt);
+
+    /**
+     * Records a failed publish attempt on an event.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.retryCount = o.retryCount + 1, o.lastError = :error WHERE o.outboxId = :id")
+    int recordPublishFailure(@Param("id") UUID id, @Param("error") String error);
 
     long countByPublishedFalseAndDlqFalse();
 
@@ -0,0 +1,277 @@
+package com.bracit.fisprocess.repository;
+
+import org.postgresql.copy.CopyIn;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Encodes rows in PostgreSQL's binary {@code COPY} format and streams them to
+ * a {@link CopyIn} through one fixed-size buffer.
+ * <p>
+ * Memory stays constant regardless of how many rows are written: the buffer
+ * is handed to the driver whenever it fills up. Values use the server's
+ * binary wire representation (UUID as 16 bytes, {@code date} as days and
+ * {@code timestamptz} as microseconds since 2000-01-01, {@code numeric} as
+ * base-10000 digits, {@code jsonb} as version byte plus UTF-8 text), so no
+ * text parsing or CSV escaping is needed on either side.
+ */
+final class PgBinaryCopyWriter {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final long PG_EPOCH_DAY = LocalDate.of(2000, 1, 1).toEpochDay();
+    private static final long PG_EPOCH_SECOND = PG_EPOCH_DAY * 86_400L;
+    private static final byte JSONB_VERSION = 1;
+    private static final short NUMERIC_POS = 0x0000;
+    private static final short NUMERIC_NEG = 0x4000;
+
+    private final CopyIn copyIn;
+    private final byte[] buffer;
+    private int position;
+
+    PgBinaryCopyWriter(CopyIn copyIn, int bufferSize) throws SQLException {
+        this.copyIn = copyIn;
+        this.buffer = new byte[bufferSize];
+        ensure(SIGNATURE.length + 8);
+        System.arraycopy(SIGNATURE, 0, buffer, 0, SIGNATURE.length);
+        position = SIGNATURE.length;
+        putInt(0); // flags
+        putInt(0); // header extension length
+    }
+
+    void startRow(int fieldCount) throws SQLException {
+        ensure(2);
+        putShort((short) fieldCount);
+    }
+
+    void writeNull() throws SQLException {
+        ensure(4);
+        putInt(-1);
+    }
+
+    void writeUuid(UUID value) throws SQLException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        ensure(20);
+        putInt(16);
+        putLong(value.getMostSignificantBits());
+        putLong(value.getLeastSignificantBits());
+    }
+
+    void writeText(String value) throws SQLException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                writeBytes(value.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        if (length + 4 > buffer.length) {
+            writeBytes(value.getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        ensure(length + 4);
+        putInt(length);
+        for (int i = 0; i < length; i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+
+    void writeDate(LocalDate value) throws SQLException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        ensure(8);
+        putInt(4);
+        putInt((int) (value.toEpochDay() - PG_EPOCH_DAY));
+    }
+
+    void writeTimestamptz(OffsetDateTime value) throws SQLException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        long seconds = value.toEpochSecond() - PG_EPOCH_SECOND;
+        ensure(12);
+        putInt(8);
+        putLong(seconds * 1_000_000L + value.getNano() / 1_000);
+    }
+
+    void writeInt(int value) throws SQLException {
+        ensure(8);
+        putInt(4);
+        putInt(value);
+    }
+
+    void writeLong(Long value) throws SQLException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        ensure(12);
+        putInt(8);
+        putLong(value);
+    }
+
+    void writeBoolean(boolean value) throws SQLException {
+        ensure(5);
+        putInt(1);
+        buffer[position++] = (byte) (value ? 1 : 0);
+    }
+
+    /**
+     * Writes a {@code numeric} as sign, weight, display scale and base-10000
+     * digit groups.
+     */
+    void writeNumeric(BigDecimal value) throws SQLException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        int dscale = Math.max(value.scale(), 0);
+        String plain = value.abs().toPlainString();
+        int point = plain.indexOf('.');
+        String integerPart = point < 0 ? plain : plain.substring(0, point);
+        String fractionPart = point < 0 ? "" : plain.substring(point + 1);
+
+        int integerGroups = (integerPart.length() + 3) / 4;
+        int fractionGroups = (fractionPart.length() + 3) / 4;
+        short[] digits = new short[integerGroups + fractionGroups];
+        int integerPad = integerGroups * 4 - integerPart.length();
+        for (int i = 0; i < integerPart.length(); i++) {
+            int group = (i + integerPad) / 4;
+            digits[group] = (short) (digits[group] * 10 + (integerPart.charAt(i) - '0'));
+        }
+        for (int i = 0; i < fractionGroups * 4; i++) {
+            int group = integerGroups + i / 4;
+            int digit = i < fractionPart.length() ? fractionPart.charAt(i) - '0' : 0;
+            digits[group] = (short) (digits[group] * 10 + digit);
+        }
+
+        int first = 0;
+        while (first < digits.length && digits[first] == 0) {
+            first++;
+        }
+        int last = digits.length - 1;
+        while (last >= first && digits[last] == 0) {
+            last--;
+        }
+        int ndigits = last - first + 1;
+        int weight = ndigits == 0 ? 0 : integerGroups - 1 - first;
+        short sign = value.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS;
+
+        ensure(4 + 8 + ndigits * 2);
+        putInt(8 + ndigits * 2);
+        putShort((short) ndigits);
+        putShort((short) weight);
+        putShort(sign);
+        putShort((short) dscale);
+        for (int i = first; i <= last; i++) {
+            putShort(digits[i]);
+        }
+    }
+
+    /**
+     * Writes already serialized UTF-8 JSON as a version-1 {@code jsonb} value.
+     */
+    void writeJsonb(byte[] json) throws SQLException {
+        if (json == null) {
+            writeNull();
+            return;
+        }
+        if (json.length + 5 > buffer.length) {
+            ensure(5);
+            putInt(json.length + 1);
+            buffer[position++] = JSONB_VERSION;
+            flush();
+            copyIn.writeToCopy(json, 0, json.length);
+            return;
+        }
+        ensure(json.length + 5);
+        putInt(json.length + 1);
+        buffer[position++] = JSONB_VERSION;
+        System.arraycopy(json, 0, buffer, position, json.length);
+        position += json.length;
+    }
+
+    /**
+     * Writes the file trailer, flushes the buffer and completes the COPY.
+     *
+     * @return number of rows the server reports as copied
+     */
+    long finish() throws SQLException {
+        ensure(2);
+        putShort((short) -1);
+        flush();
+        return copyIn.endCopy();
+    }
+
+    /**
+     * Aborts the COPY if it is still in progress, so the connection leaves
+     * copy mode and can roll back the transaction.
+     */
+    void cancel() {
+        try {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        } catch (SQLException e) {
+            // The COPY has already failed on the server; nothing is left to abort
+        }
+    }
+
+    private void writeBytes(byte[] bytes) throws SQLException {
+        if (bytes.length + 4 > buffer.length) {
+            ensure(4);
+            putInt(bytes.length);
+            flush();
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            return;
+        }
+        ensure(bytes.length + 4);
+        putInt(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int bytes) throws SQLException {
+        if (buffer.length - position < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (position > 0) {
+            copyIn.writeToCopy(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void putShort(short value) {
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void putInt(int value) {
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void putLong(long value) {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+}
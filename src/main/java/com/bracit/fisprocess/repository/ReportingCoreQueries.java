@@ -62,6 +62,52 @@ final class ReportingCoreQueries {
                 """, asOfDate, tenantId, tenantId);
     }
 
+    static List<Map<String, Object>> findTrialBalanceLinesFromSnapshots(
+            JdbcTemplate jdbcTemplate,
+            UUID tenantId,
+            LocalDate asOfDate) {
+        return jdbcTemplate.queryForList("""
+                SELECT
+                    a.code            AS account_code,
+                    a.name            AS account_name,
+                    a.account_type    AS account_type,
+                    COALESCE(SUM(d.debit_total), 0)  AS total_debits,
+                    COALESCE(SUM(d.credit_total), 0) AS total_credits
+                FROM fis_account a
+                LEFT JOIN fis_account_balance_daily d
+                    ON d.account_id = a.account_id
+                   AND d.tenant_id = ?
+                   AND d.balance_date <= ?
+                WHERE a.tenant_id = ?
+                  AND a.is_active = TRUE
+                GROUP BY a.code, a.name, a.account_type
+                ORDER BY a.account_type, a.code
+                """, tenantId, asOfDate, tenantId);
+    }
+
+    static List<Map<String, Object>> findBalanceSheetAccountsFromSnapshots(
+            JdbcTemplate jdbcTemplate,
+            UUID tenantId,
+            LocalDate asOfDate) {
+        return jdbcTemplate.queryForList("""
+                SELECT
+                    a.code            AS account_code,
+                    a.name            AS account_name,
+                    a.account_type    AS account_type,
+                    COALESCE(SUM(d.debit_total - d.credit_total), 0) AS net_balance
+                FROM fis_account a
+                LEFT JOIN fis_account_balance_daily d
+                    ON d.account_id = a.account_id
+                   AND d.tenant_id = ?
+                   AND d.balance_date <= ?
+                WHERE a.tenant_id = ?
+                  AND a.is_active = TRUE
+                  AND a.account_type IN ('ASSET', 'LIABILITY', 'EQUITY')
+                GROUP BY a.code, a.name, a.account_type
+                ORDER BY a.account_type, a.code
+                """, tenantId, asOfDate, tenantId);
+    }
+
     static List<Map<String, Object>> findIncomeStatementAccounts(
             JdbcTemplate jdbcTemplate,
             UUID tenantId,
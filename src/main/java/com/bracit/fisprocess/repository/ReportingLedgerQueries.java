@@ -1,7 +1,11 @@
 package com.bracit.fisprocess.repository;
 
+import org.jspecify.annotations.Nullable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -10,6 +14,35 @@ import java.util.UUID;
 
 final class ReportingLedgerQueries {
 
+    /**
+     * Journal register rows with per-entry totals. Totals are computed per entry
+     * with a lateral subquery so rows can be returned in index order without
+     * aggregating the whole range first.
+     */
+    private static final String JOURNAL_REGISTER_SELECT = """
+            SELECT
+                je.journal_entry_id  AS journal_entry_id,
+                je.effective_date    AS effective_date,
+                je.sequence_number   AS sequence_number,
+                je.posted_date       AS posted_date,
+                je.description       AS description,
+                je.status            AS status,
+                je.created_by        AS created_by,
+                COALESCE(t.total_debits, 0)  AS total_debits,
+                COALESCE(t.total_credits, 0) AS total_credits
+            FROM fis_journal_entry je
+            LEFT JOIN LATERAL (
+                SELECT
+                    SUM(CASE WHEN NOT jl.is_credit THEN jl.base_amount ELSE 0 END) AS total_debits,
+                    SUM(CASE WHEN jl.is_credit THEN jl.base_amount ELSE 0 END)     AS total_credits
+                FROM fis_journal_line jl
+                WHERE jl.journal_entry_id = je.journal_entry_id
+            ) t ON TRUE
+            WHERE je.tenant_id = ?
+              AND je.effective_date BETWEEN ? AND ?
+              AND je.status IN ('POSTED', 'CORRECTION', 'REVERSAL')
+            """;
+
     private ReportingLedgerQueries() {
     }
 
@@ -104,6 +137,60 @@ final class ReportingLedgerQueries {
                 """, tenantId, fromDate, toDate, limit, offset);
     }
 
+    /**
+     * Keyset page of the journal register ordered by
+     * {@code (effective_date, sequence_number, journal_entry_id)}. Rows strictly
+     * after the given position are returned; a {@code null} position starts at
+     * the beginning of the range. Sequence numbers restart each fiscal year, so
+     * the entry id breaks ties between entries of different years.
+     */
+    static List<Map<String, Object>> findJournalRegisterPage(
+            JdbcTemplate jdbcTemplate,
+            UUID tenantId,
+            LocalDate fromDate,
+            LocalDate toDate,
+            @Nullable JournalRegisterPosition after,
+            int limit) {
+        if (after == null) {
+            return jdbcTemplate.queryForList(JOURNAL_REGISTER_SELECT + """
+                    ORDER BY je.effective_date, je.sequence_number, je.journal_entry_id
+                    LIMIT ?
+                    """, tenantId, fromDate, toDate, limit);
+        }
+        return jdbcTemplate.queryForList(JOURNAL_REGISTER_SELECT + """
+                  AND (je.effective_date, je.sequence_number, je.journal_entry_id) > (?, ?, ?)
+                ORDER BY je.effective_date, je.sequence_number, je.journal_entry_id
+                LIMIT ?
+                """, tenantId, fromDate, toDate,
+                after.effectiveDate(), after.sequenceNumber(), after.journalEntryId(), limit);
+    }
+
+    /**
+     * Streams the whole journal register range to {@code rowHandler} in keyset
+     * order. The statement uses the given fetch size, which PostgreSQL honours
+     * with a server-side cursor when the connection is not in auto-commit mode.
+     */
+    static void streamJournalRegister(
+            JdbcTemplate jdbcTemplate,
+            UUID tenantId,
+            LocalDate fromDate,
+            LocalDate toDate,
+            int fetchSize,
+            RowCallbackHandler rowHandler) {
+        String sql = JOURNAL_REGISTER_SELECT + """
+                ORDER BY je.effective_date, je.sequence_number, je.journal_entry_id
+                """;
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, tenantId);
+            statement.setObject(2, fromDate);
+            statement.setObject(3, toDate);
+            return statement;
+        }, rowHandler);
+    }
+
     static long countJournalRegister(JdbcTemplate jdbcTemplate, UUID tenantId, LocalDate fromDate, LocalDate toDate) {
         Long result = jdbcTemplate.queryForObject("""
                 SELECT COUNT(*)
@@ -1,8 +1,12 @@
 package com.bracit.fisprocess.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -14,18 +18,30 @@ import java.util.UUID;
 /**
  * Read-only reporting query facade.
  * Delegates to focused query modules to keep classes small and maintainable.
+ * As-of-date balances are read from the daily balance rows once a tenant has
+ * been backfilled, and aggregated from journal lines before that.
  */
 @Repository
 @RequiredArgsConstructor
 public class ReportingRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final AccountBalanceSnapshotRepository balanceSnapshots;
+
+    @Value("${fis.reporting.export-fetch-size:1000}")
+    private int exportFetchSize = 1000;
 
     public List<Map<String, Object>> findTrialBalanceLines(UUID tenantId, LocalDate asOfDate) {
+        if (balanceSnapshots.isReady(tenantId)) {
+            return ReportingCoreQueries.findTrialBalanceLinesFromSnapshots(jdbcTemplate, tenantId, asOfDate);
+        }
         return ReportingCoreQueries.findTrialBalanceLines(jdbcTemplate, tenantId, asOfDate);
     }
 
     public List<Map<String, Object>> findBalanceSheetAccounts(UUID tenantId, LocalDate asOfDate) {
+        if (balanceSnapshots.isReady(tenantId)) {
+            return ReportingCoreQueries.findBalanceSheetAccountsFromSnapshots(jdbcTemplate, tenantId, asOfDate);
+        }
         return ReportingCoreQueries.findBalanceSheetAccounts(jdbcTemplate, tenantId, asOfDate);
     }
 
@@ -52,6 +68,22 @@ public class ReportingRepository {
         return ReportingLedgerQueries.findJournalRegister(jdbcTemplate, tenantId, fromDate, toDate, offset, limit);
     }
 
+    public List<Map<String, Object>> findJournalRegisterPage(UUID tenantId, LocalDate fromDate,
+            LocalDate toDate, @Nullable JournalRegisterPosition after, int limit) {
+        return ReportingLedgerQueries.findJournalRegisterPage(jdbcTemplate, tenantId, fromDate, toDate, after, limit);
+    }
+
+    /**
+     * Streams the journal register range row by row. Runs in a read-only
+     * transaction so that PostgreSQL can use a cursor for the fetch size.
+     */
+    @Transactional(readOnly = true)
+    public void streamJournalRegister(UUID tenantId, LocalDate fromDate, LocalDate toDate,
+            RowCallbackHandler rowHandler) {
+        ReportingLedgerQueries.streamJournalRegister(jdbcTemplate, tenantId, fromDate, toDate,
+                exportFetchSize, rowHandler);
+    }
+
     public long countJournalRegister(UUID tenantId, LocalDate fromDate, LocalDate toDate) {
         return ReportingLedgerQueries.countJournalRegister(jdbcTemplate, tenantId, fromDate, toDate);
     }
@@ -0,0 +1,113 @@
+package com.bracit.fisprocess.repository;
+
+import com.bracit.fisprocess.config.ShardDataSources;
+import com.bracit.fisprocess.domain.enums.ShardPlacementStatus;
+import com.bracit.fisprocess.domain.model.TenantShardPlacement;
+import com.bracit.fisprocess.service.Shard;
+import org.jspecify.annotations.Nullable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads and writes {@code fis_tenant_shard_placement} on the default shard.
+ * <p>
+ * Uses the default shard's DataSource directly rather than the routing one:
+ * the directory is consulted while a tenant's shard is being determined, so
+ * it must not itself depend on shard routing. All transitions are
+ * conditional updates, so concurrent instances cannot record conflicting
+ * placements.
+ */
+@Repository
+public class TenantShardPlacementStore {
+
+    private static final RowMapper<TenantShardPlacement> ROW_MAPPER = (rs, rowNum) -> {
+        String target = rs.getString("target_shard_name");
+        return new TenantShardPlacement(
+                rs.getObject("tenant_id", UUID.class),
+                Shard.of(rs.getString("shard_name")),
+                ShardPlacementStatus.valueOf(rs.getString("status")),
+                target != null ? Shard.of(target) : null);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TenantShardPlacementStore(ShardDataSources shardDataSources) {
+        this.jdbcTemplate = new JdbcTemplate(shardDataSources.directory());
+    }
+
+    public @Nullable TenantShardPlacement find(UUID tenantId) {
+        List<TenantShardPlacement> rows = jdbcTemplate.query("""
+                SELECT tenant_id, shard_name, status, target_shard_name
+                FROM fis_tenant_shard_placement
+                WHERE tenant_id = ?
+                """, ROW_MAPPER, tenantId);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    public List<TenantShardPlacement> findAll() {
+        return jdbcTemplate.query("""
+                SELECT tenant_id, shard_name, status, target_shard_name
+                FROM fis_tenant_shard_placement
+                ORDER BY tenant_id
+                """, ROW_MAPPER);
+    }
+
+    /**
+     * Records the tenant on the given shard unless it already has a
+     * placement, and returns whichever placement is now recorded.
+     */
+    public TenantShardPlacement insertIfAbsent(UUID tenantId, Shard shard) {
+        jdbcTemplate.update("""
+                INSERT INTO fis_tenant_shard_placement (tenant_id, shard_name, status, updated_at)
+                VALUES (?, ?, 'ACTIVE', CURRENT_TIMESTAMP)
+                ON CONFLICT (tenant_id) DO NOTHING
+                """, tenantId, shard.name());
+        TenantShardPlacement placement = find(tenantId);
+        if (placement == null) {
+            throw new IllegalStateException("Placement of tenant " + tenantId + " vanished after insert");
+        }
+        return placement;
+    }
+
+    /**
+     * Fences the tenant for a move from {@code from} to {@code to}.
+     *
+     * @return false if the tenant is not active on {@code from}
+     */
+    public boolean markMigrating(UUID tenantId, Shard from, Shard to) {
+        return jdbcTemplate.update("""
+                UPDATE fis_tenant_shard_placement
+                SET status = 'MIGRATING', target_shard_name = ?, updated_at = CURRENT_TIMESTAMP
+                WHERE tenant_id = ? AND shard_name = ? AND status = 'ACTIVE'
+                """, to.name(), tenantId, from.name()) == 1;
+    }
+
+    /**
+     * Flips the tenant's placement to the shard it was being moved to.
+     *
+     * @return false if the tenant was not migrating to {@code to}
+     */
+    public boolean completeMigration(UUID tenantId, Shard to) {
+        return jdbcTemplate.update("""
+                UPDATE fis_tenant_shard_placement
+                SET shard_name = target_shard_name, status = 'ACTIVE', target_shard_name = NULL,
+                    updated_at = CURRENT_TIMESTAMP
+                WHERE tenant_id = ? AND status = 'MIGRATING' AND target_shard_name = ?
+                """, tenantId, to.name()) == 1;
+    }
+
+    /**
+     * Returns a migrating tenant to its source shard.
+     */
+    public boolean abortMigration(UUID tenantId) {
+        return jdbcTemplate.update("""
+                UPDATE fis_tenant_shard_placement
+                SET status = 'ACTIVE', target_shard_name = NULL, updated_at = CURRENT_TIMESTAMP
+                WHERE tenant_id = ? AND status = 'MIGRATING'
+                """, tenantId) == 1;
+    }
+}
@@ -0,0 +1,143 @@
+package com.bracit.fisprocess.repository;
+
+import com.bracit.fisprocess.config.ShardDataSources;
+import com.bracit.fisprocess.config.ShardingProperties;
+import com.bracit.fisprocess.exception.TenantShardMigrationInProgressException;
+import com.bracit.fisprocess.service.Shard;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Database fence between a tenant's writes and its migration to another
+ * shard, as a per-tenant advisory lock on the tenant's shard.
+ * <p>
+ * Every read-write transaction that works on a tenant takes the lock shared
+ * with {@link #enterWrite}, without waiting: if a migration holds it, the
+ * transaction fails with {@link TenantShardMigrationInProgressException} and
+ * is retried once routing has moved on. A migration takes the lock
+ * exclusively with {@link #closeWrites} on the source shard, which waits for
+ * the transactions already writing the tenant to finish, and holds it while
+ * the rows are copied and the placement is flipped. So no write can commit on
+ * the source after the copy has read it.
+ * <p>
+ * The lock uses the two-key advisory lock space, separate from the single-key
+ * locks of {@link AccountBalanceSnapshotRepository}. Only taken when sharding
+ * is enabled; without it there is nowhere to migrate to.
+ */
+@Repository
+public class TenantWriteFence {
+
+    /**
+     * First key of the fence locks; the second is the tenant's hash code.
+     */
+    private static final int LOCK_CLASS = 0x46454e43;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardDataSources shardDataSources;
+    private final boolean enabled;
+    private final Object transactionKey = new Object();
+
+    public TenantWriteFence(DataSource dataSource, ShardDataSources shardDataSources,
+            ShardingProperties shardingProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.shardDataSources = shardDataSources;
+        this.enabled = shardingProperties.isEnabled();
+    }
+
+    /**
+     * Takes the tenant's fence shared for the rest of the current read-write
+     * transaction, once per transaction. Does nothing outside one.
+     *
+     * @throws TenantShardMigrationInProgressException if the tenant is being
+     *                                                 migrated
+     */
+    public void enterWrite(UUID tenantId) {
+        if (!enabled || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        Set<UUID> fenced = fencedTenants();
+        if (fenced.contains(tenantId)) {
+            return;
+        }
+        Boolean acquired = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock_shared(?, ?)",
+                Boolean.class, LOCK_CLASS, tenantId.hashCode());
+        if (!Boolean.TRUE.equals(acquired)) {
+            throw new TenantShardMigrationInProgressException(tenantId);
+        }
+        fenced.add(tenantId);
+    }
+
+    /**
+     * Takes the tenant's fence exclusively on {@code shard}, waiting for the
+     * transactions that write the tenant there to finish. Writes are refused
+     * until the returned fence is closed.
+     */
+    public ClosedWrites closeWrites(UUID tenantId, Shard shard) {
+        Connection connection = null;
+        try {
+            connection = shardDataSources.get(shard).getConnection();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_xact_lock(?, ?)")) {
+                statement.setInt(1, LOCK_CLASS);
+                statement.setInt(2, tenantId.hashCode());
+                statement.execute();
+            }
+            return new ClosedWrites(connection);
+        } catch (SQLException ex) {
+            if (connection != null) {
+                new ClosedWrites(connection).close();
+            }
+            throw new IllegalStateException("Failed to fence writes of tenant " + tenantId + " on " + shard, ex);
+        }
+    }
+
+    private Set<UUID> fencedTenants() {
+        @SuppressWarnings("unchecked")
+        Set<UUID> fenced = (Set<UUID>) TransactionSynchronizationManager.getResource(transactionKey);
+        if (fenced == null) {
+            Set<UUID> bound = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(transactionKey, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(transactionKey);
+                }
+            });
+            fenced = bound;
+        }
+        return fenced;
+    }
+
+    /**
+     * An exclusively held fence; closing it ends the holding transaction and
+     * lets writes in again.
+     */
+    public static final class ClosedWrites implements AutoCloseable {
+
+        private final Connection connection;
+
+        private ClosedWrites(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void close() {
+            try (connection) {
+                connection.rollback();
+            } catch (SQLException ex) {
+                // Closing the connection ends the transaction and its lock regardless
+            }
+        }
+    }
+}
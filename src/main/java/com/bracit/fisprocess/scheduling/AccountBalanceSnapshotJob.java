@@ -0,0 +1,133 @@
+package com.bracit.fisprocess.scheduling;
+
+import com.bracit.fisprocess.repository.AccountBalanceSnapshotRepository;
+import com.bracit.fisprocess.repository.BusinessEntityRepository;
+import com.bracit.fisprocess.service.ShardContextHolder;
+import com.bracit.fisprocess.service.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Backfills and verifies the daily account balance rows.
+ * <p>
+ * Tenants without rows are rebuilt from the journal, after which reports read
+ * their balances from the daily rows. The nightly verification compares every
+ * account's snapshot balance with
+ * {@link AccountBalanceSnapshotRepository#findJournalNetBalances(UUID)}, which
+ * counts the same journal statuses as the daily rows, inside one
+ * repeatable-read transaction, so concurrent postings cannot cause false
+ * mismatches, and rebuilds tenants that drifted when repair is enabled.
+ * <p>
+ * Each tenant is processed on its own shard, entered through
+ * {@link ShardRouter}, as the repository calls here are not routed by a
+ * service.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBalanceSnapshotJob {
+
+    private final BusinessEntityRepository businessEntityRepository;
+    private final AccountBalanceSnapshotRepository balanceSnapshotRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final ShardRouter shardRouter;
+
+    @Value("${fis.balance-snapshot.repair-on-mismatch:true}")
+    private boolean repairOnMismatch;
+
+    /**
+     * Rebuilds the daily rows of every tenant that has not been backfilled yet.
+     */
+    @Scheduled(initialDelayString = "${fis.balance-snapshot.backfill-initial-delay-ms:30000}",
+            fixedDelayString = "${fis.balance-snapshot.backfill-interval-ms:3600000}")
+    public void backfillPendingTenants() {
+        if (!balanceSnapshotRepository.isEnabled()) {
+            return;
+        }
+        for (UUID tenantId : businessEntityRepository.findAllIds()) {
+            try (ShardContextHolder.Scope ignored = shardRouter.enterTenant(tenantId)) {
+                if (balanceSnapshotRepository.isReady(tenantId)) {
+                    continue;
+                }
+                int rows = balanceSnapshotRepository.rebuild(tenantId);
+                meterRegistry.counter("fis.balance.snapshot.backfilled").increment();
+                log.info("Backfilled daily balances for tenant {} ({} rows)", tenantId, rows);
+            } catch (RuntimeException e) {
+                meterRegistry.counter("fis.balance.snapshot.backfill.error").increment();
+                log.error("Failed to backfill daily balances for tenant {}", tenantId, e);
+            }
+        }
+    }
+
+    /**
+     * Runs nightly to check the daily rows of every backfilled tenant against
+     * the journal.
+     */
+    @Scheduled(cron = "${fis.balance-snapshot.verify-cron:0 30 2 * * *}")
+    public void verifyAllTenants() {
+        if (!balanceSnapshotRepository.isEnabled()) {
+            return;
+        }
+        for (UUID tenantId : businessEntityRepository.findAllIds()) {
+            try (ShardContextHolder.Scope ignored = shardRouter.enterTenant(tenantId)) {
+                if (!balanceSnapshotRepository.isReady(tenantId)) {
+                    continue;
+                }
+                int mismatches = verifyTenant(tenantId);
+                if (mismatches > 0 && repairOnMismatch) {
+                    balanceSnapshotRepository.rebuild(tenantId);
+                    meterRegistry.counter("fis.balance.snapshot.repaired").increment();
+                }
+            } catch (RuntimeException e) {
+                meterRegistry.counter("fis.balance.snapshot.verify.error").increment();
+                log.error("Failed to verify daily balances for tenant {}", tenantId, e);
+            }
+        }
+    }
+
+    /**
+     * Compares snapshot and journal balances of every account of the tenant.
+     * The tenant's shard must be entered.
+     *
+     * @return number of accounts whose balances differ
+     */
+    public int verifyTenant(UUID tenantId) {
+        TransactionTemplate repeatableRead = new TransactionTemplate(transactionManager);
+        repeatableRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        repeatableRead.setReadOnly(true);
+        Integer mismatches = repeatableRead.execute(status -> {
+            Map<UUID, Long> snapshotBalances = balanceSnapshotRepository.findNetBalances(tenantId);
+            Map<UUID, Long> journalBalances = balanceSnapshotRepository.findJournalNetBalances(tenantId);
+            int count = 0;
+            for (UUID accountId : balanceSnapshotRepository.findAccountIds(tenantId)) {
+                long snapshot = snapshotBalances.getOrDefault(accountId, 0L);
+                long journal = journalBalances.getOrDefault(accountId, 0L);
+                if (snapshot != journal) {
+                    count++;
+                    log.warn("Daily balance mismatch for tenant {} account {}: snapshot={}, journal={}",
+                            tenantId, accountId, snapshot, journal);
+                }
+            }
+            return count;
+        });
+        int result = mismatches != null ? mismatches : 0;
+        if (result > 0) {
+            meterRegistry.counter("fis.balance.snapshot.mismatch").increment(result);
+        } else {
+            balanceSnapshotRepository.markVerified(tenantId);
+        }
+        log.info("Verified daily balances for tenant {}: {} mismatched accounts", tenantId, result);
+        return result;
+    }
+}
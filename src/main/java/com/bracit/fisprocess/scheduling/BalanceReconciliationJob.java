@@ -1,6 +1,8 @@
 package com.bracit.fisprocess.scheduling;
 
 import com.bracit.fisprocess.repository.BusinessEntityRepository;
+import com.bracit.fisprocess.service.ShardContextHolder;
+import com.bracit.fisprocess.service.ShardRouter;
 import com.bracit.fisprocess.service.impl.DerivedBalanceService;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
@@ -20,6 +22,7 @@ public class BalanceReconciliationJob {
     private final BusinessEntityRepository businessEntityRepository;
     private final DerivedBalanceService derivedBalanceService;
     private final MeterRegistry meterRegistry;
+    private final ShardRouter shardRouter;
 
     private final AtomicLong lastSyncTimestamp = new AtomicLong(0);
     private final AtomicLong accountsSynced = new AtomicLong(0);
@@ -60,7 +63,7 @@ public class BalanceReconciliationJob {
     }
 
     public int reconcileTenant(UUID tenantId) {
-        try {
+        try (ShardContextHolder.Scope ignored = shardRouter.enterTenant(tenantId)) {
             derivedBalanceService.syncAllAccountBalances(tenantId);
             accountsSynced.addAndGet(countTenantAccounts(tenantId));
             return countTenantAccounts(tenantId);
@@ -0,0 +1,50 @@
+package com.bracit.fisprocess.scheduling;
+
+import com.bracit.fisprocess.config.ReadReplicas;
+import com.bracit.fisprocess.config.ReplicaSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures the replay position and lag of every read replica, which decide
+ * whether read-only transactions may be routed to it.
+ * <p>
+ * Publishes {@code fis.read-replica.lag.ms} per replica; an unmeasurable
+ * replica reports -1.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReplicaLagJob {
+
+    private final ReadReplicas readReplicas;
+    private final MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void registerGauges() {
+        for (ReplicaSet replicaSet : readReplicas.all()) {
+            for (ReplicaSet.Replica replica : replicaSet.replicas()) {
+                meterRegistry.gauge("fis.read-replica.lag.ms",
+                        Tags.of("shard", replicaSet.shard().name(), "replica", replica.name()),
+                        replica, r -> r.lagMs() == Long.MAX_VALUE ? -1 : r.lagMs());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fis.read-replica.lag-check-interval-ms:1000}")
+    public void measureLag() {
+        for (ReplicaSet replicaSet : readReplicas.all()) {
+            try {
+                replicaSet.measureLag();
+            } catch (RuntimeException ex) {
+                // Keep the last measurements; with the primary unreachable, replicas serve the only reads that can succeed
+                log.warn("Failed to read WAL position of primary {}: {}", replicaSet.shard(), ex.getMessage());
+            }
+        }
+    }
+}
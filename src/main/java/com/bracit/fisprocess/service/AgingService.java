@@ -1,13 +1,15 @@
 package com.bracit.fisprocess.service;
 
+import com.bracit.fisprocess.dto.response.APAgingReportDto;
 import com.bracit.fisprocess.dto.response.ARAgingReportDto;
 import org.jspecify.annotations.Nullable;
 
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
- * Orchestrator service for AR Aging reports.
+ * Orchestrator service for AR and AP Aging reports.
  */
 public interface AgingService {
 
@@ -23,4 +25,29 @@ public interface AgingService {
             UUID tenantId,
             @Nullable UUID customerId,
             LocalDate asOfDate);
+
+    /**
+     * Generates an AP aging report as of a given date.
+     *
+     * @param tenantId the tenant UUID
+     * @param vendorId optional vendor filter (null = all vendors)
+     * @param asOfDate the date to calculate aging against
+     * @return the aging report
+     */
+    APAgingReportDto getPayablesAgingReport(
+            UUID tenantId,
+            @Nullable UUID vendorId,
+            LocalDate asOfDate);
+
+    /**
+     * Streams one AR aging report per customer with open invoices, in
+     * customer id order.
+     */
+    void streamAgingByCustomer(UUID tenantId, LocalDate asOfDate, Consumer<ARAgingReportDto> sink);
+
+    /**
+     * Streams one AP aging report per vendor with open bills, in vendor id
+     * order.
+     */
+    void streamPayablesAgingByVendor(UUID tenantId, LocalDate asOfDate, Consumer<APAgingReportDto> sink);
 }
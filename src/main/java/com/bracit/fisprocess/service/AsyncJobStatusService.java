@@ -6,6 +6,8 @@ import com.bracit.fisprocess.messaging.JournalWriteReply;
 import org.jspecify.annotations.Nullable;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 public interface AsyncJobStatusService {
@@ -18,6 +20,16 @@ public interface AsyncJobStatusService {
 
     void markFailed(UUID trackingId, String errorMessage, @Nullable String errorCode);
 
+    /**
+     * Marks every job of a batch as completed in a single round trip.
+     */
+    void markAllCompleted(Map<UUID, JournalEntryResponseDto> journalEntries);
+
+    /**
+     * Marks every job of a batch as failed in a single round trip.
+     */
+    void markAllFailed(Collection<UUID> trackingIds, String errorMessage, @Nullable String errorCode);
+
     @Nullable
     JournalWriteReply getJobStatus(UUID trackingId);
 
@@ -6,17 +6,28 @@ import com.bracit.fisprocess.messaging.JournalWriteReply;
 import com.bracit.fisprocess.dto.response.AsyncJobResponseDto;
 import org.jspecify.annotations.Nullable;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface AsyncJournalService {
 
-    AsyncJobResponseDto submitAsyncJournalEntry(
+    /**
+     * Publishes the entry to the write queue. The future completes with the
+     * worker's reply, or with the current job status once
+     * {@code fis.async.reply-timeout-seconds} elapse.
+     */
+    CompletableFuture<AsyncJobResponseDto> submitAsyncJournalEntry(
             UUID tenantId,
             CreateJournalEntryRequestDto request,
             @Nullable String actorRoleHeader,
             @Nullable String traceparent);
 
-    AsyncJobResponseDto submitAsyncJournalEntryBatch(
+    /**
+     * Publishes all entries before awaiting any reply; the future completes
+     * with one response per entry, in request order.
+     */
+    CompletableFuture<List<AsyncJobResponseDto>> submitAsyncJournalEntryBatch(
             UUID tenantId,
             CreateJournalEntryBatchRequestDto request,
             @Nullable String actorRoleHeader,
@@ -1,55 +1,253 @@
 package com.bracit.fisprocess.service;
 
-import com.bracit.fisprocess.config.CacheConfig;
-import lombok.RequiredArgsConstructor;
+import com.bracit.fisprocess.domain.model.AccountSnapshot;
+import com.bracit.fisprocess.repository.AccountRepository;
+import com.bracit.fisprocess.repository.JournalEntryRepository;
+import com.bracit.fisprocess.service.impl.AccountingPeriodCalendarCache;
+import com.bracit.fisprocess.service.impl.ExchangeRateCurveCache;
+import com.bracit.fisprocess.service.impl.TenantAccountResolver;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Preloads hot reference data after startup so that the first requests after
+ * a deploy do not all miss.
+ * <p>
+ * The most active tenants of the last {@code fis.cache.warming.activity-window-days}
+ * are warmed in parallel on virtual threads, at most
+ * {@code fis.cache.warming.max-parallel-tenants} at a time. Per tenant this
+ * loads the chart of accounts into {@link TenantAccountResolver}, the
+ * exchange-rate curves into {@link ExchangeRateCurveCache}, the period
+ * calendar into {@link AccountingPeriodCalendarCache} and compiles the active
+ * mapping rules, each with one bulk query. Warming stops at {@code fis.cache.warming.time-budget-ms},
+ * which also bounds the query that ranks the tenants by activity; tenants not
+ * reached by then are simply loaded on first use. Until warming
+ * has finished {@link #isReady()} is false, which holds the readiness probe.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CacheWarmingService {
 
+    /**
+     * Lifecycle of a warming run.
+     */
+    public enum WarmingState {
+        PENDING, RUNNING, COMPLETED, TIMED_OUT, FAILED, DISABLED
+    }
+
+    /**
+     * Point-in-time progress of the current or last warming run.
+     */
+    public record WarmingProgress(WarmingState state, int tenantsTotal, int tenantsWarmed, int tenantsFailed) {
+    }
+
     private final CacheManager cacheManager;
+    private final JournalEntryRepository journalEntryRepository;
+    private final AccountRepository accountRepository;
+    private final ExchangeRateCurveCache rateCurveCache;
+    private final TenantAccountResolver tenantAccountResolver;
+    private final AccountingPeriodCalendarCache periodCalendarCache;
+    private final RuleMappingService ruleMappingService;
+    private final PlatformTransactionManager transactionManager;
+    private final boolean enabled;
+    private final int maxTenants;
+    private final int maxParallelTenants;
+    private final int activityWindowDays;
+    private final Duration timeBudget;
+
     private final AtomicBoolean warmingInProgress = new AtomicBoolean(false);
+    private final AtomicReference<WarmingState> state = new AtomicReference<>(WarmingState.PENDING);
+    private final AtomicInteger tenantsTotal = new AtomicInteger();
+    private final AtomicInteger tenantsWarmed = new AtomicInteger();
+    private final AtomicInteger tenantsFailed = new AtomicInteger();
+    private volatile boolean ready;
+
+    public CacheWarmingService(
+            CacheManager cacheManager,
+            JournalEntryRepository journalEntryRepository,
+            AccountRepository accountRepository,
+            ExchangeRateCurveCache rateCurveCache,
+            TenantAccountResolver tenantAccountResolver,
+            AccountingPeriodCalendarCache periodCalendarCache,
+            RuleMappingService ruleMappingService,
+            PlatformTransactionManager transactionManager,
+            @Value("${fis.cache.warming.enabled:true}") boolean enabled,
+            @Value("${fis.cache.warming.max-tenants:200}") int maxTenants,
+            @Value("${fis.cache.warming.max-parallel-tenants:8}") int maxParallelTenants,
+            @Value("${fis.cache.warming.activity-window-days:7}") int activityWindowDays,
+            @Value("${fis.cache.warming.time-budget-ms:30000}") long timeBudgetMs) {
+        this.cacheManager = cacheManager;
+        this.journalEntryRepository = journalEntryRepository;
+        this.accountRepository = accountRepository;
+        this.rateCurveCache = rateCurveCache;
+        this.tenantAccountResolver = tenantAccountResolver;
+        this.periodCalendarCache = periodCalendarCache;
+        this.ruleMappingService = ruleMappingService;
+        this.transactionManager = transactionManager;
+        this.enabled = enabled;
+        this.maxTenants = maxTenants;
+        this.maxParallelTenants = Math.max(1, maxParallelTenants);
+        this.activityWindowDays = activityWindowDays;
+        this.timeBudget = Duration.ofMillis(timeBudgetMs);
+    }
 
+    /**
+     * Starts warming on a background thread so that startup is not blocked;
+     * readiness is held through {@link #isReady()} instead.
+     */
     @EventListener(ApplicationReadyEvent.class)
-    @Async
     public void warmCachesOnStartup() {
-        if (warmingInProgress.compareAndSet(false, true)) {
+        if (!enabled) {
+            state.set(WarmingState.DISABLED);
+            ready = true;
+            log.info("Cache warming disabled");
+            return;
+        }
+        Thread.ofVirtual().name("fis-cache-warming").start(() -> {
             log.info("Starting cache warming on application startup");
-            try {
-                warmCaches();
-            } finally {
-                warmingInProgress.set(false);
-            }
+            warmCaches();
+        });
+    }
+
+    /**
+     * Warms the caches of the most active tenants within the time budget.
+     * Returns immediately if a run is already in progress.
+     */
+    public WarmingProgress warmCaches() {
+        if (!warmingInProgress.compareAndSet(false, true)) {
+            return progress();
+        }
+        try {
+            tenantsTotal.set(0);
+            tenantsWarmed.set(0);
+            tenantsFailed.set(0);
+            state.set(WarmingState.RUNNING);
+            long startNanos = System.nanoTime();
+            state.set(warmActiveTenants(startNanos + timeBudget.toNanos()));
+            log.info("Cache warming {} after {} ms: {}/{} tenants warmed, {} failed",
+                    state.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                    tenantsWarmed.get(), tenantsTotal.get(), tenantsFailed.get());
+        } catch (RuntimeException ex) {
+            // Caches fill on demand; a failed warm-up must not keep the instance out of rotation
+            state.set(WarmingState.FAILED);
+            log.warn("Cache warming failed: {}", ex.getMessage(), ex);
+        } finally {
+            ready = true;
+            warmingInProgress.set(false);
         }
+        return progress();
     }
 
-    public void warmCaches() {
-        log.info("Cache warming started");
+    private WarmingState warmActiveTenants(long deadlineNanos) {
+        List<UUID> tenantIds;
+        try {
+            tenantIds = findMostActiveTenantIds(deadlineNanos);
+        } catch (QueryTimeoutException | TransactionTimedOutException ex) {
+            log.warn("Ranking tenants by activity exceeded the warming time budget: {}", ex.getMessage());
+            return WarmingState.TIMED_OUT;
+        }
+        tenantsTotal.set(tenantIds.size());
+        log.info("Warming caches for {} most active tenants", tenantIds.size());
 
-        warmCache(CacheConfig.CACHE_ACCOUNTS);
-        warmCache(CacheConfig.CACHE_EXCHANGE_RATES);
-        warmCache(CacheConfig.CACHE_ACCOUNTING_PERIODS);
-        warmCache(CacheConfig.CACHE_TENANTS);
+        Semaphore permits = new Semaphore(maxParallelTenants);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<?>> futures = new ArrayList<>(tenantIds.size());
+            for (UUID tenantId : tenantIds) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        if (System.nanoTime() < deadlineNanos) {
+                            warmTenant(tenantId);
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0 || !awaitTenant(futures.get(i), tenantIds.get(i), remainingNanos)) {
+                    return WarmingState.TIMED_OUT;
+                }
+            }
+            return WarmingState.COMPLETED;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-        log.info("Cache warming completed");
+    /**
+     * Ranks the tenants in a read-only transaction whose timeout is what is
+     * left of the budget, which the persistence layer applies to the query as
+     * its statement timeout.
+     */
+    private List<UUID> findMostActiveTenantIds(long deadlineNanos) {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMillis + 999)));
+        List<UUID> tenantIds = transaction.execute(status -> journalEntryRepository.findMostActiveTenantIds(
+                OffsetDateTime.now().minusDays(activityWindowDays), maxTenants));
+        return tenantIds != null ? tenantIds : List.of();
     }
 
-    public void warmCache(String cacheName) {
-        Cache cache = cacheManager.getCache(cacheName);
-        if (cache != null) {
-            log.debug("Warming cache: {}", cacheName);
-            cache.clear();
+    private boolean awaitTenant(Future<?> future, UUID tenantId, long timeoutNanos) {
+        try {
+            future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException ex) {
+            return false;
+        } catch (ExecutionException ex) {
+            tenantsFailed.incrementAndGet();
+            log.warn("Cache warming failed for tenant '{}': {}", tenantId, ex.getCause().getMessage());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void warmTenant(UUID tenantId) {
+        List<AccountSnapshot> accounts = new ArrayList<>();
+        for (Object[] row : accountRepository.findSnapshotRowsByTenantId(tenantId)) {
+            accounts.add(new AccountSnapshot((UUID) row[0], (String) row[1], (Boolean) row[2], (String) row[3]));
         }
+        tenantAccountResolver.prime(tenantId, accounts);
+
+        int ratePairs = rateCurveCache.preload(tenantId);
+        int periods = periodCalendarCache.preload(tenantId);
+        int expressions = ruleMappingService.precompileActiveRules(tenantId);
+
+        int warmed = tenantsWarmed.incrementAndGet();
+        log.debug("Warmed tenant '{}' ({}/{}): {} accounts, {} rate pairs, {} periods, {} rule expressions",
+                tenantId, warmed, tenantsTotal.get(), accounts.size(), ratePairs, periods, expressions);
     }
 
     public void evictCache(String cacheName) {
@@ -67,4 +265,17 @@ public class CacheWarmingService {
     public boolean isWarmingInProgress() {
         return warmingInProgress.get();
     }
-}
\ No newline at end of file
+
+    /**
+     * Whether the instance may take traffic as far as warming is concerned:
+     * true once the first run has ended, however it ended, or if warming is
+     * disabled. Later runs do not take the instance out of rotation.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public WarmingProgress progress() {
+        return new WarmingProgress(state.get(), tenantsTotal.get(), tenantsWarmed.get(), tenantsFailed.get());
+    }
+}
@@ -6,21 +6,32 @@ import com.bracit.fisprocess.dto.response.ConsolidationMemberResponseDto;
 import com.bracit.fisprocess.dto.response.ConsolidationRunResponseDto;
 import com.bracit.fisprocess.exception.ConsolidationGroupNotFoundException;
 import com.bracit.fisprocess.repository.*;
+import com.bracit.fisprocess.repository.ConsolidationMemberBalanceRepository.LedgerWatermark;
+import com.bracit.fisprocess.repository.ConsolidationMemberBalanceRepository.MemberBalances;
 import com.bracit.fisprocess.service.ConsolidationService;
 import com.bracit.fisprocess.service.ExchangeRateService;
 import com.bracit.fisprocess.service.ReportingService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 @Service
 @RequiredArgsConstructor
@@ -28,14 +39,21 @@ import java.util.*;
 @Transactional(readOnly = true)
 public class ConsolidationServiceImpl implements ConsolidationService {
 
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
     private final ConsolidationGroupRepository groupRepo;
     private final ConsolidationMemberRepository memberRepo;
     private final ConsolidationRunRepository runRepo;
     private final EliminationRuleRepository eliminationRuleRepo;
     private final ReportingRepository reportingRepo;
     private final ExchangeRateService exchangeRateService;
+    private final ConsolidationMemberBalanceRepository memberBalanceRepo;
+    private final MeterRegistry meterRegistry;
     private final ModelMapper mapper;
 
+    @Value("${fis.consolidation.max-parallel-members:8}")
+    private int maxParallelMembers = 8;
+
     @Override
     @Transactional
     public ConsolidationGroupResponseDto createGroup(UUID tenantId,
@@ -57,6 +75,15 @@ public class ConsolidationServiceImpl implements ConsolidationService {
         return mapper.map(memberRepo.save(m), ConsolidationMemberResponseDto.class);
     }
 
+    /**
+     * Consolidates the group's members as of the end of the period.
+     * <p>
+     * Member trial balances are loaded in parallel on virtual threads, at most
+     * {@code fis.consolidation.max-parallel-members} at a time. A member whose
+     * ledger is unchanged since the previous run of the period reuses the
+     * balances stored by that run. Translation rates are resolved once per
+     * member, and ownership is applied while merging into the accumulator.
+     */
     @Override
     @Transactional
     public ConsolidationRunResponseDto run(UUID groupId, String period) {
@@ -71,81 +98,49 @@ public class ConsolidationServiceImpl implements ConsolidationService {
         // Parse period "2026-01" to get end date
         YearMonth ym = YearMonth.parse(period);
         LocalDate asOfDate = ym.atEndOfMonth();
-
-        // Map to accumulate consolidated balances by account code
-        Map<String, ConsolidatedBalance> consolidated = new HashMap<>();
         long totalAssets = 0, totalLiabilities = 0, totalEquity = 0, netIncome = 0;
 
-        // Step 1: Aggregate trial balances from all member tenants
-        for (ConsolidationMember member : members) {
-            // Query trial balance for this member tenant
-            List<Map<String, Object>> tbLines = reportingRepo.findTrialBalanceLines(
-                member.getMemberTenantId(), asOfDate);
-
-            BigDecimal ownership = member.getOwnershipPercentage() != null
-                ? member.getOwnershipPercentage()
-                : BigDecimal.valueOf(100);
-
-            for (Map<String, Object> line : tbLines) {
-                String accountCode = (String) line.get("account_code");
-                String accountType = (String) line.get("account_type");
-                long totalDebits = ((Number) line.get("total_debits")).longValue();
-                long totalCredits = ((Number) line.get("total_credits")).longValue();
-                long netBalance = totalDebits - totalCredits;
-
-                // Translate currency if needed
-                if (!member.getCurrency().equals(group.getBaseCurrency())) {
-                    BigDecimal rate = exchangeRateService.resolveRate(
-                        member.getMemberTenantId(),
-                        member.getCurrency(),
-                        group.getBaseCurrency(),
-                        asOfDate);
-                    netBalance = BigDecimal.valueOf(netBalance)
-                        .multiply(rate)
-                        .longValue();
-                }
-
-                // Apply ownership percentage
-                long finalAmount = BigDecimal.valueOf(netBalance)
-                    .multiply(ownership)
-                    .divide(BigDecimal.valueOf(100), 0, BigDecimal.ROUND_HALF_UP)
-                    .longValue();
+        // Step 1: Load member trial balances, reusing unchanged ones, and aggregate them
+        Map<UUID, LedgerWatermark> storedWatermarks =
+            memberBalanceRepo.findStoredWatermarks(group.getTenantId(), groupId, period);
+        List<MemberTrialBalance> memberBalances = loadMemberBalances(group, period, asOfDate, members, storedWatermarks);
 
-                // Aggregate
-                final long amountForAggregate = finalAmount;
-                consolidated.compute(accountCode, (k, existing) -> {
-                    if (existing == null) {
-                        return new ConsolidatedBalance(accountCode, accountType, amountForAggregate);
-                    } else {
-                        existing.addAmount(amountForAggregate);
-                        return existing;
-                    }
-                });
+        ConsolidationAccumulator consolidated = new ConsolidationAccumulator(memberBalances.getFirst().balances().size());
+        for (MemberTrialBalance memberBalance : memberBalances) {
+            if (memberBalance.recomputed()) {
+                memberBalanceRepo.replaceMemberBalances(group.getTenantId(), groupId, period,
+                    memberBalance.member().getMemberTenantId(), memberBalance.watermark(), memberBalance.balances());
+                meterRegistry.counter("fis.consolidation.members.recomputed").increment();
+            } else {
+                meterRegistry.counter("fis.consolidation.members.reused").increment();
             }
+            mergeMember(consolidated, group, memberBalance, asOfDate);
         }
 
         // Step 2: Apply elimination rules
         List<EliminationRule> rules = eliminationRuleRepo.findByGroupIdAndIsActiveTrue(groupId);
         for (EliminationRule rule : rules) {
-            ConsolidatedBalance from = consolidated.get(rule.getFromAccountCode());
-            ConsolidatedBalance to = consolidated.get(rule.getToAccountCode());
+            int from = consolidated.find(rule.getFromAccountCode());
+            int to = consolidated.find(rule.getToAccountCode());
 
-            if (from != null && to != null) {
-                long eliminationAmount = Math.min(Math.abs(from.getAmount()), Math.abs(to.getAmount()));
-                from.addAmount(-eliminationAmount);
-                to.addAmount(-eliminationAmount);
+            if (from >= 0 && to >= 0) {
+                long eliminationAmount = Math.min(Math.abs(consolidated.amountAt(from)), Math.abs(consolidated.amountAt(to)));
+                consolidated.addAt(from, -eliminationAmount);
+                consolidated.addAt(to, -eliminationAmount);
                 log.info("Applied elimination rule: {}x{} eliminated", rule.getFromAccountCode(), rule.getToAccountCode());
             }
         }
 
         // Step 3: Calculate totals by account type
-        for (ConsolidatedBalance balance : consolidated.values()) {
-            long amount = Math.abs(balance.getAmount());
-            switch (balance.getAccountType()) {
+        for (int slot = 0; slot < consolidated.size(); slot++) {
+            long signedAmount = consolidated.amountAt(slot);
+            long amount = Math.abs(signedAmount);
+            switch (consolidated.accountTypeAt(slot)) {
                 case "ASSET" -> totalAssets += amount;
                 case "LIABILITY" -> totalLiabilities += amount;
                 case "EQUITY" -> totalEquity += amount;
-                case "REVENUE", "EXPENSE" -> netIncome += balance.getAmount();
+                case "REVENUE", "EXPENSE" -> netIncome += signedAmount;
+                default -> { }
             }
         }
 
@@ -184,24 +179,114 @@ public class ConsolidationServiceImpl implements ConsolidationService {
             .map(g -> mapper.map(g, ConsolidationGroupResponseDto.class));
     }
 
-    // Helper class to track consolidated balances
-    private static class ConsolidatedBalance {
-        private final String accountCode;
-        private final String accountType;
-        private long amount;
+    // --- Private Helper Methods ---
 
-        ConsolidatedBalance(String accountCode, String accountType, long amount) {
-            this.accountCode = accountCode;
-            this.accountType = accountType;
-            this.amount = amount;
+    private List<MemberTrialBalance> loadMemberBalances(ConsolidationGroup group, String period, LocalDate asOfDate,
+            List<ConsolidationMember> members, Map<UUID, LedgerWatermark> storedWatermarks) {
+        // Each in-flight member holds a pooled connection besides the caller's own
+        Semaphore permits = new Semaphore(maxParallelMembers);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<MemberTrialBalance>> futures = new ArrayList<>(members.size());
+            for (ConsolidationMember member : members) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return loadMemberBalance(group, period, asOfDate, member,
+                            storedWatermarks.get(member.getMemberTenantId()));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            List<MemberTrialBalance> results = new ArrayList<>(members.size());
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(awaitMember(futures.get(i), members.get(i)));
+            }
+            return results;
+        }
+    }
+
+    private MemberTrialBalance loadMemberBalance(ConsolidationGroup group, String period, LocalDate asOfDate,
+            ConsolidationMember member, @Nullable LedgerWatermark storedWatermark) {
+        UUID memberTenantId = member.getMemberTenantId();
+        // Read before the balances: a posting committed in between only makes the next run recompute
+        LedgerWatermark watermark = memberBalanceRepo.findLedgerWatermark(memberTenantId, asOfDate);
+        if (watermark.matches(storedWatermark)) {
+            MemberBalances stored = memberBalanceRepo.findMemberBalances(
+                group.getTenantId(), group.getId(), period, memberTenantId);
+            return new MemberTrialBalance(member, watermark, stored, false);
         }
 
-        void addAmount(long delta) {
-            this.amount += delta;
+        List<Map<String, Object>> tbLines = reportingRepo.findTrialBalanceLines(memberTenantId, asOfDate);
+        String[] accountCodes = new String[tbLines.size()];
+        String[] accountTypes = new String[tbLines.size()];
+        long[] netBalances = new long[tbLines.size()];
+        for (int i = 0; i < tbLines.size(); i++) {
+            Map<String, Object> line = tbLines.get(i);
+            accountCodes[i] = (String) line.get("account_code");
+            accountTypes[i] = (String) line.get("account_type");
+            netBalances[i] = ((Number) line.get("total_debits")).longValue()
+                - ((Number) line.get("total_credits")).longValue();
         }
+        return new MemberTrialBalance(member, watermark, new MemberBalances(accountCodes, accountTypes, netBalances), true);
+    }
+
+    private static MemberTrialBalance awaitMember(Future<MemberTrialBalance> future, ConsolidationMember member) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while consolidating member " + member.getMemberTenantId(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to load trial balance of member " + member.getMemberTenantId(),
+                e.getCause());
+        }
+    }
+
+    /**
+     * Translates a member's balances into the group's base currency, applies
+     * the ownership percentage and adds them to the accumulator.
+     */
+    private void mergeMember(ConsolidationAccumulator consolidated, ConsolidationGroup group,
+            MemberTrialBalance memberBalance, LocalDate asOfDate) {
+        ConsolidationMember member = memberBalance.member();
+        BigDecimal ownership = member.getOwnershipPercentage() != null
+            ? member.getOwnershipPercentage()
+            : HUNDRED;
+        boolean fullOwnership = ownership.compareTo(HUNDRED) == 0;
+
+        // Translate currency if needed; one rate lookup per member
+        BigDecimal rate = null;
+        if (!member.getCurrency().equals(group.getBaseCurrency())) {
+            rate = exchangeRateService.resolveRate(
+                member.getMemberTenantId(),
+                member.getCurrency(),
+                group.getBaseCurrency(),
+                asOfDate);
+        }
+
+        MemberBalances balances = memberBalance.balances();
+        for (int i = 0; i < balances.size(); i++) {
+            long netBalance = balances.netBalances()[i];
+            if (rate != null) {
+                netBalance = BigDecimal.valueOf(netBalance)
+                    .multiply(rate)
+                    .longValue();
+            }
+
+            // Apply ownership percentage
+            long finalAmount = fullOwnership ? netBalance : BigDecimal.valueOf(netBalance)
+                .multiply(ownership)
+                .divide(HUNDRED, 0, RoundingMode.HALF_UP)
+                .longValue();
+            consolidated.add(balances.accountCodes()[i], balances.accountTypes()[i], finalAmount);
+        }
+    }
 
-        String getAccountCode() { return accountCode; }
-        String getAccountType() { return accountType; }
-        long getAmount() { return amount; }
+    private record MemberTrialBalance(
+            ConsolidationMember member, LedgerWatermark watermark, MemberBalances balances, boolean recomputed) {
     }
 }
@@ -10,22 +10,31 @@ import com.bracit.fisprocess.dto.request.*;
 import com.bracit.fisprocess.dto.response.*;
 import com.bracit.fisprocess.exception.AssetCategoryNotFoundException;
 import com.bracit.fisprocess.exception.AssetNotFoundException;
+import com.bracit.fisprocess.exception.DepreciationRunInProgressException;
 import com.bracit.fisprocess.exception.InvalidAssetException;
 import com.bracit.fisprocess.repository.AssetCategoryRepository;
 import com.bracit.fisprocess.repository.AssetDepreciationRunRepository;
+import com.bracit.fisprocess.repository.AssetDepreciationChunkRepository;
+import com.bracit.fisprocess.repository.AssetDepreciationChunkRepository.AssetDepreciationUpdate;
+import com.bracit.fisprocess.repository.AssetDepreciationChunkRepository.CategoryCheckpoint;
 import com.bracit.fisprocess.repository.AssetDisposalRepository;
 import com.bracit.fisprocess.repository.FixedAssetRepository;
 import com.bracit.fisprocess.service.FixedAssetService;
 import com.bracit.fisprocess.service.JournalEntryService;
 import com.bracit.fisprocess.service.PeriodValidationService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -33,6 +42,11 @@ import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -56,10 +70,14 @@ public class FixedAssetServiceImpl implements FixedAssetService {
     private final FixedAssetRepository assetRepo;
     private final AssetDepreciationRunRepository depRunRepo;
     private final AssetDisposalRepository disposalRepo;
+    private final AssetDepreciationChunkRepository chunkRepo;
     private final JournalEntryService journalEntryService;
     private final PeriodValidationService periodValidationService;
+    private final PlatformTransactionManager transactionManager;
     private final ModelMapper mapper;
 
+    private TransactionTemplate transactionTemplate;
+
     @Value("${fis.fixed-assets.depreciation-expense-account:DEPRECIATION_EXPENSE}")
     private String depreciationExpenseAccount;
 
@@ -79,7 +97,18 @@ public class FixedAssetServiceImpl implements FixedAssetService {
     private String cashAccount;
 
     @Value("${fis.fixed-assets.depreciation-batch-size:500}")
-    private int depreciationBatchSize;
+    private int depreciationBatchSize = 500;
+
+    @Value("${fis.fixed-assets.depreciation-parallelism:4}")
+    private int depreciationParallelism = 4;
+
+    @Value("${fis.fixed-assets.depreciation-lease-seconds:300}")
+    private int depreciationLeaseSeconds = 300;
+
+    @PostConstruct
+    void initTransactionTemplate() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     // === Category Management ===
 
@@ -244,76 +273,71 @@ public class FixedAssetServiceImpl implements FixedAssetService {
 
     // === Depreciation ===
 
+    /**
+     * Depreciates all active assets for the period in committed chunks.
+     * <p>
+     * Categories run in parallel, at most
+     * {@code fis.fixed-assets.depreciation-parallelism} at a time. Within a
+     * category, assets are read in keyset pages of
+     * {@code depreciationBatchSize}; each page's asset updates, category
+     * cursor and the run totals commit in one short transaction. A run left
+     * PENDING or FAILED resumes from its checkpoints on the next call. The
+     * single consolidated journal is posted at the end, in the same
+     * transaction that completes the run.
+     * <p>
+     * The run is claimed before any chunk is processed, under a lease of
+     * {@code fis.fixed-assets.depreciation-lease-seconds} that every chunk
+     * extends. A call for a run another worker holds is refused with
+     * {@link DepreciationRunInProgressException}; a RUNNING run whose lease
+     * ran out, e.g. after a crash, is taken over. A run that fails, including
+     * when its journal cannot be posted, is set FAILED and its lease dropped.
+     */
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AssetDepreciationRunResponseDto runDepreciation(UUID tenantId, String period, String performedBy) {
         periodValidationService.validatePostingAllowed(tenantId, LocalDate.now(), null);
 
         // Check if run already exists for this period (idempotency)
         Optional<AssetDepreciationRun> existingRun = depRunRepo.findByTenantIdAndPeriod(tenantId, period);
-        if (existingRun.isPresent()) {
+        if (existingRun.isPresent() && !isResumable(existingRun.get())) {
             log.info("Depreciation run for period '{}' tenant '{}' already exists, returning existing",
                     period, tenantId);
             return mapper.map(existingRun.get(), AssetDepreciationRunResponseDto.class);
         }
 
-        // Fetch all active assets in batches
-        List<FixedAsset> activeAssets = assetRepo.findByTenantIdAndStatus(tenantId, AssetStatus.ACTIVE);
-        if (activeAssets.isEmpty()) {
-            return AssetDepreciationRunResponseDto.builder().period(period).totalDepreciation(0L).build();
+        UUID runId;
+        if (existingRun.isPresent()) {
+            runId = existingRun.get().getId();
+            log.info("Resuming depreciation run {} for period '{}' tenant '{}'", runId, period, tenantId);
+        } else {
+            runId = transactionTemplate.execute(status -> startRun(tenantId, period, performedBy));
         }
 
-        // Process depreciation in batches for memory efficiency
-        long totalDepreciation = 0;
-        List<FixedAsset> updatedAssets = new ArrayList<>();
-
-        for (int i = 0; i < activeAssets.size(); i += depreciationBatchSize) {
-            int end = Math.min(i + depreciationBatchSize, activeAssets.size());
-            List<FixedAsset> batch = activeAssets.subList(i, end);
-
-            for (FixedAsset asset : batch) {
-                long monthlyDep = calculateMonthlyDepreciation(asset);
-                if (monthlyDep <= 0) continue;
-
-                long newAccumDep = asset.getAccumulatedDepreciation() + monthlyDep;
-                long newNbv = asset.getAcquisitionCost() - newAccumDep;
-
-                asset.setAccumulatedDepreciation(newAccumDep);
-                asset.setNetBookValue(Math.max(0, newNbv));
-
-                // Auto-transition to fully depreciated
-                if (newNbv <= 0) {
-                    asset.setStatus(AssetStatus.FULLY_DEPRECIATED);
-                }
-
-                updatedAssets.add(asset);
-                totalDepreciation += monthlyDep;
-            }
-
-            // Save batch
-            assetRepo.saveAll(updatedAssets);
-            updatedAssets.clear();
+        if (!chunkRepo.claimRun(tenantId, runId, depreciationLeaseSeconds)) {
+            throw new DepreciationRunInProgressException(runId);
         }
 
-        // Post single consolidated depreciation journal
-        if (totalDepreciation > 0) {
-            postDepreciationJournal(tenantId, totalDepreciation, period, performedBy);
+        try {
+            depreciateCategories(tenantId, runId);
+        } catch (DepreciationRunInProgressException ex) {
+            // Lease taken over by another worker; the run is no longer ours to fail
+            throw ex;
+        } catch (RuntimeException ex) {
+            chunkRepo.releaseRun(tenantId, runId);
+            throw ex;
         }
 
-        // Persist the run record
-        var run = AssetDepreciationRun.builder()
-                .tenantId(tenantId)
-                .period(period)
-                .runDate(LocalDate.now())
-                .totalDepreciation(totalDepreciation)
-                .status(DepreciationRunStatus.COMPLETED)
-                .createdBy(performedBy)
-                .build();
-        var saved = depRunRepo.save(run);
-
+        AssetDepreciationRun completed;
+        try {
+            completed = transactionTemplate.execute(status -> completeRun(tenantId, runId, period, performedBy));
+        } catch (RuntimeException ex) {
+            // The journal was not posted; leave the run for the next call to complete
+            chunkRepo.releaseRun(tenantId, runId);
+            throw ex;
+        }
         log.info("Depreciation run completed for period '{}' tenant '{}' — {} assets, total {}",
-                period, tenantId, activeAssets.size(), totalDepreciation);
-        return mapper.map(saved, AssetDepreciationRunResponseDto.class);
+                period, tenantId, completed.getAssetsProcessed(), completed.getTotalDepreciation());
+        return mapper.map(completed, AssetDepreciationRunResponseDto.class);
     }
 
     @Override
@@ -561,6 +585,132 @@ public class FixedAssetServiceImpl implements FixedAssetService {
 
     // === Private Helper Methods ===
 
+    /**
+     * Whether a run may still be processed. A RUNNING run is only taken over
+     * once its lease has run out, which {@link AssetDepreciationChunkRepository#claimRun}
+     * decides.
+     */
+    private static boolean isResumable(AssetDepreciationRun run) {
+        return run.getStatus() == DepreciationRunStatus.PENDING || run.getStatus() == DepreciationRunStatus.FAILED
+                || run.getStatus() == DepreciationRunStatus.RUNNING;
+    }
+
+    private UUID startRun(UUID tenantId, String period, String performedBy) {
+        var run = depRunRepo.saveAndFlush(AssetDepreciationRun.builder()
+                .tenantId(tenantId)
+                .period(period)
+                .runDate(LocalDate.now())
+                .totalDepreciation(0L)
+                .status(DepreciationRunStatus.PENDING)
+                .createdBy(performedBy)
+                .build());
+        chunkRepo.createCheckpoints(tenantId, run.getId());
+        return run.getId();
+    }
+
+    private void depreciateCategories(UUID tenantId, UUID runId) {
+        List<CategoryCheckpoint> checkpoints = chunkRepo.findOpenCheckpoints(tenantId, runId);
+        Semaphore permits = new Semaphore(depreciationParallelism);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(checkpoints.size());
+            for (CategoryCheckpoint checkpoint : checkpoints) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        depreciateCategory(tenantId, runId, checkpoint);
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                awaitCategory(futures.get(i), checkpoints.get(i).categoryId());
+            }
+        }
+    }
+
+    private void depreciateCategory(UUID tenantId, UUID runId, CategoryCheckpoint checkpoint) {
+        UUID cursor = checkpoint.lastAssetId();
+        boolean completed = false;
+        while (!completed) {
+            UUID after = cursor;
+            cursor = transactionTemplate.execute(status -> depreciateChunk(tenantId, runId, checkpoint.categoryId(), after));
+            completed = cursor == null;
+        }
+    }
+
+    /**
+     * Depreciates the next page of a category and advances its checkpoint.
+     *
+     * @return the last asset id of the page, or {@code null} once the category is done
+     */
+    private @Nullable UUID depreciateChunk(UUID tenantId, UUID runId, UUID categoryId, @Nullable UUID afterAssetId) {
+        // Another worker that took over the run may have moved the cursor
+        Optional<CategoryCheckpoint> checkpoint = chunkRepo.lockOpenCheckpoint(tenantId, runId, categoryId);
+        if (checkpoint.isEmpty() || !Objects.equals(checkpoint.get().lastAssetId(), afterAssetId)) {
+            throw new DepreciationRunInProgressException(runId);
+        }
+
+        List<FixedAsset> assets = chunkRepo.findActiveAssetsAfter(tenantId, categoryId, afterAssetId,
+                depreciationBatchSize);
+        List<AssetDepreciationUpdate> updates = new ArrayList<>(assets.size());
+        long chunkDepreciation = 0;
+        for (FixedAsset asset : assets) {
+            long monthlyDep = calculateMonthlyDepreciation(asset);
+            if (monthlyDep <= 0) continue;
+
+            long newAccumDep = asset.getAccumulatedDepreciation() + monthlyDep;
+            long newNbv = asset.getAcquisitionCost() - newAccumDep;
+
+            // Auto-transition to fully depreciated
+            updates.add(new AssetDepreciationUpdate(asset.getId(), newAccumDep, Math.max(0, newNbv),
+                    newNbv <= 0 ? AssetStatus.FULLY_DEPRECIATED : AssetStatus.ACTIVE));
+            chunkDepreciation += monthlyDep;
+        }
+        chunkRepo.applyDepreciation(tenantId, updates);
+
+        boolean lastChunk = assets.size() < depreciationBatchSize;
+        UUID lastAssetId = assets.isEmpty() ? null : assets.getLast().getId();
+        chunkRepo.advanceCheckpoint(tenantId, runId, categoryId, lastAssetId, lastChunk, assets.size(),
+                chunkDepreciation, depreciationLeaseSeconds);
+        return lastChunk ? null : lastAssetId;
+    }
+
+    private static void awaitCategory(Future<?> future, UUID categoryId) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while depreciating category " + categoryId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to depreciate category " + categoryId, e.getCause());
+        }
+    }
+
+    private AssetDepreciationRun completeRun(UUID tenantId, UUID runId, String period, String performedBy) {
+        boolean running = chunkRepo.lockRunningRun(tenantId, runId);
+        var run = depRunRepo.findById(runId)
+                .orElseThrow(() -> new IllegalStateException("Depreciation run disappeared: " + runId));
+        if (!running) {
+            // A worker that took over after our lease ran out completed it first
+            return run;
+        }
+
+        // Post single consolidated depreciation journal
+        if (run.getTotalDepreciation() > 0) {
+            postDepreciationJournal(run.getTenantId(), run.getTotalDepreciation(), period, performedBy);
+        }
+
+        run.setStatus(DepreciationRunStatus.COMPLETED);
+        run.setRunDate(LocalDate.now());
+        return depRunRepo.save(run);
+    }
+
+
     private int calculateRemainingLife(FixedAsset asset) {
         int totalLife = asset.getUsefulLifeMonths() != null ? asset.getUsefulLifeMonths() : 12;
         int monthsElapsed = (int) ChronoUnit.MONTHS.between(asset.getAcquisitionDate(), LocalDate.now());
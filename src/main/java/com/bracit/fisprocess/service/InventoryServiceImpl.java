@@ -1,5 +1,6 @@
 package com.bracit.fisprocess.service.impl;
 
+import com.bracit.fisprocess.domain.entity.InventoryCostLayer;
 import com.bracit.fisprocess.domain.entity.InventoryItem;
 import com.bracit.fisprocess.domain.entity.InventoryMovement;
 import com.bracit.fisprocess.domain.entity.InventoryValuationRun;
@@ -18,6 +19,8 @@ import com.bracit.fisprocess.dto.response.InventoryValuationResponseDto.Inventor
 import com.bracit.fisprocess.dto.response.WarehouseResponseDto;
 import com.bracit.fisprocess.exception.InventoryItemNotFoundException;
 import com.bracit.fisprocess.exception.WarehouseNotFoundException;
+import com.bracit.fisprocess.repository.InventoryCostLayerRepository;
+import com.bracit.fisprocess.repository.InventoryCostLayerRepository.ItemLayerTotalProjection;
 import com.bracit.fisprocess.repository.InventoryItemRepository;
 import com.bracit.fisprocess.repository.InventoryMovementRepository;
 import com.bracit.fisprocess.repository.InventoryValuationRunRepository;
@@ -36,7 +39,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -50,6 +55,7 @@ public class InventoryServiceImpl implements InventoryService {
     private final InventoryItemRepository itemRepo;
     private final InventoryMovementRepository moveRepo;
     private final InventoryValuationRunRepository valRepo;
+    private final InventoryCostLayerRepository layerRepo;
     private final JournalEntryService journalEntryService;
     private final PeriodValidationService periodValidationService;
     private final ModelMapper mapper;
@@ -89,6 +95,14 @@ public class InventoryServiceImpl implements InventoryService {
         return mapper.map(saved, InventoryItemResponseDto.class);
     }
 
+    /**
+     * Records a movement and keeps the item's FIFO cost layers current:
+     * receipts and value-increasing adjustments open a layer, issues and
+     * value-decreasing adjustments consume the oldest open layers. An
+     * adjustment without a unit cost carries no value and touches no layer.
+     * An issue of a FIFO item without an explicit unit cost is costed from the
+     * layers it consumes.
+     */
     @Override
     @Transactional
     public InventoryMovementResponseDto recordMovement(UUID tenantId,
@@ -97,14 +111,45 @@ public class InventoryServiceImpl implements InventoryService {
         LocalDate refDate = req.getReferenceDate() != null ? req.getReferenceDate() : LocalDate.now();
         periodValidationService.validatePostingAllowed(tenantId, refDate, null);
 
+        var item = itemRepo.findByTenantIdAndId(tenantId, req.getItemId())
+                .orElseThrow(() -> new InventoryItemNotFoundException(req.getItemId()));
+
         var move = mapper.map(req, InventoryMovement.class);
         move.setTenantId(tenantId);
         long unitCost = req.getUnitCost() != null ? req.getUnitCost() : 0;
-        move.setUnitCost(unitCost);
-        move.setTotalCost(req.getQuantity() * unitCost);
+        long totalCost = req.getQuantity() * unitCost;
+
+        boolean costedAdjustment = req.getType() == InventoryMovementType.ADJUSTMENT && req.getUnitCost() != null;
+        boolean opensLayer = req.getType() == InventoryMovementType.RECEIPT
+                || (costedAdjustment && totalCost >= 0);
+        boolean consumesLayers = req.getType() == InventoryMovementType.ISSUE
+                || (costedAdjustment && totalCost < 0);
+        if (consumesLayers) {
+            long fifoCost = consumeLayers(tenantId, item, req.getQuantity());
+            if (req.getType() == InventoryMovementType.ISSUE && req.getUnitCost() == null
+                    && item.getCostMethod() == InventoryValuationMethod.FIFO) {
+                totalCost = fifoCost;
+                unitCost = fifoCost / req.getQuantity();
+            }
+        }
+        // An adjustment keeps a missing unit cost, so that layer rebuilds can tell it from a zero cost
+        move.setUnitCost(req.getType() == InventoryMovementType.ADJUSTMENT ? req.getUnitCost() : unitCost);
+        move.setTotalCost(totalCost);
 
         var saved = moveRepo.save(move);
 
+        if (opensLayer) {
+            layerRepo.save(InventoryCostLayer.builder()
+                    .tenantId(tenantId)
+                    .itemId(item.getId())
+                    .movementId(saved.getId())
+                    .receivedDate(refDate)
+                    .originalQuantity(req.getQuantity())
+                    .remainingQuantity(req.getQuantity())
+                    .unitCost(unitCost)
+                    .build());
+        }
+
         // Post GL journal based on movement type
         postInventoryMovementJournal(tenantId, saved, req.getType(), req.getReferenceDate(), "system");
 
@@ -113,17 +158,37 @@ public class InventoryServiceImpl implements InventoryService {
         return mapper.map(saved, InventoryMovementResponseDto.class);
     }
 
+    /**
+     * Values FIFO items from their open cost layers, read for all items in one
+     * aggregate query, so the cost does not depend on movement history.
+     */
     @Override
     public InventoryValuationResponseDto getValuation(UUID tenantId, String period) {
         List<InventoryItem> items = itemRepo.findByTenantId(tenantId);
+        Map<UUID, ItemLayerTotalProjection> layerTotals = new HashMap<>();
+        for (ItemLayerTotalProjection total : layerRepo.sumOpenLayersByItem(tenantId)) {
+            layerTotals.put(total.getItemId(), total);
+        }
 
         long totalValue = 0;
         List<InventoryValuationItemDto> itemDtos = new ArrayList<>();
 
         for (InventoryItem item : items) {
-            long avgCost = calculateAverageCost(item);
-            long qtyOnHand = item.getQuantityOnHand() != null ? item.getQuantityOnHand() : 0;
-            long totalItemValue = avgCost * qtyOnHand;
+            ItemLayerTotalProjection layers = item.getCostMethod() == InventoryValuationMethod.FIFO
+                    ? layerTotals.get(item.getId())
+                    : null;
+            long qtyOnHand;
+            long avgCost;
+            long totalItemValue;
+            if (layers != null) {
+                qtyOnHand = layers.getQuantity();
+                totalItemValue = layers.getTotalValue();
+                avgCost = qtyOnHand > 0 ? totalItemValue / qtyOnHand : 0;
+            } else {
+                avgCost = calculateAverageCost(item);
+                qtyOnHand = item.getQuantityOnHand() != null ? item.getQuantityOnHand() : 0;
+                totalItemValue = avgCost * qtyOnHand;
+            }
             totalValue += totalItemValue;
 
             itemDtos.add(InventoryValuationItemDto.builder()
@@ -168,55 +233,44 @@ public class InventoryServiceImpl implements InventoryService {
 
     private long calculateAverageCost(InventoryItem item) {
         long qtyOnHand = item.getQuantityOnHand() != null ? item.getQuantityOnHand() : 0;
-        if (qtyOnHand <= 0) {
-            return item.getStandardCost() != null ? item.getStandardCost() : 0;
-        }
-
-        if (item.getCostMethod() == InventoryValuationMethod.FIFO) {
-            return calculateFifoCost(item, qtyOnHand);
-        }
-
-        if (item.getCostMethod() == InventoryValuationMethod.WEIGHTED_AVERAGE) {
+        if (qtyOnHand > 0 && item.getCostMethod() == InventoryValuationMethod.WEIGHTED_AVERAGE) {
             long totalValue = item.getTotalValue() != null ? item.getTotalValue() : 0;
-            return qtyOnHand > 0 ? totalValue / qtyOnHand : 0;
+            return totalValue / qtyOnHand;
         }
 
+        // Standard cost items, and FIFO items without open layers
         return item.getStandardCost() != null ? item.getStandardCost() : 0;
     }
 
-    private long calculateFifoCost(InventoryItem item, long quantityNeeded) {
-        // Get receipt movements ordered by reference date (oldest first)
-        List<InventoryMovement> receipts = moveRepo.findByItemIdAndTypeOrderByReferenceDateAsc(
-                item.getId(), InventoryMovementType.RECEIPT);
-
-        if (receipts == null || receipts.isEmpty()) {
-            return item.getStandardCost() != null ? item.getStandardCost() : 0;
-        }
-
+    /**
+     * Consumes {@code quantity} from the item's open layers, oldest first,
+     * and returns the consumed cost. Quantity beyond the open layers is
+     * costed at standard cost.
+     */
+    private long consumeLayers(UUID tenantId, InventoryItem item, long quantity) {
+        List<InventoryCostLayer> openLayers = layerRepo.findOpenLayersForUpdate(tenantId, item.getId());
+        List<InventoryCostLayer> consumed = new ArrayList<>();
         long totalCost = 0;
-        long remainingQty = quantityNeeded;
+        long remainingQty = quantity;
 
-        for (InventoryMovement receipt : receipts) {
+        for (InventoryCostLayer layer : openLayers) {
             if (remainingQty <= 0) break;
 
-            long availableFromLayer = receipt.getQuantity() != null ? receipt.getQuantity() : 0;
-            if (availableFromLayer <= 0) continue;
-
-            long consumedFromLayer = Math.min(remainingQty, availableFromLayer);
-            long unitCost = receipt.getUnitCost() != null ? receipt.getUnitCost() : 0;
-            totalCost += consumedFromLayer * unitCost;
+            long consumedFromLayer = Math.min(remainingQty, layer.getRemainingQuantity());
+            layer.setRemainingQuantity(layer.getRemainingQuantity() - consumedFromLayer);
+            totalCost += consumedFromLayer * layer.getUnitCost();
             remainingQty -= consumedFromLayer;
+            consumed.add(layer);
         }
+        layerRepo.saveAll(consumed);
 
         if (remainingQty > 0) {
             // Not enough receipt layers - fall back to standard cost for remainder
             log.warn("FIFO layer exhausted for item {} - using standard cost for {} units",
                     item.getSku(), remainingQty);
             totalCost += remainingQty * (item.getStandardCost() != null ? item.getStandardCost() : 0);
-            remainingQty = 0;
         }
-
-        return quantityNeeded > 0 ? totalCost / quantityNeeded : 0;
+        return totalCost;
     }
 
     private void postInventoryMovementJournal(UUID tenantId, InventoryMovement movement,
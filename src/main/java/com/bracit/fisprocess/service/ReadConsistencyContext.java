@@ -0,0 +1,43 @@
+package com.bracit.fisprocess.service;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The {@link ReadToken} the current thread's reads must observe, if any.
+ * Set from the request's read token and advanced by writes the thread
+ * commits, so a request also reads its own writes.
+ */
+public final class ReadConsistencyContext {
+
+    private static final ThreadLocal<ReadToken> currentToken = new ThreadLocal<>();
+
+    private ReadConsistencyContext() {
+    }
+
+    /**
+     * Requires reads to observe {@code token}. A token of the same shard
+     * only ever moves forward.
+     */
+    public static void require(ReadToken token) {
+        ReadToken current = currentToken.get();
+        if (current == null || !current.shard().equals(token.shard()) || current.lsn() < token.lsn()) {
+            currentToken.set(token);
+        }
+    }
+
+    public static @Nullable ReadToken current() {
+        return currentToken.get();
+    }
+
+    /**
+     * The WAL position reads from the shard must observe; 0 if none.
+     */
+    public static long minimumLsn(Shard shard) {
+        ReadToken token = currentToken.get();
+        return token != null && token.shard().equals(shard) ? token.lsn() : 0L;
+    }
+
+    public static void clear() {
+        currentToken.remove();
+    }
+}
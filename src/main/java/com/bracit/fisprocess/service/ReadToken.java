@@ -0,0 +1,46 @@
+package com.bracit.fisprocess.service;
+
+/**
+ * A position in a shard's write-ahead log that reads must observe.
+ * <p>
+ * Issued after a write commits and presented on later reads: replicas that
+ * have not replayed up to {@code lsn} are skipped, so a client sees its own
+ * writes. The text form is {@code <shard>:<lsn>}, the LSN written as
+ * PostgreSQL does, e.g. {@code SHARD_1:0/16B3748}.
+ */
+public record ReadToken(Shard shard, long lsn) {
+
+    public static ReadToken parse(String token) {
+        int separator = token.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid read token: " + token);
+        }
+        return new ReadToken(Shard.of(token.substring(0, separator)), parseLsn(token.substring(separator + 1)));
+    }
+
+    /**
+     * Parses a PostgreSQL {@code pg_lsn} text such as {@code 0/16B3748}.
+     */
+    public static long parseLsn(String lsn) {
+        int slash = lsn.indexOf('/');
+        if (slash <= 0) {
+            throw new IllegalArgumentException("Invalid LSN: " + lsn);
+        }
+        try {
+            long high = Long.parseLong(lsn.substring(0, slash), 16);
+            long low = Long.parseLong(lsn.substring(slash + 1), 16);
+            return (high << 32) | low;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid LSN: " + lsn, ex);
+        }
+    }
+
+    public static String formatLsn(long lsn) {
+        return Long.toHexString(lsn >>> 32).toUpperCase() + "/" + Long.toHexString(lsn & 0xFFFFFFFFL).toUpperCase();
+    }
+
+    @Override
+    public String toString() {
+        return shard.name() + ":" + formatLsn(lsn);
+    }
+}
@@ -8,11 +8,14 @@ import com.bracit.fisprocess.dto.response.DimensionSummaryReportDto;
 import com.bracit.fisprocess.dto.response.FxExposureReportDto;
 import com.bracit.fisprocess.dto.response.GeneralLedgerReportDto;
 import com.bracit.fisprocess.dto.response.IncomeStatementReportDto;
+import com.bracit.fisprocess.dto.response.JournalRegisterEntryDto;
 import com.bracit.fisprocess.dto.response.JournalRegisterReportDto;
 import com.bracit.fisprocess.dto.response.TrialBalanceReportDto;
+import org.jspecify.annotations.Nullable;
 
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Service interface for generating financial reports.
@@ -33,9 +36,20 @@ public interface ReportingService {
     AccountActivityReportDto generateAccountActivity(UUID tenantId, String accountCode,
             LocalDate fromDate, LocalDate toDate);
 
+    /**
+     * @deprecated offset pagination degrades with page depth; use
+     *             {@link #generateJournalRegister(UUID, LocalDate, LocalDate, String, int)}
+     */
+    @Deprecated
     JournalRegisterReportDto generateJournalRegister(UUID tenantId, LocalDate fromDate,
             LocalDate toDate, int page, int size);
 
+    JournalRegisterReportDto generateJournalRegister(UUID tenantId, LocalDate fromDate,
+            LocalDate toDate, @Nullable String pageToken, int size);
+
+    void exportJournalRegister(UUID tenantId, LocalDate fromDate, LocalDate toDate,
+            Consumer<JournalRegisterEntryDto> sink);
+
     DimensionSummaryReportDto generateDimensionSummary(UUID tenantId, String dimensionKey,
             LocalDate fromDate, LocalDate toDate);
 
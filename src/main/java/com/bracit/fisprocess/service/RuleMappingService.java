@@ -9,4 +9,12 @@ import java.util.UUID;
 public interface RuleMappingService {
 
     DraftJournalEntry mapToDraft(UUID tenantId, FinancialEventRequestDto event, @Nullable String fallbackCreatedBy);
+
+    /**
+     * Compiles the expressions of the tenant's active mapping rules ahead of
+     * the first event that needs them.
+     *
+     * @return the number of expressions compiled or already cached
+     */
+    int precompileActiveRules(UUID tenantId);
 }
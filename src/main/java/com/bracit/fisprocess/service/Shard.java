@@ -1,59 +1,32 @@
 package com.bracit.fisprocess.service;
 
-import java.util.UUID;
-
-public enum Shard {
-    SHARD_1(1000, 4999, "Shard 1: Accounts 1000-4999"),
-    SHARD_2(5000, 9999, "Shard 2: Accounts 5000-9999"),
-    SHARD_3(10000, Integer.MAX_VALUE, "Shard 3: Accounts 10000+");
-
-    private final int rangeStart;
-    private final int rangeEnd;
-    private final String description;
-
-    Shard(int rangeStart, int rangeEnd, String description) {
-        this.rangeStart = rangeStart;
-        this.rangeEnd = rangeEnd;
-        this.description = description;
-    }
-
-    public int getRangeStart() {
-        return rangeStart;
-    }
-
-    public int getRangeEnd() {
-        return rangeEnd;
-    }
-
-    public String getDescription() {
-        return description;
-    }
-
-    public static Shard forAccountCode(String accountCode) {
-        try {
-            int code = Integer.parseInt(accountCode.replaceAll("[^0-9]", ""));
-            return forAccountCode(code);
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid account code format: " + accountCode);
-        }
-    }
-
-    public static Shard forAccountCode(int accountCode) {
-        for (Shard shard : values()) {
-            if (accountCode >= shard.rangeStart && accountCode <= shard.rangeEnd) {
-                return shard;
-            }
+import java.util.Objects;
+
+/**
+ * A database shard, identified by its name in {@code fis.sharding.shards}.
+ * <p>
+ * The set of shards is configuration, see {@link ShardTopology}; the
+ * constants name the shards of the default three-shard topology.
+ */
+public record Shard(String name) {
+
+    public static final Shard SHARD_1 = new Shard("SHARD_1");
+    public static final Shard SHARD_2 = new Shard("SHARD_2");
+    public static final Shard SHARD_3 = new Shard("SHARD_3");
+
+    public Shard {
+        Objects.requireNonNull(name, "name");
+        if (name.isBlank()) {
+            throw new IllegalArgumentException("Shard name must not be blank");
         }
-        throw new IllegalArgumentException("Account code out of range: " + accountCode);
     }
 
-    public static Shard forTenant(UUID tenantId) {
-        int hash = Math.abs(tenantId.hashCode());
-        Shard[] shards = values();
-        return shards[hash % shards.length];
+    public static Shard of(String name) {
+        return new Shard(name.trim());
     }
 
-    public static int getShardCount() {
-        return values().length;
+    @Override
+    public String toString() {
+        return name;
     }
-}
\ No newline at end of file
+}
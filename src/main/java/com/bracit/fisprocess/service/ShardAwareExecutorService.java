@@ -1,6 +1,5 @@
 package com.bracit.fisprocess.service;
 
-import com.bracit.fisprocess.service.Shard;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
@@ -12,7 +11,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
-import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
@@ -27,9 +26,10 @@ import java.util.concurrent.RejectedExecutionException;
 @Slf4j
 public class ShardAwareExecutorService {
 
-    private final Map<Shard, ThreadPoolExecutor> shardExecutors = new EnumMap<>(Shard.class);
-    private final Map<Shard, CircuitBreaker> shardCircuitBreakers = new EnumMap<>(Shard.class);
+    private final Map<Shard, ThreadPoolExecutor> shardExecutors = new HashMap<>();
+    private final Map<Shard, CircuitBreaker> shardCircuitBreakers = new HashMap<>();
     private final MeterRegistry meterRegistry;
+    private final ShardTopology shardTopology;
     private CircuitBreakerRegistry circuitBreakerRegistry;
 
     @Value("${fis.worker.core-pool-size:10}")
@@ -56,8 +56,9 @@ public class ShardAwareExecutorService {
     @Value("${fis.circuit-breaker.sliding-window-size:10}")
     private int slidingWindowSize;
 
-    public ShardAwareExecutorService(MeterRegistry meterRegistry) {
+    public ShardAwareExecutorService(MeterRegistry meterRegistry, ShardTopology shardTopology) {
         this.meterRegistry = meterRegistry;
+        this.shardTopology = shardTopology;
     }
 
     public void initialize() {
@@ -77,7 +78,7 @@ public class ShardAwareExecutorService {
 
         circuitBreakerRegistry = CircuitBreakerRegistry.of(cbConfig);
 
-        for (Shard shard : Shard.values()) {
+        for (Shard shard : shardTopology.shards()) {
             ThreadPoolExecutor executor = new ThreadPoolExecutor(
                     corePoolSize,
                     maxPoolSize,
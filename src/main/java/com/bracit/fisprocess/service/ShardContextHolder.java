@@ -1,43 +1,81 @@
 package com.bracit.fisprocess.service;
 
-import com.bracit.fisprocess.service.Shard;
+import org.jspecify.annotations.Nullable;
 
 import java.util.UUID;
 
+/**
+ * The shard the current unit of work runs against.
+ * <p>
+ * Contexts nest: {@link #enter(Shard, UUID)} pushes a shard for the current
+ * thread and the returned {@link Scope} pops it again, restoring whatever the
+ * caller had bound. A nested unit of work therefore never clears the shard of
+ * the unit of work that called it.
+ */
 public final class ShardContextHolder {
 
-    private static final ThreadLocal<Shard> currentShard = new ThreadLocal<>();
-    private static final ThreadLocal<UUID> currentTenantId = new ThreadLocal<>();
+    private static final ThreadLocal<Frame> current = new ThreadLocal<>();
 
     private ShardContextHolder() {
     }
 
-    public static void setCurrentShard(Shard shard) {
-        currentShard.set(shard);
+    /**
+     * Binds the shard for the current thread until the returned scope is closed.
+     */
+    public static Scope enter(Shard shard, @Nullable UUID tenantId) {
+        Frame previous = current.get();
+        Frame frame = new Frame(shard, tenantId, previous);
+        current.set(frame);
+        return new Scope(frame);
     }
 
-    public static Shard getCurrentShard() {
-        return currentShard.get();
+    public static @Nullable Shard getCurrentShard() {
+        Frame frame = current.get();
+        return frame != null ? frame.shard : null;
     }
 
-    public static void setCurrentTenantId(UUID tenantId) {
-        currentTenantId.set(tenantId);
+    public static @Nullable UUID getCurrentTenantId() {
+        Frame frame = current.get();
+        return frame != null ? frame.tenantId : null;
     }
 
-    public static UUID getCurrentTenantId() {
-        return currentTenantId.get();
+    /**
+     * Drops every bound shard of the current thread. Only for the end of a
+     * request or task, where no enclosing scope can still be open.
+     */
+    public static void clear() {
+        current.remove();
     }
 
-    public static void clear() {
-        currentShard.remove();
-        currentTenantId.remove();
+    private record Frame(Shard shard, @Nullable UUID tenantId, @Nullable Frame previous) {
     }
 
-    public static Shard forCurrentRequest(String accountCode) {
-        Shard shard = currentShard.get();
-        if (shard != null) {
-            return shard;
+    /**
+     * An open shard binding; closing it restores the enclosing one.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Frame frame;
+        private boolean closed;
+
+        private Scope(Frame frame) {
+            this.frame = frame;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (current.get() != frame) {
+                throw new IllegalStateException("Shard scope closed out of order");
+            }
+            if (frame.previous != null) {
+                current.set(frame.previous);
+            } else {
+                current.remove();
+            }
         }
-        return Shard.forAccountCode(accountCode);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.bracit.fisprocess.service;
+
+import com.bracit.fisprocess.domain.model.TenantShardMove;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves tenants between shards after the shard topology changes.
+ */
+public interface ShardRebalancingService {
+
+    /**
+     * Tenants whose recorded shard differs from the one the current ring
+     * assigns, i.e. the moves that would bring the placements in line with
+     * the topology. Pinned and migrating tenants are not listed.
+     */
+    List<TenantShardMove> planRebalance();
+
+    /**
+     * Copies the tenant's data to {@code targetShard} and then routes the
+     * tenant there. The tenant is unavailable while its data is copied.
+     */
+    TenantShardMove migrateTenant(UUID tenantId, Shard targetShard);
+}
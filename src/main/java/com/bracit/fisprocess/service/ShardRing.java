@@ -0,0 +1,132 @@
+package com.bracit.fisprocess.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Consistent-hash ring that places tenants on shards.
+ * <p>
+ * Every shard owns {@code weight × virtualNodes} points on a 64-bit ring and a
+ * tenant belongs to the owner of the first point at or after its hash,
+ * wrapping around. Adding a shard therefore only takes over the arcs in front
+ * of its own points, so roughly {@code 1 / (shards + 1)} of the tenants move
+ * and all others keep their shard. Immutable; lookups are a binary search.
+ */
+public final class ShardRing {
+
+    private final long[] points;
+    private final Shard[] owners;
+    private final Map<Shard, Integer> weights;
+
+    private ShardRing(long[] points, Shard[] owners, Map<Shard, Integer> weights) {
+        this.points = points;
+        this.owners = owners;
+        this.weights = weights;
+    }
+
+    /**
+     * Builds a ring over the given shards.
+     *
+     * @param weights      relative capacity per shard, at least 1
+     * @param virtualNodes ring points per unit of weight
+     */
+    public static ShardRing of(Map<Shard, Integer> weights, int virtualNodes) {
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("A shard ring needs at least one shard");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive: " + virtualNodes);
+        }
+        int total = 0;
+        for (Map.Entry<Shard, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() < 1) {
+                throw new IllegalArgumentException("Weight of shard " + entry.getKey() + " must be positive");
+            }
+            total += entry.getValue() * virtualNodes;
+        }
+
+        long[] hashes = new long[total];
+        Shard[] shards = new Shard[total];
+        int n = 0;
+        for (Map.Entry<Shard, Integer> entry : weights.entrySet()) {
+            for (int i = 0; i < entry.getValue() * virtualNodes; i++) {
+                hashes[n] = hash(entry.getKey().name() + "#" + i);
+                shards[n] = entry.getKey();
+                n++;
+            }
+        }
+
+        // Sort the points, carrying their owners along; equal points are
+        // broken by shard name so that every instance builds the same ring
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byHash = Long.compareUnsigned(hashes[a], hashes[b]);
+            return byHash != 0 ? byHash : shards[a].name().compareTo(shards[b].name());
+        });
+        long[] points = new long[total];
+        Shard[] owners = new Shard[total];
+        for (int i = 0; i < total; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = shards[order[i]];
+        }
+        return new ShardRing(points, owners, Map.copyOf(weights));
+    }
+
+    /**
+     * The shard the ring assigns to the tenant.
+     */
+    public Shard shardFor(UUID tenantId) {
+        long hash = hash(tenantId);
+        int low = 0;
+        int high = points.length - 1;
+        // Past the last point the ring wraps to the first one
+        int candidate = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[mid], hash) >= 0) {
+                candidate = mid;
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return owners[candidate];
+    }
+
+    public Map<Shard, Integer> weights() {
+        return weights;
+    }
+
+    static long hash(UUID tenantId) {
+        return mix(tenantId.getMostSignificantBits() ^ mix(tenantId.getLeastSignificantBits()));
+    }
+
+    private static long hash(String point) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(point.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("MD5 not available", ex);
+        }
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
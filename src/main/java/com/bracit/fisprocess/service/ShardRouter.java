@@ -10,5 +10,13 @@ public interface ShardRouter {
 
     Shard getShardForTenant(UUID tenantId);
 
+    /**
+     * Resolves the tenant's shard and binds it to the current thread until
+     * the returned scope is closed.
+     */
+    ShardContextHolder.Scope enterTenant(UUID tenantId);
+
     int getShardIndex(Shard shard);
-}
\ No newline at end of file
+
+    Shard getDefaultShard();
+}
@@ -0,0 +1,103 @@
+package com.bracit.fisprocess.service;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The configured shards, the ring that places new tenants on them, and the
+ * tenants pinned to a shard by configuration.
+ * <p>
+ * Account-code ranges are kept for account-based routing; a shard without a
+ * range receives no account codes.
+ *
+ * @param shards        shards in configuration order
+ * @param defaultShard  shard used when sharding is disabled or no shard applies
+ * @param ring          consistent-hash ring over {@code shards}
+ * @param accountRanges inclusive account-code range per shard
+ * @param pinnedTenants tenants that always route to the given shard
+ */
+public record ShardTopology(
+        List<Shard> shards,
+        Shard defaultShard,
+        ShardRing ring,
+        Map<Shard, AccountRange> accountRanges,
+        Map<UUID, Shard> pinnedTenants) {
+
+    /**
+     * Inclusive range of numeric account codes.
+     */
+    public record AccountRange(int start, int end) {
+
+        boolean contains(int accountCode) {
+            return accountCode >= start && accountCode <= end;
+        }
+    }
+
+    public ShardTopology {
+        shards = List.copyOf(shards);
+        accountRanges = Map.copyOf(accountRanges);
+        pinnedTenants = Map.copyOf(pinnedTenants);
+        if (!shards.contains(defaultShard)) {
+            throw new IllegalArgumentException("Default shard " + defaultShard + " is not configured");
+        }
+        for (Map.Entry<UUID, Shard> pin : pinnedTenants.entrySet()) {
+            if (!shards.contains(pin.getValue())) {
+                throw new IllegalArgumentException(
+                        "Tenant " + pin.getKey() + " is pinned to unknown shard " + pin.getValue());
+            }
+        }
+    }
+
+    public boolean contains(Shard shard) {
+        return shards.contains(shard);
+    }
+
+    public int indexOf(Shard shard) {
+        return shards.indexOf(shard);
+    }
+
+    public @Nullable Shard pinnedShard(UUID tenantId) {
+        return pinnedTenants.get(tenantId);
+    }
+
+    public Shard forAccountCode(String accountCode) {
+        return forAccountCode(numericAccountCode(accountCode));
+    }
+
+    public Shard forAccountCode(int accountCode) {
+        for (Shard shard : shards) {
+            AccountRange range = accountRanges.get(shard);
+            if (range != null && range.contains(accountCode)) {
+                return shard;
+            }
+        }
+        throw new IllegalArgumentException("Account code out of range: " + accountCode);
+    }
+
+    /**
+     * The digits of the account code read as one number, so that
+     * {@code "ACCT-1000"} is account 1000.
+     */
+    static int numericAccountCode(String accountCode) {
+        int value = 0;
+        boolean hasDigit = false;
+        for (int i = 0; i < accountCode.length(); i++) {
+            int digit = accountCode.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                continue;
+            }
+            if (value > (Integer.MAX_VALUE - digit) / 10) {
+                throw new IllegalArgumentException("Invalid account code format: " + accountCode);
+            }
+            value = value * 10 + digit;
+            hasDigit = true;
+        }
+        if (!hasDigit) {
+            throw new IllegalArgumentException("Invalid account code format: " + accountCode);
+        }
+        return value;
+    }
+}
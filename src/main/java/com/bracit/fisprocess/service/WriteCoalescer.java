@@ -2,27 +2,53 @@ package com.bracit.fisprocess.service;
 
 import com.bracit.fisprocess.domain.model.DraftJournalEntry;
 import com.bracit.fisprocess.dto.response.JournalEntryResponseDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Group-commit pipeline for journal writes.
+ * <p>
+ * Submissions are grouped by {@code (tenant, fiscalYear)}, the scope of the
+ * journal sequence lock and hash-chain head, so one lock acquisition and one
+ * chain-head read cover a whole group. A group is flushed when it reaches
+ * {@code fis.coalescer.max-batch-size} (by the submitting thread) or when its
+ * oldest submission is {@code fis.coalescer.window-ms} old (by the scheduler).
+ * <p>
+ * Each flush invokes the {@link BatchHandler} once inside a single new
+ * transaction and completes every caller's future with its own result. If the
+ * group transaction fails, each entry is retried alone in its own
+ * transaction, so one bad entry fails only its own caller.
+ */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class WriteCoalescer {
 
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
     private final Map<CoalescingKey, CoalescingBucket> buckets = new ConcurrentHashMap<>();
     private ScheduledExecutorService scheduler;
+    private TransactionTemplate transactionTemplate;
 
     @Value("${fis.coalescer.window-ms:10}")
     private long windowMs;
@@ -33,12 +59,19 @@ public class WriteCoalescer {
     @Value("${fis.coalescer.enabled:true}")
     private boolean enabled;
 
+    /**
+     * Persists a group of entries belonging to one tenant and fiscal year.
+     * Must return exactly one response per entry, in input order.
+     */
     public interface BatchHandler {
         List<JournalEntryResponseDto> handleBatch(List<DraftJournalEntry> entries, UUID tenantId);
     }
 
     @PostConstruct
     public void initialize() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
         scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "write-coalescer-flush");
             t.setDaemon(true);
@@ -48,88 +81,152 @@ public class WriteCoalescer {
         log.info("WriteCoalescer initialized with window={}ms, maxBatch={}", windowMs, maxBatchSize);
     }
 
-    public void submit(DraftJournalEntry entry, UUID tenantId, BatchHandler handler) {
+    /**
+     * Queues the entry for the next group commit of its tenant and fiscal year.
+     * <p>
+     * All submissions for the same key are expected to use the same handler;
+     * the handler of the submission that opened the group is used for it.
+     *
+     * @return future completed with the entry's response once its group has
+     *         committed, or completed exceptionally if it could not be posted
+     */
+    public CompletableFuture<JournalEntryResponseDto> submit(DraftJournalEntry entry, UUID tenantId,
+            BatchHandler handler) {
+        CompletableFuture<JournalEntryResponseDto> future = new CompletableFuture<>();
         if (!enabled) {
-            handler.handleBatch(List.of(entry), tenantId);
-            return;
+            commit(handler, tenantId, List.of(new PendingWrite(entry, future)));
+            return future;
         }
 
-        CoalescingKey key = new CoalescingKey(tenantId, extractAccountCode(entry));
-        CoalescingBucket bucket = buckets.computeIfAbsent(key, k -> new CoalescingBucket(handler, tenantId));
-
-        synchronized (bucket) {
-            bucket.add(entry);
-            if (bucket.size() >= maxBatchSize) {
-                flushBucket(key, bucket);
+        CoalescingKey key = new CoalescingKey(tenantId, entry.getPostedDate().getYear());
+        CoalescingBucket bucket;
+        List<PendingWrite> fullBatch = null;
+        while (true) {
+            bucket = buckets.computeIfAbsent(key, k -> new CoalescingBucket(handler, tenantId));
+            synchronized (bucket) {
+                if (bucket.retired) {
+                    continue;
+                }
+                bucket.add(new PendingWrite(entry, future));
+                if (bucket.size() >= maxBatchSize) {
+                    fullBatch = bucket.drain();
+                }
+                break;
             }
         }
+        if (fullBatch != null) {
+            commit(bucket.handler, tenantId, fullBatch);
+        }
+        return future;
     }
 
-    private void flushBucket(CoalescingKey key, CoalescingBucket bucket) {
-        synchronized (bucket) {
-            if (bucket.isFlushing()) {
-                return;
+    private void flushAll() {
+        for (Map.Entry<CoalescingKey, CoalescingBucket> entry : buckets.entrySet()) {
+            CoalescingBucket bucket = entry.getValue();
+            List<PendingWrite> batch = null;
+            synchronized (bucket) {
+                if (bucket.shouldFlush(windowMs)) {
+                    batch = bucket.drain();
+                } else if (bucket.isIdle(windowMs)) {
+                    bucket.retired = true;
+                    buckets.remove(entry.getKey(), bucket);
+                }
             }
-            bucket.markFlushing();
-        }
-
-        try {
-            List<DraftJournalEntry> batch = bucket.drain();
-            if (!batch.isEmpty()) {
-                log.debug("Flushing {} entries for key {}", batch.size(), key);
-                bucket.invokeHandler(batch);
+            if (batch != null) {
+                try {
+                    commit(bucket.handler, bucket.tenantId, batch);
+                } catch (RuntimeException e) {
+                    log.error("Unexpected error flushing coalesced batch for key {}", entry.getKey(), e);
+                }
             }
-        } finally {
-            bucket.markReady();
         }
     }
 
-    private void flushAll() {
-        List<Map.Entry<CoalescingKey, CoalescingBucket>> snapshot = new ArrayList<>(buckets.entrySet());
-        for (Map.Entry<CoalescingKey, CoalescingBucket> entry : snapshot) {
-            CoalescingBucket bucket = entry.getValue();
-            boolean shouldFlush;
-            synchronized (bucket) {
-                shouldFlush = bucket.shouldFlush(windowMs);
+    /**
+     * Commits the batch in one transaction, falling back to one transaction
+     * per entry if the group fails, and completes each caller's future.
+     */
+    private void commit(BatchHandler handler, UUID tenantId, List<PendingWrite> batch) {
+        List<DraftJournalEntry> entries = new ArrayList<>(batch.size());
+        for (PendingWrite pending : batch) {
+            entries.add(pending.entry());
+        }
+        meterRegistry.counter("fis.coalescer.flushes").increment();
+        DistributionSummary.builder("fis.coalescer.batch.size").register(meterRegistry).record(batch.size());
+
+        List<JournalEntryResponseDto> results;
+        try {
+            results = transactionTemplate.execute(status -> handler.handleBatch(entries, tenantId));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.getFirst().future().completeExceptionally(e);
+                return;
             }
-            if (shouldFlush) {
-                flushBucket(entry.getKey(), bucket);
+            log.warn("Group commit of {} entries for tenant {} failed, retrying individually",
+                    batch.size(), tenantId, e);
+            meterRegistry.counter("fis.coalescer.group.fallback").increment();
+            for (PendingWrite pending : batch) {
+                commit(handler, tenantId, List.of(pending));
             }
+            return;
+        }
+
+        if (results == null || results.size() != batch.size()) {
+            IllegalStateException mismatch = new IllegalStateException("Batch handler returned "
+                    + (results == null ? 0 : results.size()) + " results for " + batch.size() + " entries");
+            batch.forEach(pending -> pending.future().completeExceptionally(mismatch));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(results.get(i));
         }
     }
 
+    @PreDestroy
     public void shutdown() {
         if (scheduler != null) {
             scheduler.shutdown();
         }
-        flushAll();
+        for (Map.Entry<CoalescingKey, CoalescingBucket> entry : buckets.entrySet()) {
+            CoalescingBucket bucket = entry.getValue();
+            List<PendingWrite> batch;
+            synchronized (bucket) {
+                batch = bucket.drain();
+            }
+            if (!batch.isEmpty()) {
+                commit(bucket.handler, bucket.tenantId, batch);
+            }
+        }
     }
 
-    private String extractAccountCode(DraftJournalEntry entry) {
-        return entry.getLines().isEmpty() ? "UNKNOWN" : entry.getLines().getFirst().getAccountCode();
+    public record CoalescingKey(UUID tenantId, int fiscalYear) {
     }
 
-    public record CoalescingKey(UUID tenantId, String accountCode) {
+    private record PendingWrite(DraftJournalEntry entry, CompletableFuture<JournalEntryResponseDto> future) {
     }
 
+    /**
+     * Pending writes of one key. Guarded by its own monitor; {@code retired}
+     * marks a bucket removed from the map so late submitters pick a new one.
+     */
     private static class CoalescingBucket {
         private final BatchHandler handler;
         private final UUID tenantId;
-        private final List<DraftJournalEntry> pending = new ArrayList<>();
-        private final ReentrantLock lock = new ReentrantLock();
-        private volatile long firstSubmissionTime;
-        private volatile boolean flushing;
+        private List<PendingWrite> pending = new ArrayList<>();
+        private long firstSubmissionTime;
+        private long lastDrainTime = System.currentTimeMillis();
+        private boolean retired;
 
         CoalescingBucket(BatchHandler handler, UUID tenantId) {
             this.handler = handler;
             this.tenantId = tenantId;
         }
 
-        synchronized void add(DraftJournalEntry entry) {
-            if (firstSubmissionTime == 0) {
+        void add(PendingWrite write) {
+            if (pending.isEmpty()) {
                 firstSubmissionTime = System.currentTimeMillis();
             }
-            pending.add(entry);
+            pending.add(write);
         }
 
         int size() {
@@ -140,33 +237,16 @@ public class WriteCoalescer {
             return !pending.isEmpty() && (System.currentTimeMillis() - firstSubmissionTime) >= windowMs;
         }
 
-        boolean isFlushing() {
-            return flushing;
-        }
-
-        void markFlushing() {
-            flushing = true;
-        }
-
-        void markReady() {
-            flushing = false;
+        boolean isIdle(long windowMs) {
+            return pending.isEmpty() && (System.currentTimeMillis() - lastDrainTime) >= windowMs * 100;
         }
 
-        List<DraftJournalEntry> drain() {
-            synchronized (this) {
-                List<DraftJournalEntry> batch = new ArrayList<>(pending);
-                pending.clear();
-                firstSubmissionTime = 0;
-                return batch;
-            }
-        }
-
-        void invokeHandler(List<DraftJournalEntry> batch) {
-            try {
-                handler.handleBatch(batch, tenantId);
-            } catch (Exception e) {
-                log.error("Error invoking write handler for batch of {} entries", batch.size(), e);
-            }
+        List<PendingWrite> drain() {
+            List<PendingWrite> batch = pending;
+            pending = new ArrayList<>();
+            firstSubmissionTime = 0;
+            lastDrainTime = System.currentTimeMillis();
+            return batch;
         }
     }
-}
\ No newline at end of file
+}
@@ -51,6 +51,7 @@ public class AccountServiceImpl implements AccountService {
     private final BusinessEntityRepository businessEntityRepository;
     private final AuditService auditService;
     private final ModelMapper modelMapper;
+    private final TenantAccountResolver tenantAccountResolver;
 
     @Override
     @Transactional
@@ -64,6 +65,7 @@ public class AccountServiceImpl implements AccountService {
 
         Account account = buildAccountFromRequest(tenantId, request);
         Account saved = accountRepository.save(account);
+        tenantAccountResolver.evictTenant(tenantId);
         AccountResponseDto response = toResponseDto(saved);
 
         auditService.logChange(
@@ -85,7 +87,13 @@ public class AccountServiceImpl implements AccountService {
         return response;
     }
 
+    /**
+     * Read-write so that it reads the primary: a read-only transaction may be
+     * served by a lagging replica and re-cache an account just evicted by an
+     * update.
+     */
     @Override
+    @Transactional
     @Cacheable(value = "accounts", key = "#tenantId.toString() + ':' + #accountCode", unless = "#result == null")
     public AccountResponseDto getAccountByCode(UUID tenantId, String accountCode) {
         validateTenantExists(tenantId);
@@ -124,6 +132,7 @@ public class AccountServiceImpl implements AccountService {
                 "isActive", account.isActive());
         applyUpdates(account, request);
         Account updated = accountRepository.save(account);
+        tenantAccountResolver.evictTenant(tenantId);
         AccountResponseDto response = toResponseDto(updated);
 
         AuditAction action = Boolean.FALSE.equals(request.getIsActive()) ? AuditAction.DEACTIVATED
@@ -0,0 +1,194 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.domain.entity.AccountingPeriod;
+import com.bracit.fisprocess.domain.enums.PeriodStatus;
+import com.bracit.fisprocess.repository.AccountingPeriodRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-tenant accounting-period calendar held in process memory.
+ * <p>
+ * A tenant's periods do not overlap, so the calendar is kept as arrays sorted
+ * by start date and a posting date is resolved with a binary search instead of
+ * a query per posting. {@link AccountingPeriodServiceImpl} invalidates a
+ * tenant after every committed period change; the invalidation is applied
+ * locally and published on {@link #INVALIDATION_CHANNEL} so that other
+ * instances drop their copy too. Entries also expire after
+ * {@code fis.period-calendar.expire-after-write-seconds}, which bounds
+ * staleness should a message be lost.
+ */
+@Component
+@Slf4j
+public class AccountingPeriodCalendarCache {
+
+    static final String INVALIDATION_CHANNEL = "fis:period-calendar:invalidate";
+
+    private final AccountingPeriodRepository accountingPeriodRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+    private final Cache<UUID, PeriodCalendar> calendars;
+
+    public AccountingPeriodCalendarCache(
+            AccountingPeriodRepository accountingPeriodRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            @Value("${fis.period-calendar.max-tenants:10000}") long maxTenants,
+            @Value("${fis.period-calendar.expire-after-write-seconds:300}") long expireAfterWriteSeconds) {
+        this.accountingPeriodRepository = accountingPeriodRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Status of the period containing the date, or {@code null} if the tenant
+     * has no such period. A miss reloads the calendar once, since a period
+     * created on another instance may not have been broadcast yet.
+     */
+    public @Nullable PeriodStatus statusOn(UUID tenantId, LocalDate date) {
+        PeriodStatus status = calendars.get(tenantId, this::load).statusOn(date);
+        if (status == null) {
+            calendars.invalidate(tenantId);
+            status = calendars.get(tenantId, this::load).statusOn(date);
+        }
+        return status;
+    }
+
+    /**
+     * Loads the tenant's calendar unless it is already cached.
+     *
+     * @return the number of periods in the calendar
+     */
+    public int preload(UUID tenantId) {
+        return calendars.get(tenantId, this::load).size();
+    }
+
+    /**
+     * Drops the tenant's calendar on this and every other instance once the
+     * surrounding transaction commits, so that no reader can cache the
+     * pre-commit state. Without an active transaction this happens
+     * immediately.
+     */
+    public void invalidateAfterCommit(UUID tenantId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(tenantId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(tenantId);
+            }
+        });
+    }
+
+    private void invalidate(UUID tenantId) {
+        calendars.invalidate(tenantId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, tenantId.toString());
+        } catch (RuntimeException ex) {
+            // Other instances fall back to expiry
+            log.warn("Failed to broadcast period calendar invalidation for tenant '{}': {}",
+                    tenantId, ex.getMessage());
+        }
+    }
+
+    private void evictLocal(String tenantId) {
+        try {
+            calendars.invalidate(UUID.fromString(tenantId));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed period calendar invalidation '{}'", tenantId);
+        }
+    }
+
+    private PeriodCalendar load(UUID tenantId) {
+        meterRegistry.counter("fis.period.calendar.load").increment();
+        return PeriodCalendar.of(accountingPeriodRepository.findByTenantIdOrderByStartDateAsc(tenantId));
+    }
+
+    /**
+     * Immutable, start-date-ordered period boundaries of one tenant.
+     */
+    static final class PeriodCalendar {
+
+        private final long[] startDays;
+        private final long[] endDays;
+        private final PeriodStatus[] statuses;
+
+        private PeriodCalendar(long[] startDays, long[] endDays, PeriodStatus[] statuses) {
+            this.startDays = startDays;
+            this.endDays = endDays;
+            this.statuses = statuses;
+        }
+
+        static PeriodCalendar of(List<AccountingPeriod> periods) {
+            List<AccountingPeriod> sorted = periods.stream()
+                    .sorted(Comparator.comparing(AccountingPeriod::getStartDate))
+                    .toList();
+            long[] startDays = new long[sorted.size()];
+            long[] endDays = new long[sorted.size()];
+            PeriodStatus[] statuses = new PeriodStatus[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                AccountingPeriod period = sorted.get(i);
+                startDays[i] = period.getStartDate().toEpochDay();
+                endDays[i] = period.getEndDate().toEpochDay();
+                statuses[i] = period.getStatus();
+            }
+            return new PeriodCalendar(startDays, endDays, statuses);
+        }
+
+        @Nullable PeriodStatus statusOn(LocalDate date) {
+            long day = date.toEpochDay();
+            // Last period starting on or before the day
+            int low = 0;
+            int high = startDays.length - 1;
+            int candidate = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (startDays[mid] <= day) {
+                    candidate = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return candidate >= 0 && endDays[candidate] >= day ? statuses[candidate] : null;
+        }
+
+        int size() {
+            return startDays.length;
+        }
+    }
+}
@@ -33,6 +33,7 @@ public class AccountingPeriodServiceImpl implements AccountingPeriodService {
     private final AuditService auditService;
     private final AutoReversalService autoReversalService;
     private final PeriodEndRevaluationService periodEndRevaluationService;
+    private final AccountingPeriodCalendarCache periodCalendarCache;
 
     @Value("${fis.revaluation.reserve-account-code:FX_REVAL_RESERVE}")
     private String defaultReserveAccountCode;
@@ -55,6 +56,7 @@ public class AccountingPeriodServiceImpl implements AccountingPeriodService {
                 .endDate(request.getEndDate())
                 .status(PeriodStatus.OPEN)
                 .build());
+        periodCalendarCache.invalidateAfterCommit(tenantId);
         auditService.logChange(
                 tenantId,
                 AuditEntityType.ACCOUNTING_PERIOD,
@@ -122,6 +124,7 @@ public class AccountingPeriodServiceImpl implements AccountingPeriodService {
 
         period.setStatus(targetStatus);
         AccountingPeriod saved = accountingPeriodRepository.save(period);
+        periodCalendarCache.invalidateAfterCommit(tenantId);
         auditService.logChange(
                 tenantId,
                 AuditEntityType.ACCOUNTING_PERIOD,
@@ -1,32 +1,38 @@
 package com.bracit.fisprocess.service.impl;
 
-import com.bracit.fisprocess.domain.entity.Invoice;
-import com.bracit.fisprocess.domain.enums.InvoiceStatus;
+import com.bracit.fisprocess.dto.response.APAgingBucketDto;
+import com.bracit.fisprocess.dto.response.APAgingReportDto;
 import com.bracit.fisprocess.dto.response.ARAgingBucketDto;
 import com.bracit.fisprocess.dto.response.ARAgingReportDto;
 import com.bracit.fisprocess.exception.TenantNotFoundException;
 import com.bracit.fisprocess.repository.BusinessEntityRepository;
-import com.bracit.fisprocess.repository.InvoiceRepository;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository.BucketTotal;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository.Ledger;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository.PartyBucketTotal;
 import com.bracit.fisprocess.service.AgingService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
- * Implementation of {@link AgingService} for AR Aging reports.
+ * Implementation of {@link AgingService} for AR and AP Aging reports.
  * <p>
- * Groups outstanding invoice balances into aging buckets:
- * 0-30, 31-60, 61-90, 90+ days overdue.
+ * Groups outstanding invoice and bill balances into aging buckets by days
+ * overdue. The boundaries come from {@code fis.aging.bucket-boundaries}
+ * (default 30, 60, 90 → 0-30, 31-60, 61-90, 90+). Items not yet due are
+ * counted by the query but, as before, not reported. Aggregation happens in
+ * the database, so memory does not grow with the number of open items.
  */
 @Service
 @RequiredArgsConstructor
@@ -34,138 +40,153 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class AgingServiceImpl implements AgingService {
 
-    private final InvoiceRepository invoiceRepository;
+    private static final String DEFAULT_CURRENCY = "USD";
+
+    private final OpenItemAgingRepository openItemAgingRepository;
     private final BusinessEntityRepository businessEntityRepository;
 
+    @Value("${fis.aging.bucket-boundaries:30,60,90}")
+    private int[] bucketBoundaries = {30, 60, 90};
+
+    @PostConstruct
+    void validateBucketBoundaries() {
+        if (bucketBoundaries.length == 0) {
+            throw new IllegalStateException("fis.aging.bucket-boundaries must not be empty");
+        }
+        int previous = 0;
+        for (int boundary : bucketBoundaries) {
+            if (boundary <= previous) {
+                throw new IllegalStateException(
+                        "fis.aging.bucket-boundaries must be positive and strictly increasing");
+            }
+            previous = boundary;
+        }
+    }
+
     @Override
     public ARAgingReportDto getAgingReport(
             UUID tenantId,
             @Nullable UUID customerId,
             LocalDate asOfDate) {
         validateTenantExists(tenantId);
+        List<BucketTotal> totals = openItemAgingRepository.findBucketTotals(
+                Ledger.RECEIVABLES, tenantId, customerId, asOfDate, bucketBoundaries);
+        return toReceivablesReport(asOfDate, customerId, totals);
+    }
 
-        // Find all posted/partially paid invoices with outstanding balance
-        List<InvoiceStatus> activeStatuses = Arrays.asList(
-                InvoiceStatus.POSTED,
-                InvoiceStatus.PARTIALLY_PAID,
-                InvoiceStatus.OVERDUE);
-
-        List<Invoice> invoices;
-        if (customerId != null) {
-            invoices = invoiceRepository.findByTenantIdAndCustomerIdAndStatusIn(
-                    tenantId, customerId, activeStatuses);
-        } else {
-            // Fetch all invoices for tenant — filter in memory for flexibility
-            invoices = invoiceRepository.findByTenantIdAndCustomerIdAndStatusIn(
-                    tenantId, null, activeStatuses);
-            // Since null customerId won't match, we need a broader query
-            // Use the paginated query and collect all
-            invoices = fetchAllActiveInvoices(tenantId);
-        }
-
-        // Build aging buckets
-        AgingBuckets buckets = new AgingBuckets();
+    @Override
+    public APAgingReportDto getPayablesAgingReport(
+            UUID tenantId,
+            @Nullable UUID vendorId,
+            LocalDate asOfDate) {
+        validateTenantExists(tenantId);
+        List<BucketTotal> totals = openItemAgingRepository.findBucketTotals(
+                Ledger.PAYABLES, tenantId, vendorId, asOfDate, bucketBoundaries);
+        return toPayablesReport(asOfDate, vendorId, totals);
+    }
 
-        for (Invoice invoice : invoices) {
-            Long outstanding = invoice.getOutstandingAmount();
-            if (outstanding == null || outstanding <= 0) {
-                continue;
-            }
+    @Override
+    public void streamAgingByCustomer(UUID tenantId, LocalDate asOfDate, Consumer<ARAgingReportDto> sink) {
+        validateTenantExists(tenantId);
+        streamByParty(Ledger.RECEIVABLES, tenantId, asOfDate,
+                (partyId, totals) -> sink.accept(toReceivablesReport(asOfDate, partyId, totals)));
+    }
 
-            long daysOverdue = ChronoUnit.DAYS.between(invoice.getDueDate(), asOfDate);
-            if (daysOverdue <= 0) {
-                // Not yet due — bucket as "current"
-                buckets.currentCount++;
-                buckets.currentAmount += outstanding;
-            } else if (daysOverdue <= 30) {
-                buckets.bucket0to30Count++;
-                buckets.bucket0to30Amount += outstanding;
-            } else if (daysOverdue <= 60) {
-                buckets.bucket31to60Count++;
-                buckets.bucket31to60Amount += outstanding;
-            } else if (daysOverdue <= 90) {
-                buckets.bucket61to90Count++;
-                buckets.bucket61to90Amount += outstanding;
-            } else {
-                buckets.bucket90PlusCount++;
-                buckets.bucket90PlusAmount += outstanding;
-            }
-        }
+    @Override
+    public void streamPayablesAgingByVendor(UUID tenantId, LocalDate asOfDate, Consumer<APAgingReportDto> sink) {
+        validateTenantExists(tenantId);
+        streamByParty(Ledger.PAYABLES, tenantId, asOfDate,
+                (partyId, totals) -> sink.accept(toPayablesReport(asOfDate, partyId, totals)));
+    }
 
-        List<ARAgingBucketDto> bucketDtos = new ArrayList<>();
-        if (buckets.bucket0to30Amount > 0 || buckets.bucket0to30Count > 0) {
-            bucketDtos.add(new ARAgingBucketDto("0-30", buckets.bucket0to30Count, buckets.bucket0to30Amount));
-        }
-        if (buckets.bucket31to60Amount > 0 || buckets.bucket31to60Count > 0) {
-            bucketDtos.add(new ARAgingBucketDto("31-60", buckets.bucket31to60Count, buckets.bucket31to60Amount));
-        }
-        if (buckets.bucket61to90Amount > 0 || buckets.bucket61to90Count > 0) {
-            bucketDtos.add(new ARAgingBucketDto("61-90", buckets.bucket61to90Count, buckets.bucket61to90Amount));
-        }
-        if (buckets.bucket90PlusAmount > 0 || buckets.bucket90PlusCount > 0) {
-            bucketDtos.add(new ARAgingBucketDto("90+", buckets.bucket90PlusCount, buckets.bucket90PlusAmount));
-        }
+    // --- Private Helper Methods ---
 
-        // Determine currency
-        String currency = invoices.isEmpty() ? "USD" : invoices.get(0).getCurrency();
+    private void validateTenantExists(UUID tenantId) {
+        businessEntityRepository.findByTenantIdAndIsActiveTrue(tenantId)
+                .orElseThrow(() -> new TenantNotFoundException(tenantId.toString()));
+    }
 
-        long totalOutstanding = buckets.getTotal();
+    /**
+     * Regroups the party-ordered rows into one bucket list per party, holding
+     * only the current party's rows in memory.
+     */
+    private void streamByParty(Ledger ledger, UUID tenantId, LocalDate asOfDate, PartySink sink) {
+        List<BucketTotal> current = new ArrayList<>();
+        UUID[] currentParty = new UUID[1];
+        openItemAgingRepository.streamPartyBucketTotals(ledger, tenantId, asOfDate, bucketBoundaries,
+                (PartyBucketTotal row) -> {
+                    if (currentParty[0] != null && !currentParty[0].equals(row.partyId())) {
+                        sink.accept(currentParty[0], List.copyOf(current));
+                        current.clear();
+                    }
+                    currentParty[0] = row.partyId();
+                    current.add(new BucketTotal(row.bucket(), row.count(), row.amount(), row.currency()));
+                });
+        if (currentParty[0] != null) {
+            sink.accept(currentParty[0], List.copyOf(current));
+        }
+    }
 
+    private ARAgingReportDto toReceivablesReport(LocalDate asOfDate, @Nullable UUID customerId,
+            List<BucketTotal> totals) {
+        List<ARAgingBucketDto> buckets = new ArrayList<>();
+        for (BucketTotal total : overdue(totals)) {
+            buckets.add(new ARAgingBucketDto(bucketLabel(total.bucket()), (int) total.count(), total.amount()));
+        }
         return ARAgingReportDto.builder()
                 .asOfDate(asOfDate.toString())
                 .customerId(customerId != null ? customerId.toString() : null)
-                .currency(currency)
-                .buckets(bucketDtos)
-                .totalOutstanding(totalOutstanding)
+                .currency(currency(totals))
+                .buckets(buckets)
+                .totalOutstanding(overdueTotal(totals))
                 .build();
     }
 
-    // --- Private Helper Methods ---
+    private APAgingReportDto toPayablesReport(LocalDate asOfDate, @Nullable UUID vendorId,
+            List<BucketTotal> totals) {
+        List<APAgingBucketDto> buckets = new ArrayList<>();
+        for (BucketTotal total : overdue(totals)) {
+            buckets.add(new APAgingBucketDto(bucketLabel(total.bucket()), (int) total.count(), total.amount()));
+        }
+        return APAgingReportDto.builder()
+                .asOfDate(asOfDate.toString())
+                .vendorId(vendorId != null ? vendorId.toString() : null)
+                .currency(currency(totals))
+                .buckets(buckets)
+                .totalOutstanding(overdueTotal(totals))
+                .build();
+    }
 
-    private void validateTenantExists(UUID tenantId) {
-        businessEntityRepository.findByTenantIdAndIsActiveTrue(tenantId)
-                .orElseThrow(() -> new TenantNotFoundException(tenantId.toString()));
+    private static List<BucketTotal> overdue(List<BucketTotal> totals) {
+        return totals.stream().filter(total -> total.bucket() > 0).toList();
     }
 
-    private List<Invoice> fetchAllActiveInvoices(UUID tenantId) {
-        List<Invoice> allInvoices = new ArrayList<>();
-        int page = 0;
-        int pageSize = 1000;
-        while (true) {
-            var pageResult = invoiceRepository.findByTenantIdWithFilters(
-                    tenantId, null, null,
-                    org.springframework.data.domain.PageRequest.of(page, pageSize));
-            allInvoices.addAll(pageResult.getContent());
-            if (pageResult.isLast()) {
-                break;
-            }
-            page++;
+    private static long overdueTotal(List<BucketTotal> totals) {
+        long sum = 0L;
+        for (BucketTotal total : overdue(totals)) {
+            sum += total.amount();
         }
-        return allInvoices;
+        return sum;
+    }
+
+    private static String currency(List<BucketTotal> totals) {
+        return totals.isEmpty() ? DEFAULT_CURRENCY : totals.getFirst().currency();
     }
 
     /**
-     * Accumulator for aging bucket counts and amounts.
+     * Label of an overdue bucket, e.g. "0-30", "31-60", "90+" for the default
+     * boundaries.
      */
-    private static final class AgingBuckets {
-        // 0-30 days
-        int bucket0to30Count;
-        long bucket0to30Amount;
-        // 31-60 days
-        int bucket31to60Count;
-        long bucket31to60Amount;
-        // 61-90 days
-        int bucket61to90Count;
-        long bucket61to90Amount;
-        // 90+ days
-        int bucket90PlusCount;
-        long bucket90PlusAmount;
-        // Current (not yet due)
-        int currentCount;
-        long currentAmount;
-
-        long getTotal() {
-            return bucket0to30Amount + bucket31to60Amount + bucket61to90Amount + bucket90PlusAmount;
+    private String bucketLabel(int bucket) {
+        if (bucket > bucketBoundaries.length) {
+            return bucketBoundaries[bucketBoundaries.length - 1] + "+";
         }
+        int lower = bucket == 1 ? 0 : bucketBoundaries[bucket - 2] + 1;
+        return lower + "-" + bucketBoundaries[bucket - 1];
+    }
+
+    @FunctionalInterface
+    private interface PartySink {
+        void accept(UUID partyId, List<BucketTotal> totals);
     }
 }
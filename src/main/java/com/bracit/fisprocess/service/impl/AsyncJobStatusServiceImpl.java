@@ -8,14 +8,38 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 import tools.jackson.databind.json.JsonMapper;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Job status kept as one Redis hash per tracking id.
+ * <p>
+ * Transitions write only the fields they change with {@code HSET}, through a
+ * script that skips jobs whose hash does not exist (expired, or never
+ * created), so that no status outlives its TTL. Batch transitions send one
+ * script call per job in a single pipeline, so marking a batch costs one
+ * round trip regardless of its size; the scripts are sent by SHA and loaded
+ * again if Redis has lost them.
+ * <p>
+ * Jobs submitted before the switch to hashes are JSON strings under the same
+ * key. They are still read, and the first transition of such a job converts
+ * it to a hash, keeping its remaining TTL.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -24,6 +48,67 @@ public class AsyncJobStatusServiceImpl implements AsyncJobStatusService {
     private static final Duration JOB_TTL = Duration.ofHours(24);
     private static final String KEY_PREFIX = "fis:async:job:";
 
+    private static final String FIELD_TRACKING_ID = "trackingId";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_TENANT_ID = "tenantId";
+    private static final String FIELD_SUBMITTED_AT = "submittedAt";
+    private static final String FIELD_PROCESSED_AT = "processedAt";
+    private static final String FIELD_JOURNAL_ENTRY = "journalEntry";
+    private static final String FIELD_ERROR_MESSAGE = "errorMessage";
+    private static final String FIELD_ERROR_CODE = "errorCode";
+
+    private static final String LEGACY_MARKER = "legacy";
+
+    /**
+     * HSETs the field/value pairs in ARGV if KEYS[1] is an existing hash;
+     * returns 1 if it did, -1 if KEYS[1] is a legacy JSON string, 0 otherwise.
+     */
+    private static final DefaultRedisScript<Long> UPDATE_IF_EXISTS_SCRIPT = new DefaultRedisScript<>("""
+            local type = redis.call('TYPE', KEYS[1]).ok
+            if type == 'string' then
+                return -1
+            end
+            if type ~= 'hash' then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], unpack(ARGV))
+            return 1
+            """, Long.class);
+
+    /**
+     * Replaces the legacy JSON string KEYS[1] by a hash of the field/value
+     * pairs in ARGV[2..], keeping its TTL, if it still holds ARGV[1]; returns
+     * 1 if it did, 0 otherwise.
+     */
+    private static final DefaultRedisScript<Long> CONVERT_LEGACY_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('TYPE', KEYS[1]).ok ~= 'string' or redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            local ttl = redis.call('PTTL', KEYS[1])
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+            if ttl > 0 then
+                redis.call('PEXPIRE', KEYS[1], ttl)
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * Returns the field/value pairs of the hash KEYS[1], or the legacy marker
+     * followed by the JSON of a legacy string, or nothing.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> READ_SCRIPT = new DefaultRedisScript<>("""
+            local type = redis.call('TYPE', KEYS[1]).ok
+            if type == 'hash' then
+                return redis.call('HGETALL', KEYS[1])
+            end
+            if type == 'string' then
+                return { '""" + LEGACY_MARKER + """', redis.call('GET', KEYS[1]) }
+            end
+            return {}
+            """, List.class);
+
     private final StringRedisTemplate redisTemplate;
     private final JsonMapper jsonMapper;
 
@@ -32,54 +117,74 @@ public class AsyncJobStatusServiceImpl implements AsyncJobStatusService {
 
     @Override
     public void createPendingJob(UUID trackingId, UUID tenantId) {
-        AsyncJobStatusInfo statusInfo = AsyncJobStatusInfo.builder()
-                .status(AsyncJobStatus.PENDING)
-                .tenantId(tenantId)
-                .submittedAt(OffsetDateTime.now())
-                .build();
-        saveStatusInfo(trackingId, statusInfo);
-        log.debug("Created PENDING job for trackingId={}", trackingId);
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(FIELD_TRACKING_ID, trackingId.toString());
+        fields.put(FIELD_STATUS, AsyncJobStatus.PENDING.name());
+        fields.put(FIELD_TENANT_ID, tenantId.toString());
+        fields.put(FIELD_SUBMITTED_AT, OffsetDateTime.now().toString());
+        String key = key(trackingId);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.hMSet(key, fields);
+                stringConnection.expire(key, JOB_TTL.toSeconds());
+                return null;
+            });
+            log.debug("Created PENDING job for trackingId={}", trackingId);
+        } catch (Exception e) {
+            log.error("Failed to create job status for trackingId={}", trackingId, e);
+        }
     }
 
     @Override
     public void markProcessing(UUID trackingId) {
-        AsyncJobStatusInfo statusInfo = getStatusInfo(trackingId);
-        if (statusInfo == null) {
+        if (update(Map.of(trackingId, processing())) == 1) {
+            log.debug("Marked job {} as PROCESSING", trackingId);
+        } else {
             log.warn("Cannot mark job {} as PROCESSING - not found", trackingId);
-            return;
         }
-        statusInfo.setStatus(AsyncJobStatus.PROCESSING);
-        saveStatusInfo(trackingId, statusInfo);
-        log.debug("Marked job {} as PROCESSING", trackingId);
     }
 
     @Override
     public void markCompleted(UUID trackingId, JournalEntryResponseDto journalEntry) {
-        AsyncJobStatusInfo statusInfo = getStatusInfo(trackingId);
-        if (statusInfo == null) {
+        if (update(Map.of(trackingId, completed(journalEntry))) == 1) {
+            log.info("Marked job {} as COMPLETED - journalEntryId={}", trackingId,
+                    journalEntry != null ? journalEntry.getJournalEntryId() : null);
+        } else {
             log.warn("Cannot mark job {} as COMPLETED - not found", trackingId);
-            return;
         }
-        statusInfo.setStatus(AsyncJobStatus.COMPLETED);
-        statusInfo.setProcessedAt(OffsetDateTime.now());
-        statusInfo.setJournalEntry(journalEntry);
-        saveStatusInfo(trackingId, statusInfo);
-        log.info("Marked job {} as COMPLETED - journalEntryId={}", trackingId, journalEntry != null ? journalEntry.getJournalEntryId() : null);
     }
 
     @Override
     public void markFailed(UUID trackingId, String errorMessage, @Nullable String errorCode) {
-        AsyncJobStatusInfo statusInfo = getStatusInfo(trackingId);
-        if (statusInfo == null) {
+        if (update(Map.of(trackingId, failed(errorMessage, errorCode))) == 1) {
+            log.error("Marked job {} as FAILED - error={}", trackingId, errorMessage);
+        } else {
             log.warn("Cannot mark job {} as FAILED - not found", trackingId);
-            return;
         }
-        statusInfo.setStatus(AsyncJobStatus.FAILED);
-        statusInfo.setProcessedAt(OffsetDateTime.now());
-        statusInfo.setErrorMessage(errorMessage);
-        statusInfo.setErrorCode(errorCode);
-        saveStatusInfo(trackingId, statusInfo);
-        log.error("Marked job {} as FAILED - error={}", trackingId, errorMessage);
+    }
+
+    @Override
+    public void markAllCompleted(Map<UUID, JournalEntryResponseDto> journalEntries) {
+        Map<UUID, List<String>> updates = new LinkedHashMap<>();
+        journalEntries.forEach((trackingId, journalEntry) -> updates.put(trackingId, completed(journalEntry)));
+        int updated = update(updates);
+        log.info("Marked {} jobs as COMPLETED", updated);
+        if (updated < updates.size()) {
+            log.warn("Cannot mark {} jobs as COMPLETED - not found", updates.size() - updated);
+        }
+    }
+
+    @Override
+    public void markAllFailed(Collection<UUID> trackingIds, String errorMessage, @Nullable String errorCode) {
+        List<String> fields = failed(errorMessage, errorCode);
+        Map<UUID, List<String>> updates = new LinkedHashMap<>();
+        trackingIds.forEach(trackingId -> updates.put(trackingId, fields));
+        int updated = update(updates);
+        log.error("Marked {} jobs as FAILED - error={}", updated, errorMessage);
+        if (updated < updates.size()) {
+            log.warn("Cannot mark {} jobs as FAILED - not found", updates.size() - updated);
+        }
     }
 
     @Override
@@ -111,31 +216,217 @@ public class AsyncJobStatusServiceImpl implements AsyncJobStatusService {
         log.info("Async job cleanup triggered");
     }
 
-    private void saveStatusInfo(UUID trackingId, AsyncJobStatusInfo statusInfo) {
-        String key = KEY_PREFIX + trackingId;
+    private static String key(UUID trackingId) {
+        return KEY_PREFIX + trackingId;
+    }
+
+    private static List<String> processing() {
+        return List.of(FIELD_STATUS, AsyncJobStatus.PROCESSING.name());
+    }
+
+    private List<String> completed(JournalEntryResponseDto journalEntry) {
+        List<String> fields = new ArrayList<>(6);
+        fields.add(FIELD_STATUS);
+        fields.add(AsyncJobStatus.COMPLETED.name());
+        fields.add(FIELD_PROCESSED_AT);
+        fields.add(OffsetDateTime.now().toString());
+        if (journalEntry != null) {
+            fields.add(FIELD_JOURNAL_ENTRY);
+            fields.add(jsonMapper.writeValueAsString(journalEntry));
+        }
+        return fields;
+    }
+
+    private static List<String> failed(String errorMessage, @Nullable String errorCode) {
+        List<String> fields = new ArrayList<>(8);
+        fields.add(FIELD_STATUS);
+        fields.add(AsyncJobStatus.FAILED.name());
+        fields.add(FIELD_PROCESSED_AT);
+        fields.add(OffsetDateTime.now().toString());
+        if (errorMessage != null) {
+            fields.add(FIELD_ERROR_MESSAGE);
+            fields.add(errorMessage);
+        }
+        if (errorCode != null) {
+            fields.add(FIELD_ERROR_CODE);
+            fields.add(errorCode);
+        }
+        return fields;
+    }
+
+    /**
+     * Applies the field updates of every job in one pipelined round trip,
+     * converting legacy jobs first.
+     *
+     * @return the number of jobs that existed and were updated
+     */
+    private int update(Map<UUID, List<String>> fieldsByTrackingId) {
+        if (fieldsByTrackingId.isEmpty()) {
+            return 0;
+        }
         try {
-            String json = jsonMapper.writeValueAsString(statusInfo);
-            redisTemplate.opsForValue().set(key, json, JOB_TTL);
+            List<Object> results = updatePipelined(fieldsByTrackingId);
+            int updated = 0;
+            Map<UUID, List<String>> legacy = new LinkedHashMap<>();
+            int i = 0;
+            for (Map.Entry<UUID, List<String>> update : fieldsByTrackingId.entrySet()) {
+                Object result = results.get(i++);
+                if (result instanceof Long count && count == 1L) {
+                    updated++;
+                } else if (result instanceof Long count && count == -1L) {
+                    legacy.put(update.getKey(), update.getValue());
+                }
+            }
+            if (!legacy.isEmpty()) {
+                legacy.keySet().forEach(this::convertLegacy);
+                for (Object result : updatePipelined(legacy)) {
+                    if (result instanceof Long count && count == 1L) {
+                        updated++;
+                    }
+                }
+            }
+            return updated;
         } catch (Exception e) {
-            log.error("Failed to save job status for trackingId={}", trackingId, e);
+            log.error("Failed to update job status for {} jobs", fieldsByTrackingId.size(), e);
+            return 0;
+        }
+    }
+
+    private List<Object> updatePipelined(Map<UUID, List<String>> fieldsByTrackingId) {
+        try {
+            return executeUpdates(fieldsByTrackingId);
+        } catch (RuntimeException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            // Redis restarted or flushed its scripts since the last call
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.scriptingCommands().scriptLoad(
+                            UPDATE_IF_EXISTS_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+            return executeUpdates(fieldsByTrackingId);
+        }
+    }
+
+    private List<Object> executeUpdates(Map<UUID, List<String>> fieldsByTrackingId) {
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            fieldsByTrackingId.forEach((trackingId, fields) -> {
+                String[] keysAndArgs = new String[fields.size() + 1];
+                keysAndArgs[0] = key(trackingId);
+                for (int i = 0; i < fields.size(); i++) {
+                    keysAndArgs[i + 1] = fields.get(i);
+                }
+                stringConnection.evalSha(UPDATE_IF_EXISTS_SCRIPT.getSha1(), ReturnType.INTEGER, 1, keysAndArgs);
+            });
+            return null;
+        });
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rewrites a legacy JSON job as a hash. Does nothing if the job has
+     * expired or been changed meanwhile; the caller's update then finds it
+     * as it is.
+     */
+    private void convertLegacy(UUID trackingId) {
+        String key = key(trackingId);
+        String json = redisTemplate.opsForValue().get(key);
+        if (json == null) {
+            return;
+        }
+        AsyncJobStatusInfo statusInfo = fromLegacy(trackingId, json);
+        List<String> args = new ArrayList<>();
+        args.add(json);
+        hashFields(statusInfo).forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        Long converted = redisTemplate.execute(CONVERT_LEGACY_SCRIPT, List.of(key), args.toArray());
+        if (converted != null && converted == 1L) {
+            log.info("Converted legacy job status of trackingId={} to a hash", trackingId);
+        }
+    }
+
+    private Map<String, String> hashFields(AsyncJobStatusInfo statusInfo) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(FIELD_TRACKING_ID, statusInfo.getTrackingId().toString());
+        fields.put(FIELD_STATUS, statusInfo.getStatus().name());
+        if (statusInfo.getTenantId() != null) {
+            fields.put(FIELD_TENANT_ID, statusInfo.getTenantId().toString());
+        }
+        if (statusInfo.getSubmittedAt() != null) {
+            fields.put(FIELD_SUBMITTED_AT, statusInfo.getSubmittedAt().toString());
+        }
+        if (statusInfo.getProcessedAt() != null) {
+            fields.put(FIELD_PROCESSED_AT, statusInfo.getProcessedAt().toString());
+        }
+        if (statusInfo.getJournalEntry() != null) {
+            fields.put(FIELD_JOURNAL_ENTRY, jsonMapper.writeValueAsString(statusInfo.getJournalEntry()));
         }
+        if (statusInfo.getErrorMessage() != null) {
+            fields.put(FIELD_ERROR_MESSAGE, statusInfo.getErrorMessage());
+        }
+        if (statusInfo.getErrorCode() != null) {
+            fields.put(FIELD_ERROR_CODE, statusInfo.getErrorCode());
+        }
+        return fields;
     }
 
     @Nullable
     private AsyncJobStatusInfo getStatusInfo(UUID trackingId) {
-        String key = KEY_PREFIX + trackingId;
         try {
-            String json = redisTemplate.opsForValue().get(key);
-            if (json == null) {
+            List<?> reply = redisTemplate.execute(READ_SCRIPT, List.of(key(trackingId)));
+            if (reply == null || reply.isEmpty()) {
                 return null;
             }
-            return jsonMapper.readValue(json, AsyncJobStatusInfo.class);
+            if (reply.size() == 2 && LEGACY_MARKER.equals(reply.get(0))) {
+                return fromLegacy(trackingId, (String) reply.get(1));
+            }
+            Map<Object, Object> fields = new LinkedHashMap<>();
+            for (int i = 0; i + 1 < reply.size(); i += 2) {
+                fields.put(reply.get(i), reply.get(i + 1));
+            }
+            return toStatusInfo(trackingId, fields);
         } catch (Exception e) {
             log.error("Failed to get job status for trackingId={}", trackingId, e);
             return null;
         }
     }
 
+    private AsyncJobStatusInfo fromLegacy(UUID trackingId, String json) {
+        AsyncJobStatusInfo statusInfo = jsonMapper.readValue(json, AsyncJobStatusInfo.class);
+        // Legacy jobs did not record their own tracking id
+        statusInfo.setTrackingId(trackingId);
+        return statusInfo;
+    }
+
+    private AsyncJobStatusInfo toStatusInfo(UUID trackingId, Map<Object, Object> fields) {
+        String tenantId = (String) fields.get(FIELD_TENANT_ID);
+        String submittedAt = (String) fields.get(FIELD_SUBMITTED_AT);
+        String processedAt = (String) fields.get(FIELD_PROCESSED_AT);
+        String journalEntry = (String) fields.get(FIELD_JOURNAL_ENTRY);
+        return AsyncJobStatusInfo.builder()
+                .trackingId(trackingId)
+                .status(AsyncJobStatus.valueOf((String) fields.get(FIELD_STATUS)))
+                .tenantId(tenantId != null ? UUID.fromString(tenantId) : null)
+                .submittedAt(submittedAt != null ? OffsetDateTime.parse(submittedAt) : null)
+                .processedAt(processedAt != null ? OffsetDateTime.parse(processedAt) : null)
+                .journalEntry(journalEntry != null
+                        ? jsonMapper.readValue(journalEntry, JournalEntryResponseDto.class)
+                        : null)
+                .errorMessage((String) fields.get(FIELD_ERROR_MESSAGE))
+                .errorCode((String) fields.get(FIELD_ERROR_CODE))
+                .build();
+    }
+
     private JournalWriteReply toReply(AsyncJobStatusInfo statusInfo) {
         return JournalWriteReply.builder()
                 .trackingId(statusInfo.getTrackingId())
@@ -145,4 +436,4 @@ public class AsyncJobStatusServiceImpl implements AsyncJobStatusService {
                 .errorCode(statusInfo.getErrorCode())
                 .build();
     }
-}
\ No newline at end of file
+}
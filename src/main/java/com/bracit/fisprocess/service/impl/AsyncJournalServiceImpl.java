@@ -6,6 +6,7 @@ import com.bracit.fisprocess.dto.request.CreateJournalEntryBatchRequestDto;
 import com.bracit.fisprocess.dto.request.CreateJournalEntryRequestDto;
 import com.bracit.fisprocess.dto.response.AsyncJobResponseDto;
 import com.bracit.fisprocess.dto.response.JournalEntryResponseDto;
+import com.bracit.fisprocess.messaging.JournalReplyRegistry;
 import com.bracit.fisprocess.messaging.JournalWriteMessage;
 import com.bracit.fisprocess.messaging.JournalWriteReply;
 import com.bracit.fisprocess.service.AsyncJobStatusService;
@@ -24,6 +25,8 @@ import tools.jackson.databind.json.JsonMapper;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -31,9 +34,17 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class AsyncJournalServiceImpl implements AsyncJournalService {
 
+    /**
+     * Keeps the status lookup of timed-out requests off the single scheduler
+     * thread behind {@link CompletableFuture#orTimeout}.
+     */
+    private static final Executor REPLY_TIMEOUT_EXECUTOR =
+            task -> Thread.ofVirtual().name("fis-async-reply-timeout").start(task);
+
     private final RabbitTemplate rabbitTemplate;
     private final AsyncJobStatusService asyncJobStatusService;
     private final JsonMapper jsonMapper;
+    private final JournalReplyRegistry replyRegistry;
 
     @Value("${fis.async.reply-timeout-seconds:30}")
     private int replyTimeoutSeconds;
@@ -42,57 +53,28 @@ public class AsyncJournalServiceImpl implements AsyncJournalService {
     private int workerConcurrency;
 
     @Override
-    public AsyncJobResponseDto submitAsyncJournalEntry(
+    public CompletableFuture<AsyncJobResponseDto> submitAsyncJournalEntry(
             UUID tenantId,
             CreateJournalEntryRequestDto request,
             @Nullable String actorRoleHeader,
             @Nullable String traceparent) {
-
-        UUID trackingId = UUID.randomUUID();
-
-        asyncJobStatusService.createPendingJob(trackingId, tenantId);
-
-        JournalWriteMessage message = JournalWriteMessage.builder()
-                .trackingId(trackingId)
-                .tenantId(tenantId)
-                .actorRoleHeader(actorRoleHeader)
-                .traceparent(traceparent)
-                .request(request)
-                .build();
-
-        sendToQueue(message);
-
-        log.info("Submitted async journal entry with trackingId={}, tenantId={}", trackingId, tenantId);
-
-        return waitForReply(trackingId);
+        return publish(tenantId, request, actorRoleHeader, traceparent);
     }
 
     @Override
-    public AsyncJobResponseDto submitAsyncJournalEntryBatch(
+    public CompletableFuture<List<AsyncJobResponseDto>> submitAsyncJournalEntryBatch(
             UUID tenantId,
             CreateJournalEntryBatchRequestDto request,
             @Nullable String actorRoleHeader,
             @Nullable String traceparent) {
 
-        List<AsyncJobResponseDto> results = new ArrayList<>();
-
+        List<CompletableFuture<AsyncJobResponseDto>> replies = new ArrayList<>(request.getEntries().size());
         for (CreateJournalEntryRequestDto entry : request.getEntries()) {
-            UUID trackingId = UUID.randomUUID();
-            asyncJobStatusService.createPendingJob(trackingId, tenantId);
-
-            JournalWriteMessage message = JournalWriteMessage.builder()
-                    .trackingId(trackingId)
-                    .tenantId(tenantId)
-                    .actorRoleHeader(actorRoleHeader)
-                    .traceparent(traceparent)
-                    .request(entry)
-                    .build();
-
-            sendToQueue(message);
-            results.add(waitForReply(trackingId));
+            replies.add(publish(tenantId, entry, actorRoleHeader, traceparent));
         }
 
-        return results.getFirst();
+        return CompletableFuture.allOf(replies.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> replies.stream().map(CompletableFuture::join).toList());
     }
 
     @Override
@@ -104,6 +86,40 @@ public class AsyncJournalServiceImpl implements AsyncJournalService {
         return toAsyncJobResponse(reply);
     }
 
+    private CompletableFuture<AsyncJobResponseDto> publish(
+            UUID tenantId,
+            CreateJournalEntryRequestDto request,
+            @Nullable String actorRoleHeader,
+            @Nullable String traceparent) {
+
+        UUID trackingId = UUID.randomUUID();
+
+        asyncJobStatusService.createPendingJob(trackingId, tenantId);
+
+        JournalWriteMessage message = JournalWriteMessage.builder()
+                .trackingId(trackingId)
+                .tenantId(tenantId)
+                .actorRoleHeader(actorRoleHeader)
+                .traceparent(traceparent)
+                .replyTo(replyRegistry.replyQueueName())
+                .request(request)
+                .build();
+
+        CompletableFuture<JournalWriteReply> reply = replyRegistry.register(trackingId);
+        try {
+            sendToQueue(message);
+        } catch (RuntimeException ex) {
+            replyRegistry.cancel(trackingId);
+            throw ex;
+        }
+
+        log.info("Submitted async journal entry with trackingId={}, tenantId={}", trackingId, tenantId);
+
+        return reply.orTimeout(replyTimeoutSeconds, TimeUnit.SECONDS)
+                .thenApply(this::toAsyncJobResponse)
+                .exceptionallyAsync(ex -> currentStatus(trackingId), REPLY_TIMEOUT_EXECUTOR);
+    }
+
     private void sendToQueue(JournalWriteMessage message) {
         rabbitTemplate.convertAndSend(
                 RabbitMqTopology.JOURNAL_WRITE_EXCHANGE,
@@ -111,30 +127,24 @@ public class AsyncJournalServiceImpl implements AsyncJournalService {
                 message,
                 msg -> {
                     msg.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                    msg.getMessageProperties().setReplyTo(RabbitMqTopology.JOURNAL_WRITE_REPLY_QUEUE);
+                    msg.getMessageProperties().setReplyTo(message.getReplyTo());
                     msg.getMessageProperties().setCorrelationId(message.getTrackingId().toString());
                     return msg;
                 });
     }
 
-    private AsyncJobResponseDto waitForReply(UUID trackingId) {
-        String replyQueue = RabbitMqTopology.JOURNAL_WRITE_REPLY_QUEUE;
-
-        long startTime = System.currentTimeMillis();
-        long timeoutMs = replyTimeoutSeconds * 1000L;
-
-        while (System.currentTimeMillis() - startTime < timeoutMs) {
+    /**
+     * Response for a job whose reply did not arrive in time. The reply may
+     * have been consumed elsewhere, so the recorded status is consulted once.
+     */
+    private AsyncJobResponseDto currentStatus(UUID trackingId) {
+        AsyncJobStatus status = asyncJobStatusService.getStatus(trackingId);
+        if (status == AsyncJobStatus.COMPLETED || status == AsyncJobStatus.FAILED) {
             JournalWriteReply reply = asyncJobStatusService.getJobStatus(trackingId);
-
             if (reply != null) {
-                return toAsyncJobResponse(reply);
-            }
-
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+                AsyncJobResponseDto response = toAsyncJobResponse(reply);
+                response.setTrackingId(trackingId);
+                return response;
             }
         }
 
@@ -0,0 +1,187 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.repository.JournalLineRepository.JournalLineMatchProjection;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Matches bank statement lines against GL journal lines of the bank's GL
+ * account.
+ * <p>
+ * Journal lines are indexed by absolute amount; each amount bucket is sorted
+ * by posted date so a tier only looks at the candidates inside its date
+ * window. A journal line matches at most one statement line: consumed lines
+ * are skipped through a per-bucket "next free" pointer array, so repeated
+ * lookups in a heavily used bucket stay cheap.
+ * <p>
+ * Tiers are tried in order. Within a tier the earliest-dated acceptable
+ * candidate wins, as the previous linear scans over the date-ordered lines did.
+ * Instances are single-use and not thread-safe.
+ */
+public final class BankStatementMatcher {
+
+    private static final long NO_DATE = Long.MAX_VALUE;
+
+    /**
+     * One matching rule. A candidate qualifies when its posted date lies within
+     * {@link #windowDays()} of the statement date and {@link #accepts} holds.
+     */
+    public interface Tier {
+
+        /** Maximum distance in days between statement and posted date, or negative for no limit. */
+        int windowDays();
+
+        boolean accepts(Candidate candidate, @Nullable String statementReference);
+    }
+
+    /**
+     * Journal line as seen by the tiers; the reference is pre-lowercased.
+     */
+    public record Candidate(JournalLineMatchProjection line, @Nullable String reference) {
+    }
+
+    /**
+     * Tiers used by the reconciliation auto-match: same amount with a
+     * matching reference within {@code exactWindowDays}, same amount within
+     * {@code fuzzyWindowDays}, then same amount regardless of date.
+     */
+    public static List<Tier> defaultTiers(int exactWindowDays, int fuzzyWindowDays) {
+        return List.of(
+                new WindowTier(exactWindowDays, true),
+                new WindowTier(fuzzyWindowDays, false),
+                new WindowTier(-1, false));
+    }
+
+    private final List<Tier> tiers;
+    private final Map<Long, Bucket> buckets;
+
+    public BankStatementMatcher(List<? extends JournalLineMatchProjection> journalLines, List<Tier> tiers) {
+        this.tiers = List.copyOf(tiers);
+        Map<Long, List<JournalLineMatchProjection>> byAmount = new HashMap<>();
+        for (JournalLineMatchProjection line : journalLines) {
+            byAmount.computeIfAbsent(Math.abs(line.getAmount()), amount -> new ArrayList<>()).add(line);
+        }
+        this.buckets = new HashMap<>(byAmount.size() * 2);
+        byAmount.forEach((amount, lines) -> buckets.put(amount, new Bucket(lines)));
+    }
+
+    /**
+     * Finds the best unconsumed journal line for a statement line and marks it
+     * consumed.
+     *
+     * @return the matched journal line, or {@code null} if no tier matched
+     */
+    public @Nullable JournalLineMatchProjection match(long amount, LocalDate statementDate,
+            @Nullable String statementReference) {
+        Bucket bucket = buckets.get(Math.abs(amount));
+        if (bucket == null) {
+            return null;
+        }
+        String reference = normalize(statementReference);
+        long day = statementDate.toEpochDay();
+        for (Tier tier : tiers) {
+            int index = bucket.find(tier, day, reference);
+            if (index >= 0) {
+                bucket.consume(index);
+                return bucket.candidates[index].line();
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable String normalize(@Nullable String reference) {
+        return reference == null || reference.isEmpty() ? null : reference.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Bucket {
+
+        private final Candidate[] candidates;
+        private final long[] days;
+        /** next[i] is the first unconsumed index {@code >= i}; path-compressed on lookup. */
+        private final int[] next;
+
+        private Bucket(List<JournalLineMatchProjection> lines) {
+            lines.sort(Comparator.comparingLong(Bucket::epochDay));
+            int size = lines.size();
+            this.candidates = new Candidate[size];
+            this.days = new long[size];
+            this.next = new int[size + 1];
+            for (int i = 0; i < size; i++) {
+                JournalLineMatchProjection line = lines.get(i);
+                candidates[i] = new Candidate(line, normalize(line.getReferenceId()));
+                days[i] = epochDay(line);
+                next[i] = i;
+            }
+            next[size] = size;
+        }
+
+        private int find(Tier tier, long day, @Nullable String reference) {
+            int window = tier.windowDays();
+            int from = window < 0 ? 0 : lowerBound(day - window);
+            long lastDay = window < 0 ? NO_DATE : day + window;
+            for (int i = nextFree(from); i < candidates.length && days[i] <= lastDay; i = nextFree(i + 1)) {
+                if (tier.accepts(candidates[i], reference)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void consume(int index) {
+            next[index] = index + 1;
+        }
+
+        private int nextFree(int index) {
+            int root = index;
+            while (next[root] != root) {
+                root = next[root];
+            }
+            while (next[index] != root) {
+                int following = next[index];
+                next[index] = root;
+                index = following;
+            }
+            return root;
+        }
+
+        /** First index whose day is {@code >= day}. */
+        private int lowerBound(long day) {
+            int low = 0;
+            int high = days.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static long epochDay(JournalLineMatchProjection line) {
+            LocalDate postedDate = line.getPostedDate();
+            return postedDate == null ? NO_DATE : postedDate.toEpochDay();
+        }
+    }
+
+    private record WindowTier(int windowDays, boolean requireReference) implements Tier {
+
+        @Override
+        public boolean accepts(Candidate candidate, @Nullable String statementReference) {
+            if (!requireReference) {
+                return true;
+            }
+            String reference = candidate.reference();
+            return statementReference != null && reference != null
+                    && (reference.contains(statementReference) || statementReference.contains(reference));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.bracit.fisprocess.service.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consolidated balance per account code, held in parallel primitive arrays.
+ * <p>
+ * Each account code is assigned a dense slot the first time it is seen;
+ * amounts are then added to {@code long} slots instead of boxed per-account
+ * objects. Not thread-safe: members are merged from the calling thread.
+ */
+final class ConsolidationAccumulator {
+
+    private final Map<String, Integer> slotByCode;
+    private String[] accountTypes;
+    private long[] amounts;
+    private int size;
+
+    ConsolidationAccumulator(int expectedAccounts) {
+        int capacity = Math.max(expectedAccounts, 16);
+        this.slotByCode = new HashMap<>(capacity * 2);
+        this.accountTypes = new String[capacity];
+        this.amounts = new long[capacity];
+    }
+
+    void add(String accountCode, String accountType, long amount) {
+        amounts[slot(accountCode, accountType)] += amount;
+    }
+
+    /**
+     * @return the slot of the account code, or {@code -1} if it never received an amount
+     */
+    int find(String accountCode) {
+        Integer slot = slotByCode.get(accountCode);
+        return slot != null ? slot : -1;
+    }
+
+    void addAt(int slot, long amount) {
+        amounts[slot] += amount;
+    }
+
+    long amountAt(int slot) {
+        return amounts[slot];
+    }
+
+    String accountTypeAt(int slot) {
+        return accountTypes[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(String accountCode, String accountType) {
+        Integer existing = slotByCode.get(accountCode);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == amounts.length) {
+            int capacity = size * 2;
+            accountTypes = Arrays.copyOf(accountTypes, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        int slot = size++;
+        accountTypes[slot] = accountType;
+        slotByCode.put(accountCode, slot);
+        return slot;
+    }
+}
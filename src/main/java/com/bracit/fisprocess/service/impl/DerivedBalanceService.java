@@ -31,7 +31,7 @@ public class DerivedBalanceService {
             AND je.status = 'POSTED'
             """;
 
-        Long balance = jdbcTemplate.queryForObject(sql, Long.class, accountId.toString());
+        Long balance = jdbcTemplate.queryForObject(sql, Long.class, accountId);
         return balance != null ? balance : 0L;
     }
 
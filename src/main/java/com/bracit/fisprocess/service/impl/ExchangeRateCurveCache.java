@@ -0,0 +1,295 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.config.ReadReplicas;
+import com.bracit.fisprocess.domain.entity.ExchangeRate;
+import com.bracit.fisprocess.repository.ExchangeRateRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-tenant, per-currency-pair exchange-rate curves held in process memory.
+ * <p>
+ * A pair's whole rate history is loaded with one query and kept as an array
+ * of epoch days sorted ascending, so the rate on any date is a binary search
+ * for the last rate on or before it, and the average over a date range is a
+ * difference of prefix sums. {@link ExchangeRateServiceImpl} invalidates the
+ * uploaded pairs after commit; the invalidation is applied locally and
+ * published on {@link #INVALIDATION_CHANNEL} so that other instances drop
+ * their copy too. Entries also expire after
+ * {@code fis.rate-curve.expire-after-write-seconds}, which bounds staleness
+ * should a message be lost. The cache is bounded by the number of rates it
+ * holds, {@code fis.rate-curve.max-rates}, rather than by pairs, since one
+ * pair with a long daily history outweighs thousands of sparse ones.
+ * <p>
+ * Curves are loaded from the primary in a read-write transaction, since a
+ * read-only one may be served by a lagging replica and would cache the state
+ * from before an invalidation for the whole expiry. A miss inside a read-only
+ * transaction that may read a replica is loaded but not cached.
+ */
+@Component
+@Slf4j
+public class ExchangeRateCurveCache {
+
+    static final String INVALIDATION_CHANNEL = "fis:rate-curve:invalidate";
+
+    /**
+     * One currency pair of one tenant; currencies are upper case.
+     */
+    record CurveKey(UUID tenantId, String sourceCurrency, String targetCurrency) {
+
+        String encode() {
+            return tenantId + "|" + sourceCurrency + "|" + targetCurrency;
+        }
+
+        static CurveKey decode(String value) {
+            String[] parts = value.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(value);
+            }
+            return new CurveKey(UUID.fromString(parts[0]), parts[1], parts[2]);
+        }
+    }
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+    private final ReadReplicas readReplicas;
+    private final TransactionTemplate primaryTransaction;
+    private final Cache<CurveKey, RateCurve> curves;
+
+    public ExchangeRateCurveCache(
+            ExchangeRateRepository exchangeRateRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            MeterRegistry meterRegistry,
+            ReadReplicas readReplicas,
+            PlatformTransactionManager transactionManager,
+            @Value("${fis.rate-curve.max-rates:2000000}") long maxRates,
+            @Value("${fis.rate-curve.expire-after-write-seconds:900}") long expireAfterWriteSeconds) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.readReplicas = readReplicas;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.curves = Caffeine.newBuilder()
+                .maximumWeight(maxRates)
+                .weigher((CurveKey key, RateCurve curve) -> curve.size() + 1)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Latest rate effective on or before the date, or {@code null} if the pair
+     * has no such rate.
+     */
+    public @Nullable BigDecimal rateOn(UUID tenantId, String sourceCurrency, String targetCurrency, LocalDate date) {
+        return curve(tenantId, sourceCurrency, targetCurrency).rateOn(date);
+    }
+
+    /**
+     * Simple average of the rates effective within the inclusive date range,
+     * or {@code null} if there are none.
+     */
+    public @Nullable BigDecimal averageRate(UUID tenantId, String sourceCurrency, String targetCurrency,
+            LocalDate fromDate, LocalDate toDate) {
+        return curve(tenantId, sourceCurrency, targetCurrency).averageRate(fromDate, toDate);
+    }
+
+    /**
+     * Loads every curve of the tenant with a single query, replacing cached
+     * ones.
+     *
+     * @return the number of currency pairs loaded
+     */
+    public int preload(UUID tenantId) {
+        if (mayReadReplica()) {
+            return 0;
+        }
+        Map<CurveKey, List<ExchangeRate>> ratesByPair = new LinkedHashMap<>();
+        List<ExchangeRate> tenantRates = primaryTransaction.execute(
+                status -> exchangeRateRepository.findByTenantIdOrderByEffectiveDateAsc(tenantId));
+        for (ExchangeRate rate : tenantRates) {
+            ratesByPair.computeIfAbsent(
+                    new CurveKey(tenantId, rate.getSourceCurrency(), rate.getTargetCurrency()),
+                    key -> new ArrayList<>()).add(rate);
+        }
+        ratesByPair.forEach((key, rates) -> curves.put(key, RateCurve.of(rates)));
+        meterRegistry.counter("fis.rate.curve.load").increment(ratesByPair.size());
+        return ratesByPair.size();
+    }
+
+    /**
+     * Drops the curves of the pairs the given rates belong to, on this and
+     * every other instance, once the surrounding transaction commits, so that
+     * no reader can cache the pre-commit state. Without an active transaction
+     * this happens immediately.
+     */
+    public void invalidateAfterCommit(UUID tenantId, Collection<ExchangeRate> changedRates) {
+        Set<CurveKey> keys = new LinkedHashSet<>();
+        for (ExchangeRate rate : changedRates) {
+            keys.add(new CurveKey(tenantId, rate.getSourceCurrency(), rate.getTargetCurrency()));
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            keys.forEach(this::invalidate);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                keys.forEach(ExchangeRateCurveCache.this::invalidate);
+            }
+        });
+    }
+
+    private RateCurve curve(UUID tenantId, String sourceCurrency, String targetCurrency) {
+        CurveKey key = new CurveKey(tenantId, sourceCurrency, targetCurrency);
+        if (mayReadReplica()) {
+            RateCurve cached = curves.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+            meterRegistry.counter("fis.rate.curve.load.uncached").increment();
+            return load(key);
+        }
+        return curves.get(key, k -> primaryTransaction.execute(status -> load(k)));
+    }
+
+    /**
+     * Whether the current transaction is read-only and may be routed to a
+     * replica, so that what it reads must not be cached.
+     */
+    private boolean mayReadReplica() {
+        return !readReplicas.isEmpty() && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private void invalidate(CurveKey key) {
+        curves.invalidate(key);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, key.encode());
+        } catch (RuntimeException ex) {
+            // Other instances fall back to expiry
+            log.warn("Failed to broadcast rate curve invalidation for '{}': {}", key.encode(), ex.getMessage());
+        }
+    }
+
+    private void evictLocal(String key) {
+        try {
+            curves.invalidate(CurveKey.decode(key));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed rate curve invalidation '{}'", key);
+        }
+    }
+
+    private RateCurve load(CurveKey key) {
+        meterRegistry.counter("fis.rate.curve.load").increment();
+        return RateCurve.of(exchangeRateRepository.findByTenantIdAndSourceCurrencyAndTargetCurrencyOrderByEffectiveDateAsc(
+                key.tenantId(), key.sourceCurrency(), key.targetCurrency()));
+    }
+
+    /**
+     * Immutable, date-ordered rates of one currency pair, with prefix sums for
+     * range averages.
+     */
+    static final class RateCurve {
+
+        private final long[] days;
+        private final BigDecimal[] rates;
+        /** {@code prefixSums[i]} is the sum of the first {@code i} rates. */
+        private final BigDecimal[] prefixSums;
+
+        private RateCurve(long[] days, BigDecimal[] rates, BigDecimal[] prefixSums) {
+            this.days = days;
+            this.rates = rates;
+            this.prefixSums = prefixSums;
+        }
+
+        static RateCurve of(List<ExchangeRate> ascendingRates) {
+            long[] days = new long[ascendingRates.size()];
+            BigDecimal[] rates = new BigDecimal[ascendingRates.size()];
+            BigDecimal[] prefixSums = new BigDecimal[ascendingRates.size() + 1];
+            prefixSums[0] = BigDecimal.ZERO;
+            for (int i = 0; i < ascendingRates.size(); i++) {
+                ExchangeRate rate = ascendingRates.get(i);
+                days[i] = rate.getEffectiveDate().toEpochDay();
+                rates[i] = rate.getRate();
+                prefixSums[i + 1] = prefixSums[i].add(rate.getRate());
+            }
+            return new RateCurve(days, rates, prefixSums);
+        }
+
+        int size() {
+            return days.length;
+        }
+
+        @Nullable BigDecimal rateOn(LocalDate date) {
+            int index = floorIndex(date.toEpochDay());
+            return index >= 0 ? rates[index] : null;
+        }
+
+        @Nullable BigDecimal averageRate(LocalDate fromDate, LocalDate toDate) {
+            int first = floorIndex(fromDate.toEpochDay() - 1) + 1;
+            int last = floorIndex(toDate.toEpochDay());
+            int count = last - first + 1;
+            if (count <= 0) {
+                return null;
+            }
+            return prefixSums[last + 1].subtract(prefixSums[first])
+                    .divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+        }
+
+        /**
+         * Index of the last rate effective on or before the day, or -1.
+         */
+        private int floorIndex(long day) {
+            int low = 0;
+            int high = days.length - 1;
+            int candidate = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (days[mid] <= day) {
+                    candidate = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return candidate;
+        }
+    }
+}
@@ -9,8 +9,6 @@ import com.bracit.fisprocess.repository.ExchangeRateRepository;
 import com.bracit.fisprocess.service.ExchangeRateService;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.Nullable;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,19 +18,24 @@ import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
 
+/**
+ * FX rate maintenance and lookup. Lookups are served from
+ * {@link ExchangeRateCurveCache}; uploads invalidate only the pairs they touch.
+ */
 @Service
 @RequiredArgsConstructor
 public class ExchangeRateServiceImpl implements ExchangeRateService {
 
     private final ExchangeRateRepository exchangeRateRepository;
+    private final ExchangeRateCurveCache rateCurveCache;
 
     @Override
     @Transactional
-    @CacheEvict(value = "exchangeRates", allEntries = true)  // Evict all rates on batch upload to ensure consistency
     public List<ExchangeRateResponseDto> upload(UUID tenantId, ExchangeRateUploadDto request) {
         List<ExchangeRate> saved = request.getRates().stream()
                 .map(rate -> upsert(tenantId, rate))
                 .toList();
+        rateCurveCache.invalidateAfterCommit(tenantId, saved);
         return saved.stream().map(this::toResponse).toList();
     }
 
@@ -47,11 +50,12 @@ public class ExchangeRateServiceImpl implements ExchangeRateService {
                 effectiveDate).stream().map(this::toResponse).toList();
     }
 
+    /**
+     * Not read-only: a curve cache miss loads and caches from the primary,
+     * which a read-only transaction could route to a lagging replica.
+     */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "exchangeRates",
-            key = "#tenantId.toString() + ':' + #sourceCurrency.toUpperCase(Locale.ROOT) + ':' + #targetCurrency.toUpperCase(Locale.ROOT) + ':' + #effectiveDate",
-            unless = "#result == null")
+    @Transactional
     public BigDecimal resolveRate(UUID tenantId, String sourceCurrency, String targetCurrency, LocalDate effectiveDate) {
         String source = normalizeCurrency(sourceCurrency);
         String target = normalizeCurrency(targetCurrency);
@@ -59,17 +63,15 @@ public class ExchangeRateServiceImpl implements ExchangeRateService {
             return BigDecimal.ONE;
         }
 
-        return exchangeRateRepository.findByTenantIdAndSourceCurrencyAndTargetCurrencyAndEffectiveDate(
-                tenantId, source, target, effectiveDate)
-                .map(ExchangeRate::getRate)
-                .orElseGet(() -> exchangeRateRepository.findLatestPrior(tenantId, source, target, effectiveDate).stream()
-                        .findFirst()
-                        .map(ExchangeRate::getRate)
-                        .orElseThrow(() -> new ExchangeRateNotFoundException(source, target)));
+        BigDecimal rate = rateCurveCache.rateOn(tenantId, source, target, effectiveDate);
+        if (rate == null) {
+            throw new ExchangeRateNotFoundException(source, target);
+        }
+        return rate;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public BigDecimal resolveAverageRate(
             UUID tenantId,
             String sourceCurrency,
@@ -81,8 +83,8 @@ public class ExchangeRateServiceImpl implements ExchangeRateService {
         if (source.equals(target)) {
             return BigDecimal.ONE;
         }
-        return exchangeRateRepository.findAverageRateInRange(tenantId, source, target, fromDate, toDate)
-                .orElseGet(() -> resolveRate(tenantId, source, target, toDate));
+        BigDecimal average = rateCurveCache.averageRate(tenantId, source, target, fromDate, toDate);
+        return average != null ? average : resolveRate(tenantId, source, target, toDate);
     }
 
     private ExchangeRate upsert(UUID tenantId, ExchangeRateEntryDto rate) {
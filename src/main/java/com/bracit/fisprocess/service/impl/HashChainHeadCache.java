@@ -0,0 +1,379 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.exception.HashChainConflictException;
+import com.bracit.fisprocess.repository.JournalEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory head of the journal hash chain per (tenant, fiscal year).
+ * <p>
+ * A head is seeded once from the latest persisted entry and afterwards only
+ * advanced from transaction commit callbacks, so a rolled-back posting never
+ * leaks its hash into the chain. Callers must hold the fiscal-year sequence
+ * row lock and pass the sequence number of the last committed entry; a cached
+ * head at any other position (another instance posted in between, or a commit
+ * callback has not run yet) is discarded and reseeded from the database.
+ * <p>
+ * Tenants on gap-tolerant block sequence allocation use the tentative head
+ * instead: it moves as soon as an entry is hashed, so the next entry can be
+ * chained without waiting for the previous transaction to commit. Such a
+ * chain is only sound with a single writer, which the block lease of
+ * {@link JournalSequenceAllocator} enforces. Every link stays pending until
+ * its transaction completes, and the chain is kept consistent at completion:
+ * <ul>
+ * <li>a link commits only after the pending links it was chained on, so a
+ * committed entry never refers to a hash that is rolled back later;</li>
+ * <li>a rollback rewinds the head to the hash the rolled-back link was
+ * chained on, and the links chained after it fail before they commit;</li>
+ * <li>when a new block is reserved the head is checked against the latest
+ * persisted entry and reseeded if another writer has moved the chain.</li>
+ * </ul>
+ * A transaction waits for its predecessors at commit. An earlier link may
+ * need a row the waiting transaction has locked, which neither the JVM nor
+ * PostgreSQL would see as a deadlock, so writes to shared ledger rows such as
+ * the daily balances are deferred with {@link #afterPredecessors} until the
+ * wait is over.
+ * Numbers of rolled back postings are skipped, which is the sequence gap
+ * that mode accepts; the hash chain itself has no gaps.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HashChainHeadCache {
+
+    static final String GENESIS_HASH = "0";
+    private static final Duration PREDECESSOR_WAIT = Duration.ofSeconds(5);
+    private static final int PREDECESSOR_WAIT_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<ChainKey, ChainHead> heads = new ConcurrentHashMap<>();
+    private final Map<ChainKey, TentativeChain> tentativeChains = new ConcurrentHashMap<>();
+    private final Object transactionKey = new Object();
+
+    /**
+     * Returns the committed chain head for the tenant and fiscal year.
+     *
+     * @param lastCommittedSequence sequence number of the last committed entry
+     *                              ({@code 0} when the fiscal year has none), as
+     *                              read under the sequence row lock
+     */
+    public ChainHead current(UUID tenantId, int fiscalYear, long lastCommittedSequence) {
+        ChainKey key = new ChainKey(tenantId, fiscalYear);
+        ChainHead cached = heads.get(key);
+        if (cached != null && cached.sequenceNumber() == lastCommittedSequence) {
+            meterRegistry.counter("fis.hash.chain.head.hit").increment();
+            return cached;
+        }
+
+        meterRegistry.counter("fis.hash.chain.head.miss").increment();
+        ChainHead seeded = seed(tenantId, fiscalYear);
+        heads.put(key, seeded);
+        return seeded;
+    }
+
+    /**
+     * Returns the head of the last entry hashed on this node, seeding it from
+     * the latest persisted entry on first use. Callers must hold the block
+     * allocation lock of {@link JournalSequenceAllocator} for the key.
+     *
+     * @throws HashChainConflictException if the current transaction already
+     *                                    holds a pending link and another
+     *                                    transaction has chained after it
+     */
+    public ChainHead tentative(UUID tenantId, int fiscalYear) {
+        TentativeChain chain = tentativeChain(new ChainKey(tenantId, fiscalYear));
+        synchronized (chain) {
+            Object transaction = currentTransaction();
+            if (transaction != null && !chain.pending.isEmpty()
+                    && chain.pending.getLast().transaction != transaction
+                    && chain.pending.stream().anyMatch(link -> link.transaction == transaction)) {
+                // Committing would wait on a transaction that waits on this one
+                throw new HashChainConflictException("Journal entries of tenant '" + tenantId
+                        + "' were posted concurrently within one transaction; retry the transaction.");
+            }
+            return chain.head;
+        }
+    }
+
+    /**
+     * Checks the tentative head against the latest persisted entry and
+     * reseeds it if the chain was moved by another writer, in which case the
+     * pending links of this node can no longer commit. Called when a new
+     * sequence block is reserved, under the block allocation lock.
+     */
+    public void revalidateTentative(UUID tenantId, int fiscalYear) {
+        ChainKey key = new ChainKey(tenantId, fiscalYear);
+        ChainHead persisted = seed(tenantId, fiscalYear);
+        TentativeChain chain = tentativeChains.computeIfAbsent(key, k -> new TentativeChain(persisted));
+        synchronized (chain) {
+            boolean moved = persisted.sequenceNumber() > chain.head.sequenceNumber()
+                    || (persisted.sequenceNumber() == chain.head.sequenceNumber()
+                    && !persisted.hash().equals(chain.head.hash()));
+            if (!moved) {
+                return;
+            }
+            log.warn("Hash chain of tenant='{}', fiscalYear='{}' moved to sequence {} outside this node; "
+                    + "reseeding and failing {} pending entries", tenantId, fiscalYear,
+                    persisted.sequenceNumber(), chain.pending.size());
+            meterRegistry.counter("fis.hash.chain.tentative.reseeded").increment();
+            chain.pending.forEach(link -> link.doomed = true);
+            chain.pending.clear();
+            chain.head = persisted;
+            chain.notifyAll();
+        }
+    }
+
+    /**
+     * Moves the tentative head immediately, without waiting for commit. Inside
+     * a transaction the link from {@code previous} to {@code newHead} stays
+     * pending until the transaction completes.
+     */
+    public void advanceTentative(UUID tenantId, int fiscalYear, ChainHead previous, ChainHead newHead) {
+        ChainKey key = new ChainKey(tenantId, fiscalYear);
+        TentativeChain chain = tentativeChain(key);
+        Object transaction = currentTransaction();
+        synchronized (chain) {
+            chain.head = newHead;
+            if (transaction == null) {
+                return;
+            }
+            PendingLink link = new PendingLink(previous, transaction);
+            chain.pending.add(link);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return PREDECESSOR_WAIT_ORDER;
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    awaitPredecessors(tenantId, chain, link);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    complete(key, chain, link, status);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs {@code work} before the surrounding transaction commits, but after
+     * it has waited for the pending links it was chained on, so that the
+     * transaction holds no lock on {@code work}'s rows while it waits. Without
+     * an active transaction {@code work} runs immediately.
+     */
+    public void afterPredecessors(Runnable work) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            work.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                work.run();
+            }
+        });
+    }
+
+    /**
+     * Moves the head forward once the surrounding transaction commits. Without
+     * an active transaction the head is moved immediately.
+     */
+    public void advanceOnCommit(UUID tenantId, int fiscalYear, ChainHead newHead) {
+        ChainKey key = new ChainKey(tenantId, fiscalYear);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(key, newHead);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(key, newHead);
+            }
+        });
+    }
+
+    /**
+     * Drops the cached head so that the next posting reseeds from the database.
+     */
+    public void evict(UUID tenantId, int fiscalYear) {
+        ChainKey key = new ChainKey(tenantId, fiscalYear);
+        heads.remove(key);
+        TentativeChain chain = tentativeChains.remove(key);
+        if (chain != null) {
+            synchronized (chain) {
+                chain.pending.forEach(link -> link.doomed = true);
+                chain.pending.clear();
+                chain.notifyAll();
+            }
+        }
+    }
+
+    private TentativeChain tentativeChain(ChainKey key) {
+        return tentativeChains.computeIfAbsent(key,
+                k -> new TentativeChain(seed(k.tenantId(), k.fiscalYear())));
+    }
+
+    /**
+     * Blocks until every pending link of other transactions in front of
+     * {@code link} has completed, then fails if one of them rolled back.
+     */
+    private void awaitPredecessors(UUID tenantId, TentativeChain chain, PendingLink link) {
+        long deadline = System.nanoTime() + PREDECESSOR_WAIT.toNanos();
+        synchronized (chain) {
+            while (!link.doomed && hasForeignPredecessor(chain, link)) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new HashChainConflictException("Timed out waiting for earlier journal entries of tenant '"
+                            + tenantId + "' to commit; retry the transaction.");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(chain, remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new HashChainConflictException("Interrupted while waiting for earlier journal entries of tenant '"
+                            + tenantId + "' to commit.");
+                }
+            }
+            if (link.doomed) {
+                throw new HashChainConflictException("An earlier journal entry of tenant '" + tenantId
+                        + "' this entry was chained on did not commit; retry the transaction.");
+            }
+        }
+    }
+
+    private static boolean hasForeignPredecessor(TentativeChain chain, PendingLink link) {
+        for (PendingLink pending : chain.pending) {
+            if (pending == link) {
+                return false;
+            }
+            if (pending.transaction != link.transaction) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void complete(ChainKey key, TentativeChain chain, PendingLink link, int status) {
+        synchronized (chain) {
+            int index = chain.pending.indexOf(link);
+            if (index < 0) {
+                // Already failed by a rollback in front of it or by a reseed
+                return;
+            }
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                chain.pending.remove(index);
+            } else {
+                List<PendingLink> failed = chain.pending.subList(index, chain.pending.size());
+                failed.forEach(pending -> pending.doomed = true);
+                failed.clear();
+                if (status == TransactionSynchronization.STATUS_ROLLED_BACK) {
+                    chain.head = link.previous;
+                    meterRegistry.counter("fis.hash.chain.tentative.rewound").increment();
+                } else {
+                    // Unknown outcome: the head may or may not be persisted, so reseed on next use
+                    tentativeChains.remove(key, chain);
+                }
+            }
+            chain.notifyAll();
+        }
+    }
+
+    /**
+     * Identity of the current transaction, bound for its duration, or
+     * {@code null} outside a transaction.
+     */
+    private @Nullable Object currentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Object transaction = TransactionSynchronizationManager.getResource(transactionKey);
+        if (transaction == null) {
+            Object bound = new Object();
+            TransactionSynchronizationManager.bindResource(transactionKey, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(transactionKey);
+                }
+            });
+            transaction = bound;
+        }
+        return transaction;
+    }
+
+    private ChainHead seed(UUID tenantId, int fiscalYear) {
+        ChainHead seeded = journalEntryRepository
+                .findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(tenantId, fiscalYear)
+                .map(je -> new ChainHead(je.getHash(),
+                        je.getSequenceNumber() != null ? je.getSequenceNumber() : -1L))
+                .orElse(new ChainHead(GENESIS_HASH, 0L));
+        log.debug("Seeded hash chain head for tenant='{}', fiscalYear='{}' at sequence {}",
+                tenantId, fiscalYear, seeded.sequenceNumber());
+        return seeded;
+    }
+
+    private void publish(ChainKey key, ChainHead head) {
+        // Commit callbacks of consecutive transactions may run out of order; never move a head backwards.
+        heads.merge(key, head, (existing, candidate) ->
+                candidate.sequenceNumber() >= existing.sequenceNumber() ? candidate : existing);
+    }
+
+    /**
+     * Hash and sequence number of the last entry in a fiscal-year chain.
+     */
+    public record ChainHead(String hash, long sequenceNumber) {
+    }
+
+    private record ChainKey(UUID tenantId, int fiscalYear) {
+    }
+
+    /**
+     * Tentative head of a block-allocated chain and the links chained on this
+     * node whose transactions have not completed, in chain order. Guarded by
+     * its own monitor.
+     */
+    private static final class TentativeChain {
+        ChainHead head;
+        final List<PendingLink> pending = new ArrayList<>();
+
+        TentativeChain(ChainHead head) {
+            this.head = head;
+        }
+    }
+
+    private static final class PendingLink {
+        final ChainHead previous;
+        final Object transaction;
+        boolean doomed;
+
+        PendingLink(ChainHead previous, Object transaction) {
+            this.previous = previous;
+            this.transaction = transaction;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.domain.model.DraftJournalLine;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams the canonical hash-chain input of a journal entry into a reusable,
+ * thread-confined SHA-256 digest.
+ * <p>
+ * The byte stream is identical to the UTF-8 encoding of the original textual
+ * form, so digests match entries hashed before this class existed:
+ * <ul>
+ * <li>lines hash: SHA-256 over lines sorted by account code, credit flag and
+ * amount, each written as {@code accountCode|amountCents|baseAmountCents|isCredit}
+ * and separated by {@code ';'}</li>
+ * <li>entry hash: SHA-256 over {@code journalEntryId + previousHash + createdAt
+ * + hex(linesHash)}</li>
+ * </ul>
+ * Numbers and hex digits are written straight into a small scratch buffer;
+ * only {@code createdAt.toString()} and non-ASCII strings allocate.
+ */
+final class JournalEntryHasher {
+
+    private static final ThreadLocal<JournalEntryHasher> CURRENT = ThreadLocal.withInitial(JournalEntryHasher::new);
+
+    private static final Comparator<DraftJournalLine> LINE_ORDER = Comparator
+            .comparing(DraftJournalLine::getAccountCode)
+            .thenComparing(DraftJournalLine::isCredit)
+            .thenComparing(DraftJournalLine::getAmountCents);
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL_BYTES = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE_BYTES = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE_BYTES = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final int DIGEST_LENGTH = 32;
+
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[256];
+    private final byte[] linesDigest = new byte[DIGEST_LENGTH];
+    private DraftJournalLine[] sortBuffer = new DraftJournalLine[16];
+    private int position;
+
+    private JournalEntryHasher() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    /**
+     * Returns the hasher bound to the calling thread.
+     */
+    static JournalEntryHasher current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Computes the raw SHA-256 entry hash.
+     */
+    byte[] hash(UUID journalEntryId, String previousHash, OffsetDateTime createdAt, List<DraftJournalLine> lines) {
+        digest.reset();
+        position = 0;
+        try {
+            hashLines(lines);
+            writeUuid(journalEntryId);
+            writeString(previousHash);
+            writeString(createdAt.toString());
+            writeHex(linesDigest);
+            flush();
+            return digest.digest();
+        } catch (DigestException e) {
+            throw new IllegalStateException("SHA-256 digest failed", e);
+        } finally {
+            digest.reset();
+        }
+    }
+
+    private void hashLines(List<DraftJournalLine> lines) throws DigestException {
+        int count = lines.size();
+        if (sortBuffer.length < count) {
+            sortBuffer = new DraftJournalLine[Math.max(count, sortBuffer.length * 2)];
+        }
+        DraftJournalLine[] sorted = sortBuffer;
+        for (int i = 0; i < count; i++) {
+            sorted[i] = lines.get(i);
+        }
+        try {
+            Arrays.sort(sorted, 0, count, LINE_ORDER);
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    writeByte(';');
+                }
+                DraftJournalLine line = sorted[i];
+                writeString(line.getAccountCode());
+                writeByte('|');
+                writeLong(line.getAmountCents());
+                writeByte('|');
+                writeLong(line.getBaseAmountCents() != null ? line.getBaseAmountCents() : Long.valueOf(0L));
+                writeByte('|');
+                writeBytes(line.isCredit() ? TRUE_BYTES : FALSE_BYTES);
+            }
+            flush();
+            digest.digest(linesDigest, 0, DIGEST_LENGTH);
+        } finally {
+            Arrays.fill(sorted, 0, count, null);
+        }
+    }
+
+    private void writeUuid(UUID uuid) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        writeHexDigits(msb >>> 32, 8);
+        writeByte('-');
+        writeHexDigits(msb >>> 16, 4);
+        writeByte('-');
+        writeHexDigits(msb, 4);
+        writeByte('-');
+        writeHexDigits(lsb >>> 48, 4);
+        writeByte('-');
+        writeHexDigits(lsb, 12);
+    }
+
+    private void writeHexDigits(long value, int digits) {
+        ensureCapacity(digits);
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            buffer[position++] = HEX_DIGITS[(int) (value >>> shift) & 0xF];
+        }
+    }
+
+    private void writeHex(byte[] bytes) {
+        ensureCapacity(bytes.length * 2);
+        for (byte b : bytes) {
+            buffer[position++] = HEX_DIGITS[(b >> 4) & 0xF];
+            buffer[position++] = HEX_DIGITS[b & 0xF];
+        }
+    }
+
+    /**
+     * Writes the decimal form of the value (or {@code null}), as {@code %d} would.
+     */
+    private void writeLong(Long boxed) {
+        if (boxed == null) {
+            writeBytes(NULL_BYTES);
+            return;
+        }
+        long value = boxed;
+        ensureCapacity(20);
+        if (value == 0) {
+            buffer[position++] = '0';
+            return;
+        }
+        // Accumulate as a negative number so Long.MIN_VALUE needs no special case
+        boolean negative = value < 0;
+        long remaining = negative ? value : -value;
+        int digits = 0;
+        for (long probe = remaining; probe != 0; probe /= 10) {
+            digits++;
+        }
+        if (negative) {
+            buffer[position++] = '-';
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' - (remaining % 10));
+            remaining /= 10;
+        }
+        position = end;
+    }
+
+    /**
+     * Writes the UTF-8 bytes of the string (or {@code null}). ASCII is copied
+     * directly; anything else falls back to {@link String#getBytes}.
+     */
+    private void writeString(String value) {
+        if (value == null) {
+            writeBytes(NULL_BYTES);
+            return;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                writeBytes(value.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        int offset = 0;
+        while (offset < length) {
+            ensureCapacity(1);
+            int chunk = Math.min(length - offset, buffer.length - position);
+            for (int i = 0; i < chunk; i++) {
+                buffer[position++] = (byte) value.charAt(offset + i);
+            }
+            offset += chunk;
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        if (bytes.length > buffer.length - position) {
+            flush();
+            digest.update(bytes);
+            return;
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeByte(char ascii) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) ascii;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.length - position < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (position > 0) {
+            digest.update(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -1,29 +1,33 @@
 package com.bracit.fisprocess.service.impl;
 
-import com.bracit.fisprocess.domain.entity.Account;
+import com.bracit.fisprocess.domain.model.AccountSnapshot;
 import com.bracit.fisprocess.domain.model.DraftJournalEntry;
 import com.bracit.fisprocess.domain.model.DraftJournalLine;
 import com.bracit.fisprocess.exception.AccountCurrencyMismatchException;
 import com.bracit.fisprocess.exception.AccountNotFoundException;
 import com.bracit.fisprocess.exception.InactiveAccountException;
 import com.bracit.fisprocess.exception.UnbalancedEntryException;
-import com.bracit.fisprocess.repository.AccountRepository;
 import com.bracit.fisprocess.service.JournalEntryValidationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * Validates that a draft Journal Entry satisfies double-entry accounting rules.
+ * <p>
+ * Accounts are looked up through {@link TenantAccountResolver}, so the
+ * snapshots loaded here are the ones {@link LedgerPersistenceServiceImpl}
+ * resolves from when the entry is persisted.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class JournalEntryValidationServiceImpl implements JournalEntryValidationService {
 
-    private final AccountRepository accountRepository;
+    private final TenantAccountResolver tenantAccountResolver;
 
     @Override
     public void validate(DraftJournalEntry draft) {
@@ -60,15 +64,17 @@ public class JournalEntryValidationServiceImpl implements JournalEntryValidation
 
     private void validateAccountsExistAndActive(DraftJournalEntry draft) {
         String transactionCurrency = draft.getTransactionCurrency().toUpperCase(Locale.ROOT);
+        Map<String, AccountSnapshot> accounts = tenantAccountResolver.snapshots(draft.getTenantId(),
+                draft.getLines().stream().map(DraftJournalLine::getAccountCode).toList());
         for (DraftJournalLine line : draft.getLines()) {
-            Account account = accountRepository
-                    .findByTenantIdAndCode(draft.getTenantId(), line.getAccountCode())
-                    .orElseThrow(() -> new AccountNotFoundException(line.getAccountCode()));
-
-            if (!account.isActive()) {
+            AccountSnapshot account = accounts.get(line.getAccountCode());
+            if (account == null) {
+                throw new AccountNotFoundException(line.getAccountCode());
+            }
+            if (!account.active()) {
                 throw new InactiveAccountException(line.getAccountCode());
             }
-            String accountCurrency = account.getCurrencyCode().toUpperCase(Locale.ROOT);
+            String accountCurrency = account.currencyCode().toUpperCase(Locale.ROOT);
             if (!accountCurrency.equals(transactionCurrency)) {
                 throw new AccountCurrencyMismatchException(line.getAccountCode(), accountCurrency, transactionCurrency);
             }
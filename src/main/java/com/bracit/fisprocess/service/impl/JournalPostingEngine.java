@@ -1,5 +1,6 @@
 package com.bracit.fisprocess.service.impl;
 
+import com.bracit.fisprocess.config.ShardAware;
 import com.bracit.fisprocess.domain.entity.JournalEntry;
 import com.bracit.fisprocess.domain.model.DraftJournalEntry;
 import com.bracit.fisprocess.dto.response.JournalEntryResponseDto;
@@ -30,7 +31,9 @@ public class JournalPostingEngine {
     private final ActorRoleResolver actorRoleResolver;
     private final OutboxService outboxService;
     private final ModelMapper modelMapper;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
+    @ShardAware
     public JournalEntryResponseDto post(
             UUID tenantId,
             DraftJournalEntry draft,
@@ -45,6 +48,7 @@ public class JournalPostingEngine {
         validationService.validate(converted);
         JournalEntry persisted = ledgerPersistenceService.persist(converted);
         outboxService.recordJournalPosted(tenantId, converted.getEventId(), persisted, traceparent);
+        readYourWritesTracker.recordWrite(tenantId);
         return toResponseDto(persisted);
     }
 
@@ -0,0 +1,43 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.exception.ReportParameterException;
+import com.bracit.fisprocess.repository.JournalRegisterPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for the journal register. Encodes the position of
+ * the last entry of a page; clients pass it back unchanged to get the next page.
+ */
+final class JournalRegisterPageToken {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private JournalRegisterPageToken() {
+    }
+
+    static String encode(JournalRegisterPosition position) {
+        String raw = String.join(SEPARATOR, VERSION, position.effectiveDate().toString(),
+                Long.toString(position.sequenceNumber()), position.journalEntryId().toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static JournalRegisterPosition decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new ReportParameterException("Invalid page token.");
+            }
+            return new JournalRegisterPosition(
+                    LocalDate.parse(parts[1]), Long.parseLong(parts[2]), UUID.fromString(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ReportParameterException("Invalid page token.");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.exception.JournalSequenceBlockOwnedException;
+import com.bracit.fisprocess.repository.JournalSequenceBlockStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides how journal sequence numbers are allocated per tenant and hands
+ * them out in {@link GapPolicy#BLOCK} mode.
+ * <p>
+ * {@link GapPolicy#GAPLESS} tenants keep allocating under the
+ * {@code fis_journal_sequence} row lock for the whole posting transaction, so
+ * a rollback returns its numbers and committed sequences have no holes.
+ * <p>
+ * {@link GapPolicy#BLOCK} tenants reserve {@code fis.sequence.block-size}
+ * numbers at a time with {@link JournalSequenceBlockStore#reserve}, on a
+ * connection pool postings do not use, and then serve them from memory. The row
+ * is locked once per block instead of once per posting. Numbers of rolled
+ * back postings and unused numbers of a block are never reissued, so committed
+ * sequences may have gaps. Tenants listed in {@code fis.sequence.gapless-tenants}
+ * stay gapless when the default policy is {@code BLOCK}.
+ * <p>
+ * Block-allocated entries are hash-chained in memory, so only one instance
+ * may write a tenant's fiscal year at a time. Reserving a block therefore
+ * also leases the sequence row to this instance for
+ * {@code fis.sequence.block-lease-seconds}; other instances are refused with
+ * {@link JournalSequenceBlockOwnedException} until the lease runs out. A block
+ * is only served during the first half of its lease and a fresh block is
+ * reserved after that, which renews the lease, so numbers are never handed
+ * out under a lease another instance may already have taken over.
+ * <p>
+ * Nothing routes a tenant's writes to the instance holding its lease: while
+ * the holder is up, postings on any other instance fail with a 503 and
+ * queued writes wait in the retry queue. {@code BLOCK} is therefore meant
+ * for deployments where a single instance posts journals, e.g. the only
+ * consumer of the journal write queue with synchronous posting routed to it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JournalSequenceAllocator {
+
+    public enum GapPolicy {
+        /** One number per posting, allocated under the row lock until commit. */
+        GAPLESS,
+        /** Numbers served from in-memory blocks; gaps are tolerated. */
+        BLOCK
+    }
+
+    private final JournalSequenceBlockStore blockStore;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<BlockKey, Block> blocks = new ConcurrentHashMap<>();
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${fis.sequence.gap-policy:GAPLESS}")
+    private GapPolicy gapPolicy = GapPolicy.GAPLESS;
+
+    @Value("${fis.sequence.block-size:100}")
+    private int blockSize = 100;
+
+    @Value("${fis.sequence.block-lease-seconds:60}")
+    private int blockLeaseSeconds = 60;
+
+    @Value("${fis.sequence.gapless-tenants:}")
+    private Set<UUID> gaplessTenants = Set.of();
+
+    public GapPolicy policyFor(UUID tenantId) {
+        if (gapPolicy == GapPolicy.BLOCK && !gaplessTenants.contains(tenantId)) {
+            return GapPolicy.BLOCK;
+        }
+        return GapPolicy.GAPLESS;
+    }
+
+    /**
+     * Takes {@code count} consecutive numbers from the node's block for the
+     * tenant and fiscal year and passes the first one to {@code assignment},
+     * together with whether a new block had to be reserved for them.
+     * <p>
+     * {@code assignment} runs under the same in-memory lock that serializes
+     * allocation, so work that must follow sequence order (hash chaining) can
+     * be done there. The lock is released when it returns, not at commit.
+     *
+     * @throws JournalSequenceBlockOwnedException if another instance holds the
+     *                                            lease on the sequence row
+     */
+    public <T> T allocateFromBlock(UUID tenantId, int fiscalYear, int count, BlockAssignment<T> assignment) {
+        Block block = blocks.computeIfAbsent(new BlockKey(tenantId, fiscalYear), key -> new Block());
+        long waitStartNanos = System.nanoTime();
+        block.lock.lock();
+        try {
+            boolean reserved = false;
+            long now = System.nanoTime();
+            if (block.end - block.next < count || now - block.servableUntilNanos >= 0) {
+                int size = Math.max(blockSize, count);
+                long start = reserveBlock(tenantId, fiscalYear, size);
+                if (block.end > block.next) {
+                    meterRegistry.counter("fis.sequence.block.abandoned").increment(block.end - block.next);
+                }
+                block.next = start;
+                block.end = start + size;
+                // Measured from before the reservation, so it never outlives the database lease
+                block.servableUntilNanos = now + TimeUnit.SECONDS.toNanos(blockLeaseSeconds) / 2;
+                reserved = true;
+            }
+            meterRegistry.timer("fis.hash.chain.lock.wait")
+                    .record(System.nanoTime() - waitStartNanos, TimeUnit.NANOSECONDS);
+
+            long start = block.next;
+            block.next += count;
+            return assignment.assign(start, reserved);
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    /**
+     * Reserves a new block and renews this instance's lease. Each statement
+     * commits on its own, so the row lock is released immediately and the
+     * reservation survives a caller rollback.
+     */
+    private long reserveBlock(UUID tenantId, int fiscalYear, int size) {
+        Optional<Long> allocated = blockStore.reserve(tenantId, fiscalYear, size, instanceId, blockLeaseSeconds);
+        if (allocated.isEmpty() && blockStore.initializeIfAbsent(tenantId, fiscalYear) > 0) {
+            allocated = blockStore.reserve(tenantId, fiscalYear, size, instanceId, blockLeaseSeconds);
+        }
+        long start = allocated.orElseThrow(() -> new JournalSequenceBlockOwnedException(tenantId, fiscalYear));
+        meterRegistry.counter("fis.sequence.block.reserved").increment();
+        log.debug("Reserved sequence block [{}, {}) for tenant='{}', fiscalYear='{}'",
+                start, start + size, tenantId, fiscalYear);
+        return start;
+    }
+
+    /**
+     * Work done with the numbers taken from a block.
+     */
+    @FunctionalInterface
+    public interface BlockAssignment<T> {
+
+        /**
+         * @param start    first of the allocated numbers
+         * @param newBlock whether a block was reserved for this allocation
+         */
+        T assign(long start, boolean newBlock);
+    }
+
+    private record BlockKey(UUID tenantId, int fiscalYear) {
+    }
+
+    /**
+     * Remaining numbers {@code [next, end)} of the current block, servable
+     * until {@code servableUntilNanos} on the {@link System#nanoTime()} clock.
+     */
+    private static final class Block {
+        final ReentrantLock lock = new ReentrantLock();
+        long next;
+        long end;
+        long servableUntilNanos;
+    }
+}
@@ -7,9 +7,8 @@ import com.bracit.fisprocess.domain.enums.AccountType;
 import com.bracit.fisprocess.domain.enums.JournalStatus;
 import com.bracit.fisprocess.domain.model.DraftJournalEntry;
 import com.bracit.fisprocess.domain.model.DraftJournalLine;
-import com.bracit.fisprocess.exception.AccountNotFoundException;
 import com.bracit.fisprocess.exception.UnbalancedEntryException;
-import com.bracit.fisprocess.repository.AccountRepository;
+import com.bracit.fisprocess.repository.AccountBalanceSnapshotRepository;
 import com.bracit.fisprocess.repository.BatchJournalRepository;
 import com.bracit.fisprocess.repository.JournalEntryRepository;
 import com.bracit.fisprocess.repository.JournalSequenceRepository;
@@ -25,8 +24,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -37,10 +41,13 @@ import java.util.concurrent.TimeUnit;
 public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
 
         private final JournalEntryRepository journalEntryRepository;
-        private final AccountRepository accountRepository;
+        private final TenantAccountResolver tenantAccountResolver;
         private final JournalSequenceRepository journalSequenceRepository;
+        private final JournalSequenceAllocator sequenceAllocator;
         private final HashChainService hashChainService;
+        private final HashChainHeadCache hashChainHeadCache;
         private final BatchJournalRepository batchJournalRepository;
+        private final AccountBalanceSnapshotRepository balanceSnapshotRepository;
         private final MeterRegistry meterRegistry;
 
         @Value("${fis.batch.enabled:false}")
@@ -49,32 +56,56 @@ public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
         @Value("${fis.batch.use-copy:true}")
         private boolean useCopy;
 
+        @Value("${fis.batch.copy-format:csv}")
+        private String copyFormat;
+
         @Override
         @Transactional
         public JournalEntry persist(DraftJournalEntry draft) {
                 validateBalance(draft);
-                long lockWaitStartNanos = System.nanoTime();
-                int fiscalYear = draft.getPostedDate().getYear();
-                long sequenceNumber = allocateSequenceNumber(draft.getTenantId(), fiscalYear);
-                long lockWaitNanos = System.nanoTime() - lockWaitStartNanos;
-                meterRegistry.timer("fis.hash.chain.lock.wait").record(lockWaitNanos, TimeUnit.NANOSECONDS);
-                log.debug("Acquired fiscal-year sequence lock for tenant='{}', fiscalYear='{}' in {} ms",
-                                draft.getTenantId(), fiscalYear, lockWaitNanos / 1_000_000.0);
+                Map<String, Account> accounts = tenantAccountResolver.resolve(draft.getTenantId(),
+                                draft.getLines().stream().map(DraftJournalLine::getAccountCode).toList());
 
-                String previousHash = hashChainService.getLatestHash(draft.getTenantId(), fiscalYear);
+                UUID tenantId = draft.getTenantId();
+                int fiscalYear = draft.getPostedDate().getYear();
                 UUID journalEntryId = UUID.randomUUID();
                 OffsetDateTime createdAt = OffsetDateTime.now();
-                String hash = hashChainService.computeHash(journalEntryId, previousHash, createdAt, draft.getLines());
 
-                JournalEntry journalEntry = buildJournalEntry(draft, journalEntryId, previousHash, hash, fiscalYear, sequenceNumber, createdAt);
+                ChainLink link;
+                boolean blockPolicy = sequenceAllocator.policyFor(tenantId) == JournalSequenceAllocator.GapPolicy.BLOCK;
+                if (blockPolicy) {
+                        link = sequenceAllocator.allocateFromBlock(tenantId, fiscalYear, 1, (start, newBlock) -> {
+                                if (newBlock) {
+                                        hashChainHeadCache.revalidateTentative(tenantId, fiscalYear);
+                                }
+                                HashChainHeadCache.ChainHead previous = hashChainHeadCache.tentative(tenantId, fiscalYear);
+                                String next = hashChainService.computeHash(journalEntryId, previous.hash(), createdAt,
+                                                draft.getLines());
+                                hashChainHeadCache.advanceTentative(tenantId, fiscalYear, previous,
+                                                new HashChainHeadCache.ChainHead(next, start));
+                                return new ChainLink(start, previous.hash(), next);
+                        });
+                } else {
+                        long lockWaitStartNanos = System.nanoTime();
+                        long allocated = allocateSequenceNumber(tenantId, fiscalYear);
+                        long lockWaitNanos = System.nanoTime() - lockWaitStartNanos;
+                        meterRegistry.timer("fis.hash.chain.lock.wait").record(lockWaitNanos, TimeUnit.NANOSECONDS);
+                        log.debug("Acquired fiscal-year sequence lock for tenant='{}', fiscalYear='{}' in {} ms",
+                                        tenantId, fiscalYear, lockWaitNanos / 1_000_000.0);
+
+                        String previous = hashChainHeadCache.current(tenantId, fiscalYear, allocated - 1).hash();
+                        String next = hashChainService.computeHash(journalEntryId, previous, createdAt, draft.getLines());
+                        hashChainHeadCache.advanceOnCommit(tenantId, fiscalYear,
+                                        new HashChainHeadCache.ChainHead(next, allocated));
+                        link = new ChainLink(allocated, previous, next);
+                }
 
-                for (DraftJournalLine draftLine : draft.getLines()) {
-                        Account account = accountRepository
-                                        .findByTenantIdAndCode(draft.getTenantId(), draftLine.getAccountCode())
-                                        .orElseThrow(() -> new AccountNotFoundException(draftLine.getAccountCode()));
+                JournalEntry journalEntry = buildJournalEntry(draft, journalEntryId, link.previousHash(), link.hash(),
+                                fiscalYear, link.sequenceNumber(), createdAt);
 
+                for (DraftJournalLine draftLine : draft.getLines()) {
                         JournalLine line = JournalLine.builder()
-                                        .account(account)
+                                        .account(accounts.get(draftLine.getAccountCode()))
                                         .amount(draftLine.getAmountCents())
                                         .baseAmount(draftLine.getBaseAmountCents() != null
                                                         ? draftLine.getBaseAmountCents()
@@ -87,6 +118,7 @@ public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
                 }
 
                 journalEntryRepository.save(journalEntry);
+                applyBalances(List.of(journalEntry), blockPolicy);
                 meterRegistry.counter("fis.journal.entries.persisted").increment();
 
                 log.info("Persisted JournalEntry '{}' for tenant '{}' with {} lines",
@@ -105,6 +137,7 @@ public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
                 for (DraftJournalEntry draft : drafts) {
                         validateBalance(draft);
                 }
+                Map<UUID, Map<String, Account>> accountsByTenant = resolveAccounts(drafts);
 
                 Timer.Sample sample = Timer.start(meterRegistry);
                 List<JournalEntry> persistedEntries = new ArrayList<>();
@@ -113,10 +146,12 @@ public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
                 try {
                         allocateSequenceRanges(drafts, allocatedSequences);
 
-                        List<JournalEntry> entriesToSave = buildJournalEntries(drafts, allocatedSequences);
+                        List<JournalEntry> entriesToSave = buildJournalEntries(drafts, allocatedSequences, accountsByTenant);
 
                         if (batchEnabled) {
-                                if (useCopy) {
+                                if (useCopy && "binary".equalsIgnoreCase(copyFormat)) {
+                                        batchJournalRepository.copyBinaryFromEntries(entriesToSave);
+                                } else if (useCopy) {
                                         batchJournalRepository.copyFromEntries(entriesToSave);
                                 } else {
                                         batchJournalRepository.batchInsertEntries(entriesToSave);
@@ -126,6 +161,9 @@ public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
                                         journalEntryRepository.save(entry);
                                 }
                         }
+                        applyBalances(entriesToSave, drafts.stream().anyMatch(draft ->
+                                        sequenceAllocator.policyFor(draft.getTenantId())
+                                                        == JournalSequenceAllocator.GapPolicy.BLOCK));
 
                         markSequencesCommitted(allocatedSequences);
 
@@ -148,9 +186,26 @@ public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
                 }
         }
 
+        /**
+         * Adds the entries to the daily balance rows. Entries chained tentatively
+         * wait for the entries they were chained on before committing, and must
+         * not hold the shared daily rows while they do, so their rows are written
+         * after that wait.
+         */
+        private void applyBalances(List<JournalEntry> entries, boolean chainedTentatively) {
+                if (chainedTentatively) {
+                        hashChainHeadCache.afterPredecessors(() -> balanceSnapshotRepository.applyEntries(entries));
+                } else {
+                        balanceSnapshotRepository.applyEntries(entries);
+                }
+        }
+
         private void allocateSequenceRanges(List<DraftJournalEntry> drafts, Map<SequenceKey, SequenceAllocation> allocatedSequences) {
                 for (int i = 0; i < drafts.size(); i++) {
                         DraftJournalEntry draft = drafts.get(i);
+                        if (sequenceAllocator.policyFor(draft.getTenantId()) == JournalSequenceAllocator.GapPolicy.BLOCK) {
+                                continue;
+                        }
                         int fiscalYear = draft.getPostedDate().getYear();
                         SequenceKey key = new SequenceKey(draft.getTenantId(), fiscalYear);
 
@@ -174,7 +229,7 @@ public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
                 for (Map.Entry<SequenceKey, SequenceAllocation> entry : allocatedSequences.entrySet()) {
                         SequenceKey key = entry.getKey();
                         SequenceAllocation alloc = entry.getValue();
-                        journalSequenceRepository.findForUpdate(key.tenantId, key.fiscalYear)
+                        journalSequenceRepository.findForUpdate(key.tenantId(), key.fiscalYear())
                                 .ifPresent(seq -> {
                                         seq.setNextValue(alloc.startSeq + alloc.used);
                                         journalSequenceRepository.save(seq);
@@ -182,34 +237,67 @@ public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
                 }
         }
 
-        private List<JournalEntry> buildJournalEntries(List<DraftJournalEntry> drafts, Map<SequenceKey, SequenceAllocation> allocatedSequences) {
-                List<JournalEntry> entriesToSave = new ArrayList<>();
+        /**
+         * Resolves the distinct account codes of the whole batch with one query per
+         * tenant (or none when every code is already cached).
+         */
+        private Map<UUID, Map<String, Account>> resolveAccounts(List<DraftJournalEntry> drafts) {
+                Map<UUID, Set<String>> codesByTenant = new HashMap<>();
+                for (DraftJournalEntry draft : drafts) {
+                        Set<String> codes = codesByTenant.computeIfAbsent(draft.getTenantId(), id -> new HashSet<>());
+                        for (DraftJournalLine line : draft.getLines()) {
+                                codes.add(line.getAccountCode());
+                        }
+                }
+
+                Map<UUID, Map<String, Account>> accountsByTenant = new HashMap<>();
+                codesByTenant.forEach((tenantId, codes) ->
+                                accountsByTenant.put(tenantId, tenantAccountResolver.resolve(tenantId, codes)));
+                return accountsByTenant;
+        }
 
+        private List<JournalEntry> buildJournalEntries(List<DraftJournalEntry> drafts,
+                        Map<SequenceKey, SequenceAllocation> allocatedSequences,
+                        Map<UUID, Map<String, Account>> accountsByTenant) {
+                Map<SequenceKey, List<Integer>> draftIndexesByKey = new LinkedHashMap<>();
                 for (int i = 0; i < drafts.size(); i++) {
                         DraftJournalEntry draft = drafts.get(i);
-                        int fiscalYear = draft.getPostedDate().getYear();
-                        SequenceKey key = new SequenceKey(draft.getTenantId(), fiscalYear);
-                        SequenceAllocation alloc = allocatedSequences.get(key);
-
-                        long sequenceNumber = alloc.startSeq + alloc.used;
-                        alloc.used++;
-
-                        String previousHash = hashChainService.getLatestHash(draft.getTenantId(), fiscalYear);
-                        UUID journalEntryId = UUID.randomUUID();
-                        OffsetDateTime createdAt = OffsetDateTime.now();
-                        String hash = hashChainService.computeHash(journalEntryId, previousHash, createdAt, draft.getLines());
-
-                        JournalEntry journalEntry = buildJournalEntry(draft, journalEntryId, previousHash, hash, fiscalYear, sequenceNumber, createdAt);
-                        entriesToSave.add(journalEntry);
+                        draftIndexesByKey.computeIfAbsent(
+                                        new SequenceKey(draft.getTenantId(), draft.getPostedDate().getYear()),
+                                        key -> new ArrayList<>()).add(i);
                 }
 
+                // Each (tenant, fiscal year) chain is read once and then chained forward through the batch
+                JournalEntry[] built = new JournalEntry[drafts.size()];
+                draftIndexesByKey.forEach((key, indexes) -> {
+                        SequenceAllocation alloc = allocatedSequences.get(key);
+                        if (alloc != null) {
+                                HashChainHeadCache.ChainHead head = hashChainHeadCache.current(
+                                                key.tenantId(), key.fiscalYear(), alloc.startSeq - 1);
+                                head = chainEntries(drafts, indexes, key, alloc.startSeq, head, built);
+                                hashChainHeadCache.advanceOnCommit(key.tenantId(), key.fiscalYear(), head);
+                        } else {
+                                sequenceAllocator.allocateFromBlock(key.tenantId(), key.fiscalYear(), indexes.size(),
+                                                (start, newBlock) -> {
+                                        if (newBlock) {
+                                                hashChainHeadCache.revalidateTentative(key.tenantId(), key.fiscalYear());
+                                        }
+                                        HashChainHeadCache.ChainHead previous =
+                                                        hashChainHeadCache.tentative(key.tenantId(), key.fiscalYear());
+                                        HashChainHeadCache.ChainHead head = chainEntries(drafts, indexes, key, start,
+                                                        previous, built);
+                                        hashChainHeadCache.advanceTentative(key.tenantId(), key.fiscalYear(), previous, head);
+                                        return head;
+                                });
+                        }
+                });
+                List<JournalEntry> entriesToSave = new ArrayList<>(Arrays.asList(built));
+
                 for (int i = 0; i < drafts.size(); i++) {
                         DraftJournalEntry draft = drafts.get(i);
+                        Map<String, Account> accounts = accountsByTenant.get(draft.getTenantId());
                         for (DraftJournalLine draftLine : draft.getLines()) {
-                                Account account = accountRepository
-                                                .findByTenantIdAndCode(draft.getTenantId(), draftLine.getAccountCode())
-                                                .orElseThrow(() -> new AccountNotFoundException(draftLine.getAccountCode()));
-
+                                Account account = accounts.get(draftLine.getAccountCode());
                                 JournalEntry matchingEntry = entriesToSave.get(i);
 
                                 JournalLine line = JournalLine.builder()
@@ -229,6 +317,30 @@ public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
                 return entriesToSave;
         }
 
+        /**
+         * Assigns consecutive sequence numbers from {@code startSeq} to the given
+         * drafts and links their hashes, starting from {@code head}.
+         *
+         * @return the head after the last entry
+         */
+        private HashChainHeadCache.ChainHead chainEntries(List<DraftJournalEntry> drafts, List<Integer> indexes,
+                        SequenceKey key, long startSeq, HashChainHeadCache.ChainHead head, JournalEntry[] built) {
+                long sequenceNumber = startSeq;
+                for (int index : indexes) {
+                        DraftJournalEntry draft = drafts.get(index);
+                        String previousHash = head.hash();
+                        UUID journalEntryId = UUID.randomUUID();
+                        OffsetDateTime createdAt = OffsetDateTime.now();
+                        String hash = hashChainService.computeHash(journalEntryId, previousHash, createdAt, draft.getLines());
+                        head = new HashChainHeadCache.ChainHead(hash, sequenceNumber);
+
+                        built[index] = buildJournalEntry(draft, journalEntryId, previousHash, hash,
+                                        key.fiscalYear(), sequenceNumber, createdAt);
+                        sequenceNumber++;
+                }
+                return head;
+        }
+
         private void markSequencesCommitted(Map<SequenceKey, SequenceAllocation> allocatedSequences) {
                 for (SequenceAllocation alloc : allocatedSequences.values()) {
                         alloc.committed = true;
@@ -286,30 +398,26 @@ public class LedgerPersistenceServiceImpl implements LedgerPersistenceService {
                         SequenceAllocation alloc = entry.getValue();
                         if (!alloc.committed && alloc.used > 0) {
                                 try {
-                                        journalSequenceRepository.findForUpdate(key.tenantId, key.fiscalYear)
+                                        journalSequenceRepository.findForUpdate(key.tenantId(), key.fiscalYear())
                                                 .ifPresent(seq -> {
                                                         seq.setNextValue(seq.getNextValue() - alloc.used);
                                                         journalSequenceRepository.save(seq);
                                                         log.warn("Compensated {} sequences for tenant={}, fiscalYear={}",
-                                                                alloc.used, key.tenantId, key.fiscalYear);
+                                                                alloc.used, key.tenantId(), key.fiscalYear());
                                                 });
                                 } catch (Exception ex) {
                                         log.error("Failed to compensate sequences for tenant={}, fiscalYear={}: {}",
-                                                key.tenantId, key.fiscalYear, ex.getMessage());
+                                                key.tenantId(), key.fiscalYear(), ex.getMessage());
                                         meterRegistry.counter("fis.batch.compensation.error").increment();
                                 }
                         }
                 }
         }
 
-        private static class SequenceKey {
-                final UUID tenantId;
-                final int fiscalYear;
+        private record SequenceKey(UUID tenantId, int fiscalYear) {
+        }
 
-                SequenceKey(UUID tenantId, int fiscalYear) {
-                        this.tenantId = tenantId;
-                        this.fiscalYear = fiscalYear;
-                }
+        private record ChainLink(long sequenceNumber, String previousHash, String hash) {
         }
 
         private static class SequenceAllocation {
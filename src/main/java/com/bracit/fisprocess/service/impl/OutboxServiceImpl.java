@@ -15,25 +15,38 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.Nullable;
 import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tools.jackson.databind.json.JsonMapper;
 
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Transactional outbox writer + relay with dead-letter queue support.
  * <p>
+ * The relay claims batches with {@code SKIP LOCKED}, so it can run on every
+ * instance, and relies on RabbitMQ publisher confirms
+ * ({@code spring.rabbitmq.publisher-confirm-type: correlated}) to decide
+ * which events were published.
+ * <p>
  * Events that fail to publish after exhausting their per-event retry budget
  * are moved to the DLQ for admin intervention.
  */
@@ -49,20 +62,36 @@ public class OutboxServiceImpl implements OutboxService {
     private final DeadLetterQueueService deadLetterQueueService;
     private final OutboxAlertConfig outboxAlertConfig;
     private final @Qualifier("rabbitOutboxPublishCircuitBreaker") CircuitBreaker rabbitOutboxPublishCircuitBreaker;
+    private final PlatformTransactionManager transactionManager;
 
     private final AtomicInteger retryStreak = new AtomicInteger(0);
     private final AtomicLong oldestUnpublishedAgeSeconds = new AtomicLong(0L);
     private final AtomicLong unpublishedBacklog = new AtomicLong(0L);
     private final AtomicLong dlqSizeGauge = new AtomicLong(0L);
 
+    private volatile long backoffUntilMillis;
+    private TransactionTemplate transactionTemplate;
+
     private Counter publishSuccessCounter;
     private Counter publishFailureCounter;
+    private Counter publishReturnedCounter;
     private Counter dlqAutoMoveCounter;
 
+    @Value("${fis.outbox.relay-batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${fis.outbox.relay-max-batches:20}")
+    private int maxBatchesPerTick = 20;
+
+    @Value("${fis.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs = 5000;
+
     @PostConstruct
     void initMetrics() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
         publishSuccessCounter = meterRegistry.counter("fis.outbox.publish.success.count");
         publishFailureCounter = meterRegistry.counter("fis.outbox.publish.failure.count");
+        publishReturnedCounter = meterRegistry.counter("fis.outbox.publish.returned.count");
         dlqAutoMoveCounter = meterRegistry.counter("fis.outbox.dlq.auto.move.count");
         meterRegistry.gauge("fis.outbox.retry.streak", retryStreak);
         meterRegistry.gauge("fis.outbox.oldest.unpublished.age.seconds", oldestUnpublishedAgeSeconds);
@@ -97,125 +126,177 @@ public class OutboxServiceImpl implements OutboxService {
                 .maxRetries(maxRetries)
                 .build();
         outboxEventRepository.save(event);
+        unpublishedBacklog.incrementAndGet();
     }
 
+    /**
+     * Relays unpublished events in batches until the backlog is drained or
+     * {@code fis.outbox.relay-max-batches} batches have been sent.
+     * <p>
+     * Each batch runs in its own short transaction: the rows are claimed with
+     * {@code FOR UPDATE SKIP LOCKED}, published without waiting for each
+     * broker round trip, and marked published with one update once their
+     * publisher confirms have arrived. Events that are nacked, time out or
+     * cannot be sent stay unpublished with their retry count incremented.
+     * Event order is preserved within a batch but not across instances.
+     */
     @Override
-    @Transactional
     @Scheduled(fixedDelayString = "${fis.outbox.relay-delay-ms:1000}")
     public void relayUnpublished() {
-        refreshLagMetrics();
-        List<OutboxEvent> unpublished =
-                outboxEventRepository.findTop100ByPublishedFalseAndDlqFalseOrderByCreatedAtAsc();
-        if (unpublished.isEmpty()) {
-            retryStreak.set(0);
+        // Back off without blocking the scheduler thread when the broker keeps failing.
+        if (System.currentTimeMillis() < backoffUntilMillis) {
             return;
         }
-
-        // Apply exponential backoff based on retry streak to prevent overwhelming
-        // the system when RabbitMQ recovers from an extended outage.
-        int currentStreak = retryStreak.get();
-        if (currentStreak > 0) {
-            long backoffMs = computeBackoffMs(currentStreak);
-            log.debug("Outbox relay backing off for {}ms due to {} consecutive failures",
-                    backoffMs, currentStreak);
-            try {
-                Thread.sleep(backoffMs);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                return;
+        for (int i = 0; i < maxBatchesPerTick; i++) {
+            BatchResult result = transactionTemplate.execute(status -> relayBatch());
+            if (result == null || result.failed() > 0 || result.claimed() < batchSize) {
+                break;
             }
         }
+    }
 
-        for (OutboxEvent event : unpublished) {
+    /**
+     * Re-reads the lag gauges from the database. Between resyncs they are
+     * maintained incrementally by {@link #recordJournalPosted} and the relay.
+     */
+    @Scheduled(fixedDelayString = "${fis.outbox.lag-resync-ms:60000}")
+    public void resyncLagMetrics() {
+        long backlog = outboxEventRepository.countByPublishedFalseAndDlqFalse();
+        unpublishedBacklog.set(backlog);
+        dlqSizeGauge.set(deadLetterQueueService.dlqSize());
+        if (backlog == 0) {
+            oldestUnpublishedAgeSeconds.set(0L);
+            return;
+        }
+        outboxEventRepository.findOldestUnpublishedCreatedAt()
+                .ifPresentOrElse(this::updateOldestAge, () -> oldestUnpublishedAgeSeconds.set(0L));
+    }
+
+    private BatchResult relayBatch() {
+        List<OutboxEvent> claimed = outboxEventRepository.claimUnpublishedBatch(batchSize);
+        if (claimed.isEmpty()) {
+            unpublishedBacklog.set(0L);
+            oldestUnpublishedAgeSeconds.set(0L);
+            retryStreak.set(0);
+            return new BatchResult(0, 0);
+        }
+        updateOldestAge(claimed.getFirst().getCreatedAt());
+
+        List<PendingPublish> inFlight = new ArrayList<>(claimed.size());
+        Map<OutboxEvent, String> failures = new LinkedHashMap<>();
+        for (OutboxEvent event : claimed) {
+            CorrelationData correlation = new CorrelationData(event.getOutboxId().toString());
             try {
-                Runnable publishCall = CircuitBreaker.decorateRunnable(rabbitOutboxPublishCircuitBreaker, () ->
-                        rabbitTemplate.convertAndSend(
-                                RabbitMqTopology.DOMAIN_EXCHANGE,
-                                event.getEventType(),
-                                event.getPayload(),
-                                message -> {
-                                    message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
-                                    if (event.getTraceparent() != null && !event.getTraceparent().isBlank()) {
-                                        message.getMessageProperties().setHeader("traceparent", event.getTraceparent());
-                                    }
-                                    return message;
-                                }));
-                publishCall.run();
-                event.setPublished(true);
-                event.setPublishedAt(OffsetDateTime.now());
-                outboxEventRepository.save(event);
-                publishSuccessCounter.increment();
-                if (retryStreak.get() > 0) {
-                    log.info("Outbox relay recovered after {} failed attempt(s)", retryStreak.get());
-                }
-                retryStreak.set(0);
+                send(event, correlation);
+                inFlight.add(new PendingPublish(event, correlation));
             } catch (RuntimeException ex) {
-                int streak = retryStreak.incrementAndGet();
-                publishFailureCounter.increment();
-
-                // Increment per-event retry count and record the error.
-                event.setRetryCount(event.getRetryCount() + 1);
-                event.setLastError(truncate(ex.getMessage(), 2048));
-                outboxEventRepository.save(event);
-
-                // Check if this event has exhausted its retry budget.
-                if (event.getRetryCount() >= event.getMaxRetries()) {
-                    deadLetterQueueService.moveToDlq(event.getOutboxId(), event.getLastError());
-                    dlqAutoMoveCounter.increment();
-                    log.error("Outbox event outboxId='{}' exhausted all {} retries and moved to DLQ",
-                            event.getOutboxId(), event.getMaxRetries());
-                }
-
-                refreshLagMetrics();
-                log.warn(
-                        "Outbox publish failed for outboxId='{}'; retryCount={}/{} retryStreak={} backlog={} oldestUnpublishedAgeSeconds={}",
-                        event.getOutboxId(),
-                        event.getRetryCount(),
-                        event.getMaxRetries(),
-                        streak,
-                        unpublishedBacklog.get(),
-                        oldestUnpublishedAgeSeconds.get(),
-                        ex);
-
-                int alertThreshold = outboxAlertConfig.getAlert().getRetryStreakWarning();
-                if (streak >= alertThreshold) {
-                    log.error("Outbox retry streak alert threshold reached: streak={} threshold={}",
-                            streak, alertThreshold);
-                }
-                // Break on first failure to preserve ordering and apply backoff.
+                // The broker or circuit breaker refused; later events of the batch stay
+                // claimed until commit and are retried on the next tick.
+                failures.put(event, String.valueOf(ex.getMessage()));
                 break;
             }
         }
-        refreshLagMetrics();
-    }
 
-    // -- internal helpers ---------------------------------------------------
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        List<UUID> published = new ArrayList<>(inFlight.size());
+        for (PendingPublish pending : inFlight) {
+            String error = awaitConfirm(pending.correlation(), deadlineNanos);
+            if (error == null) {
+                published.add(pending.event().getOutboxId());
+            } else {
+                failures.put(pending.event(), error);
+            }
+        }
 
-    private String toJson(Object value) {
-        try {
-            return jsonMapper.writeValueAsString(value);
-        } catch (RuntimeException e) {
-            throw new IllegalStateException("Unable to serialize outbox payload", e);
+        if (!published.isEmpty()) {
+            outboxEventRepository.markPublished(published, OffsetDateTime.now());
+            publishSuccessCounter.increment(published.size());
+            unpublishedBacklog.updateAndGet(backlog -> Math.max(backlog - published.size(), 0L));
+        }
+        if (failures.isEmpty()) {
+            if (retryStreak.get() > 0) {
+                log.info("Outbox relay recovered after {} failed attempt(s)", retryStreak.get());
+            }
+            retryStreak.set(0);
+            backoffUntilMillis = 0L;
+        } else {
+            failures.forEach(this::recordFailure);
+            int streak = retryStreak.incrementAndGet();
+            backoffUntilMillis = System.currentTimeMillis() + computeBackoffMs(streak);
+            int alertThreshold = outboxAlertConfig.getAlert().getRetryStreakWarning();
+            if (streak >= alertThreshold) {
+                log.error("Outbox retry streak alert threshold reached: streak={} threshold={}",
+                        streak, alertThreshold);
+            }
         }
+        return new BatchResult(claimed.size(), failures.size());
     }
 
-    private void refreshLagMetrics() {
-        long backlog = outboxEventRepository.countByPublishedFalseAndDlqFalse();
-        unpublishedBacklog.set(backlog);
-        long dlqSize = deadLetterQueueService.dlqSize();
-        dlqSizeGauge.set(dlqSize);
+    private void send(OutboxEvent event, CorrelationData correlation) {
+        Runnable publishCall = CircuitBreaker.decorateRunnable(rabbitOutboxPublishCircuitBreaker, () ->
+                rabbitTemplate.convertAndSend(
+                        RabbitMqTopology.DOMAIN_EXCHANGE,
+                        event.getEventType(),
+                        event.getPayload(),
+                        message -> {
+                            message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+                            if (event.getTraceparent() != null && !event.getTraceparent().isBlank()) {
+                                message.getMessageProperties().setHeader("traceparent", event.getTraceparent());
+                            }
+                            return message;
+                        },
+                        correlation));
+        publishCall.run();
+    }
 
-        if (backlog == 0) {
-            oldestUnpublishedAgeSeconds.set(0L);
-            return;
+    /**
+     * Waits for the publisher confirm of one message until the batch deadline.
+     *
+     * @return {@code null} if the broker acknowledged the message, otherwise
+     *         the reason it is considered unpublished
+     */
+    private @Nullable String awaitConfirm(CorrelationData correlation, long deadlineNanos) {
+        try {
+            CorrelationData.Confirm confirm = correlation.getFuture()
+                    .get(Math.max(deadlineNanos - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+            if (!confirm.isAck()) {
+                return "Broker nacked publish: " + confirm.getReason();
+            }
+            if (correlation.getReturned() != null) {
+                // Unroutable messages were also accepted by the previous synchronous relay.
+                publishReturnedCounter.increment();
+            }
+            return null;
+        } catch (TimeoutException e) {
+            return "Publisher confirm not received within " + confirmTimeoutMs + "ms";
+        } catch (ExecutionException e) {
+            return "Publisher confirm failed: " + e.getCause().getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while awaiting publisher confirm";
         }
+    }
 
-        OffsetDateTime oldest = outboxEventRepository.findOldestUnpublishedCreatedAt().orElse(null);
-        if (oldest == null) {
-            oldestUnpublishedAgeSeconds.set(0L);
-            return;
+    private void recordFailure(OutboxEvent event, String error) {
+        publishFailureCounter.increment();
+        String lastError = truncate(error, 2048);
+        outboxEventRepository.recordPublishFailure(event.getOutboxId(), lastError);
+        int retryCount = event.getRetryCount() + 1;
+        if (retryCount >= event.getMaxRetries()) {
+            deadLetterQueueService.moveToDlq(event.getOutboxId(), lastError);
+            dlqAutoMoveCounter.increment();
+            dlqSizeGauge.incrementAndGet();
+            unpublishedBacklog.updateAndGet(backlog -> Math.max(backlog - 1, 0L));
+            log.error("Outbox event outboxId='{}' exhausted all {} retries and moved to DLQ",
+                    event.getOutboxId(), event.getMaxRetries());
         }
+        log.warn("Outbox publish failed for outboxId='{}'; retryCount={}/{} retryStreak={} backlog={} "
+                        + "oldestUnpublishedAgeSeconds={}: {}",
+                event.getOutboxId(), retryCount, event.getMaxRetries(), retryStreak.get(),
+                unpublishedBacklog.get(), oldestUnpublishedAgeSeconds.get(), error);
+    }
 
+    private void updateOldestAge(OffsetDateTime oldest) {
         long ageSeconds = Duration.between(oldest, OffsetDateTime.now()).getSeconds();
         oldestUnpublishedAgeSeconds.set(Math.max(ageSeconds, 0L));
 
@@ -223,7 +304,23 @@ public class OutboxServiceImpl implements OutboxService {
         if (oldestUnpublishedAgeSeconds.get() >= alertThresholdSec) {
             log.warn("Outbox oldest unpublished age alert threshold reached: "
                             + "ageSeconds={} thresholdSeconds={} backlog={}",
-                    oldestUnpublishedAgeSeconds.get(), alertThresholdSec, backlog);
+                    oldestUnpublishedAgeSeconds.get(), alertThresholdSec, unpublishedBacklog.get());
+        }
+    }
+
+    private record PendingPublish(OutboxEvent event, CorrelationData correlation) {
+    }
+
+    private record BatchResult(int claimed, int failed) {
+    }
+
+    // -- internal helpers ---------------------------------------------------
+
+    private String toJson(Object value) {
+        try {
+            return jsonMapper.writeValueAsString(value);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Unable to serialize outbox payload", e);
         }
     }
 
@@ -0,0 +1,88 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.config.ReadReplicas;
+import com.bracit.fisprocess.config.ReadTokenFilter;
+import com.bracit.fisprocess.config.ReplicaSet;
+import com.bracit.fisprocess.service.ReadConsistencyContext;
+import com.bracit.fisprocess.service.ReadToken;
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardRouter;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+
+/**
+ * Issues a {@link ReadToken} once a write commits, so that the writer's next
+ * reads observe it even when they are served by a replica.
+ * <p>
+ * The token is the primary's WAL position just after the commit. It is
+ * required for the rest of the HTTP request that made the write and returned
+ * in the {@value ReadTokenFilter#READ_TOKEN_HEADER} response header for the
+ * client to present on subsequent reads. Writes made outside a request, such
+ * as by message consumers and scheduled jobs, have no reader to hand the token
+ * to and are not tracked. Without replicas this does nothing.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReadYourWritesTracker {
+
+    private final ReadReplicas readReplicas;
+    private final ShardRouter shardRouter;
+
+    /**
+     * Issues a token for the tenant's shard after the surrounding
+     * transaction commits, or immediately without one. Does nothing outside
+     * an HTTP request.
+     */
+    public void recordWrite(UUID tenantId) {
+        if (readReplicas.isEmpty()
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes)) {
+            return;
+        }
+        ReplicaSet replicaSet = readReplicas.forShard(shardRouter.getShardForTenant(tenantId));
+        if (replicaSet == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            issue(replicaSet);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                issue(replicaSet);
+            }
+        });
+    }
+
+    private void issue(ReplicaSet replicaSet) {
+        Shard shard = replicaSet.shard();
+        ReadToken token;
+        try {
+            token = new ReadToken(shard, replicaSet.currentPrimaryLsn());
+        } catch (RuntimeException ex) {
+            // Without a token later reads may miss the write on a lagging replica
+            log.warn("Failed to read WAL position of {}: {}", shard, ex.getMessage());
+            return;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return;
+        }
+        // Cleared by ReadTokenFilter when the request completes
+        ReadConsistencyContext.require(token);
+        HttpServletResponse response = servletAttributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            response.setHeader(ReadTokenFilter.READ_TOKEN_HEADER, token.toString());
+        }
+    }
+}
@@ -12,13 +12,13 @@ import com.bracit.fisprocess.service.ReconciliationService;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.Nullable;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 @Service @RequiredArgsConstructor
@@ -30,6 +30,10 @@ public class ReconciliationServiceImpl implements ReconciliationService {
     private final BankAccountRepository bankAcctRepo;
     private final JournalLineRepository journalLineRepo;
     private final ModelMapper mapper;
+    @Value("${fis.reconciliation.exact-match-window-days:1}")
+    private int exactMatchWindowDays = 1;
+    @Value("${fis.reconciliation.fuzzy-match-window-days:7}")
+    private int fuzzyMatchWindowDays = 7;
     @Override @Transactional
     public ReconciliationResponseDto start(UUID tenantId, StartReconciliationRequestDto req, String performedBy) {
         Reconciliation r = Reconciliation.builder()
@@ -65,74 +69,36 @@ public class ReconciliationServiceImpl implements ReconciliationService {
             journalLineRepo.findJournalLinesForMatching(
                 tenantId, bankAccount.getGlAccountCode(), r.getStartDate(), r.getEndDate());
 
-        List<MatchResult> results = new ArrayList<>();
-
+        BankStatementMatcher matcher = new BankStatementMatcher(journalLines,
+            BankStatementMatcher.defaultTiers(exactMatchWindowDays, fuzzyMatchWindowDays));
+        List<ReconciliationMatch> matches = new ArrayList<>();
+        List<BankStatementLine> matchedStatements = new ArrayList<>();
         for (BankStatementLine sl : unmatchedStatements) {
-            MatchResult match = findBestMatch(sl, journalLines);
-            if (match != null) {
-                ReconciliationMatch m = ReconciliationMatch.builder()
+            JournalLineRepository.JournalLineMatchProjection jl =
+                matcher.match(sl.getAmount(), sl.getDate(), sl.getReference());
+            if (jl != null) {
+                matches.add(ReconciliationMatch.builder()
                     .reconciliationId(r.getId())
                     .statementLineId(sl.getId())
-                    .journalLineId(match.journalLineId())
-                    .amount(match.amount())
-                    .build();
-                matchRepo.save(m);
+                    .journalLineId(jl.getJournalLineId())
+                    .amount(sl.getAmount())
+                    .build());
                 sl.setMatched(true);
-                sl.setMatchedJournalLineId(match.journalLineId());
-                stmtLineRepo.save(sl);
-                results.add(match);
+                sl.setMatchedJournalLineId(jl.getJournalLineId());
+                matchedStatements.add(sl);
             }
         }
 
+        List<MatchResult> results = new ArrayList<>(matches.size());
+        for (ReconciliationMatch m : matchRepo.saveAll(matches)) {
+            results.add(new MatchResult(m.getId(), m.getStatementLineId(), m.getJournalLineId(), m.getAmount(), "AUTO"));
+        }
+        stmtLineRepo.saveAll(matchedStatements);
+
         r.setTotalMatched((long) results.size());
         repo.save(r);
         return results;
     }
-
-    private MatchResult findBestMatch(BankStatementLine stmtLine,
-            List<JournalLineRepository.JournalLineMatchProjection> journalLines) {
-        long targetAmount = Math.abs(stmtLine.getAmount());
-        LocalDate stmtDate = stmtLine.getDate();
-        String stmtRef = stmtLine.getReference() != null ? stmtLine.getReference().toLowerCase() : "";
-
-        // Priority 1: Exact match - amount same, date within ±1 day, reference partial match
-        for (JournalLineRepository.JournalLineMatchProjection jl : journalLines) {
-            LocalDate jeDate = jl.getPostedDate();
-            String jeRef = jl.getReferenceId() != null ? jl.getReferenceId().toLowerCase() : "";
-
-            boolean amountMatch = Math.abs(jl.getAmount()) == targetAmount;
-            boolean dateMatch = jeDate != null && Math.abs(ChronoUnit.DAYS.between(jeDate, stmtDate)) <= 1;
-            boolean refMatch = !stmtRef.isEmpty() && (jeRef.contains(stmtRef) || stmtRef.contains(jeRef));
-
-            if (amountMatch && dateMatch && refMatch) {
-                return new MatchResult(UUID.randomUUID(), stmtLine.getId(), jl.getJournalLineId(),
-                    stmtLine.getAmount(), "AUTO");
-            }
-        }
-
-        // Priority 2: Fuzzy match - amount same, date within ±7 days
-        for (JournalLineRepository.JournalLineMatchProjection jl : journalLines) {
-            LocalDate jeDate = jl.getPostedDate();
-
-            boolean amountMatch = Math.abs(jl.getAmount()) == targetAmount;
-            boolean dateMatch = jeDate != null && Math.abs(ChronoUnit.DAYS.between(jeDate, stmtDate)) <= 7;
-
-            if (amountMatch && dateMatch) {
-                return new MatchResult(UUID.randomUUID(), stmtLine.getId(), jl.getJournalLineId(),
-                    stmtLine.getAmount(), "AUTO");
-            }
-        }
-
-        // Priority 3: Amount only match (fallback)
-        for (JournalLineRepository.JournalLineMatchProjection jl : journalLines) {
-            if (Math.abs(jl.getAmount()) == targetAmount) {
-                return new MatchResult(UUID.randomUUID(), stmtLine.getId(), jl.getJournalLineId(),
-                    stmtLine.getAmount(), "AUTO");
-            }
-        }
-
-        return null; // No match found
-    }
     @Override @Transactional
     public MatchResult manualMatch(UUID tenantId, UUID reconciliationId, MatchLineRequestDto req) {
         repo.findByTenantIdAndId(tenantId, reconciliationId)
@@ -10,13 +10,16 @@ import com.bracit.fisprocess.dto.response.JournalRegisterReportDto;
 import com.bracit.fisprocess.exception.AccountNotFoundException;
 import com.bracit.fisprocess.exception.ReportParameterException;
 import com.bracit.fisprocess.repository.BusinessEntityRepository;
+import com.bracit.fisprocess.repository.JournalRegisterPosition;
 import com.bracit.fisprocess.repository.ReportingRepository;
+import org.jspecify.annotations.Nullable;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 final class ReportingLedgerOps {
 
@@ -97,6 +100,10 @@ final class ReportingLedgerOps {
                 .build();
     }
 
+    /**
+     * Offset-paginated journal register. Deep pages scan and discard every
+     * preceding row; prefer {@link #generateJournalRegisterPage}.
+     */
     static JournalRegisterReportDto generateJournalRegister(
             ReportingRepository reportingRepository,
             BusinessEntityRepository businessEntityRepository,
@@ -106,9 +113,7 @@ final class ReportingLedgerOps {
             int page,
             int size) {
         ReportingStatementOps.validateDateRange(fromDate, toDate);
-        if (size <= 0 || size > 1000) {
-            throw new ReportParameterException("Page size must be between 1 and 1000.");
-        }
+        validatePageSize(size);
         String baseCurrency = ReportingStatementOps.resolveBaseCurrency(businessEntityRepository, tenantId);
 
         int offset = page * size;
@@ -116,16 +121,7 @@ final class ReportingLedgerOps {
         long totalEntries = reportingRepository.countJournalRegister(tenantId, fromDate, toDate);
 
         List<JournalRegisterEntryDto> entries = rows.stream()
-                .map(row -> JournalRegisterEntryDto.builder()
-                        .journalEntryId(ReportingStatementOps.uuid(row, "journal_entry_id"))
-                        .sequenceNumber(ReportingStatementOps.lngOrNull(row, "sequence_number"))
-                        .postedDate(ReportingStatementOps.date(row, "posted_date"))
-                        .description(ReportingStatementOps.str(row, "description"))
-                        .status(ReportingStatementOps.str(row, "status"))
-                        .totalDebits(ReportingStatementOps.lng(row, "total_debits"))
-                        .totalCredits(ReportingStatementOps.lng(row, "total_credits"))
-                        .createdBy(ReportingStatementOps.str(row, "created_by"))
-                        .build())
+                .map(ReportingLedgerOps::toRegisterEntry)
                 .toList();
 
         return JournalRegisterReportDto.builder()
@@ -138,6 +134,98 @@ final class ReportingLedgerOps {
                 .build();
     }
 
+    /**
+     * Keyset-paginated journal register. Each page costs the same regardless of
+     * depth. The total count is only computed for the first page, which is
+     * requested without a token.
+     */
+    static JournalRegisterReportDto generateJournalRegisterPage(
+            ReportingRepository reportingRepository,
+            BusinessEntityRepository businessEntityRepository,
+            UUID tenantId,
+            LocalDate fromDate,
+            LocalDate toDate,
+            @Nullable String pageToken,
+            int size) {
+        ReportingStatementOps.validateDateRange(fromDate, toDate);
+        validatePageSize(size);
+        JournalRegisterPosition after = pageToken == null || pageToken.isBlank()
+                ? null
+                : JournalRegisterPageToken.decode(pageToken);
+        String baseCurrency = ReportingStatementOps.resolveBaseCurrency(businessEntityRepository, tenantId);
+
+        // One extra row tells whether another page follows without a count query.
+        List<Map<String, Object>> rows = reportingRepository.findJournalRegisterPage(
+                tenantId, fromDate, toDate, after, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<Map<String, Object>> pageRows = hasMore ? rows.subList(0, size) : rows;
+
+        String nextPageToken = null;
+        if (hasMore) {
+            Map<String, Object> last = pageRows.getLast();
+            nextPageToken = JournalRegisterPageToken.encode(new JournalRegisterPosition(
+                    ReportingStatementOps.date(last, "effective_date"),
+                    ReportingStatementOps.lng(last, "sequence_number"),
+                    ReportingStatementOps.uuid(last, "journal_entry_id")));
+        }
+
+        JournalRegisterReportDto.JournalRegisterReportDtoBuilder report = JournalRegisterReportDto.builder()
+                .metadata(ReportingStatementOps.metadata("JOURNAL_REGISTER", tenantId, baseCurrency, null, fromDate, toDate))
+                .entries(pageRows.stream().map(ReportingLedgerOps::toRegisterEntry).toList())
+                .size(size)
+                .nextPageToken(nextPageToken);
+        if (after == null) {
+            long totalEntries = reportingRepository.countJournalRegister(tenantId, fromDate, toDate);
+            report.totalEntries(totalEntries)
+                    .page(0)
+                    .totalPages((totalEntries + size - 1) / size);
+        }
+        return report.build();
+    }
+
+    /**
+     * Streams every journal register entry of the range to {@code sink} in
+     * register order without materializing the result set.
+     */
+    static void exportJournalRegister(
+            ReportingRepository reportingRepository,
+            UUID tenantId,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Consumer<JournalRegisterEntryDto> sink) {
+        ReportingStatementOps.validateDateRange(fromDate, toDate);
+        reportingRepository.streamJournalRegister(tenantId, fromDate, toDate, rs -> sink.accept(
+                JournalRegisterEntryDto.builder()
+                        .journalEntryId(rs.getObject("journal_entry_id", UUID.class))
+                        .sequenceNumber(rs.getLong("sequence_number"))
+                        .postedDate(rs.getObject("posted_date", LocalDate.class))
+                        .description(rs.getString("description"))
+                        .status(rs.getString("status"))
+                        .totalDebits(rs.getLong("total_debits"))
+                        .totalCredits(rs.getLong("total_credits"))
+                        .createdBy(rs.getString("created_by"))
+                        .build()));
+    }
+
+    private static void validatePageSize(int size) {
+        if (size <= 0 || size > 1000) {
+            throw new ReportParameterException("Page size must be between 1 and 1000.");
+        }
+    }
+
+    private static JournalRegisterEntryDto toRegisterEntry(Map<String, Object> row) {
+        return JournalRegisterEntryDto.builder()
+                .journalEntryId(ReportingStatementOps.uuid(row, "journal_entry_id"))
+                .sequenceNumber(ReportingStatementOps.lngOrNull(row, "sequence_number"))
+                .postedDate(ReportingStatementOps.date(row, "posted_date"))
+                .description(ReportingStatementOps.str(row, "description"))
+                .status(ReportingStatementOps.str(row, "status"))
+                .totalDebits(ReportingStatementOps.lng(row, "total_debits"))
+                .totalCredits(ReportingStatementOps.lng(row, "total_credits"))
+                .createdBy(ReportingStatementOps.str(row, "created_by"))
+                .build();
+    }
+
     static DimensionSummaryReportDto generateDimensionSummary(
             ReportingRepository reportingRepository,
             BusinessEntityRepository businessEntityRepository,
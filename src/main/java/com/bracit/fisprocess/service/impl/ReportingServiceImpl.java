@@ -8,17 +8,20 @@ import com.bracit.fisprocess.dto.response.DimensionSummaryReportDto;
 import com.bracit.fisprocess.dto.response.FxExposureReportDto;
 import com.bracit.fisprocess.dto.response.GeneralLedgerReportDto;
 import com.bracit.fisprocess.dto.response.IncomeStatementReportDto;
+import com.bracit.fisprocess.dto.response.JournalRegisterEntryDto;
 import com.bracit.fisprocess.dto.response.JournalRegisterReportDto;
 import com.bracit.fisprocess.dto.response.TrialBalanceReportDto;
 import com.bracit.fisprocess.repository.BusinessEntityRepository;
 import com.bracit.fisprocess.repository.ReportingRepository;
 import com.bracit.fisprocess.service.ReportingService;
 import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the financial reporting service.
@@ -73,12 +76,26 @@ public class ReportingServiceImpl implements ReportingService {
     }
 
     @Override
+    @Deprecated
     public JournalRegisterReportDto generateJournalRegister(UUID tenantId, LocalDate fromDate,
             LocalDate toDate, int page, int size) {
         return ReportingLedgerOps.generateJournalRegister(
                 reportingRepository, businessEntityRepository, tenantId, fromDate, toDate, page, size);
     }
 
+    @Override
+    public JournalRegisterReportDto generateJournalRegister(UUID tenantId, LocalDate fromDate,
+            LocalDate toDate, @Nullable String pageToken, int size) {
+        return ReportingLedgerOps.generateJournalRegisterPage(
+                reportingRepository, businessEntityRepository, tenantId, fromDate, toDate, pageToken, size);
+    }
+
+    @Override
+    public void exportJournalRegister(UUID tenantId, LocalDate fromDate, LocalDate toDate,
+            Consumer<JournalRegisterEntryDto> sink) {
+        ReportingLedgerOps.exportJournalRegister(reportingRepository, tenantId, fromDate, toDate, sink);
+    }
+
     @Override
     public DimensionSummaryReportDto generateDimensionSummary(UUID tenantId, String dimensionKey,
             LocalDate fromDate, LocalDate toDate) {
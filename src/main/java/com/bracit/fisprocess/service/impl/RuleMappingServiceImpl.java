@@ -68,6 +68,33 @@ public class RuleMappingServiceImpl implements RuleMappingService {
                 .build();
     }
 
+    @Override
+    public int precompileActiveRules(UUID tenantId) {
+        int compiled = 0;
+        for (MappingRule rule : mappingRuleRepository.findByTenantIdAndIsActiveTrue(tenantId)) {
+            for (MappingRuleLine line : rule.getLines()) {
+                if (isTemplate(line.getAccountCodeExpression())
+                        && precompile(normalizeTemplate(line.getAccountCodeExpression()))) {
+                    compiled++;
+                }
+                if (precompile(normalizeTemplate(line.getAmountExpression()))) {
+                    compiled++;
+                }
+            }
+        }
+        return compiled;
+    }
+
+    private boolean precompile(String normalizedExpression) {
+        try {
+            getOrCompileExpression(normalizedExpression);
+            return true;
+        } catch (RuntimeException ex) {
+            // Reported with context when an event actually evaluates it
+            return false;
+        }
+    }
+
     private List<DraftJournalLine> toLinesFromEventOrRule(UUID tenantId, FinancialEventRequestDto event) {
         if (event.getLines() != null && !event.getLines().isEmpty()) {
             return event.getLines().stream().map(this::mapRequestLine).toList();
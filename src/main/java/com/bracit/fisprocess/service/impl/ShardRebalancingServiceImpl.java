@@ -0,0 +1,136 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.config.ShardingProperties;
+import com.bracit.fisprocess.domain.model.TenantShardMove;
+import com.bracit.fisprocess.domain.model.TenantShardPlacement;
+import com.bracit.fisprocess.exception.TenantShardMigrationInProgressException;
+import com.bracit.fisprocess.repository.TenantShardPlacementStore;
+import com.bracit.fisprocess.repository.TenantWriteFence;
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardRebalancingService;
+import com.bracit.fisprocess.service.ShardTopology;
+import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Migrates a tenant in four steps: mark its placement MIGRATING, so that
+ * routing it fails and new writes are retried later; wait
+ * {@code fis.sharding.migration.drain-millis} for every instance to see the
+ * mark; close the tenant's {@link TenantWriteFence} on the source shard,
+ * which waits for the transactions still writing it there; and, holding the
+ * fence, copy its rows to the target shard and flip the placement to the
+ * target. Any failure before the flip returns the tenant to its source
+ * shard, whose data is untouched.
+ * <p>
+ * Other instances learn of the mark through the directory's invalidation
+ * broadcast, or at the latest when their cached placement expires, so the
+ * drain may not be shorter than
+ * {@code fis.sharding.directory.expire-after-write-seconds}; otherwise an
+ * instance could still route the tenant to its source once the fence is
+ * opened again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShardRebalancingServiceImpl implements ShardRebalancingService {
+
+    private final ShardTopology topology;
+    private final ShardingProperties shardingProperties;
+    private final TenantShardDirectory directory;
+    private final TenantShardPlacementStore placementStore;
+    private final TenantShardDataCopier dataCopier;
+    private final TenantWriteFence tenantWriteFence;
+
+    @Value("${fis.sharding.directory.expire-after-write-seconds:60}")
+    private long directoryExpireAfterWriteSeconds;
+
+    @PostConstruct
+    void validateDrain() {
+        long drainMillis = shardingProperties.getMigration().getDrainMillis();
+        if (shardingProperties.isEnabled() && drainMillis < directoryExpireAfterWriteSeconds * 1000) {
+            throw new IllegalStateException("fis.sharding.migration.drain-millis (" + drainMillis
+                    + ") must not be shorter than fis.sharding.directory.expire-after-write-seconds ("
+                    + directoryExpireAfterWriteSeconds + "s)");
+        }
+    }
+
+    @Override
+    public List<TenantShardMove> planRebalance() {
+        List<TenantShardMove> moves = new ArrayList<>();
+        for (TenantShardPlacement placement : directory.recordedPlacements()) {
+            if (placement.isMigrating() || topology.pinnedShard(placement.tenantId()) != null) {
+                continue;
+            }
+            Shard owner = topology.ring().shardFor(placement.tenantId());
+            if (!owner.equals(placement.shard())) {
+                moves.add(new TenantShardMove(placement.tenantId(), placement.shard(), owner));
+            }
+        }
+        return moves;
+    }
+
+    @Override
+    public TenantShardMove migrateTenant(UUID tenantId, Shard targetShard) {
+        if (!shardingProperties.isEnabled()) {
+            throw new IllegalStateException("Sharding is disabled");
+        }
+        if (!topology.contains(targetShard)) {
+            throw new IllegalArgumentException("Unknown shard: " + targetShard);
+        }
+        if (topology.pinnedShard(tenantId) != null) {
+            throw new IllegalArgumentException("Tenant " + tenantId + " is pinned by configuration");
+        }
+
+        TenantShardPlacement placement = directory.placementOf(tenantId);
+        if (placement.isMigrating()) {
+            throw new TenantShardMigrationInProgressException(tenantId);
+        }
+        Shard source = placement.shard();
+        TenantShardMove move = new TenantShardMove(tenantId, source, targetShard);
+        if (source.equals(targetShard)) {
+            return move;
+        }
+        if (!placementStore.markMigrating(tenantId, source, targetShard)) {
+            throw new TenantShardMigrationInProgressException(tenantId);
+        }
+        directory.invalidate(tenantId);
+        log.info("Migrating tenant '{}' from {} to {}", tenantId, source, targetShard);
+
+        try {
+            Thread.sleep(shardingProperties.getMigration().getDrainMillis());
+            try (TenantWriteFence.ClosedWrites ignored = tenantWriteFence.closeWrites(tenantId, source)) {
+                dataCopier.copy(tenantId, source, targetShard);
+                if (!placementStore.completeMigration(tenantId, targetShard)) {
+                    throw new IllegalStateException("Placement of tenant " + tenantId + " changed during migration");
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abort(tenantId);
+            throw new IllegalStateException("Migration of tenant " + tenantId + " interrupted", ex);
+        } catch (RuntimeException ex) {
+            abort(tenantId);
+            throw ex;
+        }
+        directory.invalidate(tenantId);
+        log.info("Migrated tenant '{}' from {} to {}", tenantId, source, targetShard);
+
+        if (shardingProperties.getMigration().isPurgeSource()) {
+            dataCopier.purge(tenantId, source);
+        }
+        return move;
+    }
+
+    private void abort(UUID tenantId) {
+        placementStore.abortMigration(tenantId);
+        directory.invalidate(tenantId);
+        log.warn("Aborted migration of tenant '{}'; it stays on its source shard", tenantId);
+    }
+}
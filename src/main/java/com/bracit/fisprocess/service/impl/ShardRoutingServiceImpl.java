@@ -1,49 +1,73 @@
 package com.bracit.fisprocess.service.impl;
 
+import com.bracit.fisprocess.config.ShardingProperties;
+import com.bracit.fisprocess.domain.model.TenantShardPlacement;
+import com.bracit.fisprocess.exception.TenantShardMigrationInProgressException;
 import com.bracit.fisprocess.service.Shard;
 import com.bracit.fisprocess.service.ShardContextHolder;
 import com.bracit.fisprocess.service.ShardRouter;
+import com.bracit.fisprocess.service.ShardTopology;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
 
+/**
+ * Routes tenants and account codes to the shards of the configured
+ * {@link ShardTopology}.
+ * <p>
+ * Tenants pinned in {@code fis.sharding.pinned-tenants} go to their pinned
+ * shard; every other tenant goes to its recorded placement in the
+ * {@link TenantShardDirectory}. A tenant whose data is being copied to
+ * another shard is fenced: routing it fails with
+ * {@link TenantShardMigrationInProgressException} until the move completes.
+ * <p>
+ * Lookups have no side effects; only {@link #enterTenant(UUID)} binds the
+ * resolved shard to the current unit of work.
+ */
 @Service
 @Slf4j
 public class ShardRoutingServiceImpl implements ShardRouter {
 
-    @Value("${fis.sharding.enabled:false}")
+    private final ShardTopology topology;
+    private final TenantShardDirectory directory;
     private boolean shardingEnabled;
 
-    @Value("${fis.sharding.default-shard:SHARD_1}")
-    private Shard defaultShard;
+    public ShardRoutingServiceImpl(ShardTopology topology, ShardingProperties shardingProperties,
+            TenantShardDirectory directory) {
+        this.topology = topology;
+        this.directory = directory;
+        this.shardingEnabled = shardingProperties.isEnabled();
+    }
 
     @Override
     public Shard getShardForAccount(String accountCode) {
-        Shard shard = determineShardForAccount(accountCode);
-        ShardContextHolder.setCurrentShard(shard);
-        return shard;
+        return determineShardForAccount(accountCode);
     }
 
     @Override
     public Shard getShardForAccount(int accountCode) {
-        Shard shard = determineShardForAccount(accountCode);
-        ShardContextHolder.setCurrentShard(shard);
-        return shard;
+        return determineShardForAccount(accountCode);
     }
 
     @Override
     public Shard getShardForTenant(UUID tenantId) {
-        Shard shard = determineShardForTenant(tenantId);
-        ShardContextHolder.setCurrentShard(shard);
-        ShardContextHolder.setCurrentTenantId(tenantId);
-        return shard;
+        return determineShardForTenant(tenantId);
+    }
+
+    @Override
+    public ShardContextHolder.Scope enterTenant(UUID tenantId) {
+        return ShardContextHolder.enter(determineShardForTenant(tenantId), tenantId);
     }
 
     @Override
     public int getShardIndex(Shard shard) {
-        return shard.ordinal();
+        return topology.indexOf(shard);
+    }
+
+    @Override
+    public Shard getDefaultShard() {
+        return topology.defaultShard();
     }
 
     public boolean isShardingEnabled() {
@@ -52,40 +76,44 @@ public class ShardRoutingServiceImpl implements ShardRouter {
 
     private Shard determineShardForAccount(String accountCode) {
         if (!shardingEnabled) {
-            return defaultShard;
+            return topology.defaultShard();
         }
         try {
-            return Shard.forAccountCode(accountCode);
+            return topology.forAccountCode(accountCode);
         } catch (Exception e) {
             log.warn("Could not determine shard for account {}: {}", accountCode, e.getMessage());
-            return defaultShard;
+            return topology.defaultShard();
         }
     }
 
     private Shard determineShardForAccount(int accountCode) {
         if (!shardingEnabled) {
-            return defaultShard;
+            return topology.defaultShard();
         }
         try {
-            return Shard.forAccountCode(accountCode);
+            return topology.forAccountCode(accountCode);
         } catch (Exception e) {
             log.warn("Could not determine shard for account code {}: {}", accountCode, e.getMessage());
-            return defaultShard;
+            return topology.defaultShard();
         }
     }
 
     private Shard determineShardForTenant(UUID tenantId) {
         if (!shardingEnabled) {
-            return defaultShard;
+            return topology.defaultShard();
+        }
+        Shard pinned = topology.pinnedShard(tenantId);
+        if (pinned != null) {
+            return pinned;
+        }
+        TenantShardPlacement placement = directory.placementOf(tenantId);
+        if (placement.isMigrating()) {
+            throw new TenantShardMigrationInProgressException(tenantId);
         }
-        return Shard.forTenant(tenantId);
+        return placement.shard();
     }
 
     public void setShardingEnabled(boolean enabled) {
         this.shardingEnabled = enabled;
     }
-
-    public void setDefaultShard(Shard shard) {
-        this.defaultShard = shard;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,203 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.domain.entity.Account;
+import com.bracit.fisprocess.domain.model.AccountSnapshot;
+import com.bracit.fisprocess.exception.AccountNotFoundException;
+import com.bracit.fisprocess.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves account codes to {@link AccountSnapshot}s for validation and to
+ * {@link Account} references for ledger persistence.
+ * <p>
+ * Keeps a bounded, per-tenant code→snapshot map in process memory, so that
+ * validating and persisting a posting share one lookup: codes that are not
+ * cached yet are loaded with a single {@code IN} query, and cached codes
+ * resolve to lazy references via {@link AccountRepository#getReferenceById(Object)}
+ * without touching the database. Snapshots carry the active flag and
+ * currency, which can change, so {@link AccountServiceImpl} evicts the tenant
+ * after every committed account change; the eviction is applied locally and
+ * published on {@link #INVALIDATION_CHANNEL} so that other instances drop
+ * their copy too. Entries also expire after
+ * {@code fis.account-resolver.expire-after-write-seconds}, which bounds
+ * staleness should a message be lost.
+ */
+@Component
+@Slf4j
+public class TenantAccountResolver {
+
+    static final String INVALIDATION_CHANNEL = "fis:account-resolver:invalidate";
+
+    private final AccountRepository accountRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<UUID, Map<String, AccountSnapshot>> snapshotsByTenant;
+    private final int maxCodesPerTenant;
+
+    public TenantAccountResolver(
+            AccountRepository accountRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${fis.account-resolver.max-tenants:1000}") long maxTenants,
+            @Value("${fis.account-resolver.max-codes-per-tenant:5000}") int maxCodesPerTenant,
+            @Value("${fis.account-resolver.expire-after-write-seconds:300}") long expireAfterWriteSeconds) {
+        this.accountRepository = accountRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.maxCodesPerTenant = maxCodesPerTenant;
+        this.snapshotsByTenant = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Snapshots of the given account codes for the tenant, issuing at most one
+     * query for the codes that are not yet cached. Codes that do not exist are
+     * absent from the result.
+     *
+     * @param tenantId     the tenant UUID
+     * @param accountCodes the account codes to look up (duplicates allowed)
+     * @return map of account code to snapshot
+     */
+    public Map<String, AccountSnapshot> snapshots(UUID tenantId, Collection<String> accountCodes) {
+        return lookup(tenantId, accountCodes, new HashMap<>());
+    }
+
+    /**
+     * Resolves every given account code for the tenant to an account reference.
+     *
+     * @param tenantId     the tenant UUID
+     * @param accountCodes the account codes to resolve (duplicates allowed)
+     * @return map of account code to account (managed entity or lazy reference)
+     * @throws AccountNotFoundException if any code does not exist for the tenant
+     */
+    public Map<String, Account> resolve(UUID tenantId, Collection<String> accountCodes) {
+        Map<String, Account> resolved = new HashMap<>();
+        Map<String, AccountSnapshot> snapshots = lookup(tenantId, accountCodes, resolved);
+        for (String code : accountCodes) {
+            AccountSnapshot snapshot = snapshots.get(code);
+            if (snapshot == null) {
+                throw new AccountNotFoundException(code);
+            }
+            resolved.computeIfAbsent(code, c -> accountRepository.getReferenceById(snapshot.accountId()));
+        }
+        return resolved;
+    }
+
+    /**
+     * Looks up the codes, putting every account loaded from the database into
+     * {@code loaded} so that callers needing entities can reuse it.
+     */
+    private Map<String, AccountSnapshot> lookup(UUID tenantId, Collection<String> accountCodes,
+            Map<String, Account> loaded) {
+        Map<String, AccountSnapshot> cached = snapshotsByTenant.get(tenantId, id -> new ConcurrentHashMap<>());
+        Map<String, AccountSnapshot> found = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String code : accountCodes) {
+            AccountSnapshot snapshot = cached.get(code);
+            if (snapshot != null) {
+                found.put(code, snapshot);
+            } else {
+                missing.add(code);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        for (Account account : accountRepository.findByTenantIdAndCodeIn(tenantId, missing)) {
+            AccountSnapshot snapshot = AccountSnapshot.of(account);
+            found.put(account.getCode(), snapshot);
+            loaded.put(account.getCode(), account);
+            if (cached.size() < maxCodesPerTenant) {
+                cached.put(account.getCode(), snapshot);
+            }
+        }
+
+        log.debug("Looked up {} account codes for tenant '{}' ({} loaded from database)",
+                found.size(), tenantId, missing.size());
+        return found;
+    }
+
+    /**
+     * Seeds the tenant's snapshots from an already loaded chart of accounts,
+     * up to the per-tenant limit.
+     */
+    public void prime(UUID tenantId, Collection<AccountSnapshot> snapshots) {
+        Map<String, AccountSnapshot> cached = snapshotsByTenant.get(tenantId, id -> new ConcurrentHashMap<>());
+        for (AccountSnapshot snapshot : snapshots) {
+            if (cached.size() >= maxCodesPerTenant) {
+                break;
+            }
+            cached.putIfAbsent(snapshot.code(), snapshot);
+        }
+    }
+
+    /**
+     * Drops all cached snapshots of the tenant on this and every other
+     * instance once the surrounding transaction commits, so that no reader can
+     * cache the pre-commit state. Without an active transaction this happens
+     * immediately.
+     */
+    public void evictTenant(UUID tenantId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(tenantId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(tenantId);
+            }
+        });
+    }
+
+    private void invalidate(UUID tenantId) {
+        snapshotsByTenant.invalidate(tenantId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, tenantId.toString());
+        } catch (RuntimeException ex) {
+            // Other instances fall back to expiry
+            log.warn("Failed to broadcast account snapshot invalidation for tenant '{}': {}",
+                    tenantId, ex.getMessage());
+        }
+    }
+
+    private void evictLocal(String tenantId) {
+        try {
+            snapshotsByTenant.invalidate(UUID.fromString(tenantId));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed account snapshot invalidation '{}'", tenantId);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.config.ShardDataSources;
+import com.bracit.fisprocess.config.ShardingProperties;
+import com.bracit.fisprocess.service.Shard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Copies all rows of one tenant between shards with plain JDBC.
+ * <p>
+ * A tenant's rows are those of every table with a {@code tenant_id} column,
+ * plus, transitively, the rows of tables that reference such rows through a
+ * single-column foreign key (journal lines through their journal entry, for
+ * example). The tables are discovered from the source shard's catalog, so new
+ * tables are picked up without code changes.
+ * <p>
+ * The source is read in one repeatable-read snapshot and the target is
+ * written in one transaction that first deletes whatever rows of the tenant a
+ * previous, aborted attempt left behind, so a copy can simply be re-run. The
+ * target transaction runs with {@code session_replication_role = replica},
+ * which suspends foreign-key checks and the append-only ledger triggers while
+ * rows are written in table order; the connecting role must be allowed to set
+ * it. The copy is verified by comparing per-table row counts before the
+ * target transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TenantShardDataCopier {
+
+    /**
+     * Tables that are per shard rather than per tenant.
+     */
+    private static final Set<String> EXCLUDED_TABLES = Set.of(
+            "fis_tenant_shard_placement", "flyway_schema_history");
+
+    private static final String TENANT_TABLES_SQL = """
+            SELECT c.relname
+            FROM pg_class c
+            JOIN pg_namespace n ON n.oid = c.relnamespace
+            JOIN pg_attribute a ON a.attrelid = c.oid AND a.attname = 'tenant_id' AND NOT a.attisdropped
+            WHERE n.nspname = current_schema()
+              AND c.relkind IN ('r', 'p')
+              AND NOT c.relispartition
+            ORDER BY c.relname
+            """;
+
+    private static final String FOREIGN_KEYS_SQL = """
+            SELECT child.relname AS child_table, ca.attname AS child_column,
+                   parent.relname AS parent_table, pa.attname AS parent_column
+            FROM pg_constraint con
+            JOIN pg_class child ON child.oid = con.conrelid
+            JOIN pg_class parent ON parent.oid = con.confrelid
+            JOIN pg_namespace n ON n.oid = child.relnamespace
+            JOIN pg_attribute ca ON ca.attrelid = con.conrelid AND ca.attnum = con.conkey[1]
+            JOIN pg_attribute pa ON pa.attrelid = con.confrelid AND pa.attnum = con.confkey[1]
+            WHERE con.contype = 'f'
+              AND con.conparentid = 0
+              AND cardinality(con.conkey) = 1
+              AND n.nspname = current_schema()
+              AND NOT child.relispartition
+            ORDER BY child.relname, ca.attname
+            """;
+
+    private final ShardDataSources shardDataSources;
+    private final ShardingProperties shardingProperties;
+
+    /**
+     * A table holding rows of the tenant. {@code predicate} selects them and
+     * has exactly one parameter, the tenant id; {@code depth} is the number of
+     * foreign-key hops from a table with a {@code tenant_id} column.
+     */
+    record TenantTable(String name, String predicate, int depth) {
+    }
+
+    /**
+     * Replaces the tenant's rows on {@code target} with those on
+     * {@code source}.
+     *
+     * @return rows copied per table
+     * @throws IllegalStateException if a table's row count differs after the copy
+     */
+    public Map<String, Long> copy(UUID tenantId, Shard source, Shard target) {
+        try (Connection from = shardDataSources.get(source).getConnection();
+             Connection to = shardDataSources.get(target).getConnection()) {
+            from.setAutoCommit(false);
+            from.setReadOnly(true);
+            from.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            to.setAutoCommit(false);
+            try {
+                List<TenantTable> tables = discoverTables(from);
+                suspendConstraints(to);
+                delete(to, tables, tenantId);
+
+                Map<String, Long> copied = new LinkedHashMap<>();
+                for (TenantTable table : tables) {
+                    long rows = copyTable(from, to, table, tenantId);
+                    long written = count(to, table, tenantId);
+                    if (written != rows) {
+                        throw new IllegalStateException("Copy of " + table.name() + " for tenant " + tenantId
+                                + " wrote " + written + " rows, expected " + rows);
+                    }
+                    copied.put(table.name(), rows);
+                }
+                to.commit();
+                from.commit();
+                log.info("Copied tenant '{}' from {} to {}: {}", tenantId, source, target, copied);
+                return copied;
+            } catch (SQLException | RuntimeException ex) {
+                to.rollback();
+                from.rollback();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to copy tenant " + tenantId + " from " + source
+                    + " to " + target, ex);
+        }
+    }
+
+    /**
+     * Deletes all of the tenant's rows from the shard.
+     */
+    public void purge(UUID tenantId, Shard shard) {
+        try (Connection connection = shardDataSources.get(shard).getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                List<TenantTable> tables = discoverTables(connection);
+                suspendConstraints(connection);
+                delete(connection, tables, tenantId);
+                connection.commit();
+                log.info("Purged tenant '{}' from {}", tenantId, shard);
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to purge tenant " + tenantId + " from " + shard, ex);
+        }
+    }
+
+    List<TenantTable> discoverTables(Connection connection) throws SQLException {
+        Map<String, TenantTable> tables = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(TENANT_TABLES_SQL)) {
+            while (rs.next()) {
+                String name = rs.getString(1);
+                if (!EXCLUDED_TABLES.contains(name)) {
+                    tables.put(name, new TenantTable(name, "tenant_id = ?", 0));
+                }
+            }
+        }
+
+        List<String[]> foreignKeys = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(FOREIGN_KEYS_SQL)) {
+            while (rs.next()) {
+                foreignKeys.add(new String[]{rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4)});
+            }
+        }
+
+        // Follow references outwards until no table is added
+        boolean added = true;
+        while (added) {
+            added = false;
+            for (String[] fk : foreignKeys) {
+                String child = fk[0];
+                TenantTable parent = tables.get(fk[2]);
+                if (parent == null || tables.containsKey(child) || EXCLUDED_TABLES.contains(child)) {
+                    continue;
+                }
+                String predicate = quote(fk[1]) + " IN (SELECT " + quote(fk[3]) + " FROM " + quote(parent.name())
+                        + " WHERE " + parent.predicate() + ")";
+                tables.put(child, new TenantTable(child, predicate, parent.depth() + 1));
+                added = true;
+            }
+        }
+        return new ArrayList<>(tables.values());
+    }
+
+    private long copyTable(Connection from, Connection to, TenantTable table, UUID tenantId) throws SQLException {
+        int batchSize = shardingProperties.getMigration().getBatchSize();
+        try (PreparedStatement select = from.prepareStatement(
+                "SELECT * FROM " + quote(table.name()) + " WHERE " + table.predicate())) {
+            select.setFetchSize(batchSize);
+            select.setObject(1, tenantId);
+            try (ResultSet rs = select.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columns = metaData.getColumnCount();
+                List<String> names = new ArrayList<>(columns);
+                for (int i = 1; i <= columns; i++) {
+                    names.add(quote(metaData.getColumnName(i)));
+                }
+                String insert = "INSERT INTO " + quote(table.name()) + " (" + String.join(", ", names)
+                        + ") VALUES (" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+
+                long rows = 0;
+                try (PreparedStatement statement = to.prepareStatement(insert)) {
+                    int pending = 0;
+                    while (rs.next()) {
+                        for (int i = 1; i <= columns; i++) {
+                            statement.setObject(i, rs.getObject(i));
+                        }
+                        statement.addBatch();
+                        rows++;
+                        if (++pending == batchSize) {
+                            statement.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        statement.executeBatch();
+                    }
+                }
+                return rows;
+            }
+        }
+    }
+
+    private static long count(Connection connection, TenantTable table, UUID tenantId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM " + quote(table.name()) + " WHERE " + table.predicate())) {
+            statement.setObject(1, tenantId);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * Deletes referencing tables first, since their predicates select rows
+     * through the tables they reference.
+     */
+    private static void delete(Connection connection, List<TenantTable> tables, UUID tenantId) throws SQLException {
+        List<TenantTable> ordered = new ArrayList<>(tables);
+        ordered.sort(Comparator.comparingInt(TenantTable::depth).reversed());
+        for (TenantTable table : ordered) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM " + quote(table.name()) + " WHERE " + table.predicate())) {
+                statement.setObject(1, tenantId);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static void suspendConstraints(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL session_replication_role = replica");
+        }
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,131 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.config.ShardingProperties;
+import com.bracit.fisprocess.domain.model.TenantShardPlacement;
+import com.bracit.fisprocess.repository.TenantShardPlacementStore;
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardTopology;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resolves tenants to their recorded {@link TenantShardPlacement}.
+ * <p>
+ * A tenant seen for the first time is placed on the shard the ring assigns
+ * and that placement is recorded, so a later change of the topology never
+ * moves a tenant implicitly: only {@link ShardRebalancingServiceImpl} moves
+ * tenants, by copying their data and then flipping the placement. Placements
+ * are cached per instance; a migration invalidates the tenant on this
+ * instance and publishes the tenant on {@link #INVALIDATION_CHANNEL} so that
+ * every other instance re-reads it. Entries also expire after
+ * {@code fis.sharding.directory.expire-after-write-seconds}, which bounds
+ * staleness should a message be lost.
+ */
+@Component
+@Slf4j
+public class TenantShardDirectory {
+
+    static final String INVALIDATION_CHANNEL = "fis:shard-placement:invalidate";
+
+    private final TenantShardPlacementStore placementStore;
+    private final ShardTopology topology;
+    private final ShardingProperties shardingProperties;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<UUID, TenantShardPlacement> placements;
+
+    public TenantShardDirectory(
+            TenantShardPlacementStore placementStore,
+            ShardTopology topology,
+            ShardingProperties shardingProperties,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${fis.sharding.directory.max-tenants:100000}") long maxTenants,
+            @Value("${fis.sharding.directory.expire-after-write-seconds:60}") long expireAfterWriteSeconds) {
+        this.placementStore = placementStore;
+        this.topology = topology;
+        this.shardingProperties = shardingProperties;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.placements = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * The tenant's placement, recording its initial shard if it has none yet.
+     */
+    public TenantShardPlacement placementOf(UUID tenantId) {
+        return placements.get(tenantId, this::load);
+    }
+
+    /**
+     * Every recorded placement, read from the directory table.
+     */
+    public List<TenantShardPlacement> recordedPlacements() {
+        return placementStore.findAll();
+    }
+
+    /**
+     * The shard a tenant without a recorded placement is placed on.
+     */
+    public Shard initialShard(UUID tenantId) {
+        if (shardingProperties.isLegacyPlacement()) {
+            List<Shard> shards = topology.shards();
+            return shards.get(Math.abs(tenantId.hashCode() % shards.size()));
+        }
+        return topology.ring().shardFor(tenantId);
+    }
+
+    /**
+     * Drops the tenant's cached placement on this and every other instance.
+     */
+    public void invalidate(UUID tenantId) {
+        placements.invalidate(tenantId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, tenantId.toString());
+        } catch (RuntimeException ex) {
+            // Other instances fall back to expiry
+            log.warn("Failed to broadcast shard placement invalidation for tenant '{}': {}",
+                    tenantId, ex.getMessage());
+        }
+    }
+
+    private TenantShardPlacement load(UUID tenantId) {
+        TenantShardPlacement placement = placementStore.find(tenantId);
+        if (placement != null) {
+            return placement;
+        }
+        placement = placementStore.insertIfAbsent(tenantId, initialShard(tenantId));
+        log.info("Placed tenant '{}' on shard {}", tenantId, placement.shard());
+        return placement;
+    }
+
+    private void evictLocal(String tenantId) {
+        try {
+            placements.invalidate(UUID.fromString(tenantId));
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed shard placement invalidation '{}'", tenantId);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+-- Daily per-account movement totals, maintained in the posting transaction.
+-- The balance of an account as of a date is the sum of its rows up to that date.
+-- Only POSTED and CORRECTION entries are included, matching the reporting queries.
+CREATE TABLE fis_account_balance_daily (
+    tenant_id       UUID        NOT NULL,
+    account_id      UUID        NOT NULL REFERENCES fis_account(account_id),
+    balance_date    DATE        NOT NULL,
+    debit_total     BIGINT      NOT NULL DEFAULT 0,
+    credit_total    BIGINT      NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (tenant_id, account_id, balance_date)
+);
+
+CREATE INDEX idx_account_balance_daily_tenant_date
+    ON fis_account_balance_daily (tenant_id, balance_date);
+
+-- Tenants whose daily rows have been backfilled from the journal.
+-- Reports read the daily rows only for tenants listed here.
+CREATE TABLE fis_account_balance_snapshot_state (
+    tenant_id       UUID        PRIMARY KEY,
+    backfilled_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+    verified_at     TIMESTAMP WITH TIME ZONE
+);
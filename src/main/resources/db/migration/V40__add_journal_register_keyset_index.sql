@@ -0,0 +1,6 @@
+-- Keyset pagination and export of the journal register walk entries in
+-- (effective_date, sequence_number, journal_entry_id) order within a tenant.
+
+CREATE INDEX IF NOT EXISTS idx_je_tenant_register_keyset
+    ON fis_journal_entry (tenant_id, effective_date, sequence_number, journal_entry_id)
+    WHERE status IN ('POSTED', 'CORRECTION', 'REVERSAL');
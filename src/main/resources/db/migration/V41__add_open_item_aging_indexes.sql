@@ -0,0 +1,12 @@
+-- AR/AP aging reports aggregate only open items with an outstanding balance.
+-- The included columns let the aging query run as an index-only scan.
+
+CREATE INDEX IF NOT EXISTS idx_invoice_open_aging
+    ON fis_invoice (tenant_id, customer_id, due_date)
+    INCLUDE (total_amount, paid_amount, currency)
+    WHERE status IN ('POSTED', 'PARTIALLY_PAID', 'OVERDUE') AND total_amount > paid_amount;
+
+CREATE INDEX IF NOT EXISTS idx_bill_open_aging
+    ON fis_bill (tenant_id, vendor_id, due_date)
+    INCLUDE (total_amount, paid_amount, currency)
+    WHERE status IN ('POSTED', 'PARTIALLY_PAID', 'OVERDUE') AND total_amount > paid_amount;
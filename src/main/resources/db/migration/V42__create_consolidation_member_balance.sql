@@ -0,0 +1,26 @@
+-- Per-member trial balances of a consolidation group and period, stored so
+-- that re-running the period only re-aggregates members whose ledger changed.
+-- Balances are untranslated and before ownership; the watermark columns
+-- describe the member ledger they were computed from.
+CREATE TABLE fis_consolidation_member_state (
+    tenant_id           UUID        NOT NULL,
+    group_id            UUID        NOT NULL,
+    period              VARCHAR(7)  NOT NULL,
+    member_tenant_id    UUID        NOT NULL,
+    ledger_entry_count  BIGINT      NOT NULL,
+    account_count       BIGINT      NOT NULL,
+    accounts_updated_at TIMESTAMP WITH TIME ZONE,
+    computed_at         TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (group_id, period, member_tenant_id)
+);
+
+CREATE TABLE fis_consolidation_member_balance (
+    tenant_id           UUID        NOT NULL,
+    group_id            UUID        NOT NULL,
+    period              VARCHAR(7)  NOT NULL,
+    member_tenant_id    UUID        NOT NULL,
+    account_code        VARCHAR(50) NOT NULL,
+    account_type        VARCHAR(20) NOT NULL,
+    net_balance         BIGINT      NOT NULL,
+    PRIMARY KEY (group_id, period, member_tenant_id, account_code)
+);
@@ -0,0 +1,42 @@
+-- FIFO cost layers: the unissued remainder of each receipt, so inventory
+-- valuation reads the open layers instead of replaying movement history.
+CREATE TABLE fis_inventory_cost_layer (
+    id                 UUID        PRIMARY KEY,
+    tenant_id          UUID        NOT NULL,
+    item_id            UUID        NOT NULL,
+    movement_id        UUID        NOT NULL,
+    received_date      DATE        NOT NULL,
+    original_quantity  BIGINT      NOT NULL,
+    remaining_quantity BIGINT      NOT NULL,
+    unit_cost          BIGINT      NOT NULL,
+    created_at         TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Consumption order for issues and the per-tenant valuation scan; fully
+-- consumed layers drop out of the index.
+CREATE INDEX idx_inventory_cost_layer_open
+    ON fis_inventory_cost_layer (tenant_id, item_id, received_date, created_at)
+    INCLUDE (remaining_quantity, unit_cost)
+    WHERE remaining_quantity > 0;
+
+-- Backfill from existing movements. Issues consume receipts oldest first, so
+-- a receipt keeps whatever part of it lies beyond the item's issued total.
+INSERT INTO fis_inventory_cost_layer
+    (id, tenant_id, item_id, movement_id, received_date, original_quantity, remaining_quantity, unit_cost, created_at)
+SELECT r.id, r.tenant_id, r.item_id, r.id, r.reference_date, r.quantity,
+       LEAST(r.quantity, r.cumulative_quantity - COALESCE(i.issued_quantity, 0)),
+       COALESCE(r.unit_cost, 0), r.created_at
+FROM (
+    SELECT m.*,
+           SUM(m.quantity) OVER (PARTITION BY m.item_id
+                                 ORDER BY m.reference_date, m.created_at, m.id) AS cumulative_quantity
+    FROM fis_inventory_movement m
+    WHERE m.type = 'RECEIPT'
+) r
+LEFT JOIN (
+    SELECT item_id, SUM(quantity) AS issued_quantity
+    FROM fis_inventory_movement
+    WHERE type = 'ISSUE'
+    GROUP BY item_id
+) i ON i.item_id = r.item_id
+WHERE r.cumulative_quantity - COALESCE(i.issued_quantity, 0) > 0;
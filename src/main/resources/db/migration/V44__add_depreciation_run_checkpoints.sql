@@ -0,0 +1,20 @@
+-- Chunked, resumable depreciation runs. The run row carries running totals;
+-- each category of the run keeps a keyset cursor so a crashed run resumes
+-- after its last committed chunk.
+ALTER TABLE fis_asset_depreciation_run
+    ADD COLUMN assets_processed BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE fis_asset_depreciation_checkpoint (
+    run_id        UUID    NOT NULL REFERENCES fis_asset_depreciation_run(id),
+    tenant_id     UUID    NOT NULL,
+    category_id   UUID    NOT NULL,
+    last_asset_id UUID,
+    completed     BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at    TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (run_id, category_id)
+);
+
+-- Keyset paging of a category's active assets.
+CREATE INDEX idx_fixed_asset_active_category
+    ON fis_fixed_asset (tenant_id, category_id, id)
+    WHERE status = 'ACTIVE';
@@ -0,0 +1,13 @@
+-- Shard placement of each tenant, kept on the default shard. A tenant is
+-- placed by the consistent-hash ring the first time it is routed and keeps
+-- that shard until it is migrated, so changing the shard topology never moves
+-- data implicitly. While a migration copies the tenant, status is MIGRATING
+-- and target_shard_name names the destination.
+CREATE TABLE fis_tenant_shard_placement (
+    tenant_id         UUID        NOT NULL PRIMARY KEY,
+    shard_name        VARCHAR(50) NOT NULL,
+    status            VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    target_shard_name VARCHAR(50),
+    updated_at        TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_tenant_shard_placement_status CHECK (status IN ('ACTIVE', 'MIGRATING'))
+);
@@ -0,0 +1,5 @@
+-- Instance that currently reserves gap-tolerant sequence blocks for the
+-- tenant and fiscal year, and until when; see JournalSequenceAllocator.
+ALTER TABLE fis_journal_sequence
+    ADD COLUMN block_owner VARCHAR(64),
+    ADD COLUMN block_owner_until TIMESTAMP WITH TIME ZONE;
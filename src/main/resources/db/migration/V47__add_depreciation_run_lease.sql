@@ -0,0 +1,5 @@
+-- A depreciation run is claimed by one worker at a time: the claim sets the
+-- run RUNNING until lease_until, every committed chunk extends it, and an
+-- expired lease lets another worker resume the run.
+ALTER TABLE fis_asset_depreciation_run
+    ADD COLUMN lease_until TIMESTAMP WITH TIME ZONE;
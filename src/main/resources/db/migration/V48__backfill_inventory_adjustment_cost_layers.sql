@@ -0,0 +1,36 @@
+-- V43 backfilled the FIFO cost layers from receipts and issues only, while
+-- movements also apply adjustments: one with a non-negative unit cost opens a
+-- layer, one with a negative unit cost consumes layers, and one without a unit
+-- cost touches no layer. Rebuild the layers of every item with adjustments by
+-- the same rules; the layers of other items are unaffected.
+DELETE FROM fis_inventory_cost_layer l
+WHERE EXISTS (
+    SELECT 1 FROM fis_inventory_movement m
+    WHERE m.item_id = l.item_id AND m.type = 'ADJUSTMENT'
+);
+
+-- Consumption takes the oldest layers first, so a layer keeps whatever part
+-- of it lies beyond the item's consumed total.
+INSERT INTO fis_inventory_cost_layer
+    (id, tenant_id, item_id, movement_id, received_date, original_quantity, remaining_quantity, unit_cost, created_at)
+SELECT r.id, r.tenant_id, r.item_id, r.id, r.reference_date, r.quantity,
+       LEAST(r.quantity, r.cumulative_quantity - COALESCE(c.consumed_quantity, 0)),
+       COALESCE(r.unit_cost, 0), r.created_at
+FROM (
+    SELECT m.*,
+           SUM(m.quantity) OVER (PARTITION BY m.item_id
+                                 ORDER BY m.reference_date, m.created_at, m.id) AS cumulative_quantity
+    FROM fis_inventory_movement m
+    WHERE (m.type = 'RECEIPT' OR (m.type = 'ADJUSTMENT' AND m.unit_cost >= 0))
+      AND EXISTS (
+          SELECT 1 FROM fis_inventory_movement a
+          WHERE a.item_id = m.item_id AND a.type = 'ADJUSTMENT'
+      )
+) r
+LEFT JOIN (
+    SELECT item_id, SUM(quantity) AS consumed_quantity
+    FROM fis_inventory_movement
+    WHERE type = 'ISSUE' OR (type = 'ADJUSTMENT' AND unit_cost < 0)
+    GROUP BY item_id
+) c ON c.item_id = r.item_id
+WHERE r.cumulative_quantity - COALESCE(c.consumed_quantity, 0) > 0;
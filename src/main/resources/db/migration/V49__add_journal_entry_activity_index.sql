@@ -0,0 +1,6 @@
+-- Cache warming ranks tenants by the entries they created in a recent window.
+-- Leading with created_at confines that scan to the window, and carrying
+-- tenant_id lets it be answered from the index alone.
+
+CREATE INDEX IF NOT EXISTS idx_je_created_at_tenant
+    ON fis_journal_entry (created_at, tenant_id);
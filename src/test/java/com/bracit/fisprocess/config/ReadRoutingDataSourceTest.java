@@ -0,0 +1,125 @@
+package com.bracit.fisprocess.config;
+
+import com.bracit.fisprocess.service.ReadConsistencyContext;
+import com.bracit.fisprocess.service.ReadToken;
+import com.bracit.fisprocess.service.Shard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReadRoutingDataSource Unit Tests")
+class ReadRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MS = 5000;
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replicaDataSource1;
+    @Mock
+    private DataSource replicaDataSource2;
+
+    private ReplicaSet.Replica replica1;
+    private ReplicaSet.Replica replica2;
+    private ShardDataSourceConfig.ReadRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        replica1 = new ReplicaSet.Replica("SHARD_1-replica-1", replicaDataSource1);
+        replica2 = new ReplicaSet.Replica("SHARD_1-replica-2", replicaDataSource2);
+        ReplicaSet replicaSet = new ReplicaSet(Shard.SHARD_1, primary, List.of(replica1, replica2));
+        routing = new ShardDataSourceConfig.ReadRoutingDataSource(replicaSet, MAX_LAG_MS);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadConsistencyContext.clear();
+    }
+
+    @Test
+    @DisplayName("should send read-write transactions to the primary")
+    void shouldRouteWritesToPrimary() {
+        replica1.update(100L, 0L);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        assertThat(routing.determineTargetDataSource()).isSameAs(primary);
+    }
+
+    @Test
+    @DisplayName("should balance read-only transactions across fresh replicas")
+    void shouldBalanceAcrossReplicas() {
+        replica1.update(100L, 0L);
+        replica2.update(100L, 200L);
+
+        Set<DataSource> targets = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            targets.add(routing.determineTargetDataSource());
+        }
+
+        assertThat(targets).containsExactlyInAnyOrder(replicaDataSource1, replicaDataSource2);
+    }
+
+    @Test
+    @DisplayName("should skip replicas beyond the lag bound or not yet measured")
+    void shouldSkipLaggingReplicas() {
+        replica1.update(100L, MAX_LAG_MS + 1);
+
+        assertThat(routing.determineTargetDataSource()).isSameAs(primary);
+
+        replica2.update(100L, 10L);
+        assertThat(routing.determineTargetDataSource()).isSameAs(replicaDataSource2);
+        assertThat(routing.determineTargetDataSource()).isSameAs(replicaDataSource2);
+    }
+
+    @Test
+    @DisplayName("should only use replicas that have replayed the read token")
+    void shouldHonourReadToken() {
+        replica1.update(100L, 0L);
+        replica2.update(250L, 0L);
+        ReadConsistencyContext.require(new ReadToken(Shard.SHARD_1, 200L));
+
+        assertThat(routing.determineTargetDataSource()).isSameAs(replicaDataSource2);
+        assertThat(routing.determineTargetDataSource()).isSameAs(replicaDataSource2);
+
+        ReadConsistencyContext.require(new ReadToken(Shard.SHARD_1, 300L));
+        assertThat(routing.determineTargetDataSource()).isSameAs(primary);
+    }
+
+    @Test
+    @DisplayName("should ignore read tokens of other shards")
+    void shouldIgnoreOtherShardToken() {
+        replica1.update(100L, 0L);
+        replica2.update(100L, 0L);
+        ReadConsistencyContext.require(new ReadToken(Shard.SHARD_2, 1_000L));
+
+        assertThat(routing.determineTargetDataSource()).isNotSameAs(primary);
+    }
+
+    @Test
+    @DisplayName("should round-trip read tokens in PostgreSQL LSN notation")
+    void shouldRoundTripReadToken() {
+        ReadToken token = ReadToken.parse("SHARD_2:1A/16B3748");
+
+        assertThat(token.shard()).isEqualTo(Shard.SHARD_2);
+        assertThat(token.lsn()).isEqualTo((0x1AL << 32) | 0x16B3748L);
+        assertThat(token).hasToString("SHARD_2:1A/16B3748");
+        assertThatThrownBy(() -> ReadToken.parse("SHARD_2:16B3748"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
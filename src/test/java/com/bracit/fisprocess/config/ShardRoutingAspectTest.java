@@ -4,7 +4,7 @@ import com.bracit.fisprocess.service.Shard;
 import com.bracit.fisprocess.service.ShardContextHolder;
 import com.bracit.fisprocess.service.ShardRouter;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,16 +30,28 @@ class ShardRoutingAspectTest {
     private ProceedingJoinPoint joinPoint;
 
     @Mock
-    private Signature signature;
+    private MethodSignature signature;
 
     private ShardRoutingAspect aspect;
 
     private static final UUID TENANT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID OTHER_TENANT_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    interface SampleService {
+
+        String byTenant(UUID tenantId, String period);
+
+        String byEntity(UUID entityId);
+    }
 
     @BeforeEach
     void setUp() {
         aspect = new ShardRoutingAspect(shardRouter);
         when(joinPoint.getSignature()).thenReturn(signature);
+        lenient().when(shardRouter.enterTenant(any(UUID.class))).thenAnswer(invocation ->
+                ShardContextHolder.enter(
+                        invocation.getArgument(0).equals(TENANT_ID) ? Shard.SHARD_1 : Shard.SHARD_2,
+                        invocation.getArgument(0)));
     }
 
     @AfterEach
@@ -46,79 +59,86 @@ class ShardRoutingAspectTest {
         ShardContextHolder.clear();
     }
 
-    @Test
-    @DisplayName("Should route by UUID tenantId")
-    void shouldRouteByTenantId() throws Throwable {
-        when(joinPoint.getArgs()).thenReturn(new Object[]{TENANT_ID});
-        when(joinPoint.proceed()).thenReturn("result");
-        when(shardRouter.getShardForTenant(TENANT_ID)).thenReturn(Shard.SHARD_1);
-
-        Object result = aspect.routeShardAuto(joinPoint);
-
-        assertThat(result).isEqualTo("result");
-        verify(shardRouter).getShardForTenant(TENANT_ID);
+    private void invoking(String methodName, Object... args) throws NoSuchMethodException {
+        Class<?>[] types = methodName.equals("byTenant")
+                ? new Class<?>[]{UUID.class, String.class}
+                : new Class<?>[]{UUID.class};
+        when(signature.getMethod()).thenReturn(SampleService.class.getMethod(methodName, types));
+        lenient().when(joinPoint.getArgs()).thenReturn(args);
     }
 
     @Test
-    @DisplayName("Should route by String accountCode")
-    void shouldRouteByAccountCodeString() throws Throwable {
-        when(joinPoint.getArgs()).thenReturn(new Object[]{"1100"});
-        when(joinPoint.proceed()).thenReturn("result");
-        when(shardRouter.getShardForAccount("1100")).thenReturn(Shard.SHARD_1);
+    @DisplayName("Should bind the tenant's shard for the unit of work and release it afterwards")
+    void shouldBindShardForUnitOfWork() throws Throwable {
+        invoking("byTenant", TENANT_ID, "2026-01");
+        when(joinPoint.proceed()).thenAnswer(invocation -> ShardContextHolder.getCurrentShard());
 
-        Object result = aspect.routeShardAuto(joinPoint);
+        Object shardDuringCall = aspect.routeUnitOfWork(joinPoint);
 
-        assertThat(result).isEqualTo("result");
-        verify(shardRouter).getShardForAccount("1100");
+        assertThat(shardDuringCall).isEqualTo(Shard.SHARD_1);
+        assertThat(ShardContextHolder.getCurrentShard()).isNull();
+        verify(shardRouter).enterTenant(TENANT_ID);
     }
 
     @Test
-    @DisplayName("Should route by Integer accountCode")
-    void shouldRouteByAccountCodeInt() throws Throwable {
-        when(joinPoint.getArgs()).thenReturn(new Object[]{2500});
+    @DisplayName("Should not resolve the shard again for a nested unit of work of the same tenant")
+    void shouldReuseShardForSameTenant() throws Throwable {
+        invoking("byTenant", TENANT_ID, "2026-01");
         when(joinPoint.proceed()).thenReturn("result");
-        when(shardRouter.getShardForAccount(2500)).thenReturn(Shard.SHARD_2);
 
-        Object result = aspect.routeShardAuto(joinPoint);
-
-        assertThat(result).isEqualTo("result");
-        verify(shardRouter).getShardForAccount(2500);
+        try (ShardContextHolder.Scope ignored = ShardContextHolder.enter(Shard.SHARD_3, TENANT_ID)) {
+            assertThat(aspect.routeUnitOfWork(joinPoint)).isEqualTo("result");
+            assertThat(ShardContextHolder.getCurrentShard()).isEqualTo(Shard.SHARD_3);
+        }
+        verify(shardRouter, never()).enterTenant(any());
     }
 
     @Test
-    @DisplayName("Should clear context after repository call")
-    void shouldClearContextAfterCall() throws Throwable {
-        when(joinPoint.getArgs()).thenReturn(new Object[]{TENANT_ID});
-        when(joinPoint.proceed()).thenReturn("result");
-        when(shardRouter.getShardForTenant(TENANT_ID)).thenReturn(Shard.SHARD_1);
+    @DisplayName("Should restore the caller's shard after a nested unit of work of another tenant")
+    void shouldRestoreCallerShardAfterNestedTenant() throws Throwable {
+        invoking("byTenant", OTHER_TENANT_ID, "2026-01");
+        when(joinPoint.proceed()).thenAnswer(invocation -> ShardContextHolder.getCurrentShard());
+
+        try (ShardContextHolder.Scope ignored = ShardContextHolder.enter(Shard.SHARD_1, TENANT_ID)) {
+            assertThat(aspect.routeUnitOfWork(joinPoint)).isEqualTo(Shard.SHARD_2);
+            assertThat(ShardContextHolder.getCurrentShard()).isEqualTo(Shard.SHARD_1);
+            assertThat(ShardContextHolder.getCurrentTenantId()).isEqualTo(TENANT_ID);
+        }
+        assertThat(ShardContextHolder.getCurrentShard()).isNull();
+    }
 
-        aspect.routeShardAuto(joinPoint);
+    @Test
+    @DisplayName("Should release the shard when the unit of work fails")
+    void shouldReleaseShardOnFailure() throws Throwable {
+        invoking("byTenant", TENANT_ID, "2026-01");
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
 
+        assertThatThrownBy(() -> aspect.routeUnitOfWork(joinPoint))
+                .isInstanceOf(IllegalStateException.class);
         assertThat(ShardContextHolder.getCurrentShard()).isNull();
     }
 
     @Test
-    @DisplayName("Should not route when no args")
-    void shouldNotRouteWhenNoArgs() throws Throwable {
-        when(joinPoint.getArgs()).thenReturn(new Object[]{});
+    @DisplayName("Should not route a method without a tenantId parameter")
+    void shouldNotRouteWithoutTenantParameter() throws Throwable {
+        invoking("byEntity", TENANT_ID);
         when(joinPoint.proceed()).thenReturn("result");
 
-        Object result = aspect.routeShardAuto(joinPoint);
+        Object result = aspect.routeUnitOfWork(joinPoint);
 
         assertThat(result).isEqualTo("result");
-        verify(shardRouter, never()).getShardForTenant(any());
-        verify(shardRouter, never()).getShardForAccount(anyString());
+        verify(shardRouter, never()).enterTenant(any());
     }
 
     @Test
-    @DisplayName("Should not route when first arg is null")
-    void shouldNotRouteWhenFirstArgNull() throws Throwable {
-        when(joinPoint.getArgs()).thenReturn(new Object[]{null});
+    @DisplayName("Should not route when the tenantId is null")
+    void shouldNotRouteWhenTenantIdNull() throws Throwable {
+        invoking("byTenant", null, "2026-01");
         when(joinPoint.proceed()).thenReturn("result");
 
-        Object result = aspect.routeShardAuto(joinPoint);
+        Object result = aspect.routeUnitOfWork(joinPoint);
 
         assertThat(result).isEqualTo("result");
-        verify(shardRouter, never()).getShardForTenant(any());
+        verify(shardRouter, never()).enterTenant(any());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package com.bracit.fisprocess.config;
+
+import com.bracit.fisprocess.config.TwoTierCacheManager.LocalCacheSpec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("TwoTierCacheManager Unit Tests")
+class TwoTierCacheManagerTest {
+
+    @Mock
+    private RedisCacheManager remoteCacheManager;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private ConcurrentMapCache remoteAccounts;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteAccounts = new ConcurrentMapCache(CacheConfig.CACHE_ACCOUNTS);
+        when(remoteCacheManager.getCacheNames()).thenReturn(List.of());
+        when(remoteCacheManager.getCache(CacheConfig.CACHE_ACCOUNTS)).thenReturn(remoteAccounts);
+        when(remoteCacheManager.getCache(CacheConfig.CACHE_REPORTS))
+                .thenReturn(new ConcurrentMapCache(CacheConfig.CACHE_REPORTS));
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoTierCacheManager(remoteCacheManager,
+                Map.of(CacheConfig.CACHE_ACCOUNTS, new LocalCacheSpec(100, Duration.ofMinutes(5))),
+                redisTemplate, meterRegistry);
+        cacheManager.afterPropertiesSet();
+    }
+
+    private Cache accounts() {
+        return cacheManager.getCache(CacheConfig.CACHE_ACCOUNTS);
+    }
+
+    private double requests(String tier, String result) {
+        return meterRegistry.counter("fis.cache.requests",
+                "cache", CacheConfig.CACHE_ACCOUNTS, "tier", tier, "result", result).count();
+    }
+
+    private String publishedMessage() {
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(TwoTierCacheManager.INVALIDATION_CHANNEL), message.capture());
+        return message.getValue();
+    }
+
+    @Test
+    @DisplayName("should serve caches without a local spec from Redis alone")
+    void shouldLeaveUnlayeredCachesOnRedis() {
+        assertThat(cacheManager.getCache(CacheConfig.CACHE_REPORTS)).isInstanceOf(ConcurrentMapCache.class);
+        assertThat(accounts()).isInstanceOf(TwoTierCache.class);
+    }
+
+    @Nested
+    @DisplayName("reads")
+    class ReadTests {
+
+        @Test
+        @DisplayName("should populate the local tier from Redis and then serve it locally")
+        void shouldPromoteRemoteHits() {
+            remoteAccounts.put("t1:1000", "Cash");
+
+            assertThat(accounts().get("t1:1000", String.class)).isEqualTo("Cash");
+            remoteAccounts.evict("t1:1000");
+            assertThat(accounts().get("t1:1000", String.class)).isEqualTo("Cash");
+
+            assertThat(requests("l1", "miss")).isEqualTo(1.0);
+            assertThat(requests("l2", "hit")).isEqualTo(1.0);
+            assertThat(requests("l1", "hit")).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should count a miss in both tiers and load through Redis")
+        void shouldLoadOnMiss() {
+            assertThat(accounts().get("t1:2000", () -> "Bank")).isEqualTo("Bank");
+
+            assertThat(remoteAccounts.get("t1:2000", String.class)).isEqualTo("Bank");
+            assertThat(requests("l2", "miss")).isEqualTo(1.0);
+            assertThat(accounts().get("t1:2000", String.class)).isEqualTo("Bank");
+            assertThat(requests("l1", "hit")).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("invalidation")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("should broadcast evictions with this instance's id")
+        void shouldBroadcastEviction() {
+            accounts().evict("t1:1000");
+
+            assertThat(publishedMessage()).endsWith("|E|accounts|t1:1000");
+        }
+
+        @Test
+        @DisplayName("should drop a local entry when another instance evicts it")
+        void shouldEvictOnRemoteMessage() {
+            accounts().put("t1:1000", "Cash");
+            remoteAccounts.put("t1:1000", "Cash (renamed)");
+
+            cacheManager.onInvalidation("other-instance|E|accounts|t1:1000");
+
+            assertThat(accounts().get("t1:1000", String.class)).isEqualTo("Cash (renamed)");
+        }
+
+        @Test
+        @DisplayName("should clear the local tier when another instance clears the cache")
+        void shouldClearOnRemoteMessage() {
+            accounts().put("t1:1000", "Cash");
+            remoteAccounts.clear();
+
+            cacheManager.onInvalidation("other-instance|C|accounts|");
+
+            assertThat(accounts().get("t1:1000")).isNull();
+        }
+
+        @Test
+        @DisplayName("should ignore its own broadcasts")
+        void shouldIgnoreOwnMessages() {
+            accounts().put("t1:1000", "Cash");
+            remoteAccounts.clear();
+
+            cacheManager.onInvalidation(publishedMessage());
+
+            assertThat(accounts().get("t1:1000", String.class)).isEqualTo("Cash");
+        }
+
+        @Test
+        @DisplayName("should keep working when the broadcast fails")
+        void shouldTolerateBroadcastFailure() {
+            doThrow(new RuntimeException("redis unavailable")).when(redisTemplate).convertAndSend(any(), any());
+
+            accounts().put("t1:1000", "Cash");
+
+            assertThat(accounts().get("t1:1000", String.class)).isEqualTo("Cash");
+        }
+    }
+}
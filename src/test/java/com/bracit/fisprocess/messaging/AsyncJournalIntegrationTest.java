@@ -65,7 +65,7 @@ class AsyncJournalIntegrationTest extends AbstractIntegrationTest {
                 .build();
 
         AsyncJobResponseDto response = asyncJournalService.submitAsyncJournalEntry(
-                tenantId, request, null, null);
+                tenantId, request, null, null).join();
 
         assertThat(response).isNotNull();
         assertThat(response.getTrackingId()).isNotNull();
@@ -107,7 +107,7 @@ class AsyncJournalIntegrationTest extends AbstractIntegrationTest {
                 .build();
 
         AsyncJobResponseDto initialResponse = asyncJournalService.submitAsyncJournalEntry(
-                tenantId, request, null, null);
+                tenantId, request, null, null).join();
 
         UUID trackingId = initialResponse.getTrackingId();
 
@@ -145,7 +145,7 @@ class AsyncJournalIntegrationTest extends AbstractIntegrationTest {
                 ))
                 .build();
 
-        asyncJournalService.submitAsyncJournalEntry(tenantId, request1, null, null);
+        asyncJournalService.submitAsyncJournalEntry(tenantId, request1, null, null).join();
 
         try {
             Thread.sleep(1000);
@@ -173,7 +173,7 @@ class AsyncJournalIntegrationTest extends AbstractIntegrationTest {
                 .build();
 
         AsyncJobResponseDto response2 = asyncJournalService.submitAsyncJournalEntry(
-                tenantId, request2, null, null);
+                tenantId, request2, null, null).join();
 
         await()
                 .atMost(15, TimeUnit.SECONDS)
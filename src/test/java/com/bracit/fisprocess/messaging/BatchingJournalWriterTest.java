@@ -0,0 +1,263 @@
+package com.bracit.fisprocess.messaging;
+
+import com.bracit.fisprocess.domain.entity.BusinessEntity;
+import com.bracit.fisprocess.domain.entity.JournalEntry;
+import com.bracit.fisprocess.domain.enums.JournalStatus;
+import com.bracit.fisprocess.domain.model.DraftJournalEntry;
+import com.bracit.fisprocess.dto.request.CreateJournalEntryRequestDto;
+import com.bracit.fisprocess.dto.request.JournalLineRequestDto;
+import com.bracit.fisprocess.exception.TenantShardMigrationInProgressException;
+import com.bracit.fisprocess.repository.BusinessEntityRepository;
+import com.bracit.fisprocess.service.AsyncJobStatusService;
+import com.bracit.fisprocess.service.LedgerPersistenceService;
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardContextHolder;
+import com.bracit.fisprocess.service.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("BatchingJournalWriter Unit Tests")
+class BatchingJournalWriterTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    @Mock
+    private JournalWriteMessageMapper messageMapper;
+    @Mock
+    private BusinessEntityRepository businessEntityRepository;
+    @Mock
+    private LedgerPersistenceService ledgerPersistenceService;
+    @Mock
+    private AsyncJobStatusService asyncJobStatusService;
+    @Mock
+    private ShardRouter shardRouter;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BatchingJournalWriter writer;
+
+    private final AtomicInteger persisted = new AtomicInteger();
+    private final Map<UUID, String> flushThreads = new ConcurrentHashMap<>();
+    private final Set<UUID> completed = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new BatchingJournalWriter(messageMapper, businessEntityRepository, ledgerPersistenceService,
+                asyncJobStatusService, shardRouter, meterRegistry);
+        ReflectionTestUtils.setField(writer, "batchEnabled", true);
+        ReflectionTestUtils.setField(writer, "maxBatchSize", 10);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 5L);
+        ReflectionTestUtils.setField(writer, "bucketCapacity", 16);
+        ReflectionTestUtils.setField(writer, "flushWorkerCount", 2);
+        ReflectionTestUtils.setField(writer, "offerTimeoutMs", 20L);
+
+        when(messageMapper.toDraft(any())).thenAnswer(invocation -> new DraftJournalEntry());
+        when(businessEntityRepository.findById(any())).thenAnswer(invocation -> Optional.of(
+                BusinessEntity.builder().tenantId(invocation.getArgument(0)).baseCurrency("USD").build()));
+        when(shardRouter.enterTenant(any())).thenAnswer(
+                invocation -> ShardContextHolder.enter(Shard.SHARD_1, invocation.getArgument(0)));
+        when(ledgerPersistenceService.persistBatch(anyList())).thenAnswer(invocation -> persist(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            Map<UUID, ?> results = invocation.getArgument(0);
+            completed.addAll(results.keySet());
+            return null;
+        }).when(asyncJobStatusService).markAllCompleted(anyMap());
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+    }
+
+    @Test
+    @DisplayName("should reject a message once the tenant's bucket stays full past the offer timeout")
+    void shouldRejectWhenBucketStaysFull() {
+        ReflectionTestUtils.setField(writer, "bucketCapacity", 2);
+        doThrow(new TenantShardMigrationInProgressException(TENANT_ID)).when(shardRouter).enterTenant(TENANT_ID);
+        writer.initialize();
+
+        writer.submit(message(TENANT_ID));
+        writer.submit(message(TENANT_ID));
+
+        assertThatThrownBy(() -> writer.submit(message(TENANT_ID)))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.counter("fis.batch.backpressure").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("fis.batch.rejected").count()).isEqualTo(1.0);
+        verify(ledgerPersistenceService, never()).persistBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("should flush each tenant on the worker its id hashes to")
+    void shouldShardTenantsAcrossWorkers() {
+        UUID first = tenantOnWorker(0);
+        UUID second = tenantOnWorker(1);
+        writer.initialize();
+
+        writer.submit(message(first));
+        writer.submit(message(second));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> persisted.get() == 2);
+        assertThat(flushThreads).containsEntry(first, "batch-journal-flush-0")
+                .containsEntry(second, "batch-journal-flush-1");
+    }
+
+    @Test
+    @DisplayName("should keep a tenant's messages queued while its shard move is in progress")
+    void shouldDeferTenantBeingMigrated() {
+        doThrow(new TenantShardMigrationInProgressException(TENANT_ID))
+                .doThrow(new TenantShardMigrationInProgressException(TENANT_ID))
+                .doAnswer(invocation -> ShardContextHolder.enter(Shard.SHARD_1, TENANT_ID))
+                .when(shardRouter).enterTenant(TENANT_ID);
+        writer.initialize();
+
+        JournalWriteMessage message = message(TENANT_ID);
+        writer.submit(message);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> completed.contains(message.getTrackingId()));
+        assertThat(meterRegistry.counter("fis.batch.route.deferred").count()).isEqualTo(2.0);
+        verify(asyncJobStatusService, never()).markAllFailed(anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should retry a drained batch that a shard move fenced off instead of failing it")
+    void shouldRetryBatchFencedOffAfterDrain() {
+        doThrow(new TenantShardMigrationInProgressException(TENANT_ID))
+                .doAnswer(invocation -> persist(invocation.getArgument(0)))
+                .when(ledgerPersistenceService).persistBatch(anyList());
+        writer.initialize();
+
+        JournalWriteMessage message = message(TENANT_ID);
+        writer.submit(message);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> completed.contains(message.getTrackingId()));
+        assertThat(persisted.get()).isEqualTo(1);
+        verify(asyncJobStatusService, never()).markAllFailed(anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should flush what is still queued before shutdown returns")
+    void shouldFlushQueuedMessagesOnShutdown() {
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 60_000L);
+        writer.initialize();
+        List<JournalWriteMessage> messages = List.of(message(TENANT_ID), message(TENANT_ID), message(TENANT_ID));
+        messages.forEach(writer::submit);
+
+        writer.shutdown();
+
+        assertThat(persisted.get()).isEqualTo(3);
+        assertThat(completed).containsExactlyInAnyOrderElementsOf(
+                messages.stream().map(JournalWriteMessage::getTrackingId).toList());
+        assertThatThrownBy(() -> writer.submit(message(TENANT_ID)))
+                .isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    @DisplayName("should leave a worker stuck in a flush its buckets instead of draining them concurrently")
+    void shouldNotDrainBucketsOfWorkerThatDidNotStop() throws Exception {
+        ReflectionTestUtils.setField(writer, "flushWorkerCount", 1);
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushing.countDown();
+            release.await(30, TimeUnit.SECONDS);
+            return persist(invocation.getArgument(0));
+        }).when(ledgerPersistenceService).persistBatch(anyList());
+        writer.initialize();
+        writer.submit(message(TENANT_ID));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.submit(message(TENANT_ID));
+
+        try {
+            writer.shutdown();
+
+            assertThat(meterRegistry.counter("fis.batch.shutdown.unflushed").count()).isEqualTo(1.0);
+            assertThat(persisted.get()).isZero();
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("should count the messages of tenants being migrated that shutdown leaves unflushed")
+    void shouldCountDeferredMessagesOnShutdown() {
+        doThrow(new TenantShardMigrationInProgressException(TENANT_ID)).when(shardRouter).enterTenant(TENANT_ID);
+        writer.initialize();
+        writer.submit(message(TENANT_ID));
+        writer.submit(message(TENANT_ID));
+
+        writer.shutdown();
+
+        assertThat(meterRegistry.counter("fis.batch.shutdown.unflushed").count()).isEqualTo(2.0);
+        verify(asyncJobStatusService, never()).markAllFailed(anyList(), any(), any());
+    }
+
+    private List<JournalEntry> persist(List<DraftJournalEntry> drafts) {
+        persisted.addAndGet(drafts.size());
+        flushThreads.put(drafts.getFirst().getTenantId(), Thread.currentThread().getName());
+        return drafts.stream()
+                .map(draft -> JournalEntry.builder()
+                        .id(UUID.randomUUID())
+                        .tenantId(draft.getTenantId())
+                        .status(JournalStatus.POSTED)
+                        .build())
+                .toList();
+    }
+
+    private static UUID tenantOnWorker(int worker) {
+        UUID tenantId;
+        do {
+            tenantId = UUID.randomUUID();
+        } while (Math.floorMod(tenantId.hashCode(), 2) != worker);
+        return tenantId;
+    }
+
+    private static JournalWriteMessage message(UUID tenantId) {
+        return JournalWriteMessage.builder()
+                .trackingId(UUID.randomUUID())
+                .tenantId(tenantId)
+                .request(CreateJournalEntryRequestDto.builder()
+                        .postedDate(LocalDate.of(2026, 4, 13))
+                        .lines(List.of(JournalLineRequestDto.builder()
+                                .accountCode("1000")
+                                .amountCents(100L)
+                                .build()))
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.bracit.fisprocess.messaging;
+
+import com.bracit.fisprocess.config.RabbitMqTopology;
+import com.bracit.fisprocess.domain.entity.BusinessEntity;
+import com.bracit.fisprocess.dto.request.CreateJournalEntryRequestDto;
+import com.bracit.fisprocess.exception.JournalSequenceBlockOwnedException;
+import com.bracit.fisprocess.repository.BusinessEntityRepository;
+import com.bracit.fisprocess.service.AsyncJobStatusService;
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardContextHolder;
+import com.bracit.fisprocess.service.ShardRouter;
+import com.bracit.fisprocess.service.impl.JournalPostingEngine;
+import com.rabbitmq.client.Channel;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.modelmapper.ModelMapper;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("JournalWriteWorker Unit Tests")
+class JournalWriteWorkerTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+    private static final long DELIVERY_TAG = 7L;
+
+    @Mock
+    private JournalPostingEngine journalPostingEngine;
+    @Mock
+    private AsyncJobStatusService asyncJobStatusService;
+    @Mock
+    private BusinessEntityRepository businessEntityRepository;
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private ShardRouter shardRouter;
+    @Mock
+    private Channel channel;
+
+    private JournalWriteWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new JournalWriteWorker(journalPostingEngine, asyncJobStatusService, businessEntityRepository,
+                new ModelMapper(), JsonMapper.builder().build(), rabbitTemplate, CircuitBreakerRegistry.ofDefaults(),
+                new SimpleMeterRegistry(), shardRouter);
+        when(shardRouter.getShardForTenant(TENANT_ID)).thenReturn(Shard.SHARD_1);
+        when(shardRouter.enterTenant(TENANT_ID)).thenAnswer(inv -> ShardContextHolder.enter(Shard.SHARD_1, TENANT_ID));
+        when(businessEntityRepository.findById(TENANT_ID)).thenReturn(Optional.of(
+                BusinessEntity.builder().tenantId(TENANT_ID).baseCurrency("USD").build()));
+        when(journalPostingEngine.post(eq(TENANT_ID), any(), any(), any()))
+                .thenThrow(new JournalSequenceBlockOwnedException(TENANT_ID, 2026));
+    }
+
+    @Test
+    @DisplayName("should delay a retryable failure without failing the job or replying")
+    void shouldDelayRetryableFailure() throws Exception {
+        JournalWriteMessage message = message(0);
+
+        worker.consume(message, channel, DELIVERY_TAG);
+
+        verify(rabbitTemplate).convertAndSend("", RabbitMqTopology.JOURNAL_WRITE_RETRY_QUEUE, message);
+        verify(channel).basicAck(DELIVERY_TAG, false);
+        verify(asyncJobStatusService, never()).markFailed(any(), anyString(), any());
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), any(JournalWriteReply.class));
+        assertThat(message.getRedeliveries()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should fail the job and dead-letter once the redeliveries are used up")
+    void shouldFailAfterLastRedelivery() throws Exception {
+        JournalWriteMessage message = message(60);
+
+        worker.consume(message, channel, DELIVERY_TAG);
+
+        verify(asyncJobStatusService).markFailed(eq(message.getTrackingId()), anyString(),
+                eq("JournalSequenceBlockOwnedException"));
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMqTopology.JOURNAL_WRITE_REPLY_QUEUE),
+                any(JournalWriteReply.class));
+        verify(channel).basicNack(DELIVERY_TAG, false, false);
+    }
+
+    private static JournalWriteMessage message(int redeliveries) {
+        return JournalWriteMessage.builder()
+                .trackingId(UUID.randomUUID())
+                .tenantId(TENANT_ID)
+                .request(CreateJournalEntryRequestDto.builder()
+                        .postedDate(LocalDate.of(2026, 4, 13))
+                        .build())
+                .redeliveries(redeliveries)
+                .build();
+    }
+}
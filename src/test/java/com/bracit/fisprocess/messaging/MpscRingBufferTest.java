@@ -0,0 +1,117 @@
+package com.bracit.fisprocess.messaging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MpscRingBuffer Tests")
+class MpscRingBufferTest {
+
+    @Test
+    @DisplayName("should round capacity up to a power of two")
+    void shouldRoundCapacity() {
+        assertThat(new MpscRingBuffer<String>(1).capacity()).isEqualTo(1);
+        assertThat(new MpscRingBuffer<String>(5).capacity()).isEqualTo(8);
+        assertThat(new MpscRingBuffer<String>(64).capacity()).isEqualTo(64);
+        assertThatThrownBy(() -> new MpscRingBuffer<String>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should reject offers when full and accept again after a drain")
+    void shouldApplyBackpressureWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        Integer[] target = new Integer[2];
+        assertThat(buffer.drainTo(target, 2)).isEqualTo(2);
+        assertThat(target).containsExactly(0, 1);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.offer(5)).isTrue();
+        assertThat(buffer.offer(6)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should drain in FIFO order across wrap-around")
+    void shouldDrainInOrderAcrossWrapAround() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        Integer[] target = new Integer[4];
+        List<Integer> drained = new ArrayList<>();
+
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3; i++) {
+                buffer.offer(round * 3 + i);
+            }
+            int count = buffer.drainTo(target, target.length);
+            for (int i = 0; i < count; i++) {
+                drained.add(target[i]);
+            }
+        }
+
+        assertThat(drained).hasSize(15).isSorted();
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should deliver every element exactly once under concurrent producers")
+    void shouldDeliverEveryElementOnceUnderContention() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(256);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            pool.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    long[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        Map<Long, Long> nextExpected = new HashMap<>();
+        long[][] target = new long[64][];
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            int count = buffer.drainTo(target, target.length);
+            if (count == 0) {
+                Thread.yield();
+            }
+            for (int i = 0; i < count; i++) {
+                long producer = target[i][0];
+                long expected = nextExpected.getOrDefault(producer, 0L);
+                assertThat(target[i][1]).isEqualTo(expected);
+                nextExpected.put(producer, expected + 1);
+            }
+            received += count;
+        }
+        pool.shutdown();
+
+        assertThat(received).isEqualTo(producers * perProducer);
+        assertThat(nextExpected).hasSize(producers).allSatisfy((producer, next) -> assertThat(next).isEqualTo((long) perProducer));
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+}
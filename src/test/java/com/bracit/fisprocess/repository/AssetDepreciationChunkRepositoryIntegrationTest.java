@@ -0,0 +1,102 @@
+package com.bracit.fisprocess.repository;
+
+import com.bracit.fisprocess.TestcontainersIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("AssetDepreciationChunkRepository Integration Tests")
+class AssetDepreciationChunkRepositoryIntegrationTest extends TestcontainersIntegrationTest {
+
+    private static final int LEASE_SECONDS = 300;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AssetDepreciationChunkRepository chunkRepository;
+
+    private UUID tenantId;
+    private UUID runId;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        runId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO fis_asset_depreciation_run
+                    (id, tenant_id, period, run_date, total_depreciation, status, created_by, created_at)
+                VALUES (?, ?, '2026-04', ?, 0, 'PENDING', 'lease-test', ?)
+                """, runId, tenantId, LocalDate.of(2026, 4, 30), OffsetDateTime.now());
+    }
+
+    @Test
+    @DisplayName("should claim a pending run under a lease of the configured length")
+    void shouldClaimPendingRunUnderLease() {
+        assertThat(chunkRepository.claimRun(tenantId, runId, LEASE_SECONDS)).isTrue();
+
+        assertThat(status()).isEqualTo("RUNNING");
+        assertThat(leaseSecondsLeft()).isBetween(LEASE_SECONDS - 5.0, (double) LEASE_SECONDS);
+    }
+
+    @Test
+    @DisplayName("should refuse a running run until its lease has run out")
+    void shouldTakeOverOnlyExpiredLease() {
+        assertThat(chunkRepository.claimRun(tenantId, runId, LEASE_SECONDS)).isTrue();
+        assertThat(chunkRepository.claimRun(tenantId, runId, LEASE_SECONDS)).isFalse();
+
+        jdbcTemplate.update("UPDATE fis_asset_depreciation_run SET lease_until = NOW() - INTERVAL '1 second' WHERE id = ?",
+                runId);
+
+        assertThat(chunkRepository.claimRun(tenantId, runId, LEASE_SECONDS)).isTrue();
+        assertThat(leaseSecondsLeft()).isGreaterThan(LEASE_SECONDS - 5.0);
+    }
+
+    @Test
+    @DisplayName("should extend the lease with every checkpoint")
+    void shouldExtendLeaseOnCheckpoint() {
+        assertThat(chunkRepository.claimRun(tenantId, runId, 1)).isTrue();
+
+        chunkRepository.advanceCheckpoint(tenantId, runId, UUID.randomUUID(), null, false, 3, 450L, LEASE_SECONDS);
+
+        assertThat(leaseSecondsLeft()).isGreaterThan(LEASE_SECONDS - 5.0);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT total_depreciation FROM fis_asset_depreciation_run WHERE id = ?", Long.class, runId))
+                .isEqualTo(450L);
+    }
+
+    @Test
+    @DisplayName("should release a failed run so it can be claimed again at once")
+    void shouldReleaseFailedRun() {
+        assertThat(chunkRepository.claimRun(tenantId, runId, LEASE_SECONDS)).isTrue();
+
+        chunkRepository.releaseRun(tenantId, runId);
+
+        assertThat(status()).isEqualTo("FAILED");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT lease_until IS NULL FROM fis_asset_depreciation_run WHERE id = ?", Boolean.class, runId))
+                .isTrue();
+        assertThat(chunkRepository.claimRun(tenantId, runId, LEASE_SECONDS)).isTrue();
+    }
+
+    private String status() {
+        return jdbcTemplate.queryForObject(
+                "SELECT status FROM fis_asset_depreciation_run WHERE id = ?", String.class, runId);
+    }
+
+    private double leaseSecondsLeft() {
+        Double seconds = jdbcTemplate.queryForObject(
+                "SELECT EXTRACT(EPOCH FROM lease_until - NOW())::float8 FROM fis_asset_depreciation_run WHERE id = ?",
+                Double.class, runId);
+        return seconds != null ? seconds : 0;
+    }
+}
@@ -0,0 +1,146 @@
+package com.bracit.fisprocess.repository;
+
+import com.bracit.fisprocess.TestcontainersIntegrationTest;
+import com.bracit.fisprocess.domain.entity.Account;
+import com.bracit.fisprocess.domain.entity.JournalEntry;
+import com.bracit.fisprocess.domain.entity.JournalLine;
+import com.bracit.fisprocess.domain.enums.JournalStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@DisplayName("BatchJournalRepository Integration Tests")
+class BatchJournalRepositoryIntegrationTest extends TestcontainersIntegrationTest {
+
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2026, 4, 13, 9, 30, 15, 123_456_000,
+            ZoneOffset.UTC);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BatchJournalRepository batchJournalRepository;
+
+    private UUID tenantId;
+    private Account cash;
+    private Account revenue;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO fis_business_entity (tenant_id, name, base_currency, is_active, created_at, updated_at)
+                VALUES (?, ?, 'USD', TRUE, ?, ?)
+                """, tenantId, "Binary Copy Tenant", OffsetDateTime.now(), OffsetDateTime.now());
+        cash = insertAccount("CASH", "ASSET");
+        revenue = insertAccount("REVENUE", "REVENUE");
+    }
+
+    @Test
+    @DisplayName("should copy entries and lines in the binary format the server reads back unchanged")
+    void shouldRoundTripBinaryCopy() {
+        JournalEntry entry = entry(1L, "Café sale № 1");
+        entry.getLines().add(line(entry, cash, 12_345L, false, Map.of("region", "EU", "channel", "web")));
+        entry.getLines().add(line(entry, revenue, 12_345L, true, null));
+
+        batchJournalRepository.copyBinaryFromEntries(List.of(entry));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("""
+                SELECT description, status, exchange_rate, created_at, fiscal_year, sequence_number, auto_reverse
+                FROM fis_journal_entry WHERE journal_entry_id = ?
+                """, entry.getId());
+        assertThat(row.get("description")).isEqualTo("Café sale № 1");
+        assertThat(row.get("status")).isEqualTo("POSTED");
+        assertThat((BigDecimal) row.get("exchange_rate")).isEqualByComparingTo("1.08345");
+        assertThat(((Timestamp) row.get("created_at")).toInstant()).isEqualTo(CREATED_AT.toInstant());
+        assertThat(row.get("fiscal_year")).isEqualTo(2026);
+        assertThat(row.get("sequence_number")).isEqualTo(1L);
+        assertThat(row.get("auto_reverse")).isEqualTo(false);
+
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT dimensions ->> 'region' FROM fis_journal_line
+                WHERE journal_entry_id = ? AND account_id = ?
+                """, String.class, entry.getId(), cash.getAccountId())).isEqualTo("EU");
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT SUM(CASE WHEN is_credit THEN -base_amount ELSE base_amount END)
+                FROM fis_journal_line WHERE journal_entry_id = ?
+                """, Long.class, entry.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("should cancel an interrupted copy so the transaction rolls back cleanly")
+    void shouldCancelInterruptedCopy() {
+        JournalEntry entry = entry(2L, "Interrupted");
+        entry.getLines().add(line(entry, cash, 500L, false, null));
+        // No account: encoding this line fails while the line COPY is in progress
+        entry.getLines().add(line(entry, null, 500L, true, null));
+
+        assertThatThrownBy(() -> batchJournalRepository.copyBinaryFromEntries(List.of(entry)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Binary COPY batch insert failed");
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM fis_journal_entry WHERE tenant_id = ?", Integer.class, tenantId)).isZero();
+    }
+
+    private JournalEntry entry(long sequenceNumber, String description) {
+        return JournalEntry.builder()
+                .id(UUID.randomUUID())
+                .tenantId(tenantId)
+                .eventId("COPY-" + UUID.randomUUID())
+                .postedDate(LocalDate.of(2026, 4, 13))
+                .effectiveDate(LocalDate.of(2026, 4, 13))
+                .transactionDate(LocalDate.of(2026, 4, 12))
+                .description(description)
+                .status(JournalStatus.POSTED)
+                .transactionCurrency("EUR")
+                .baseCurrency("USD")
+                .exchangeRate(new BigDecimal("1.08345"))
+                .createdBy("copy-test")
+                .createdAt(CREATED_AT)
+                .previousHash("0")
+                .hash("hash-" + sequenceNumber)
+                .fiscalYear(2026)
+                .sequenceNumber(sequenceNumber)
+                .build();
+    }
+
+    private static JournalLine line(JournalEntry entry, Account account, long amount, boolean credit,
+            Map<String, String> dimensions) {
+        return JournalLine.builder()
+                .journalEntry(entry)
+                .account(account)
+                .amount(amount)
+                .baseAmount(amount)
+                .isCredit(credit)
+                .dimensions(dimensions)
+                .build();
+    }
+
+    private Account insertAccount(String code, String type) {
+        UUID accountId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO fis_account (
+                    account_id, tenant_id, code, name, account_type, currency_code,
+                    current_balance, is_active, is_contra, created_at, updated_at
+                )
+                VALUES (?, ?, ?, ?, ?, 'USD', 0, TRUE, FALSE, ?, ?)
+                """, accountId, tenantId, code, code, type, OffsetDateTime.now(), OffsetDateTime.now());
+        return Account.builder().accountId(accountId).build();
+    }
+}
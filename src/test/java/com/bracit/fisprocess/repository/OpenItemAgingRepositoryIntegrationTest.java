@@ -0,0 +1,186 @@
+package com.bracit.fisprocess.repository;
+
+import com.bracit.fisprocess.TestcontainersIntegrationTest;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository.BucketTotal;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository.Ledger;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository.PartyBucketTotal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("OpenItemAgingRepository Integration Tests")
+class OpenItemAgingRepositoryIntegrationTest extends TestcontainersIntegrationTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2026, 6, 30);
+    private static final int[] BOUNDARIES = { 30, 60, 90 };
+    private static final UUID CUSTOMER_A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID CUSTOMER_B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final UUID VENDOR = UUID.fromString("00000000-0000-0000-0000-0000000000c1");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private OpenItemAgingRepository agingRepository;
+
+    private UUID tenantId;
+    private int itemNumber;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO fis_business_entity (tenant_id, name, base_currency, is_active, created_at, updated_at)
+                VALUES (?, ?, 'USD', TRUE, ?, ?)
+                """, tenantId, "Aging Tenant", OffsetDateTime.now(), OffsetDateTime.now());
+
+        // Boundary days: 0 is not yet overdue, 30, 60 and 90 close their buckets
+        insertInvoice(CUSTOMER_A, 0, "POSTED", 100L, 0L);
+        insertInvoice(CUSTOMER_A, 1, "POSTED", 200L, 0L);
+        insertInvoice(CUSTOMER_A, 30, "OVERDUE", 300L, 0L);
+        insertInvoice(CUSTOMER_A, 31, "OVERDUE", 400L, 0L);
+        insertInvoice(CUSTOMER_A, 60, "PARTIALLY_PAID", 1000L, 250L);
+        insertInvoice(CUSTOMER_A, 90, "OVERDUE", 500L, 0L);
+        insertInvoice(CUSTOMER_A, 91, "OVERDUE", 600L, 0L);
+        insertInvoice(CUSTOMER_B, -10, "POSTED", 700L, 0L);
+
+        // Neither paid, written-off, draft nor fully settled items are open
+        insertInvoice(CUSTOMER_A, 45, "PAID", 800L, 800L);
+        insertInvoice(CUSTOMER_A, 45, "WRITTEN_OFF", 900L, 0L);
+        insertInvoice(CUSTOMER_A, 45, "DRAFT", 1100L, 0L);
+        insertInvoice(CUSTOMER_B, 45, "POSTED", 1200L, 1200L);
+    }
+
+    @Test
+    @DisplayName("should place items on the boundary days in the lower bucket")
+    void shouldBucketBoundaryDays() {
+        List<BucketTotal> totals = agingRepository.findBucketTotals(Ledger.RECEIVABLES, tenantId, null, AS_OF,
+                BOUNDARIES);
+
+        assertThat(totals).containsExactly(
+                new BucketTotal(0, 2, 800L, "USD"),
+                new BucketTotal(1, 2, 500L, "USD"),
+                new BucketTotal(2, 2, 1150L, "USD"),
+                new BucketTotal(3, 1, 500L, "USD"),
+                new BucketTotal(4, 1, 600L, "USD"));
+    }
+
+    @Test
+    @DisplayName("should total only the requested customer's open items")
+    void shouldFilterByParty() {
+        List<BucketTotal> totals = agingRepository.findBucketTotals(Ledger.RECEIVABLES, tenantId, CUSTOMER_B, AS_OF,
+                BOUNDARIES);
+
+        assertThat(totals).containsExactly(new BucketTotal(0, 1, 700L, "USD"));
+    }
+
+    @Test
+    @DisplayName("should stream bucket totals grouped by party in party and bucket order")
+    void shouldStreamPartyBucketTotals() {
+        List<PartyBucketTotal> rows = new ArrayList<>();
+
+        agingRepository.streamPartyBucketTotals(Ledger.RECEIVABLES, tenantId, AS_OF, BOUNDARIES, rows::add);
+
+        assertThat(rows).containsExactly(
+                new PartyBucketTotal(CUSTOMER_A, 0, 1, 100L, "USD"),
+                new PartyBucketTotal(CUSTOMER_A, 1, 2, 500L, "USD"),
+                new PartyBucketTotal(CUSTOMER_A, 2, 2, 1150L, "USD"),
+                new PartyBucketTotal(CUSTOMER_A, 3, 1, 500L, "USD"),
+                new PartyBucketTotal(CUSTOMER_A, 4, 1, 600L, "USD"),
+                new PartyBucketTotal(CUSTOMER_B, 0, 1, 700L, "USD"));
+    }
+
+    @Test
+    @DisplayName("should age open bills and skip paid ones")
+    void shouldAgePayables() {
+        insertBill(0, "POSTED", 150L, 0L);
+        insertBill(61, "PARTIALLY_PAID", 500L, 100L);
+        insertBill(61, "PAID", 900L, 900L);
+
+        List<BucketTotal> totals = agingRepository.findBucketTotals(Ledger.PAYABLES, tenantId, VENDOR, AS_OF,
+                BOUNDARIES);
+
+        assertThat(totals).containsExactly(
+                new BucketTotal(0, 1, 150L, "USD"),
+                new BucketTotal(3, 1, 400L, "USD"));
+    }
+
+    @Test
+    @DisplayName("aging scan should use the open-item partial index")
+    void agingScanShouldUseOpenItemIndex() throws Exception {
+        String plan = explain("""
+                SELECT customer_id, (? - due_date) AS days_overdue, total_amount - paid_amount, currency
+                FROM fis_invoice
+                WHERE tenant_id = ?
+                  AND status IN ('POSTED', 'PARTIALLY_PAID', 'OVERDUE')
+                  AND total_amount > paid_amount
+                """);
+
+        assertThat(plan).doesNotContain("Seq Scan on fis_invoice");
+        assertThat(plan).contains("idx_invoice_open_aging");
+    }
+
+    private void insertInvoice(UUID customerId, int daysOverdue, String status, long totalAmount, long paidAmount) {
+        LocalDate dueDate = AS_OF.minusDays(daysOverdue);
+        jdbcTemplate.update("""
+                INSERT INTO fis_invoice (
+                    invoice_id, tenant_id, customer_id, invoice_number, issue_date, due_date, currency,
+                    subtotal_amount, total_amount, status, paid_amount, created_at, updated_at
+                ) VALUES (?, ?, ?, ?, ?, ?, 'USD', ?, ?, ?, ?, ?, ?)
+                """, UUID.randomUUID(), tenantId, customerId, "INV-" + (++itemNumber), dueDate.minusDays(30),
+                dueDate, totalAmount, totalAmount, status, paidAmount, OffsetDateTime.now(), OffsetDateTime.now());
+    }
+
+    private void insertBill(int daysOverdue, String status, long totalAmount, long paidAmount) {
+        LocalDate dueDate = AS_OF.minusDays(daysOverdue);
+        jdbcTemplate.update("""
+                INSERT INTO fis_bill (
+                    bill_id, tenant_id, vendor_id, bill_number, bill_date, due_date, currency,
+                    subtotal_amount, total_amount, status, paid_amount, created_at, updated_at
+                ) VALUES (?, ?, ?, ?, ?, ?, 'USD', ?, ?, ?, ?, ?, ?)
+                """, UUID.randomUUID(), tenantId, VENDOR, "BILL-" + (++itemNumber), dueDate.minusDays(30),
+                dueDate, totalAmount, totalAmount, status, paidAmount, OffsetDateTime.now(), OffsetDateTime.now());
+    }
+
+    private String explain(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET LOCAL enable_seqscan = off");
+                }
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                    statement.setObject(1, AS_OF);
+                    statement.setObject(2, tenantId);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        List<String> rows = new ArrayList<>();
+                        while (resultSet.next()) {
+                            rows.add(resultSet.getString(1));
+                        }
+                        return String.join("\n", rows);
+                    }
+                }
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+}
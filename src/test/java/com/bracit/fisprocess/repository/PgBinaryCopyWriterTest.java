@@ -0,0 +1,140 @@
+package com.bracit.fisprocess.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.copy.CopyIn;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PgBinaryCopyWriter Tests")
+class PgBinaryCopyWriterTest {
+
+    private static final int HEADER_LENGTH = 19;
+
+    @Mock
+    private CopyIn copyIn;
+
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        doAnswer(invocation -> {
+            byte[] data = invocation.getArgument(0);
+            int offset = invocation.getArgument(1);
+            int length = invocation.getArgument(2);
+            written.write(data, offset, length);
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should frame rows with the binary COPY header and trailer")
+    void shouldWriteHeaderAndTrailer() throws Exception {
+        when(copyIn.endCopy()).thenReturn(0L);
+
+        new PgBinaryCopyWriter(copyIn, 64).finish();
+
+        ByteBuffer out = ByteBuffer.wrap(written.toByteArray());
+        byte[] signature = new byte[11];
+        out.get(signature);
+        assertThat(signature).isEqualTo(new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0});
+        assertThat(out.getInt()).isZero();
+        assertThat(out.getInt()).isZero();
+        assertThat(out.getShort()).isEqualTo((short) -1);
+        assertThat(out.hasRemaining()).isFalse();
+        verify(copyIn).endCopy();
+    }
+
+    @Test
+    @DisplayName("should encode scalar fields in PostgreSQL wire format")
+    void shouldEncodeScalarFields() throws Exception {
+        UUID id = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+        PgBinaryCopyWriter writer = new PgBinaryCopyWriter(copyIn, 64);
+        writer.startRow(6);
+        writer.writeUuid(id);
+        writer.writeText("JE-1");
+        writer.writeDate(LocalDate.of(2000, 1, 3));
+        writer.writeTimestamptz(OffsetDateTime.parse("2000-01-01T00:00:01.000002Z"));
+        writer.writeLong(null);
+        writer.writeBoolean(true);
+        writer.finish();
+
+        ByteBuffer out = body();
+        assertThat(out.getShort()).isEqualTo((short) 6);
+        assertThat(out.getInt()).isEqualTo(16);
+        assertThat(new UUID(out.getLong(), out.getLong())).isEqualTo(id);
+        assertThat(out.getInt()).isEqualTo(4);
+        byte[] text = new byte[4];
+        out.get(text);
+        assertThat(new String(text, StandardCharsets.UTF_8)).isEqualTo("JE-1");
+        assertThat(out.getInt()).isEqualTo(4);
+        assertThat(out.getInt()).isEqualTo(2);
+        assertThat(out.getInt()).isEqualTo(8);
+        assertThat(out.getLong()).isEqualTo(1_000_002L);
+        assertThat(out.getInt()).isEqualTo(-1);
+        assertThat(out.getInt()).isEqualTo(1);
+        assertThat(out.get()).isEqualTo((byte) 1);
+        assertThat(out.getShort()).isEqualTo((short) -1);
+    }
+
+    @Test
+    @DisplayName("should encode numeric as base-10000 digit groups")
+    void shouldEncodeNumeric() throws Exception {
+        PgBinaryCopyWriter writer = new PgBinaryCopyWriter(copyIn, 64);
+        writer.writeNumeric(new BigDecimal("12345.67800000"));
+        writer.finish();
+
+        ByteBuffer out = body();
+        assertThat(out.getInt()).isEqualTo(8 + 3 * 2);
+        assertThat(out.getShort()).isEqualTo((short) 3); // ndigits
+        assertThat(out.getShort()).isEqualTo((short) 1); // weight
+        assertThat(out.getShort()).isEqualTo((short) 0); // sign
+        assertThat(out.getShort()).isEqualTo((short) 8); // dscale
+        assertThat(out.getShort()).isEqualTo((short) 1);
+        assertThat(out.getShort()).isEqualTo((short) 2345);
+        assertThat(out.getShort()).isEqualTo((short) 6780);
+    }
+
+    @Test
+    @DisplayName("should stream values larger than the buffer without truncation")
+    void shouldStreamOversizedValues() throws Exception {
+        byte[] json = new byte[200];
+        Arrays.fill(json, (byte) 'x');
+        PgBinaryCopyWriter writer = new PgBinaryCopyWriter(copyIn, 32);
+        writer.writeJsonb(json);
+        writer.finish();
+
+        ByteBuffer out = body();
+        assertThat(out.getInt()).isEqualTo(201);
+        assertThat(out.get()).isEqualTo((byte) 1);
+        byte[] payload = new byte[200];
+        out.get(payload);
+        assertThat(payload).isEqualTo(json);
+        assertThat(out.getShort()).isEqualTo((short) -1);
+    }
+
+    private ByteBuffer body() {
+        ByteBuffer out = ByteBuffer.wrap(written.toByteArray());
+        out.position(HEADER_LENGTH);
+        return out;
+    }
+}
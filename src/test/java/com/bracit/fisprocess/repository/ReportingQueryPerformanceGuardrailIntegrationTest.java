@@ -77,6 +77,9 @@ class ReportingQueryPerformanceGuardrailIntegrationTest extends TestcontainersIn
         assertIndexExists("idx_jl_account_entry");
         assertIndexExists("idx_account_tenant_code_active");
         assertIndexExists("idx_account_tenant_type_active");
+        assertIndexExists("idx_je_tenant_register_keyset");
+        assertIndexExists("idx_invoice_open_aging");
+        assertIndexExists("idx_bill_open_aging");
     }
 
     @Test
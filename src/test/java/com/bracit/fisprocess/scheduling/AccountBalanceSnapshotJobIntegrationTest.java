@@ -0,0 +1,99 @@
+package com.bracit.fisprocess.scheduling;
+
+import com.bracit.fisprocess.TestcontainersIntegrationTest;
+import com.bracit.fisprocess.repository.AccountBalanceSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("AccountBalanceSnapshotJob Integration Tests")
+class AccountBalanceSnapshotJobIntegrationTest extends TestcontainersIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AccountBalanceSnapshotRepository balanceSnapshotRepository;
+    @Autowired
+    private AccountBalanceSnapshotJob job;
+
+    private UUID tenantId;
+    private UUID cashId;
+    private UUID revenueId;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        cashId = UUID.randomUUID();
+        revenueId = UUID.randomUUID();
+
+        jdbcTemplate.update("""
+                INSERT INTO fis_business_entity (tenant_id, name, base_currency, is_active, created_at, updated_at)
+                VALUES (?, ?, 'USD', TRUE, ?, ?)
+                """, tenantId, "Snapshot Verification Tenant", OffsetDateTime.now(), OffsetDateTime.now());
+        insertAccount(cashId, "CASH", "ASSET");
+        insertAccount(revenueId, "REVENUE", "REVENUE");
+
+        insertEntry("POSTED", 1L, cashId, revenueId, 10000L);
+        // Correction of an overstated sale: reverses part of the posted amount
+        insertEntry("CORRECTION", 2L, revenueId, cashId, 2500L);
+    }
+
+    @Test
+    @DisplayName("should count correction entries on both sides of the verification")
+    void shouldVerifyCorrectionEntries() {
+        balanceSnapshotRepository.rebuild(tenantId);
+
+        assertThat(balanceSnapshotRepository.findJournalNetBalances(tenantId))
+                .containsEntry(cashId, 7500L)
+                .containsEntry(revenueId, -7500L);
+        assertThat(balanceSnapshotRepository.findNetBalances(tenantId))
+                .containsEntry(cashId, 7500L)
+                .containsEntry(revenueId, -7500L);
+        assertThat(job.verifyTenant(tenantId)).isZero();
+    }
+
+    private void insertAccount(UUID accountId, String code, String type) {
+        jdbcTemplate.update("""
+                INSERT INTO fis_account (
+                    account_id, tenant_id, code, name, account_type, currency_code,
+                    current_balance, is_active, is_contra, created_at, updated_at
+                )
+                VALUES (?, ?, ?, ?, ?, 'USD', 0, TRUE, FALSE, ?, ?)
+                """, accountId, tenantId, code, code, type, OffsetDateTime.now(), OffsetDateTime.now());
+    }
+
+    private void insertEntry(String status, long sequenceNumber, UUID debitAccountId, UUID creditAccountId,
+            long amount) {
+        UUID journalEntryId = UUID.randomUUID();
+        LocalDate date = LocalDate.of(2026, 3, (int) sequenceNumber);
+        jdbcTemplate.update("""
+                INSERT INTO fis_journal_entry (
+                    journal_entry_id, tenant_id, event_id, posted_date, effective_date, transaction_date,
+                    description, reference_id, status, reversal_of_id, transaction_currency, base_currency,
+                    exchange_rate, created_by, created_at, previous_hash, hash, fiscal_year, sequence_number, auto_reverse
+                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, NULL, 'USD', 'USD', 1.0, ?, ?, ?, ?, ?, ?, FALSE)
+                """,
+                journalEntryId, tenantId, "SNAP-" + UUID.randomUUID().toString().substring(0, 8),
+                date, date, date, status.toLowerCase() + " seed", "SNAP-REF-" + sequenceNumber, status, "snapshot-test",
+                OffsetDateTime.now(), "prev-hash-" + sequenceNumber, "hash-" + sequenceNumber, 2026, sequenceNumber);
+        insertLine(journalEntryId, debitAccountId, amount, false);
+        insertLine(journalEntryId, creditAccountId, amount, true);
+    }
+
+    private void insertLine(UUID journalEntryId, UUID accountId, long amount, boolean credit) {
+        jdbcTemplate.update("""
+                INSERT INTO fis_journal_line (line_id, journal_entry_id, account_id, amount, base_amount, is_credit, dimensions, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, NULL, ?)
+                """, UUID.randomUUID(), journalEntryId, accountId, amount, amount, credit, OffsetDateTime.now());
+    }
+}
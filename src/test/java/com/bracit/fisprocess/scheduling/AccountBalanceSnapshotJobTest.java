@@ -0,0 +1,112 @@
+package com.bracit.fisprocess.scheduling;
+
+import com.bracit.fisprocess.repository.AccountBalanceSnapshotRepository;
+import com.bracit.fisprocess.repository.BusinessEntityRepository;
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardContextHolder;
+import com.bracit.fisprocess.service.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccountBalanceSnapshotJob Unit Tests")
+class AccountBalanceSnapshotJobTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+    private static final UUID CASH = UUID.randomUUID();
+    private static final UUID REVENUE = UUID.randomUUID();
+
+    @Mock
+    private BusinessEntityRepository businessEntityRepository;
+    @Mock
+    private AccountBalanceSnapshotRepository balanceSnapshotRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ShardRouter shardRouter;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountBalanceSnapshotJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new AccountBalanceSnapshotJob(businessEntityRepository, balanceSnapshotRepository,
+                transactionManager, meterRegistry, shardRouter);
+        ReflectionTestUtils.setField(job, "repairOnMismatch", true);
+    }
+
+    @Test
+    @DisplayName("should backfill only tenants that are not ready, each on its own shard")
+    void shouldBackfillPendingTenants() {
+        UUID pending = UUID.randomUUID();
+        when(balanceSnapshotRepository.isEnabled()).thenReturn(true);
+        when(balanceSnapshotRepository.isReady(TENANT_ID)).thenReturn(true);
+        when(businessEntityRepository.findAllIds()).thenReturn(List.of(TENANT_ID, pending));
+        enterShard(TENANT_ID, Shard.SHARD_1);
+        enterShard(pending, Shard.SHARD_2);
+        when(balanceSnapshotRepository.rebuild(pending)).thenAnswer(invocation -> {
+            assertThat(ShardContextHolder.getCurrentShard()).isEqualTo(Shard.SHARD_2);
+            return 0;
+        });
+
+        job.backfillPendingTenants();
+
+        assertThat(ShardContextHolder.getCurrentShard()).isNull();
+        verify(balanceSnapshotRepository).rebuild(pending);
+        verify(balanceSnapshotRepository, never()).rebuild(TENANT_ID);
+        assertThat(meterRegistry.counter("fis.balance.snapshot.backfilled").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should mark the tenant verified when snapshot and journal agree")
+    void shouldMarkVerifiedWhenBalancesMatch() {
+        when(balanceSnapshotRepository.findNetBalances(TENANT_ID)).thenReturn(Map.of(CASH, 500L, REVENUE, -500L));
+        when(balanceSnapshotRepository.findAccountIds(TENANT_ID)).thenReturn(List.of(CASH, REVENUE));
+        when(balanceSnapshotRepository.findJournalNetBalances(TENANT_ID)).thenReturn(Map.of(CASH, 500L, REVENUE, -500L));
+
+        int mismatches = job.verifyTenant(TENANT_ID);
+
+        assertThat(mismatches).isZero();
+        verify(balanceSnapshotRepository).markVerified(TENANT_ID);
+    }
+
+    @Test
+    @DisplayName("should count accounts missing from the snapshot as mismatches and rebuild the tenant")
+    void shouldRepairTenantOnMismatch() {
+        when(balanceSnapshotRepository.isEnabled()).thenReturn(true);
+        when(businessEntityRepository.findAllIds()).thenReturn(List.of(TENANT_ID));
+        when(balanceSnapshotRepository.isReady(TENANT_ID)).thenReturn(true);
+        enterShard(TENANT_ID, Shard.SHARD_1);
+        when(balanceSnapshotRepository.findNetBalances(TENANT_ID)).thenReturn(Map.of(CASH, 500L));
+        when(balanceSnapshotRepository.findAccountIds(TENANT_ID)).thenReturn(List.of(CASH, REVENUE));
+        when(balanceSnapshotRepository.findJournalNetBalances(TENANT_ID)).thenReturn(Map.of(CASH, 500L, REVENUE, -500L));
+
+        job.verifyAllTenants();
+
+        verify(balanceSnapshotRepository).rebuild(TENANT_ID);
+        verify(balanceSnapshotRepository, never()).markVerified(any());
+        assertThat(meterRegistry.counter("fis.balance.snapshot.mismatch").count()).isEqualTo(1.0);
+    }
+
+    private void enterShard(UUID tenantId, Shard shard) {
+        when(shardRouter.enterTenant(tenantId)).thenAnswer(invocation -> ShardContextHolder.enter(shard, tenantId));
+    }
+}
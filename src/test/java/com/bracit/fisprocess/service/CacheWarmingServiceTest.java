@@ -0,0 +1,167 @@
+package com.bracit.fisprocess.service;
+
+import com.bracit.fisprocess.domain.model.AccountSnapshot;
+import com.bracit.fisprocess.repository.AccountRepository;
+import com.bracit.fisprocess.repository.JournalEntryRepository;
+import com.bracit.fisprocess.service.CacheWarmingService.WarmingProgress;
+import com.bracit.fisprocess.service.CacheWarmingService.WarmingState;
+import com.bracit.fisprocess.service.impl.AccountingPeriodCalendarCache;
+import com.bracit.fisprocess.service.impl.ExchangeRateCurveCache;
+import com.bracit.fisprocess.service.impl.TenantAccountResolver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CacheWarmingService Unit Tests")
+class CacheWarmingServiceTest {
+
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private ExchangeRateCurveCache rateCurveCache;
+    @Mock
+    private TenantAccountResolver tenantAccountResolver;
+    @Mock
+    private AccountingPeriodCalendarCache periodCalendarCache;
+    @Mock
+    private RuleMappingService ruleMappingService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    private CacheWarmingService service(boolean enabled, long timeBudgetMs) {
+        return new CacheWarmingService(cacheManager, journalEntryRepository, accountRepository,
+                rateCurveCache, tenantAccountResolver, periodCalendarCache, ruleMappingService,
+                transactionManager, enabled, 10, 2, 7, timeBudgetMs);
+    }
+
+    @Test
+    @DisplayName("should preload accounts, rate curves, periods and rules of the most active tenants")
+    void shouldPreloadActiveTenants() {
+        UUID accountId = UUID.randomUUID();
+        when(journalEntryRepository.findMostActiveTenantIds(any(OffsetDateTime.class), eq(10)))
+                .thenReturn(List.of(TENANT_ID));
+        when(accountRepository.findSnapshotRowsByTenantId(TENANT_ID))
+                .thenReturn(List.<Object[]>of(new Object[] { accountId, "CASH", true, "USD" }));
+
+        CacheWarmingService service = service(true, 10_000);
+        assertThat(service.isReady()).isFalse();
+
+        WarmingProgress progress = service.warmCaches();
+
+        assertThat(progress).isEqualTo(new WarmingProgress(WarmingState.COMPLETED, 1, 1, 0));
+        assertThat(service.isReady()).isTrue();
+        verify(tenantAccountResolver).prime(TENANT_ID, List.of(new AccountSnapshot(accountId, "CASH", true, "USD")));
+        verify(rateCurveCache).preload(TENANT_ID);
+        verify(periodCalendarCache).preload(TENANT_ID);
+        verify(ruleMappingService).precompileActiveRules(TENANT_ID);
+    }
+
+    @Test
+    @DisplayName("should count a failing tenant and still complete")
+    void shouldCountFailedTenant() {
+        when(journalEntryRepository.findMostActiveTenantIds(any(OffsetDateTime.class), anyInt()))
+                .thenReturn(List.of(TENANT_ID));
+        when(accountRepository.findSnapshotRowsByTenantId(TENANT_ID))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        WarmingProgress progress = service(true, 10_000).warmCaches();
+
+        assertThat(progress).isEqualTo(new WarmingProgress(WarmingState.COMPLETED, 1, 0, 1));
+    }
+
+    @Test
+    @DisplayName("should stop at the time budget and release readiness")
+    void shouldStopAtTimeBudget() {
+        CountDownLatch never = new CountDownLatch(1);
+        when(journalEntryRepository.findMostActiveTenantIds(any(OffsetDateTime.class), anyInt()))
+                .thenReturn(List.of(TENANT_ID));
+        when(accountRepository.findSnapshotRowsByTenantId(TENANT_ID)).thenAnswer(invocation -> {
+            never.await();
+            return List.of();
+        });
+
+        CacheWarmingService service = service(true, 50);
+        WarmingProgress progress = service.warmCaches();
+
+        assertThat(progress.state()).isEqualTo(WarmingState.TIMED_OUT);
+        assertThat(progress.tenantsWarmed()).isZero();
+        assertThat(service.isReady()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should run the tenant ranking under a read-only timeout of the time budget")
+    void shouldBoundTenantRankingByTimeBudget() {
+        when(journalEntryRepository.findMostActiveTenantIds(any(OffsetDateTime.class), anyInt()))
+                .thenReturn(List.of());
+
+        service(true, 2_500).warmCaches();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+        assertThat(definition.getValue().getTimeout()).isBetween(1, 3);
+    }
+
+    @Test
+    @DisplayName("should time out and release readiness when the tenant ranking exceeds the budget")
+    void shouldTimeOutSlowTenantRanking() {
+        when(journalEntryRepository.findMostActiveTenantIds(any(OffsetDateTime.class), anyInt()))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        CacheWarmingService service = service(true, 10_000);
+        WarmingProgress progress = service.warmCaches();
+
+        assertThat(progress).isEqualTo(new WarmingProgress(WarmingState.TIMED_OUT, 0, 0, 0));
+        assertThat(service.isReady()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should report ready immediately when disabled")
+    void shouldBeReadyWhenDisabled() {
+        CacheWarmingService service = service(false, 10_000);
+
+        service.warmCachesOnStartup();
+
+        assertThat(service.isReady()).isTrue();
+        assertThat(service.progress().state()).isEqualTo(WarmingState.DISABLED);
+    }
+
+    @Test
+    @DisplayName("should release readiness when the tenant lookup fails")
+    void shouldFailOpen() {
+        when(journalEntryRepository.findMostActiveTenantIds(any(OffsetDateTime.class), anyInt()))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        CacheWarmingService service = service(true, 10_000);
+        WarmingProgress progress = service.warmCaches();
+
+        assertThat(progress.state()).isEqualTo(WarmingState.FAILED);
+        assertThat(service.isReady()).isTrue();
+    }
+}
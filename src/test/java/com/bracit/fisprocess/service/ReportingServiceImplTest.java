@@ -14,6 +14,7 @@ import com.bracit.fisprocess.dto.response.GeneralLedgerReportDto;
 import com.bracit.fisprocess.dto.response.IncomeStatementReportDto;
 import com.bracit.fisprocess.dto.response.JournalRegisterReportDto;
 import com.bracit.fisprocess.dto.response.TrialBalanceReportDto;
+import com.bracit.fisprocess.repository.JournalRegisterPosition;
 import com.bracit.fisprocess.repository.ReportingRepository;
 import com.bracit.fisprocess.repository.BusinessEntityRepository;
 import com.bracit.fisprocess.service.impl.ReportingServiceImpl;
@@ -442,6 +443,42 @@ class ReportingServiceImplTest {
                         assertThat(result.getEntries()).hasSize(1);
                 }
 
+                @Test
+                @DisplayName("should return a continuation token and total count on the first keyset page")
+                void firstKeysetPage() {
+                        UUID lastId = UUID.randomUUID();
+                        when(reportingRepository.countJournalRegister(TENANT_ID, FROM, TO)).thenReturn(3L);
+                        when(reportingRepository.findJournalRegisterPage(TENANT_ID, FROM, TO, null, 3))
+                                        .thenReturn(List.of(registerRow(UUID.randomUUID(), FROM, 1L),
+                                                        registerRow(lastId, FROM, 2L),
+                                                        registerRow(UUID.randomUUID(), TO, 3L)));
+
+                        JournalRegisterReportDto result = service.generateJournalRegister(TENANT_ID, FROM, TO, null, 2);
+
+                        assertThat(result.getEntries()).hasSize(2);
+                        assertThat(result.getTotalEntries()).isEqualTo(3L);
+                        assertThat(result.getNextPageToken()).isNotBlank();
+
+                        when(reportingRepository.findJournalRegisterPage(TENANT_ID, FROM, TO,
+                                        new JournalRegisterPosition(FROM, 2L, lastId), 3))
+                                        .thenReturn(List.of(registerRow(UUID.randomUUID(), TO, 3L)));
+
+                        JournalRegisterReportDto next = service.generateJournalRegister(
+                                        TENANT_ID, FROM, TO, result.getNextPageToken(), 2);
+
+                        assertThat(next.getEntries()).hasSize(1);
+                        assertThat(next.getNextPageToken()).isNull();
+                        assertThat(next.getTotalEntries()).isNull();
+                }
+
+                @Test
+                @DisplayName("should reject a malformed page token")
+                void invalidPageToken() {
+                        assertThatThrownBy(() -> service.generateJournalRegister(TENANT_ID, FROM, TO, "not-a-token", 50))
+                                        .isInstanceOf(ReportParameterException.class)
+                                        .hasMessageContaining("page token");
+                }
+
                 @Test
                 @DisplayName("should reject invalid page size")
                 void invalidPageSize() {
@@ -449,6 +486,13 @@ class ReportingServiceImplTest {
                                         .isInstanceOf(ReportParameterException.class)
                                         .hasMessageContaining("Page size");
                 }
+
+                private Map<String, Object> registerRow(UUID id, LocalDate effectiveDate, long sequence) {
+                        return Map.of("journal_entry_id", id, "effective_date", java.sql.Date.valueOf(effectiveDate),
+                                        "sequence_number", sequence, "posted_date", java.sql.Date.valueOf(effectiveDate),
+                                        "description", "Entry " + sequence, "status", "POSTED", "created_by", "admin",
+                                        "total_debits", 100L, "total_credits", 100L);
+                }
         }
 
         // ─── Dimension Summary ────────────────────────────────────────────────
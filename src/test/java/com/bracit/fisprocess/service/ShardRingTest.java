@@ -0,0 +1,113 @@
+package com.bracit.fisprocess.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ShardRing Unit Tests")
+class ShardRingTest {
+
+    private static final int TENANTS = 20_000;
+
+    private static List<UUID> tenants() {
+        Random random = new Random(42);
+        List<UUID> tenants = new ArrayList<>(TENANTS);
+        for (int i = 0; i < TENANTS; i++) {
+            tenants.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return tenants;
+    }
+
+    private static ShardRing ring(int shards) {
+        Map<Shard, Integer> weights = new LinkedHashMap<>();
+        for (int i = 1; i <= shards; i++) {
+            weights.put(Shard.of("SHARD_" + i), 1);
+        }
+        return ShardRing.of(weights, 160);
+    }
+
+    @Test
+    @DisplayName("should spread tenants evenly across equally weighted shards")
+    void shouldSpreadTenantsEvenly() {
+        ShardRing ring = ring(3);
+        Map<Shard, Integer> counts = new HashMap<>();
+        for (UUID tenantId : tenants()) {
+            counts.merge(ring.shardFor(tenantId), 1, Integer::sum);
+        }
+
+        assertThat(counts).hasSize(3);
+        assertThat(counts.values()).allSatisfy(count ->
+                assertThat(count).isBetween(TENANTS / 3 * 8 / 10, TENANTS / 3 * 12 / 10));
+    }
+
+    @Test
+    @DisplayName("should place tenants identically regardless of configuration order")
+    void shouldBeDeterministic() {
+        ShardRing forward = ring(3);
+        Map<Shard, Integer> reversed = new LinkedHashMap<>();
+        reversed.put(Shard.SHARD_3, 1);
+        reversed.put(Shard.SHARD_2, 1);
+        reversed.put(Shard.SHARD_1, 1);
+        ShardRing backward = ShardRing.of(reversed, 160);
+
+        for (UUID tenantId : tenants()) {
+            assertThat(backward.shardFor(tenantId)).isEqualTo(forward.shardFor(tenantId));
+        }
+    }
+
+    @Test
+    @DisplayName("should move only the new shard's share of tenants, all of them onto the new shard")
+    void shouldMoveMinimalTenantsWhenShardAdded() {
+        ShardRing before = ring(3);
+        ShardRing after = ring(4);
+        Shard added = Shard.of("SHARD_4");
+
+        int moved = 0;
+        for (UUID tenantId : tenants()) {
+            Shard from = before.shardFor(tenantId);
+            Shard to = after.shardFor(tenantId);
+            if (!from.equals(to)) {
+                assertThat(to).isEqualTo(added);
+                moved++;
+            }
+        }
+
+        // Ideal is 1/4 of the tenants; a modulo placement would move 3/4
+        assertThat(moved).isBetween(TENANTS / 4 * 8 / 10, TENANTS / 4 * 12 / 10);
+    }
+
+    @Test
+    @DisplayName("should give a shard of weight 2 about twice the tenants")
+    void shouldHonourWeights() {
+        Map<Shard, Integer> weights = new LinkedHashMap<>();
+        weights.put(Shard.SHARD_1, 1);
+        weights.put(Shard.SHARD_2, 2);
+        ShardRing ring = ShardRing.of(weights, 160);
+
+        int heavy = 0;
+        for (UUID tenantId : tenants()) {
+            if (ring.shardFor(tenantId).equals(Shard.SHARD_2)) {
+                heavy++;
+            }
+        }
+
+        assertThat(heavy).isBetween(TENANTS * 2 / 3 * 9 / 10, TENANTS * 2 / 3 * 11 / 10);
+    }
+
+    @Test
+    @DisplayName("should reject an empty ring")
+    void shouldRejectEmptyRing() {
+        assertThatThrownBy(() -> ShardRing.of(Map.of(), 160))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
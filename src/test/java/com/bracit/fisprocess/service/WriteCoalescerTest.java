@@ -0,0 +1,129 @@
+package com.bracit.fisprocess.service;
+
+import com.bracit.fisprocess.domain.model.DraftJournalEntry;
+import com.bracit.fisprocess.dto.response.JournalEntryResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("WriteCoalescer Tests")
+class WriteCoalescerTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final List<List<String>> handledBatches = new ArrayList<>();
+    private WriteCoalescer coalescer;
+
+    private final WriteCoalescer.BatchHandler handler = (entries, tenantId) -> {
+        handledBatches.add(entries.stream().map(DraftJournalEntry::getEventId).toList());
+        if (entries.size() > 1 && entries.stream().anyMatch(e -> e.getEventId().startsWith("BAD"))) {
+            throw new IllegalStateException("group rejected");
+        }
+        if (entries.getFirst().getEventId().startsWith("BAD")) {
+            throw new IllegalArgumentException("invalid entry " + entries.getFirst().getEventId());
+        }
+        return entries.stream().map(e -> response(e.getEventId())).toList();
+    };
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new WriteCoalescer(transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(coalescer, "windowMs", 60_000L);
+        ReflectionTestUtils.setField(coalescer, "maxBatchSize", 3);
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        coalescer.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    @DisplayName("should commit a full group once and complete each caller with its own result")
+    void shouldCompleteEachCallerFromOneGroupCommit() {
+        CompletableFuture<JournalEntryResponseDto> first = coalescer.submit(draft("E1", 2026), TENANT_ID, handler);
+        CompletableFuture<JournalEntryResponseDto> second = coalescer.submit(draft("E2", 2026), TENANT_ID, handler);
+        assertThat(first).isNotDone();
+
+        CompletableFuture<JournalEntryResponseDto> third = coalescer.submit(draft("E3", 2026), TENANT_ID, handler);
+
+        assertThat(handledBatches).containsExactly(List.of("E1", "E2", "E3"));
+        assertThat(first.join().getReferenceId()).isEqualTo("E1");
+        assertThat(second.join().getReferenceId()).isEqualTo("E2");
+        assertThat(third.join().getReferenceId()).isEqualTo("E3");
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    @DisplayName("should fail only the offending caller when the group transaction fails")
+    void shouldIsolateFailingEntry() {
+        CompletableFuture<JournalEntryResponseDto> good = coalescer.submit(draft("E1", 2026), TENANT_ID, handler);
+        CompletableFuture<JournalEntryResponseDto> bad = coalescer.submit(draft("BAD1", 2026), TENANT_ID, handler);
+        CompletableFuture<JournalEntryResponseDto> alsoGood = coalescer.submit(draft("E2", 2026), TENANT_ID, handler);
+
+        assertThat(good.join().getReferenceId()).isEqualTo("E1");
+        assertThat(alsoGood.join().getReferenceId()).isEqualTo("E2");
+        assertThatThrownBy(bad::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(handledBatches).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("should group by fiscal year and flush the remainder on shutdown")
+    void shouldGroupByFiscalYear() {
+        CompletableFuture<JournalEntryResponseDto> current = coalescer.submit(draft("E1", 2026), TENANT_ID, handler);
+        CompletableFuture<JournalEntryResponseDto> previous = coalescer.submit(draft("E2", 2025), TENANT_ID, handler);
+
+        coalescer.shutdown();
+
+        assertThat(current.join().getReferenceId()).isEqualTo("E1");
+        assertThat(previous.join().getReferenceId()).isEqualTo("E2");
+        assertThat(handledBatches).containsExactlyInAnyOrder(List.of("E1"), List.of("E2"));
+    }
+
+    @Test
+    @DisplayName("should commit immediately when coalescing is disabled")
+    void shouldCommitImmediatelyWhenDisabled() {
+        ReflectionTestUtils.setField(coalescer, "enabled", false);
+
+        CompletableFuture<JournalEntryResponseDto> future = coalescer.submit(draft("E1", 2026), TENANT_ID, handler);
+
+        assertThat(future).isCompleted();
+        assertThat(handledBatches).containsExactly(List.of("E1"));
+    }
+
+    private static DraftJournalEntry draft(String eventId, int year) {
+        return DraftJournalEntry.builder()
+                .tenantId(TENANT_ID)
+                .eventId(eventId)
+                .postedDate(LocalDate.of(year, 6, 30))
+                .build();
+    }
+
+    private static JournalEntryResponseDto response(String eventId) {
+        JournalEntryResponseDto response = new JournalEntryResponseDto();
+        response.setReferenceId(eventId);
+        return response;
+    }
+}
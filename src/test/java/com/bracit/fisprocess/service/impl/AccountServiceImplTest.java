@@ -52,6 +52,8 @@ class AccountServiceImplTest {
     private BusinessEntityRepository businessEntityRepository;
     @Mock
     private AuditService auditService;
+    @Mock
+    private TenantAccountResolver tenantAccountResolver;
 
     @Spy
     private ModelMapper modelMapper = new ModelMapper();
@@ -277,6 +279,7 @@ class AccountServiceImplTest {
             AccountResponseDto result = accountService.updateAccount(TENANT_ID, ACCOUNT_CODE, request);
 
             assertThat(result.isActive()).isFalse();
+            verify(tenantAccountResolver).evictTenant(TENANT_ID);
         }
 
         @Test
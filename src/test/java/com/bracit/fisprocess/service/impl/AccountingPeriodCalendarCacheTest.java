@@ -0,0 +1,175 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.domain.entity.AccountingPeriod;
+import com.bracit.fisprocess.domain.enums.PeriodStatus;
+import com.bracit.fisprocess.repository.AccountingPeriodRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccountingPeriodCalendarCache Unit Tests")
+class AccountingPeriodCalendarCacheTest {
+
+    @Mock
+    private AccountingPeriodRepository accountingPeriodRepository;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountingPeriodCalendarCache cache;
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AccountingPeriodCalendarCache(accountingPeriodRepository, redisTemplate, listenerContainer,
+                meterRegistry, 100, 300);
+    }
+
+    private static AccountingPeriod period(String start, String end, PeriodStatus status) {
+        return AccountingPeriod.builder()
+                .tenantId(TENANT_ID)
+                .startDate(LocalDate.parse(start))
+                .endDate(LocalDate.parse(end))
+                .status(status)
+                .build();
+    }
+
+    private double loads() {
+        return meterRegistry.counter("fis.period.calendar.load").count();
+    }
+
+    @Nested
+    @DisplayName("statusOn")
+    class StatusOnTests {
+
+        @BeforeEach
+        void stubCalendar() {
+            when(accountingPeriodRepository.findByTenantIdOrderByStartDateAsc(TENANT_ID)).thenReturn(List.of(
+                    period("2026-01-01", "2026-01-31", PeriodStatus.HARD_CLOSED),
+                    period("2026-02-01", "2026-02-28", PeriodStatus.SOFT_CLOSED),
+                    period("2026-04-01", "2026-04-30", PeriodStatus.OPEN)));
+        }
+
+        @Test
+        @DisplayName("should resolve dates at and inside period boundaries from one load")
+        void shouldResolveBoundaries() {
+            assertThat(cache.statusOn(TENANT_ID, LocalDate.of(2026, 1, 1))).isEqualTo(PeriodStatus.HARD_CLOSED);
+            assertThat(cache.statusOn(TENANT_ID, LocalDate.of(2026, 1, 31))).isEqualTo(PeriodStatus.HARD_CLOSED);
+            assertThat(cache.statusOn(TENANT_ID, LocalDate.of(2026, 2, 14))).isEqualTo(PeriodStatus.SOFT_CLOSED);
+            assertThat(cache.statusOn(TENANT_ID, LocalDate.of(2026, 4, 30))).isEqualTo(PeriodStatus.OPEN);
+
+            assertThat(loads()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should return null for gaps and reload once before giving up")
+        void shouldReloadOnMiss() {
+            assertThat(cache.statusOn(TENANT_ID, LocalDate.of(2026, 3, 15))).isNull();
+            assertThat(cache.statusOn(TENANT_ID, LocalDate.of(2025, 12, 31))).isNull();
+            assertThat(cache.statusOn(TENANT_ID, LocalDate.of(2026, 5, 1))).isNull();
+
+            assertThat(loads()).isEqualTo(4.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("invalidation")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("should evict and broadcast immediately outside a transaction")
+        void shouldInvalidateImmediately() {
+            when(accountingPeriodRepository.findByTenantIdOrderByStartDateAsc(TENANT_ID))
+                    .thenReturn(List.of(period("2026-01-01", "2026-01-31", PeriodStatus.OPEN)))
+                    .thenReturn(List.of(period("2026-01-01", "2026-01-31", PeriodStatus.SOFT_CLOSED)));
+            LocalDate date = LocalDate.of(2026, 1, 10);
+            assertThat(cache.statusOn(TENANT_ID, date)).isEqualTo(PeriodStatus.OPEN);
+
+            cache.invalidateAfterCommit(TENANT_ID);
+
+            verify(redisTemplate).convertAndSend(AccountingPeriodCalendarCache.INVALIDATION_CHANNEL,
+                    TENANT_ID.toString());
+            assertThat(cache.statusOn(TENANT_ID, date)).isEqualTo(PeriodStatus.SOFT_CLOSED);
+        }
+
+        @Test
+        @DisplayName("should defer invalidation until the transaction commits")
+        void shouldDeferUntilCommit() {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                cache.invalidateAfterCommit(TENANT_ID);
+                verify(redisTemplate, never()).convertAndSend(any(), any());
+
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(TransactionSynchronization::afterCommit);
+                verify(redisTemplate).convertAndSend(AccountingPeriodCalendarCache.INVALIDATION_CHANNEL,
+                        TENANT_ID.toString());
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("should still evict locally when the broadcast fails")
+        void shouldEvictLocallyWhenBroadcastFails() {
+            when(accountingPeriodRepository.findByTenantIdOrderByStartDateAsc(TENANT_ID))
+                    .thenReturn(List.of(period("2026-01-01", "2026-01-31", PeriodStatus.OPEN)));
+            doThrow(new RuntimeException("redis unavailable")).when(redisTemplate).convertAndSend(any(), any());
+            cache.statusOn(TENANT_ID, LocalDate.of(2026, 1, 10));
+
+            cache.invalidateAfterCommit(TENANT_ID);
+            cache.statusOn(TENANT_ID, LocalDate.of(2026, 1, 10));
+
+            verify(accountingPeriodRepository, times(2)).findByTenantIdOrderByStartDateAsc(TENANT_ID);
+        }
+
+        @Test
+        @DisplayName("should evict a tenant when another instance broadcasts")
+        void shouldEvictOnBroadcast() {
+            when(accountingPeriodRepository.findByTenantIdOrderByStartDateAsc(TENANT_ID))
+                    .thenReturn(List.of(period("2026-01-01", "2026-01-31", PeriodStatus.OPEN)));
+            ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+            cache.subscribe();
+            verify(listenerContainer).addMessageListener(listener.capture(), any(ChannelTopic.class));
+            cache.statusOn(TENANT_ID, LocalDate.of(2026, 1, 10));
+
+            listener.getValue().onMessage(new DefaultMessage(
+                    AccountingPeriodCalendarCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    TENANT_ID.toString().getBytes(StandardCharsets.UTF_8)), null);
+            cache.statusOn(TENANT_ID, LocalDate.of(2026, 1, 10));
+
+            verify(accountingPeriodRepository, times(2)).findByTenantIdOrderByStartDateAsc(TENANT_ID);
+        }
+    }
+}
@@ -37,6 +37,8 @@ class AccountingPeriodServiceImplTest {
     private AuditService auditService;
     @Mock
     private PeriodEndRevaluationService periodEndRevaluationService;
+    @Mock
+    private AccountingPeriodCalendarCache periodCalendarCache;
 
     @InjectMocks
     private AccountingPeriodServiceImpl service;
@@ -109,6 +111,7 @@ class AccountingPeriodServiceImplTest {
         assertThat(response.getStatus()).isEqualTo(PeriodStatus.HARD_CLOSED);
         verify(periodEndRevaluationService).run(any(), any(), any());
         verify(auditService).logChange(any(), any(), any(), any(), any(), any(), any());
+        verify(periodCalendarCache).invalidateAfterCommit(tenantId);
     }
 }
 
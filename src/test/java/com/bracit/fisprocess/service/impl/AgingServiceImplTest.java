@@ -1,13 +1,15 @@
 package com.bracit.fisprocess.service.impl;
 
 import com.bracit.fisprocess.domain.entity.BusinessEntity;
-import com.bracit.fisprocess.domain.entity.Invoice;
-import com.bracit.fisprocess.domain.enums.InvoiceStatus;
+import com.bracit.fisprocess.dto.response.APAgingReportDto;
 import com.bracit.fisprocess.dto.response.ARAgingBucketDto;
 import com.bracit.fisprocess.dto.response.ARAgingReportDto;
 import com.bracit.fisprocess.exception.TenantNotFoundException;
 import com.bracit.fisprocess.repository.BusinessEntityRepository;
-import com.bracit.fisprocess.repository.InvoiceRepository;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository.BucketTotal;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository.Ledger;
+import com.bracit.fisprocess.repository.OpenItemAgingRepository.PartyBucketTotal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,19 +18,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,7 +41,7 @@ import static org.mockito.Mockito.when;
 class AgingServiceImplTest {
 
     @Mock
-    private InvoiceRepository invoiceRepository;
+    private OpenItemAgingRepository openItemAgingRepository;
     @Mock
     private BusinessEntityRepository businessEntityRepository;
 
@@ -45,6 +50,7 @@ class AgingServiceImplTest {
 
     private static final UUID TENANT_ID = UUID.randomUUID();
     private static final UUID CUSTOMER_ID = UUID.randomUUID();
+    private static final LocalDate AS_OF_DATE = LocalDate.of(2026, 4, 13);
 
     private BusinessEntity activeTenant;
 
@@ -67,79 +73,65 @@ class AgingServiceImplTest {
     class GetAgingReportTests {
 
         @Test
-        @DisplayName("should correctly bucket invoices by days overdue")
+        @DisplayName("should label overdue buckets and leave not-yet-due items out of the total")
         void shouldCorrectlyBucketInvoices() {
-            LocalDate asOfDate = LocalDate.of(2026, 4, 13);
-
-            // Invoice 1: due 30 days ago → 0-30 bucket, outstanding = total - paid = 5000 - 1000
-            Invoice inv1 = buildInvoiceWithPaid(5000L, 1000L, asOfDate.minusDays(30), 1000L);
-            // Invoice 2: due 45 days ago → 31-60 bucket
-            Invoice inv2 = buildInvoiceWithPaid(8000L, 1200L, asOfDate.minusDays(45), 1200L);
-            // Invoice 3: due 75 days ago → 61-90 bucket
-            Invoice inv3 = buildInvoiceWithPaid(3000L, 450L, asOfDate.minusDays(75), 450L);
-            // Invoice 4: due 120 days ago → 90+ bucket
-            Invoice inv4 = buildInvoiceWithPaid(10000L, 1500L, asOfDate.minusDays(120), 1500L);
-            // Invoice 5: not yet due (due in future) → current
-            Invoice inv5 = buildInvoiceWithPaid(2000L, 300L, asOfDate.plusDays(10), 300L);
-
             when(businessEntityRepository.findByTenantIdAndIsActiveTrue(TENANT_ID))
                     .thenReturn(Optional.of(activeTenant));
-            when(invoiceRepository.findByTenantIdAndCustomerIdAndStatusIn(
-                    eq(TENANT_ID), any(), any()))
-                    .thenReturn(List.of(inv1, inv2, inv3, inv4, inv5));
-
-            ARAgingReportDto report = agingService.getAgingReport(TENANT_ID, CUSTOMER_ID, asOfDate);
-
-            assertThat(report).isNotNull();
-            assertThat(report.getBuckets()).hasSize(4); // 0-30, 31-60, 61-90, 90+
-
-            ARAgingBucketDto bucket0to30 = report.getBuckets().stream()
-                    .filter(b -> b.getBucket().equals("0-30"))
-                    .findFirst().orElseThrow();
-            assertThat(bucket0to30.getTotalAmount()).isEqualTo(4000L); // 5000 - 1000 paid
-
-            ARAgingBucketDto bucket31to60 = report.getBuckets().stream()
-                    .filter(b -> b.getBucket().equals("31-60"))
-                    .findFirst().orElseThrow();
-            assertThat(bucket31to60.getTotalAmount()).isEqualTo(6800L); // 8000 - 1200 paid
+            when(openItemAgingRepository.findBucketTotals(eq(Ledger.RECEIVABLES), eq(TENANT_ID), eq(CUSTOMER_ID),
+                    eq(AS_OF_DATE), any()))
+                    .thenReturn(List.of(
+                            new BucketTotal(0, 1, 1700L, "USD"),
+                            new BucketTotal(1, 1, 4000L, "USD"),
+                            new BucketTotal(2, 1, 6800L, "USD"),
+                            new BucketTotal(3, 1, 2550L, "USD"),
+                            new BucketTotal(4, 1, 8500L, "USD")));
+
+            ARAgingReportDto report = agingService.getAgingReport(TENANT_ID, CUSTOMER_ID, AS_OF_DATE);
+
+            assertThat(report.getBuckets()).extracting(ARAgingBucketDto::getBucket)
+                    .containsExactly("0-30", "31-60", "61-90", "90+");
+            assertThat(report.getBuckets()).extracting(ARAgingBucketDto::getTotalAmount)
+                    .containsExactly(4000L, 6800L, 2550L, 8500L);
+            assertThat(report.getTotalOutstanding()).isEqualTo(21850L);
+            assertThat(report.getCustomerId()).isEqualTo(CUSTOMER_ID.toString());
+            assertThat(report.getCurrency()).isEqualTo("USD");
         }
 
         @Test
-        @DisplayName("should filter by customer when customerId is provided")
-        void shouldFilterByCustomer() {
-            LocalDate asOfDate = LocalDate.of(2026, 4, 13);
-            Invoice inv = buildInvoice(5000L, 1000L, asOfDate.minusDays(10));
-
+        @DisplayName("should label buckets from configured boundaries")
+        void shouldUseConfiguredBoundaries() {
+            ReflectionTestUtils.setField(agingService, "bucketBoundaries", new int[] {15, 45});
             when(businessEntityRepository.findByTenantIdAndIsActiveTrue(TENANT_ID))
                     .thenReturn(Optional.of(activeTenant));
-            when(invoiceRepository.findByTenantIdAndCustomerIdAndStatusIn(
-                    eq(TENANT_ID), eq(CUSTOMER_ID), any()))
-                    .thenReturn(List.of(inv));
-
-            ARAgingReportDto report = agingService.getAgingReport(TENANT_ID, CUSTOMER_ID, asOfDate);
-
-            assertThat(report).isNotNull();
-            assertThat(report.getCustomerId()).isEqualTo(CUSTOMER_ID.toString());
+            when(openItemAgingRepository.findBucketTotals(eq(Ledger.RECEIVABLES), eq(TENANT_ID), isNull(),
+                    eq(AS_OF_DATE), eq(new int[] {15, 45})))
+                    .thenReturn(List.of(
+                            new BucketTotal(1, 2, 100L, "EUR"),
+                            new BucketTotal(2, 1, 200L, "EUR"),
+                            new BucketTotal(3, 4, 300L, "EUR")));
+
+            ARAgingReportDto report = agingService.getAgingReport(TENANT_ID, null, AS_OF_DATE);
+
+            assertThat(report.getBuckets()).extracting(ARAgingBucketDto::getBucket)
+                    .containsExactly("0-15", "16-45", "45+");
+            assertThat(report.getBuckets()).extracting(ARAgingBucketDto::getCount).containsExactly(2, 1, 4);
+            assertThat(report.getCurrency()).isEqualTo("EUR");
         }
 
         @Test
         @DisplayName("should return empty report when no outstanding invoices")
         void shouldReturnEmptyWhenNoOutstanding() {
-            LocalDate asOfDate = LocalDate.of(2026, 4, 13);
-
             when(businessEntityRepository.findByTenantIdAndIsActiveTrue(TENANT_ID))
                     .thenReturn(Optional.of(activeTenant));
-            when(invoiceRepository.findByTenantIdAndCustomerIdAndStatusIn(
-                    eq(TENANT_ID), any(), any()))
+            when(openItemAgingRepository.findBucketTotals(eq(Ledger.RECEIVABLES), eq(TENANT_ID), isNull(),
+                    eq(AS_OF_DATE), any()))
                     .thenReturn(List.of());
-            when(invoiceRepository.findByTenantIdWithFilters(eq(TENANT_ID), any(), any(), any()))
-                    .thenReturn(Page.empty(PageRequest.of(0, 1000)));
 
-            ARAgingReportDto report = agingService.getAgingReport(TENANT_ID, null, asOfDate);
+            ARAgingReportDto report = agingService.getAgingReport(TENANT_ID, null, AS_OF_DATE);
 
-            assertThat(report).isNotNull();
             assertThat(report.getBuckets()).isEmpty();
             assertThat(report.getTotalOutstanding()).isZero();
+            assertThat(report.getCurrency()).isEqualTo("USD");
         }
 
         @Test
@@ -152,50 +144,58 @@ class AgingServiceImplTest {
                     TENANT_ID, null, LocalDate.now()))
                     .isInstanceOf(TenantNotFoundException.class);
         }
+    }
 
-        @Test
-        @DisplayName("should calculate as-of-date correctly for overdue invoices")
-        void shouldCalculateAsOfDateCorrectly() {
-            LocalDate asOfDate = LocalDate.of(2026, 4, 13);
-            // Invoice due 365 days ago — well into 90+ bucket, outstanding = total - paid
-            Invoice inv = buildInvoiceWithPaid(100000L, 15000L, asOfDate.minusDays(365), 15000L);
+    @Nested
+    @DisplayName("streamAgingByCustomer")
+    class StreamAgingByCustomerTests {
 
+        @Test
+        @DisplayName("should emit one report per customer from consecutive rows")
+        void shouldGroupRowsPerCustomer() {
+            UUID otherCustomer = UUID.randomUUID();
             when(businessEntityRepository.findByTenantIdAndIsActiveTrue(TENANT_ID))
                     .thenReturn(Optional.of(activeTenant));
-            when(invoiceRepository.findByTenantIdAndCustomerIdAndStatusIn(
-                    eq(TENANT_ID), any(), any()))
-                    .thenReturn(List.of(inv));
-
-            ARAgingReportDto report = agingService.getAgingReport(TENANT_ID, CUSTOMER_ID, asOfDate);
-
-            assertThat(report.getBuckets()).hasSize(1);
-            assertThat(report.getBuckets().get(0).getBucket()).isEqualTo("90+");
-            assertThat(report.getBuckets().get(0).getTotalAmount()).isEqualTo(85000L);
+            doAnswer(invocation -> {
+                Consumer<PartyBucketTotal> consumer = invocation.getArgument(4);
+                consumer.accept(new PartyBucketTotal(CUSTOMER_ID, 1, 1, 100L, "USD"));
+                consumer.accept(new PartyBucketTotal(CUSTOMER_ID, 4, 2, 900L, "USD"));
+                consumer.accept(new PartyBucketTotal(otherCustomer, 0, 1, 50L, "USD"));
+                return null;
+            }).when(openItemAgingRepository).streamPartyBucketTotals(eq(Ledger.RECEIVABLES), eq(TENANT_ID),
+                    eq(AS_OF_DATE), any(), any());
+
+            List<ARAgingReportDto> reports = new ArrayList<>();
+            agingService.streamAgingByCustomer(TENANT_ID, AS_OF_DATE, reports::add);
+
+            assertThat(reports).hasSize(2);
+            assertThat(reports.get(0).getCustomerId()).isEqualTo(CUSTOMER_ID.toString());
+            assertThat(reports.get(0).getTotalOutstanding()).isEqualTo(1000L);
+            assertThat(reports.get(1).getCustomerId()).isEqualTo(otherCustomer.toString());
+            assertThat(reports.get(1).getBuckets()).isEmpty();
         }
     }
 
-    // --- Helpers ---
+    @Nested
+    @DisplayName("getPayablesAgingReport")
+    class GetPayablesAgingReportTests {
 
-    private Invoice buildInvoice(long total, long tax, LocalDate dueDate) {
-        return buildInvoiceWithPaid(total, tax, dueDate, 0L);
-    }
+        @Test
+        @DisplayName("should aggregate bills for the vendor")
+        void shouldBucketBills() {
+            UUID vendorId = UUID.randomUUID();
+            when(businessEntityRepository.findByTenantIdAndIsActiveTrue(TENANT_ID))
+                    .thenReturn(Optional.of(activeTenant));
+            when(openItemAgingRepository.findBucketTotals(eq(Ledger.PAYABLES), eq(TENANT_ID), eq(vendorId),
+                    eq(AS_OF_DATE), any()))
+                    .thenReturn(List.of(new BucketTotal(2, 3, 7500L, "USD")));
 
-    private Invoice buildInvoiceWithPaid(long total, long tax, LocalDate dueDate, long paidAmount) {
-        return Invoice.builder()
-                .invoiceId(UUID.randomUUID())
-                .tenantId(TENANT_ID)
-                .customerId(CUSTOMER_ID)
-                .invoiceNumber("INV-AGING-TEST")
-                .issueDate(dueDate.minusDays(30))
-                .dueDate(dueDate)
-                .currency("USD")
-                .subtotalAmount(total - tax)
-                .taxAmount(tax)
-                .totalAmount(total)
-                .paidAmount(paidAmount)
-                .status(InvoiceStatus.POSTED)
-                .createdAt(OffsetDateTime.now())
-                .updatedAt(OffsetDateTime.now())
-                .build();
+            APAgingReportDto report = agingService.getPayablesAgingReport(TENANT_ID, vendorId, AS_OF_DATE);
+
+            assertThat(report.getVendorId()).isEqualTo(vendorId.toString());
+            assertThat(report.getBuckets()).hasSize(1);
+            assertThat(report.getBuckets().get(0).getBucket()).isEqualTo("31-60");
+            assertThat(report.getTotalOutstanding()).isEqualTo(7500L);
+        }
     }
 }
@@ -0,0 +1,220 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.dto.response.JournalEntryResponseDto;
+import com.bracit.fisprocess.messaging.JournalWriteReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AsyncJobStatusServiceImpl Unit Tests")
+class AsyncJobStatusServiceImplTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private StringRedisConnection connection;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private AsyncJobStatusServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AsyncJobStatusServiceImpl(redisTemplate, jsonMapper);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void pipelineReturns(Object... results) {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return new ArrayList<>(List.of(results));
+        });
+    }
+
+    @Test
+    @DisplayName("createPendingJob should write the hash and its TTL in one pipeline")
+    void createPendingJobShouldWriteHash() {
+        UUID trackingId = UUID.randomUUID();
+        UUID tenantId = UUID.randomUUID();
+        pipelineReturns(true, true);
+
+        service.createPendingJob(trackingId, tenantId);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, String>> fields = ArgumentCaptor.forClass(Map.class);
+        verify(connection).hMSet(eq("fis:async:job:" + trackingId), fields.capture());
+        verify(connection).expire("fis:async:job:" + trackingId, 86_400L);
+        assertThat(fields.getValue())
+                .containsEntry("status", "PENDING")
+                .containsEntry("tenantId", tenantId.toString())
+                .containsKey("submittedAt");
+    }
+
+    @Test
+    @DisplayName("markAllCompleted should update every job in a single pipeline")
+    void markAllCompletedShouldPipelineUpdates() {
+        Map<UUID, JournalEntryResponseDto> completed = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            completed.put(UUID.randomUUID(), JournalEntryResponseDto.builder()
+                    .journalEntryId(UUID.randomUUID())
+                    .build());
+        }
+        pipelineReturns(1L, 1L, 0L);
+
+        service.markAllCompleted(completed);
+
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        for (UUID trackingId : completed.keySet()) {
+            verify(connection).evalSha(anyString(), eq(ReturnType.INTEGER), eq(1),
+                    eq("fis:async:job:" + trackingId), eq("status"), eq("COMPLETED"),
+                    eq("processedAt"), anyString(), eq("journalEntry"), anyString());
+        }
+    }
+
+    @Test
+    @DisplayName("markFailed should omit a null error code")
+    void markFailedShouldOmitNullErrorCode() {
+        UUID trackingId = UUID.randomUUID();
+        pipelineReturns(1L);
+
+        service.markFailed(trackingId, "Duplicate eventId", null);
+
+        verify(connection).evalSha(anyString(), eq(ReturnType.INTEGER), eq(1),
+                eq("fis:async:job:" + trackingId), eq("status"), eq("FAILED"),
+                eq("processedAt"), anyString(), eq("errorMessage"), eq("Duplicate eventId"));
+    }
+
+    @Test
+    @DisplayName("markAllFailed should not touch Redis for an empty batch")
+    void markAllFailedShouldSkipEmptyBatch() {
+        service.markAllFailed(List.of(), "boom", "IllegalStateException");
+
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("markProcessing should reload the update script once Redis has lost it")
+    void markProcessingShouldReloadLostScript() {
+        UUID trackingId = UUID.randomUUID();
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisSystemException("NOSCRIPT No matching script", null))
+                .thenReturn(new ArrayList<>(List.of(1L)));
+
+        service.markProcessing(trackingId);
+
+        verify(redisTemplate).execute(any(RedisCallback.class));
+        verify(redisTemplate, times(2)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("markCompleted should convert a legacy JSON job to a hash and then update it")
+    void markCompletedShouldConvertLegacyJob() {
+        UUID trackingId = UUID.randomUUID();
+        UUID tenantId = UUID.randomUUID();
+        String json = "{\"status\":\"PROCESSING\",\"tenantId\":\"" + tenantId
+                + "\",\"submittedAt\":\"2026-03-01T10:15:30Z\"}";
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(new ArrayList<>(List.of(-1L)))
+                .thenReturn(new ArrayList<>(List.of(1L)));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("fis:async:job:" + trackingId)).thenReturn(json);
+        List<Object> convertArgs = new ArrayList<>();
+        doAnswer(invocation -> {
+            for (int i = 2; i < invocation.getArguments().length; i++) {
+                convertArgs.add(invocation.getArgument(i));
+            }
+            return 1L;
+        }).when(redisTemplate).execute(any(RedisScript.class), eq(List.of("fis:async:job:" + trackingId)),
+                any(Object[].class));
+
+        service.markCompleted(trackingId, JournalEntryResponseDto.builder().journalEntryId(UUID.randomUUID()).build());
+
+        assertThat(convertArgs).containsExactly(json,
+                "trackingId", trackingId.toString(),
+                "status", "PROCESSING",
+                "tenantId", tenantId.toString(),
+                "submittedAt", "2026-03-01T10:15:30Z");
+        verify(redisTemplate, times(2)).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("getJobStatus should read the hash into a reply")
+    void getJobStatusShouldReadHash() {
+        UUID trackingId = UUID.randomUUID();
+        UUID journalEntryId = UUID.randomUUID();
+        readReturns(trackingId, List.of(
+                "trackingId", trackingId.toString(),
+                "status", "COMPLETED",
+                "tenantId", UUID.randomUUID().toString(),
+                "submittedAt", "2026-03-01T10:15:30Z",
+                "processedAt", "2026-03-01T10:15:31Z",
+                "journalEntry", "{\"journalEntryId\":\"" + journalEntryId + "\"}"));
+
+        JournalWriteReply reply = service.getJobStatus(trackingId);
+
+        assertThat(reply).isNotNull();
+        assertThat(reply.getTrackingId()).isEqualTo(trackingId);
+        assertThat(reply.isSuccess()).isTrue();
+        assertThat(reply.getJournalEntry().getJournalEntryId()).isEqualTo(journalEntryId);
+    }
+
+    @Test
+    @DisplayName("getJobStatus should read a legacy JSON job")
+    void getJobStatusShouldReadLegacyJob() {
+        UUID trackingId = UUID.randomUUID();
+        readReturns(trackingId, List.of("legacy",
+                "{\"status\":\"FAILED\",\"submittedAt\":\"2026-03-01T10:15:30Z\",\"errorMessage\":\"boom\"}"));
+
+        JournalWriteReply reply = service.getJobStatus(trackingId);
+
+        assertThat(reply).isNotNull();
+        assertThat(reply.getTrackingId()).isEqualTo(trackingId);
+        assertThat(reply.isSuccess()).isFalse();
+        assertThat(reply.getErrorMessage()).isEqualTo("boom");
+    }
+
+    @Test
+    @DisplayName("getStatus should return null for a job that does not exist")
+    void getStatusShouldReturnNullForMissingJob() {
+        UUID trackingId = UUID.randomUUID();
+        readReturns(trackingId, List.of());
+
+        assertThat(service.getStatus(trackingId)).isNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readReturns(UUID trackingId, List<String> reply) {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("fis:async:job:" + trackingId))))
+                .thenReturn(reply);
+    }
+}
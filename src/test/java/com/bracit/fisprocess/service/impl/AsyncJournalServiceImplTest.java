@@ -0,0 +1,151 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.config.RabbitMqTopology;
+import com.bracit.fisprocess.domain.enums.AsyncJobStatus;
+import com.bracit.fisprocess.dto.request.CreateJournalEntryBatchRequestDto;
+import com.bracit.fisprocess.dto.request.CreateJournalEntryRequestDto;
+import com.bracit.fisprocess.dto.response.AsyncJobResponseDto;
+import com.bracit.fisprocess.messaging.JournalReplyRegistry;
+import com.bracit.fisprocess.messaging.JournalWriteMessage;
+import com.bracit.fisprocess.messaging.JournalWriteReply;
+import com.bracit.fisprocess.service.AsyncJobStatusService;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AsyncJournalServiceImpl Unit Tests")
+class AsyncJournalServiceImplTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private AsyncJobStatusService asyncJobStatusService;
+    @Mock
+    private Channel channel;
+
+    private JournalReplyRegistry replyRegistry;
+    private AsyncJournalServiceImpl service;
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        replyRegistry = new JournalReplyRegistry(new AnonymousQueue());
+        service = new AsyncJournalServiceImpl(rabbitTemplate, asyncJobStatusService, JsonMapper.builder().build(),
+                replyRegistry);
+        ReflectionTestUtils.setField(service, "replyTimeoutSeconds", 5);
+    }
+
+    @Test
+    @DisplayName("should complete the submission with the worker's reply")
+    void shouldCompleteWithReply() throws Exception {
+        CompletableFuture<AsyncJobResponseDto> result = service.submitAsyncJournalEntry(
+                TENANT_ID, CreateJournalEntryRequestDto.builder().eventId("E-1").build(), null, null);
+
+        JournalWriteMessage message = publishedMessages(1).getFirst();
+        assertThat(message.getReplyTo()).isEqualTo(replyRegistry.replyQueueName());
+        assertThat(result).isNotDone();
+
+        replyRegistry.onReply(JournalWriteReply.builder()
+                .trackingId(message.getTrackingId())
+                .success(true)
+                .build(), channel, 1L);
+
+        AsyncJobResponseDto response = result.join();
+        assertThat(response.getTrackingId()).isEqualTo(message.getTrackingId());
+        assertThat(response.getStatus()).isEqualTo(AsyncJobStatus.COMPLETED.name());
+        assertThat(replyRegistry.pendingCount()).isZero();
+        verify(channel).basicAck(1L, false);
+    }
+
+    @Test
+    @DisplayName("should publish every batch entry before any reply and return all results in order")
+    void shouldPublishBatchBeforeAwaiting() throws Exception {
+        CreateJournalEntryBatchRequestDto batch = CreateJournalEntryBatchRequestDto.builder()
+                .entries(List.of(
+                        CreateJournalEntryRequestDto.builder().eventId("E-1").build(),
+                        CreateJournalEntryRequestDto.builder().eventId("E-2").build()))
+                .build();
+
+        CompletableFuture<List<AsyncJobResponseDto>> result =
+                service.submitAsyncJournalEntryBatch(TENANT_ID, batch, null, null);
+
+        List<JournalWriteMessage> messages = publishedMessages(2);
+        assertThat(replyRegistry.pendingCount()).isEqualTo(2);
+
+        replyRegistry.onReply(JournalWriteReply.builder()
+                .trackingId(messages.get(1).getTrackingId())
+                .success(false)
+                .errorMessage("Duplicate eventId")
+                .build(), channel, 1L);
+        assertThat(result).isNotDone();
+        replyRegistry.onReply(JournalWriteReply.builder()
+                .trackingId(messages.get(0).getTrackingId())
+                .success(true)
+                .build(), channel, 2L);
+
+        assertThat(result.join())
+                .extracting(AsyncJobResponseDto::getTrackingId, AsyncJobResponseDto::getStatus)
+                .containsExactly(
+                        tuple(messages.get(0).getTrackingId(), "COMPLETED"),
+                        tuple(messages.get(1).getTrackingId(), "FAILED"));
+    }
+
+    @Test
+    @DisplayName("should fall back to the recorded job status when no reply arrives in time")
+    void shouldReportStatusOnTimeout() {
+        ReflectionTestUtils.setField(service, "replyTimeoutSeconds", 0);
+        when(asyncJobStatusService.getStatus(any(UUID.class))).thenReturn(AsyncJobStatus.PROCESSING);
+
+        AsyncJobResponseDto response = service.submitAsyncJournalEntry(
+                TENANT_ID, CreateJournalEntryRequestDto.builder().eventId("E-1").build(), null, null).join();
+
+        assertThat(response.getStatus()).isEqualTo(AsyncJobStatus.PROCESSING.name());
+        assertThat(response.getTrackingId()).isEqualTo(publishedMessages(1).getFirst().getTrackingId());
+        assertThat(replyRegistry.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should acknowledge replies that no request on this instance awaits")
+    void shouldDropUnknownReply() throws Exception {
+        replyRegistry.onReply(JournalWriteReply.builder()
+                .trackingId(UUID.randomUUID())
+                .success(true)
+                .build(), channel, 7L);
+
+        verify(channel).basicAck(7L, false);
+    }
+
+    private List<JournalWriteMessage> publishedMessages(int count) {
+        ArgumentCaptor<JournalWriteMessage> captor = ArgumentCaptor.forClass(JournalWriteMessage.class);
+        verify(rabbitTemplate, times(count)).convertAndSend(
+                eq(RabbitMqTopology.JOURNAL_WRITE_EXCHANGE),
+                eq(RabbitMqTopology.JOURNAL_WRITE_ROUTING_KEY),
+                captor.capture(),
+                any(MessagePostProcessor.class));
+        return captor.getAllValues();
+    }
+}
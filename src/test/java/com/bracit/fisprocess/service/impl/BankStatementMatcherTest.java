@@ -0,0 +1,120 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.repository.JournalLineRepository.JournalLineMatchProjection;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BankStatementMatcher Unit Tests")
+class BankStatementMatcherTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 15);
+
+    @Test
+    @DisplayName("should prefer a reference match within the exact window over an earlier amount match")
+    void shouldPreferReferenceMatch() {
+        Line early = line(10_000L, DAY.minusDays(5), "OTHER");
+        Line referenced = line(10_000L, DAY.plusDays(1), "INV-42/ACME");
+        BankStatementMatcher matcher = matcher(List.of(early, referenced));
+
+        assertThat(matcher.match(-10_000L, DAY, "inv-42")).isSameAs(referenced);
+    }
+
+    @Test
+    @DisplayName("should not treat a journal line without reference as a reference match")
+    void shouldNotMatchEmptyJournalReference() {
+        Line unreferenced = line(10_000L, DAY.minusDays(3), null);
+        Line referenced = line(10_000L, DAY, "INV-42");
+        BankStatementMatcher matcher = matcher(List.of(unreferenced, referenced));
+
+        assertThat(matcher.match(10_000L, DAY, "INV-42")).isSameAs(referenced);
+    }
+
+    @Test
+    @DisplayName("should fall back to the fuzzy window and then to amount only")
+    void shouldFallBackThroughTiers() {
+        Line inWindow = line(500L, DAY.plusDays(6), null);
+        Line farAway = line(500L, DAY.plusDays(40), null);
+        BankStatementMatcher matcher = matcher(List.of(farAway, inWindow));
+
+        assertThat(matcher.match(500L, DAY, null)).isSameAs(inWindow);
+        assertThat(matcher.match(500L, DAY, null)).isSameAs(farAway);
+    }
+
+    @Test
+    @DisplayName("should consume each journal line at most once")
+    void shouldConsumeJournalLinesOnce() {
+        Line first = line(700L, DAY, null);
+        Line second = line(700L, DAY.plusDays(1), null);
+        BankStatementMatcher matcher = matcher(List.of(first, second));
+
+        assertThat(matcher.match(700L, DAY, null)).isSameAs(first);
+        assertThat(matcher.match(700L, DAY, null)).isSameAs(second);
+        assertThat(matcher.match(700L, DAY, null)).isNull();
+    }
+
+    @Test
+    @DisplayName("should match undated journal lines by amount only")
+    void shouldMatchUndatedLinesByAmountOnly() {
+        Line undated = line(900L, null, "INV-1");
+        BankStatementMatcher matcher = matcher(List.of(undated));
+
+        assertThat(matcher.match(900L, DAY, "INV-1")).isSameAs(undated);
+    }
+
+    @Test
+    @DisplayName("should return null when no journal line has the amount")
+    void shouldReturnNullForUnknownAmount() {
+        BankStatementMatcher matcher = matcher(List.of(line(100L, DAY, null)));
+
+        assertThat(matcher.match(101L, DAY, null)).isNull();
+    }
+
+    private static BankStatementMatcher matcher(List<Line> lines) {
+        return new BankStatementMatcher(lines, BankStatementMatcher.defaultTiers(1, 7));
+    }
+
+    private static Line line(long amount, @Nullable LocalDate postedDate, @Nullable String reference) {
+        return new Line(UUID.randomUUID(), postedDate, reference, amount);
+    }
+
+    private record Line(UUID journalLineId, @Nullable LocalDate postedDate, @Nullable String referenceId, long amount)
+            implements JournalLineMatchProjection {
+
+        @Override
+        public UUID getJournalLineId() {
+            return journalLineId;
+        }
+
+        @Override
+        public UUID getJournalEntryId() {
+            return journalLineId;
+        }
+
+        @Override
+        public @Nullable LocalDate getPostedDate() {
+            return postedDate;
+        }
+
+        @Override
+        public @Nullable String getReferenceId() {
+            return referenceId;
+        }
+
+        @Override
+        public String getDescription() {
+            return "";
+        }
+
+        @Override
+        public Long getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.domain.entity.ConsolidationGroup;
+import com.bracit.fisprocess.domain.entity.ConsolidationMember;
+import com.bracit.fisprocess.domain.entity.ConsolidationRun;
+import com.bracit.fisprocess.domain.entity.EliminationRule;
+import com.bracit.fisprocess.dto.response.ConsolidationRunResponseDto;
+import com.bracit.fisprocess.exception.ConsolidationGroupNotFoundException;
+import com.bracit.fisprocess.repository.ConsolidationGroupRepository;
+import com.bracit.fisprocess.repository.ConsolidationMemberBalanceRepository;
+import com.bracit.fisprocess.repository.ConsolidationMemberBalanceRepository.LedgerWatermark;
+import com.bracit.fisprocess.repository.ConsolidationMemberBalanceRepository.MemberBalances;
+import com.bracit.fisprocess.repository.ConsolidationMemberRepository;
+import com.bracit.fisprocess.repository.ConsolidationRunRepository;
+import com.bracit.fisprocess.repository.EliminationRuleRepository;
+import com.bracit.fisprocess.repository.ReportingRepository;
+import com.bracit.fisprocess.service.ExchangeRateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConsolidationServiceImpl Unit Tests")
+class ConsolidationServiceImplTest {
+
+    @Mock
+    private ConsolidationGroupRepository groupRepo;
+    @Mock
+    private ConsolidationMemberRepository memberRepo;
+    @Mock
+    private ConsolidationRunRepository runRepo;
+    @Mock
+    private EliminationRuleRepository eliminationRuleRepo;
+    @Mock
+    private ReportingRepository reportingRepo;
+    @Mock
+    private ExchangeRateService exchangeRateService;
+    @Mock
+    private ConsolidationMemberBalanceRepository memberBalanceRepo;
+    @Mock
+    private ModelMapper mapper;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConsolidationServiceImpl consolidationService;
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+    private static final UUID GROUP_ID = UUID.randomUUID();
+    private static final UUID PARENT_ID = UUID.randomUUID();
+    private static final UUID SUBSIDIARY_ID = UUID.randomUUID();
+    private static final String PERIOD = "2026-03";
+    private static final LocalDate AS_OF_DATE = LocalDate.of(2026, 3, 31);
+    private static final LedgerWatermark WATERMARK =
+            new LedgerWatermark(42, 10, OffsetDateTime.parse("2026-03-01T00:00:00Z"));
+
+    private ConsolidationGroup group;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consolidationService = new ConsolidationServiceImpl(groupRepo, memberRepo, runRepo, eliminationRuleRepo,
+                reportingRepo, exchangeRateService, memberBalanceRepo, meterRegistry, mapper);
+        group = ConsolidationGroup.builder()
+                .id(GROUP_ID)
+                .tenantId(TENANT_ID)
+                .name("Group")
+                .baseCurrency("USD")
+                .build();
+        // Not every test reaches the group lookup with GROUP_ID
+        lenient().when(groupRepo.findById(GROUP_ID)).thenReturn(Optional.of(group));
+    }
+
+    private static ConsolidationMember member(UUID memberTenantId, String currency, BigDecimal ownership) {
+        return ConsolidationMember.builder()
+                .tenantId(TENANT_ID)
+                .groupId(GROUP_ID)
+                .memberTenantId(memberTenantId)
+                .currency(currency)
+                .ownershipPercentage(ownership)
+                .build();
+    }
+
+    private static Map<String, Object> tbLine(String code, String type, long debits, long credits) {
+        return Map.of("account_code", code, "account_type", type, "total_debits", debits, "total_credits", credits);
+    }
+
+    private ConsolidationRun runAndCaptureRun() {
+        when(runRepo.save(any(ConsolidationRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mapper.map(any(ConsolidationRun.class), eq(ConsolidationRunResponseDto.class)))
+                .thenReturn(new ConsolidationRunResponseDto());
+        consolidationService.run(GROUP_ID, PERIOD);
+        ArgumentCaptor<ConsolidationRun> captor = ArgumentCaptor.forClass(ConsolidationRun.class);
+        verify(runRepo).save(captor.capture());
+        return captor.getValue();
+    }
+
+    @Nested
+    @DisplayName("run")
+    class RunTests {
+
+        @Test
+        @DisplayName("should translate with one rate per member, apply ownership and total by account type")
+        void shouldAggregateMembers() {
+            when(memberRepo.findByGroupId(GROUP_ID)).thenReturn(List.of(
+                    member(PARENT_ID, "USD", null),
+                    member(SUBSIDIARY_ID, "EUR", new BigDecimal("80.00"))));
+            when(memberBalanceRepo.findStoredWatermarks(TENANT_ID, GROUP_ID, PERIOD)).thenReturn(Map.of());
+            when(memberBalanceRepo.findLedgerWatermark(any(UUID.class), eq(AS_OF_DATE))).thenReturn(WATERMARK);
+            when(reportingRepo.findTrialBalanceLines(PARENT_ID, AS_OF_DATE)).thenReturn(List.of(
+                    tbLine("1000", "ASSET", 10_000, 0),
+                    tbLine("2000", "LIABILITY", 0, 4_000),
+                    tbLine("4000", "REVENUE", 0, 6_000)));
+            when(reportingRepo.findTrialBalanceLines(SUBSIDIARY_ID, AS_OF_DATE)).thenReturn(List.of(
+                    tbLine("1000", "ASSET", 1_000, 0),
+                    tbLine("5000", "EXPENSE", 500, 0),
+                    tbLine("3000", "EQUITY", 0, 1_500)));
+            when(exchangeRateService.resolveRate(SUBSIDIARY_ID, "EUR", "USD", AS_OF_DATE))
+                    .thenReturn(new BigDecimal("2"));
+            when(eliminationRuleRepo.findByGroupIdAndIsActiveTrue(GROUP_ID)).thenReturn(List.of());
+
+            ConsolidationRun run = runAndCaptureRun();
+
+            // Subsidiary: 1000 * 2 * 80% = 1600 assets, 500 * 2 * 80% = 800 expense, 1500 * 2 * 80% = 2400 equity
+            assertThat(run.getTotalAssets()).isEqualTo(11_600L);
+            assertThat(run.getTotalLiabilities()).isEqualTo(4_000L);
+            assertThat(run.getTotalEquity()).isEqualTo(2_400L);
+            assertThat(run.getNetIncome()).isEqualTo(-5_200L);
+            verify(exchangeRateService, times(1)).resolveRate(SUBSIDIARY_ID, "EUR", "USD", AS_OF_DATE);
+            assertThat(meterRegistry.counter("fis.consolidation.members.recomputed").count()).isEqualTo(2.0);
+        }
+
+        @Test
+        @DisplayName("should reuse stored balances of a member whose ledger is unchanged")
+        void shouldReuseUnchangedMember() {
+            when(memberRepo.findByGroupId(GROUP_ID)).thenReturn(List.of(member(PARENT_ID, "USD", null)));
+            when(memberBalanceRepo.findStoredWatermarks(TENANT_ID, GROUP_ID, PERIOD))
+                    .thenReturn(Map.of(PARENT_ID, WATERMARK));
+            when(memberBalanceRepo.findLedgerWatermark(PARENT_ID, AS_OF_DATE)).thenReturn(
+                    new LedgerWatermark(42, 10, OffsetDateTime.parse("2026-03-01T06:00:00+06:00")));
+            when(memberBalanceRepo.findMemberBalances(TENANT_ID, GROUP_ID, PERIOD, PARENT_ID)).thenReturn(
+                    new MemberBalances(new String[] {"1000"}, new String[] {"ASSET"}, new long[] {7_000}));
+            when(eliminationRuleRepo.findByGroupIdAndIsActiveTrue(GROUP_ID)).thenReturn(List.of());
+
+            ConsolidationRun run = runAndCaptureRun();
+
+            assertThat(run.getTotalAssets()).isEqualTo(7_000L);
+            verify(reportingRepo, never()).findTrialBalanceLines(any(), any());
+            verify(memberBalanceRepo, never()).replaceMemberBalances(any(), any(), any(), any(), any(), any());
+            assertThat(meterRegistry.counter("fis.consolidation.members.reused").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should recompute and store a member whose ledger changed since the last run")
+        void shouldRecomputeChangedMember() {
+            when(memberRepo.findByGroupId(GROUP_ID)).thenReturn(List.of(member(PARENT_ID, "USD", null)));
+            when(memberBalanceRepo.findStoredWatermarks(TENANT_ID, GROUP_ID, PERIOD))
+                    .thenReturn(Map.of(PARENT_ID, new LedgerWatermark(41, 10, WATERMARK.accountsUpdatedAt())));
+            when(memberBalanceRepo.findLedgerWatermark(PARENT_ID, AS_OF_DATE)).thenReturn(WATERMARK);
+            when(reportingRepo.findTrialBalanceLines(PARENT_ID, AS_OF_DATE))
+                    .thenReturn(List.of(tbLine("1000", "ASSET", 9_000, 1_000)));
+            when(eliminationRuleRepo.findByGroupIdAndIsActiveTrue(GROUP_ID)).thenReturn(List.of());
+
+            ConsolidationRun run = runAndCaptureRun();
+
+            assertThat(run.getTotalAssets()).isEqualTo(8_000L);
+            ArgumentCaptor<MemberBalances> balances = ArgumentCaptor.forClass(MemberBalances.class);
+            verify(memberBalanceRepo).replaceMemberBalances(eq(TENANT_ID), eq(GROUP_ID), eq(PERIOD), eq(PARENT_ID),
+                    eq(WATERMARK), balances.capture());
+            assertThat(balances.getValue().accountCodes()).containsExactly("1000");
+            assertThat(balances.getValue().netBalances()).containsExactly(8_000L);
+        }
+
+        @Test
+        @DisplayName("should eliminate the smaller of the two intercompany balances from both accounts")
+        void shouldApplyEliminations() {
+            when(memberRepo.findByGroupId(GROUP_ID)).thenReturn(List.of(
+                    member(PARENT_ID, "USD", null),
+                    member(SUBSIDIARY_ID, "USD", null)));
+            when(memberBalanceRepo.findStoredWatermarks(TENANT_ID, GROUP_ID, PERIOD)).thenReturn(Map.of());
+            when(memberBalanceRepo.findLedgerWatermark(any(UUID.class), eq(AS_OF_DATE))).thenReturn(WATERMARK);
+            when(reportingRepo.findTrialBalanceLines(PARENT_ID, AS_OF_DATE)).thenReturn(List.of(
+                    tbLine("1000", "ASSET", 5_000, 0),
+                    tbLine("1300", "ASSET", 2_000, 0)));
+            when(reportingRepo.findTrialBalanceLines(SUBSIDIARY_ID, AS_OF_DATE))
+                    .thenReturn(List.of(tbLine("2300", "LIABILITY", 0, 3_000)));
+            when(eliminationRuleRepo.findByGroupIdAndIsActiveTrue(GROUP_ID)).thenReturn(List.of(
+                    EliminationRule.builder().fromAccountCode("1300").toAccountCode("2300").build(),
+                    EliminationRule.builder().fromAccountCode("1300").toAccountCode("9999").build()));
+
+            ConsolidationRun run = runAndCaptureRun();
+
+            // 2300 is a credit balance (-3000): both sides move down by 2000
+            assertThat(run.getTotalAssets()).isEqualTo(5_000L);
+            assertThat(run.getTotalLiabilities()).isEqualTo(5_000L);
+        }
+
+        @Test
+        @DisplayName("should surface a member's load failure")
+        void shouldPropagateMemberFailure() {
+            when(memberRepo.findByGroupId(GROUP_ID)).thenReturn(List.of(member(PARENT_ID, "USD", null)));
+            when(memberBalanceRepo.findStoredWatermarks(TENANT_ID, GROUP_ID, PERIOD)).thenReturn(Map.of());
+            when(memberBalanceRepo.findLedgerWatermark(PARENT_ID, AS_OF_DATE))
+                    .thenThrow(new IllegalStateException("connection refused"));
+
+            assertThatThrownBy(() -> consolidationService.run(GROUP_ID, PERIOD))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("connection refused");
+            verify(runRepo, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should reject a group without members")
+        void shouldRejectEmptyGroup() {
+            when(memberRepo.findByGroupId(GROUP_ID)).thenReturn(List.of());
+
+            assertThatThrownBy(() -> consolidationService.run(GROUP_ID, PERIOD))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessageContaining("No members");
+        }
+    }
+
+    @Test
+    @DisplayName("should throw when the group does not exist")
+    void shouldThrowForUnknownGroup() {
+        UUID unknown = UUID.randomUUID();
+        when(groupRepo.findById(unknown)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> consolidationService.run(unknown, PERIOD))
+                .isInstanceOf(ConsolidationGroupNotFoundException.class);
+    }
+}
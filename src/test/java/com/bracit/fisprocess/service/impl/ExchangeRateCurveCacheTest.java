@@ -0,0 +1,262 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.config.ReadReplicas;
+import com.bracit.fisprocess.domain.entity.ExchangeRate;
+import com.bracit.fisprocess.repository.ExchangeRateRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExchangeRateCurveCache Unit Tests")
+class ExchangeRateCurveCacheTest {
+
+    @Mock
+    private ExchangeRateRepository exchangeRateRepository;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+    @Mock
+    private ReadReplicas readReplicas;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExchangeRateCurveCache cache;
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ExchangeRateCurveCache(exchangeRateRepository, redisTemplate, listenerContainer,
+                meterRegistry, readReplicas, transactionManager, 100, 900);
+    }
+
+    private static ExchangeRate rate(String source, String target, String date, String value) {
+        return ExchangeRate.builder()
+                .tenantId(TENANT_ID)
+                .sourceCurrency(source)
+                .targetCurrency(target)
+                .effectiveDate(LocalDate.parse(date))
+                .rate(new BigDecimal(value))
+                .build();
+    }
+
+    private void stubEurUsd() {
+        when(exchangeRateRepository.findByTenantIdAndSourceCurrencyAndTargetCurrencyOrderByEffectiveDateAsc(
+                TENANT_ID, "EUR", "USD")).thenReturn(List.of(
+                        rate("EUR", "USD", "2026-01-01", "1.10"),
+                        rate("EUR", "USD", "2026-01-05", "1.20"),
+                        rate("EUR", "USD", "2026-01-10", "1.30")));
+    }
+
+    private double loads() {
+        return meterRegistry.counter("fis.rate.curve.load").count();
+    }
+
+    @Nested
+    @DisplayName("rateOn")
+    class RateOnTests {
+
+        @Test
+        @DisplayName("should return the latest rate on or before each date from one load")
+        void shouldFloorToLatestPriorRate() {
+            stubEurUsd();
+
+            assertThat(cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 1))).isEqualByComparingTo("1.10");
+            assertThat(cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 4))).isEqualByComparingTo("1.10");
+            assertThat(cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 5))).isEqualByComparingTo("1.20");
+            assertThat(cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2027, 6, 30))).isEqualByComparingTo("1.30");
+            assertThat(cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2025, 12, 31))).isNull();
+
+            assertThat(loads()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should return null for a pair without rates")
+        void shouldReturnNullForUnknownPair() {
+            when(exchangeRateRepository.findByTenantIdAndSourceCurrencyAndTargetCurrencyOrderByEffectiveDateAsc(
+                    TENANT_ID, "GBP", "USD")).thenReturn(List.of());
+
+            assertThat(cache.rateOn(TENANT_ID, "GBP", "USD", LocalDate.of(2026, 1, 1))).isNull();
+        }
+
+        @Test
+        @DisplayName("should not cache a curve loaded in a read-only transaction that may read a replica")
+        void shouldNotCacheReplicaReads() {
+            stubEurUsd();
+            when(readReplicas.isEmpty()).thenReturn(false);
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try {
+                cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 1));
+                cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 5));
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            }
+            cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 5));
+            cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 10));
+
+            verify(exchangeRateRepository, times(3))
+                    .findByTenantIdAndSourceCurrencyAndTargetCurrencyOrderByEffectiveDateAsc(TENANT_ID, "EUR", "USD");
+        }
+    }
+
+    @Nested
+    @DisplayName("averageRate")
+    class AverageRateTests {
+
+        @Test
+        @DisplayName("should average the rates inside the inclusive range")
+        void shouldAverageRange() {
+            stubEurUsd();
+
+            assertThat(cache.averageRate(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 10)))
+                    .isEqualByComparingTo("1.20");
+            assertThat(cache.averageRate(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 2), LocalDate.of(2026, 1, 10)))
+                    .isEqualByComparingTo("1.25");
+            assertThat(cache.averageRate(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 5)))
+                    .isEqualByComparingTo("1.20");
+        }
+
+        @Test
+        @DisplayName("should return null when no rate falls inside the range")
+        void shouldReturnNullForEmptyRange() {
+            stubEurUsd();
+
+            assertThat(cache.averageRate(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 6), LocalDate.of(2026, 1, 9)))
+                    .isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("preload should load every pair of the tenant with one query")
+    void preloadShouldLoadAllPairs() {
+        when(exchangeRateRepository.findByTenantIdOrderByEffectiveDateAsc(TENANT_ID)).thenReturn(List.of(
+                rate("EUR", "USD", "2026-01-01", "1.10"),
+                rate("GBP", "USD", "2026-01-01", "1.27"),
+                rate("EUR", "USD", "2026-01-05", "1.20")));
+
+        assertThat(cache.preload(TENANT_ID)).isEqualTo(2);
+
+        assertThat(cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 6))).isEqualByComparingTo("1.20");
+        assertThat(cache.rateOn(TENANT_ID, "GBP", "USD", LocalDate.of(2026, 1, 6))).isEqualByComparingTo("1.27");
+        verify(exchangeRateRepository, never())
+                .findByTenantIdAndSourceCurrencyAndTargetCurrencyOrderByEffectiveDateAsc(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should bound the cache by the number of rates it holds")
+    void shouldBoundCacheByRateCount() {
+        cache = new ExchangeRateCurveCache(exchangeRateRepository, redisTemplate, listenerContainer,
+                meterRegistry, readReplicas, transactionManager, 10, 900);
+        stubEurUsd();
+        List<ExchangeRate> gbpUsd = new ArrayList<>();
+        for (int day = 1; day <= 8; day++) {
+            gbpUsd.add(rate("GBP", "USD", LocalDate.of(2026, 1, day).toString(), "1.27"));
+        }
+        when(exchangeRateRepository.findByTenantIdAndSourceCurrencyAndTargetCurrencyOrderByEffectiveDateAsc(
+                TENANT_ID, "GBP", "USD")).thenReturn(gbpUsd);
+
+        cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 1));
+        cache.rateOn(TENANT_ID, "GBP", "USD", LocalDate.of(2026, 1, 1));
+
+        Cache<?, ?> curves = (Cache<?, ?>) ReflectionTestUtils.getField(cache, "curves");
+        curves.cleanUp();
+        assertThat(curves.estimatedSize()).isEqualTo(1);
+        assertThat(curves.policy().eviction().orElseThrow().weightedSize()).hasValueLessThanOrEqualTo(10L);
+    }
+
+    @Nested
+    @DisplayName("invalidation")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("should evict only the changed pairs and broadcast them")
+        void shouldEvictChangedPairs() {
+            stubEurUsd();
+            when(exchangeRateRepository.findByTenantIdAndSourceCurrencyAndTargetCurrencyOrderByEffectiveDateAsc(
+                    TENANT_ID, "GBP", "USD")).thenReturn(List.of(rate("GBP", "USD", "2026-01-01", "1.27")));
+            LocalDate date = LocalDate.of(2026, 1, 10);
+            cache.rateOn(TENANT_ID, "EUR", "USD", date);
+            cache.rateOn(TENANT_ID, "GBP", "USD", date);
+
+            cache.invalidateAfterCommit(TENANT_ID, List.of(rate("EUR", "USD", "2026-01-10", "1.31")));
+            cache.rateOn(TENANT_ID, "EUR", "USD", date);
+            cache.rateOn(TENANT_ID, "GBP", "USD", date);
+
+            verify(redisTemplate).convertAndSend(ExchangeRateCurveCache.INVALIDATION_CHANNEL,
+                    TENANT_ID + "|EUR|USD");
+            verify(exchangeRateRepository, times(2))
+                    .findByTenantIdAndSourceCurrencyAndTargetCurrencyOrderByEffectiveDateAsc(TENANT_ID, "EUR", "USD");
+            verify(exchangeRateRepository, times(1))
+                    .findByTenantIdAndSourceCurrencyAndTargetCurrencyOrderByEffectiveDateAsc(TENANT_ID, "GBP", "USD");
+        }
+
+        @Test
+        @DisplayName("should defer invalidation until the transaction commits")
+        void shouldDeferUntilCommit() {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                cache.invalidateAfterCommit(TENANT_ID, List.of(rate("EUR", "USD", "2026-01-10", "1.31")));
+                verify(redisTemplate, never()).convertAndSend(any(), any());
+
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(TransactionSynchronization::afterCommit);
+                verify(redisTemplate).convertAndSend(ExchangeRateCurveCache.INVALIDATION_CHANNEL,
+                        TENANT_ID + "|EUR|USD");
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("should evict a pair when another instance broadcasts")
+        void shouldEvictOnBroadcast() {
+            stubEurUsd();
+            ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+            cache.subscribe();
+            verify(listenerContainer).addMessageListener(listener.capture(), any(ChannelTopic.class));
+            cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 10));
+
+            listener.getValue().onMessage(new DefaultMessage(
+                    ExchangeRateCurveCache.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    (TENANT_ID + "|EUR|USD").getBytes(StandardCharsets.UTF_8)), null);
+            cache.rateOn(TENANT_ID, "EUR", "USD", LocalDate.of(2026, 1, 10));
+
+            assertThat(loads()).isEqualTo(2.0);
+        }
+    }
+}
@@ -21,6 +21,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +32,8 @@ class ExchangeRateServiceImplTest {
 
     @Mock
     private ExchangeRateRepository exchangeRateRepository;
+    @Mock
+    private ExchangeRateCurveCache rateCurveCache;
 
     @InjectMocks
     private ExchangeRateServiceImpl service;
@@ -42,14 +46,11 @@ class ExchangeRateServiceImplTest {
     }
 
     @Test
-    @DisplayName("resolveRate should fallback to latest prior rate when exact date not found")
-    void resolveRateShouldFallbackToPriorDate() {
+    @DisplayName("resolveRate should read the normalized pair from the rate curve")
+    void resolveRateShouldUseRateCurve() {
         UUID tenantId = UUID.randomUUID();
         LocalDate date = LocalDate.of(2026, 2, 28);
-        when(exchangeRateRepository.findByTenantIdAndSourceCurrencyAndTargetCurrencyAndEffectiveDate(
-                tenantId, "EUR", "USD", date)).thenReturn(Optional.empty());
-        when(exchangeRateRepository.findLatestPrior(tenantId, "EUR", "USD", date))
-                .thenReturn(List.of(ExchangeRate.builder().rate(new BigDecimal("1.12")).build()));
+        when(rateCurveCache.rateOn(tenantId, "EUR", "USD", date)).thenReturn(new BigDecimal("1.12"));
 
         BigDecimal result = service.resolveRate(tenantId, "eur", "usd", date);
 
@@ -61,9 +62,7 @@ class ExchangeRateServiceImplTest {
     void resolveRateShouldThrowWhenMissing() {
         UUID tenantId = UUID.randomUUID();
         LocalDate date = LocalDate.of(2026, 2, 28);
-        when(exchangeRateRepository.findByTenantIdAndSourceCurrencyAndTargetCurrencyAndEffectiveDate(
-                tenantId, "EUR", "USD", date)).thenReturn(Optional.empty());
-        when(exchangeRateRepository.findLatestPrior(tenantId, "EUR", "USD", date)).thenReturn(List.of());
+        when(rateCurveCache.rateOn(tenantId, "EUR", "USD", date)).thenReturn(null);
 
         assertThatThrownBy(() -> service.resolveRate(tenantId, "EUR", "USD", date))
                 .isInstanceOf(ExchangeRateNotFoundException.class);
@@ -91,6 +90,19 @@ class ExchangeRateServiceImplTest {
         assertThat(response.get(0).getSourceCurrency()).isEqualTo("EUR");
         assertThat(response.get(0).getTargetCurrency()).isEqualTo("USD");
         verify(exchangeRateRepository).save(any(ExchangeRate.class));
+        verify(rateCurveCache).invalidateAfterCommit(eq(tenantId), anyList());
+    }
+
+    @Test
+    @DisplayName("resolveAverageRate should fall back to the closing rate when the range has no rates")
+    void resolveAverageRateShouldFallBackToClosingRate() {
+        UUID tenantId = UUID.randomUUID();
+        LocalDate from = LocalDate.of(2026, 2, 1);
+        LocalDate to = LocalDate.of(2026, 2, 28);
+        when(rateCurveCache.averageRate(tenantId, "EUR", "USD", from, to)).thenReturn(null);
+        when(rateCurveCache.rateOn(tenantId, "EUR", "USD", to)).thenReturn(new BigDecimal("1.08"));
+
+        assertThat(service.resolveAverageRate(tenantId, "EUR", "USD", from, to)).isEqualByComparingTo("1.08");
     }
 }
 
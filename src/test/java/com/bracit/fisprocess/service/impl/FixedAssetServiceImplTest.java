@@ -12,8 +12,12 @@ import com.bracit.fisprocess.dto.response.AssetCategoryResponseDto;
 import com.bracit.fisprocess.dto.response.FixedAssetResponseDto;
 import com.bracit.fisprocess.exception.AssetCategoryNotFoundException;
 import com.bracit.fisprocess.exception.AssetNotFoundException;
+import com.bracit.fisprocess.exception.DepreciationRunInProgressException;
 import com.bracit.fisprocess.repository.AssetCategoryRepository;
 import com.bracit.fisprocess.repository.AssetDepreciationRunRepository;
+import com.bracit.fisprocess.repository.AssetDepreciationChunkRepository;
+import com.bracit.fisprocess.repository.AssetDepreciationChunkRepository.AssetDepreciationUpdate;
+import com.bracit.fisprocess.repository.AssetDepreciationChunkRepository.CategoryCheckpoint;
 import com.bracit.fisprocess.repository.AssetDisposalRepository;
 import com.bracit.fisprocess.repository.FixedAssetRepository;
 import com.bracit.fisprocess.service.JournalEntryService;
@@ -29,6 +33,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.modelmapper.ModelMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -54,10 +60,14 @@ class FixedAssetServiceImplTest {
     @Mock
     private AssetDisposalRepository disposalRepo;
     @Mock
+    private AssetDepreciationChunkRepository chunkRepo;
+    @Mock
     private JournalEntryService journalEntryService;
     @Mock
     private PeriodValidationService periodValidationService;
     @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
     private ModelMapper modelMapper;
 
     @InjectMocks
@@ -72,6 +82,7 @@ class FixedAssetServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        fixedAssetService.initTransactionTemplate();
         category = AssetCategory.builder()
                 .id(CATEGORY_ID)
                 .tenantId(TENANT_ID)
@@ -264,25 +275,180 @@ class FixedAssetServiceImplTest {
     @DisplayName("runDepreciation")
     class RunDepreciationTests {
 
+        private static final UUID RUN_ID = UUID.randomUUID();
+
+        private AssetDepreciationRun pendingRun(long totalDepreciation) {
+            return AssetDepreciationRun.builder()
+                    .id(RUN_ID)
+                    .tenantId(TENANT_ID)
+                    .period("2026-04")
+                    .totalDepreciation(totalDepreciation)
+                    .status(DepreciationRunStatus.PENDING)
+                    .build();
+        }
+
+        private void claimable() {
+            when(chunkRepo.claimRun(TENANT_ID, RUN_ID, 300)).thenReturn(true);
+            when(chunkRepo.lockRunningRun(TENANT_ID, RUN_ID)).thenReturn(true);
+        }
+
+        private Optional<CategoryCheckpoint> cursorAt(UUID lastAssetId) {
+            return Optional.of(new CategoryCheckpoint(CATEGORY_ID, lastAssetId));
+        }
+
         @Test
-        @DisplayName("should run depreciation for all active assets")
+        @DisplayName("should depreciate active assets in chunks and post one journal at the end")
         void shouldRunDepreciationForAllActiveAssets() {
+            ReflectionTestUtils.setField(fixedAssetService, "depreciationBatchSize", 1);
+            FixedAsset second = FixedAsset.builder()
+                    .id(UUID.randomUUID())
+                    .tenantId(TENANT_ID)
+                    .categoryId(CATEGORY_ID)
+                    .acquisitionCost(1200L)
+                    .usefulLifeMonths(12)
+                    .depreciationMethod("STRAIGHT_LINE")
+                    .accumulatedDepreciation(1100L)
+                    .netBookValue(100L)
+                    .build();
             when(depRunRepo.findByTenantIdAndPeriod(TENANT_ID, "2026-04")).thenReturn(Optional.empty());
-            when(assetRepo.findByTenantIdAndStatus(TENANT_ID, AssetStatus.ACTIVE)).thenReturn(List.of(asset));
-            when(assetRepo.saveAll(anyCollection())).thenReturn(List.of(asset));
-            when(journalEntryService.createJournalEntry(any(), any())).thenReturn(new com.bracit.fisprocess.dto.response.JournalEntryResponseDto());
-            when(depRunRepo.save(any(AssetDepreciationRun.class))).thenAnswer(inv -> {
+            when(depRunRepo.saveAndFlush(any(AssetDepreciationRun.class))).thenAnswer(inv -> {
                 AssetDepreciationRun run = inv.getArgument(0);
-                run.setId(UUID.randomUUID());
+                run.setId(RUN_ID);
                 return run;
             });
+            when(chunkRepo.findOpenCheckpoints(TENANT_ID, RUN_ID))
+                    .thenReturn(List.of(new CategoryCheckpoint(CATEGORY_ID, null)));
+            when(chunkRepo.findActiveAssetsAfter(TENANT_ID, CATEGORY_ID, null, 1)).thenReturn(List.of(asset));
+            when(chunkRepo.findActiveAssetsAfter(TENANT_ID, CATEGORY_ID, ASSET_ID, 1)).thenReturn(List.of(second));
+            when(chunkRepo.findActiveAssetsAfter(TENANT_ID, CATEGORY_ID, second.getId(), 1)).thenReturn(List.of());
+            claimable();
+            when(chunkRepo.lockOpenCheckpoint(TENANT_ID, RUN_ID, CATEGORY_ID))
+                    .thenReturn(cursorAt(null), cursorAt(ASSET_ID), cursorAt(second.getId()));
+            AssetDepreciationRun accumulated = pendingRun(75000L + 100L);
+            when(depRunRepo.findById(RUN_ID)).thenReturn(Optional.of(accumulated));
+            when(depRunRepo.save(any(AssetDepreciationRun.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(journalEntryService.createJournalEntry(any(), any())).thenReturn(new com.bracit.fisprocess.dto.response.JournalEntryResponseDto());
             when(modelMapper.map(any(AssetDepreciationRun.class), any())).thenReturn(new com.bracit.fisprocess.dto.response.AssetDepreciationRunResponseDto());
 
             var result = fixedAssetService.runDepreciation(TENANT_ID, "2026-04", "admin");
 
             assertThat(result).isNotNull();
-            verify(assetRepo).saveAll(anyCollection());
-            verify(journalEntryService).createJournalEntry(any(), any());
+            verify(chunkRepo).createCheckpoints(TENANT_ID, RUN_ID);
+            verify(chunkRepo).applyDepreciation(TENANT_ID, List.of(
+                    new AssetDepreciationUpdate(ASSET_ID, 575000L, 4425000L, AssetStatus.ACTIVE)));
+            verify(chunkRepo).applyDepreciation(TENANT_ID, List.of(
+                    new AssetDepreciationUpdate(second.getId(), 1200L, 0L, AssetStatus.FULLY_DEPRECIATED)));
+            verify(chunkRepo).advanceCheckpoint(TENANT_ID, RUN_ID, CATEGORY_ID, ASSET_ID, false, 1, 75000L, 300);
+            verify(chunkRepo).advanceCheckpoint(TENANT_ID, RUN_ID, CATEGORY_ID, null, true, 0, 0L, 300);
+            verify(journalEntryService, times(1)).createJournalEntry(any(), any());
+            assertThat(accumulated.getStatus()).isEqualTo(DepreciationRunStatus.COMPLETED);
+            verify(assetRepo, never()).saveAll(anyCollection());
+        }
+
+        @Test
+        @DisplayName("should resume a pending run from its checkpoints")
+        void shouldResumePendingRun() {
+            when(depRunRepo.findByTenantIdAndPeriod(TENANT_ID, "2026-04")).thenReturn(Optional.of(pendingRun(0L)));
+            when(chunkRepo.findOpenCheckpoints(TENANT_ID, RUN_ID))
+                    .thenReturn(List.of(new CategoryCheckpoint(CATEGORY_ID, ASSET_ID)));
+            when(chunkRepo.findActiveAssetsAfter(TENANT_ID, CATEGORY_ID, ASSET_ID, 500)).thenReturn(List.of());
+            claimable();
+            when(chunkRepo.lockOpenCheckpoint(TENANT_ID, RUN_ID, CATEGORY_ID)).thenReturn(cursorAt(ASSET_ID));
+            when(depRunRepo.findById(RUN_ID)).thenReturn(Optional.of(pendingRun(0L)));
+            when(depRunRepo.save(any(AssetDepreciationRun.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            fixedAssetService.runDepreciation(TENANT_ID, "2026-04", "admin");
+
+            verify(depRunRepo, never()).saveAndFlush(any());
+            verify(chunkRepo, never()).createCheckpoints(any(), any());
+            verify(chunkRepo).advanceCheckpoint(TENANT_ID, RUN_ID, CATEGORY_ID, null, true, 0, 0L, 300);
+            verify(journalEntryService, never()).createJournalEntry(any(), any());
+        }
+
+        @Test
+        @DisplayName("should mark the run failed when a chunk fails")
+        void shouldMarkRunFailedWhenChunkFails() {
+            AssetDepreciationRun run = pendingRun(0L);
+            when(depRunRepo.findByTenantIdAndPeriod(TENANT_ID, "2026-04")).thenReturn(Optional.of(run));
+            when(chunkRepo.findOpenCheckpoints(TENANT_ID, RUN_ID))
+                    .thenReturn(List.of(new CategoryCheckpoint(CATEGORY_ID, null)));
+            when(chunkRepo.findActiveAssetsAfter(TENANT_ID, CATEGORY_ID, null, 500))
+                    .thenThrow(new IllegalStateException("connection reset"));
+            claimable();
+            when(chunkRepo.lockOpenCheckpoint(TENANT_ID, RUN_ID, CATEGORY_ID)).thenReturn(cursorAt(null));
+            when(depRunRepo.findById(RUN_ID)).thenReturn(Optional.of(run));
+
+            assertThatThrownBy(() -> fixedAssetService.runDepreciation(TENANT_ID, "2026-04", "admin"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("connection reset");
+            verify(chunkRepo).releaseRun(TENANT_ID, RUN_ID);
+            verify(journalEntryService, never()).createJournalEntry(any(), any());
+        }
+
+        @Test
+        @DisplayName("should fail the run and drop its lease when the journal cannot be posted")
+        void shouldReleaseRunWhenJournalFails() {
+            AssetDepreciationRun run = pendingRun(75000L);
+            when(depRunRepo.findByTenantIdAndPeriod(TENANT_ID, "2026-04")).thenReturn(Optional.of(run));
+            claimable();
+            when(chunkRepo.findOpenCheckpoints(TENANT_ID, RUN_ID)).thenReturn(List.of());
+            when(depRunRepo.findById(RUN_ID)).thenReturn(Optional.of(run));
+            when(journalEntryService.createJournalEntry(any(), any()))
+                    .thenThrow(new IllegalStateException("period closed"));
+
+            assertThatThrownBy(() -> fixedAssetService.runDepreciation(TENANT_ID, "2026-04", "admin"))
+                    .hasMessageContaining("period closed");
+            verify(chunkRepo).releaseRun(TENANT_ID, RUN_ID);
+            verify(depRunRepo, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should refuse a run another worker has claimed")
+        void shouldRefuseRunClaimedElsewhere() {
+            when(depRunRepo.findByTenantIdAndPeriod(TENANT_ID, "2026-04")).thenReturn(Optional.of(pendingRun(0L)));
+            when(chunkRepo.claimRun(TENANT_ID, RUN_ID, 300)).thenReturn(false);
+
+            assertThatThrownBy(() -> fixedAssetService.runDepreciation(TENANT_ID, "2026-04", "admin"))
+                    .isInstanceOf(DepreciationRunInProgressException.class);
+            verify(chunkRepo, never()).findOpenCheckpoints(any(), any());
+            verify(chunkRepo, never()).advanceCheckpoint(any(), any(), any(), any(), anyBoolean(), anyLong(),
+                    anyLong(), anyInt());
+        }
+
+        @Test
+        @DisplayName("should stop without counting a chunk when another worker moved the cursor")
+        void shouldStopWhenCursorMovedElsewhere() {
+            AssetDepreciationRun run = pendingRun(0L);
+            when(depRunRepo.findByTenantIdAndPeriod(TENANT_ID, "2026-04")).thenReturn(Optional.of(run));
+            claimable();
+            when(chunkRepo.findOpenCheckpoints(TENANT_ID, RUN_ID))
+                    .thenReturn(List.of(new CategoryCheckpoint(CATEGORY_ID, null)));
+            when(chunkRepo.lockOpenCheckpoint(TENANT_ID, RUN_ID, CATEGORY_ID)).thenReturn(cursorAt(ASSET_ID));
+            when(depRunRepo.findById(RUN_ID)).thenReturn(Optional.of(run));
+
+            assertThatThrownBy(() -> fixedAssetService.runDepreciation(TENANT_ID, "2026-04", "admin"))
+                    .isInstanceOf(DepreciationRunInProgressException.class);
+            verify(chunkRepo, never()).findActiveAssetsAfter(any(), any(), any(), anyInt());
+            verify(chunkRepo, never()).advanceCheckpoint(any(), any(), any(), any(), anyBoolean(), anyLong(),
+                    anyLong(), anyInt());
+            assertThat(run.getStatus()).isEqualTo(DepreciationRunStatus.PENDING);
+            verify(journalEntryService, never()).createJournalEntry(any(), any());
+        }
+
+        @Test
+        @DisplayName("should not complete a run another worker completed after taking it over")
+        void shouldNotCompleteRunCompletedElsewhere() {
+            AssetDepreciationRun run = pendingRun(75000L);
+            when(depRunRepo.findByTenantIdAndPeriod(TENANT_ID, "2026-04")).thenReturn(Optional.of(run));
+            when(chunkRepo.claimRun(TENANT_ID, RUN_ID, 300)).thenReturn(true);
+            when(chunkRepo.findOpenCheckpoints(TENANT_ID, RUN_ID)).thenReturn(List.of());
+            when(chunkRepo.lockRunningRun(TENANT_ID, RUN_ID)).thenReturn(false);
+            when(depRunRepo.findById(RUN_ID)).thenReturn(Optional.of(run));
+
+            fixedAssetService.runDepreciation(TENANT_ID, "2026-04", "admin");
+
+            verify(journalEntryService, never()).createJournalEntry(any(), any());
+            verify(depRunRepo, never()).save(any());
         }
 
         @Test
@@ -306,7 +472,7 @@ class FixedAssetServiceImplTest {
             var result = fixedAssetService.runDepreciation(TENANT_ID, "2026-04", "admin");
 
             assertThat(result.getPeriod()).isEqualTo("2026-04");
-            verify(assetRepo, never()).saveAll(anyCollection());
+            verifyNoInteractions(chunkRepo);
         }
     }
 
@@ -0,0 +1,219 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.domain.entity.JournalEntry;
+import com.bracit.fisprocess.exception.HashChainConflictException;
+import com.bracit.fisprocess.repository.JournalEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HashChainHeadCache Tests")
+class HashChainHeadCacheTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+    private static final int FISCAL_YEAR = 2026;
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    private HashChainHeadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new HashChainHeadCache(journalEntryRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("should seed the genesis head when the fiscal year has no entries")
+    void shouldSeedGenesisHead() {
+        when(journalEntryRepository.findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(TENANT_ID, FISCAL_YEAR))
+                .thenReturn(Optional.empty());
+
+        HashChainHeadCache.ChainHead head = cache.current(TENANT_ID, FISCAL_YEAR, 0L);
+
+        assertThat(head.hash()).isEqualTo("0");
+        assertThat(head.sequenceNumber()).isZero();
+    }
+
+    @Test
+    @DisplayName("should serve an advanced head without querying the database")
+    void shouldServeAdvancedHeadFromMemory() {
+        stubLatestEntry("abc", 7L);
+
+        cache.current(TENANT_ID, FISCAL_YEAR, 7L);
+        cache.advanceOnCommit(TENANT_ID, FISCAL_YEAR, new HashChainHeadCache.ChainHead("def", 8L));
+        HashChainHeadCache.ChainHead head = cache.current(TENANT_ID, FISCAL_YEAR, 8L);
+
+        assertThat(head.hash()).isEqualTo("def");
+        verify(journalEntryRepository, times(1))
+                .findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(TENANT_ID, FISCAL_YEAR);
+    }
+
+    @Test
+    @DisplayName("should reseed when another writer moved the chain past the cached head")
+    void shouldReseedStaleHead() {
+        stubLatestEntry("abc", 7L);
+        cache.current(TENANT_ID, FISCAL_YEAR, 7L);
+
+        stubLatestEntry("xyz", 9L);
+        HashChainHeadCache.ChainHead head = cache.current(TENANT_ID, FISCAL_YEAR, 9L);
+
+        assertThat(head.hash()).isEqualTo("xyz");
+        assertThat(head.sequenceNumber()).isEqualTo(9L);
+    }
+
+    @Test
+    @DisplayName("should never move a head backwards")
+    void shouldIgnoreOlderHead() {
+        stubLatestEntry("abc", 7L);
+        cache.current(TENANT_ID, FISCAL_YEAR, 7L);
+
+        cache.advanceOnCommit(TENANT_ID, FISCAL_YEAR, new HashChainHeadCache.ChainHead("newer", 9L));
+        cache.advanceOnCommit(TENANT_ID, FISCAL_YEAR, new HashChainHeadCache.ChainHead("older", 8L));
+
+        assertThat(cache.current(TENANT_ID, FISCAL_YEAR, 9L).hash()).isEqualTo("newer");
+    }
+
+    @Test
+    @DisplayName("should rewind the tentative head when a block posting rolls back")
+    void shouldRewindTentativeHeadOnRollback() {
+        stubLatestEntry("abc", 7L);
+        HashChainHeadCache.ChainHead previous = cache.tentative(TENANT_ID, FISCAL_YEAR);
+
+        List<TransactionSynchronization> posting = inTransaction(() -> cache.advanceTentative(
+                TENANT_ID, FISCAL_YEAR, previous, new HashChainHeadCache.ChainHead("lost", 8L)));
+        assertThat(cache.tentative(TENANT_ID, FISCAL_YEAR).hash()).isEqualTo("lost");
+
+        complete(posting, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(cache.tentative(TENANT_ID, FISCAL_YEAR)).isEqualTo(previous);
+    }
+
+    @Test
+    @DisplayName("should fail an entry chained on a block posting that rolled back")
+    void shouldFailSuccessorOfRolledBackEntry() {
+        stubLatestEntry("abc", 7L);
+        HashChainHeadCache.ChainHead head = cache.tentative(TENANT_ID, FISCAL_YEAR);
+        List<TransactionSynchronization> first = inTransaction(() -> cache.advanceTentative(
+                TENANT_ID, FISCAL_YEAR, head, new HashChainHeadCache.ChainHead("h8", 8L)));
+        List<TransactionSynchronization> second = inTransaction(() -> cache.advanceTentative(
+                TENANT_ID, FISCAL_YEAR, new HashChainHeadCache.ChainHead("h8", 8L),
+                new HashChainHeadCache.ChainHead("h9", 9L)));
+
+        complete(first, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThatThrownBy(() -> second.forEach(sync -> sync.beforeCommit(false)))
+                .isInstanceOf(HashChainConflictException.class);
+        complete(second, TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(cache.tentative(TENANT_ID, FISCAL_YEAR)).isEqualTo(head);
+    }
+
+    @Test
+    @DisplayName("should commit an entry once the entry it was chained on has committed")
+    void shouldCommitSuccessorAfterPredecessor() {
+        stubLatestEntry("abc", 7L);
+        HashChainHeadCache.ChainHead head = cache.tentative(TENANT_ID, FISCAL_YEAR);
+        List<TransactionSynchronization> first = inTransaction(() -> cache.advanceTentative(
+                TENANT_ID, FISCAL_YEAR, head, new HashChainHeadCache.ChainHead("h8", 8L)));
+        List<TransactionSynchronization> second = inTransaction(() -> cache.advanceTentative(
+                TENANT_ID, FISCAL_YEAR, new HashChainHeadCache.ChainHead("h8", 8L),
+                new HashChainHeadCache.ChainHead("h9", 9L)));
+
+        first.forEach(sync -> sync.beforeCommit(false));
+        complete(first, TransactionSynchronization.STATUS_COMMITTED);
+        second.forEach(sync -> sync.beforeCommit(false));
+        complete(second, TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(cache.tentative(TENANT_ID, FISCAL_YEAR).hash()).isEqualTo("h9");
+    }
+
+    @Test
+    @DisplayName("should run deferred ledger writes only after waiting for the entries chained before")
+    void shouldRunDeferredWorkAfterPredecessorWait() {
+        stubLatestEntry("abc", 7L);
+        HashChainHeadCache.ChainHead head = cache.tentative(TENANT_ID, FISCAL_YEAR);
+        List<TransactionSynchronization> first = inTransaction(() -> cache.advanceTentative(
+                TENANT_ID, FISCAL_YEAR, head, new HashChainHeadCache.ChainHead("h8", 8L)));
+        AtomicBoolean applied = new AtomicBoolean();
+        List<TransactionSynchronization> second = inTransaction(() -> {
+            cache.afterPredecessors(() -> applied.set(true));
+            cache.advanceTentative(TENANT_ID, FISCAL_YEAR, new HashChainHeadCache.ChainHead("h8", 8L),
+                    new HashChainHeadCache.ChainHead("h9", 9L));
+        });
+
+        complete(first, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThatThrownBy(() -> second.forEach(sync -> sync.beforeCommit(false)))
+                .isInstanceOf(HashChainConflictException.class);
+        assertThat(applied).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reseed the tentative head when another writer moved the chain")
+    void shouldReseedTentativeHeadMovedElsewhere() {
+        stubLatestEntry("abc", 7L);
+        cache.tentative(TENANT_ID, FISCAL_YEAR);
+
+        stubLatestEntry("foreign", 120L);
+        cache.revalidateTentative(TENANT_ID, FISCAL_YEAR);
+
+        assertThat(cache.tentative(TENANT_ID, FISCAL_YEAR))
+                .isEqualTo(new HashChainHeadCache.ChainHead("foreign", 120L));
+    }
+
+    @Test
+    @DisplayName("should keep a tentative head that is ahead of the persisted chain")
+    void shouldKeepTentativeHeadAheadOfDatabase() {
+        stubLatestEntry("abc", 7L);
+        HashChainHeadCache.ChainHead previous = cache.tentative(TENANT_ID, FISCAL_YEAR);
+        cache.advanceTentative(TENANT_ID, FISCAL_YEAR, previous, new HashChainHeadCache.ChainHead("h8", 8L));
+
+        cache.revalidateTentative(TENANT_ID, FISCAL_YEAR);
+
+        assertThat(cache.tentative(TENANT_ID, FISCAL_YEAR).hash()).isEqualTo("h8");
+    }
+
+    /**
+     * Runs {@code work} in a simulated transaction and returns the
+     * synchronizations it registered, for the test to complete.
+     */
+    private static List<TransactionSynchronization> inTransaction(Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            new ArrayList<>(TransactionSynchronizationManager.getResourceMap().keySet())
+                    .forEach(TransactionSynchronizationManager::unbindResource);
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations, int status) {
+        synchronizations.forEach(sync -> sync.afterCompletion(status));
+    }
+
+    private void stubLatestEntry(String hash, long sequenceNumber) {
+        when(journalEntryRepository.findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(TENANT_ID, FISCAL_YEAR))
+                .thenReturn(Optional.of(JournalEntry.builder().hash(hash).sequenceNumber(sequenceNumber).build()));
+    }
+}
@@ -4,6 +4,7 @@ import com.bracit.fisprocess.domain.entity.JournalEntry;
 import com.bracit.fisprocess.domain.model.DraftJournalLine;
 import com.bracit.fisprocess.repository.JournalEntryRepository;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -113,4 +114,56 @@ class HashChainServiceImplTest {
 
         assertThat(hash1).isNotEqualTo(hash2);
     }
+
+    @Nested
+    @DisplayName("golden vectors")
+    class GoldenVectors {
+
+        // Digests produced by the original String.format/Collectors.joining implementation.
+
+        @Test
+        @DisplayName("should match the original digest for an entry without lines")
+        void shouldMatchOriginalDigestWithoutLines() {
+            String hash = hashChainService.computeHash(
+                    UUID.fromString("11111111-1111-1111-1111-111111111111"),
+                    "0",
+                    OffsetDateTime.parse("2026-01-01T00:00:00Z"),
+                    List.of());
+
+            assertThat(hash).isEqualTo("b1513aeef14c3b31666eae2c1c4b146106e348536c2f8c878158077efeaef940");
+        }
+
+        @Test
+        @DisplayName("should match the original digest regardless of line order")
+        void shouldMatchOriginalDigestForUnsortedLines() {
+            List<DraftJournalLine> lines = List.of(
+                    DraftJournalLine.builder().accountCode("REV").amountCents(1000L).baseAmountCents(1000L).isCredit(true).build(),
+                    DraftJournalLine.builder().accountCode("CASH").amountCents(1000L).baseAmountCents(1000L).isCredit(false).build());
+
+            String hash = hashChainService.computeHash(
+                    UUID.fromString("11111111-1111-1111-1111-111111111111"),
+                    "0",
+                    OffsetDateTime.parse("2026-01-01T00:00:00Z"),
+                    lines);
+
+            assertThat(hash).isEqualTo("aec07c67308a0eb7a2e74df694ebe87fdfe2c27ff5d69a6689f387ad7cf487c7");
+        }
+
+        @Test
+        @DisplayName("should match the original digest for multi-currency lines and a chained previous hash")
+        void shouldMatchOriginalDigestForMultiCurrencyLines() {
+            List<DraftJournalLine> lines = List.of(
+                    DraftJournalLine.builder().accountCode("FX_GAIN").amountCents(250L).baseAmountCents(null).isCredit(true).build(),
+                    DraftJournalLine.builder().accountCode("CASH").amountCents(12500L).baseAmountCents(11875L).isCredit(false).build(),
+                    DraftJournalLine.builder().accountCode("AR").amountCents(12250L).baseAmountCents(11625L).isCredit(true).build());
+
+            String hash = hashChainService.computeHash(
+                    UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e"),
+                    "9c56cc51b374c3ba189210d5b6d4bf57790d351c96c47c02190ecf1e430635ab",
+                    OffsetDateTime.parse("2026-04-13T09:15:30.123456+06:00"),
+                    lines);
+
+            assertThat(hash).isEqualTo("a30099602b0d6658bf21a3225adc6ba2f4436fb4859352fc41654f123aa7bf83");
+        }
+    }
 }
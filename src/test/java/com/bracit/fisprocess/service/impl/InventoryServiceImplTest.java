@@ -0,0 +1,268 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.domain.entity.InventoryCostLayer;
+import com.bracit.fisprocess.domain.entity.InventoryItem;
+import com.bracit.fisprocess.domain.entity.InventoryMovement;
+import com.bracit.fisprocess.domain.enums.InventoryMovementType;
+import com.bracit.fisprocess.domain.enums.InventoryValuationMethod;
+import com.bracit.fisprocess.dto.request.RecordInventoryMovementRequestDto;
+import com.bracit.fisprocess.dto.response.InventoryValuationResponseDto;
+import com.bracit.fisprocess.exception.InventoryItemNotFoundException;
+import com.bracit.fisprocess.repository.InventoryCostLayerRepository;
+import com.bracit.fisprocess.repository.InventoryCostLayerRepository.ItemLayerTotalProjection;
+import com.bracit.fisprocess.repository.InventoryItemRepository;
+import com.bracit.fisprocess.repository.InventoryMovementRepository;
+import com.bracit.fisprocess.repository.InventoryValuationRunRepository;
+import com.bracit.fisprocess.repository.WarehouseRepository;
+import com.bracit.fisprocess.service.JournalEntryService;
+import com.bracit.fisprocess.service.PeriodValidationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("InventoryServiceImpl Unit Tests")
+class InventoryServiceImplTest {
+
+    @Mock
+    private WarehouseRepository whRepo;
+    @Mock
+    private InventoryItemRepository itemRepo;
+    @Mock
+    private InventoryMovementRepository moveRepo;
+    @Mock
+    private InventoryValuationRunRepository valRepo;
+    @Mock
+    private InventoryCostLayerRepository layerRepo;
+    @Mock
+    private JournalEntryService journalEntryService;
+    @Mock
+    private PeriodValidationService periodValidationService;
+    @Mock
+    private ModelMapper mapper;
+
+    @InjectMocks
+    private com.bracit.fisprocess.service.impl.InventoryServiceImpl inventoryService;
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+    private static final UUID ITEM_ID = UUID.randomUUID();
+    private static final UUID MOVEMENT_ID = UUID.randomUUID();
+    private static final LocalDate REF_DATE = LocalDate.of(2026, 5, 10);
+
+    private InventoryItem item;
+
+    @BeforeEach
+    void setUp() {
+        item = InventoryItem.builder()
+                .id(ITEM_ID)
+                .tenantId(TENANT_ID)
+                .sku("SKU-1")
+                .name("Widget")
+                .costMethod(InventoryValuationMethod.FIFO)
+                .standardCost(50L)
+                .build();
+        when(itemRepo.findByTenantIdAndId(TENANT_ID, ITEM_ID)).thenReturn(Optional.of(item));
+        when(mapper.map(any(RecordInventoryMovementRequestDto.class), eq(InventoryMovement.class)))
+                .thenAnswer(invocation -> new InventoryMovement());
+        when(moveRepo.save(any(InventoryMovement.class))).thenAnswer(invocation -> {
+            InventoryMovement movement = invocation.getArgument(0);
+            movement.setId(MOVEMENT_ID);
+            return movement;
+        });
+    }
+
+    private static RecordInventoryMovementRequestDto request(InventoryMovementType type, long quantity, Long unitCost) {
+        return RecordInventoryMovementRequestDto.builder()
+                .itemId(ITEM_ID)
+                .warehouseId(UUID.randomUUID())
+                .type(type)
+                .quantity(quantity)
+                .unitCost(unitCost)
+                .referenceDate(REF_DATE)
+                .build();
+    }
+
+    private static InventoryCostLayer layer(long remaining, long unitCost) {
+        return InventoryCostLayer.builder()
+                .id(UUID.randomUUID())
+                .tenantId(TENANT_ID)
+                .itemId(ITEM_ID)
+                .originalQuantity(remaining)
+                .remainingQuantity(remaining)
+                .unitCost(unitCost)
+                .build();
+    }
+
+    private InventoryMovement savedMovement() {
+        ArgumentCaptor<InventoryMovement> captor = ArgumentCaptor.forClass(InventoryMovement.class);
+        verify(moveRepo).save(captor.capture());
+        return captor.getValue();
+    }
+
+    @Nested
+    @DisplayName("recordMovement")
+    class RecordMovementTests {
+
+        @Test
+        @DisplayName("should open a cost layer for a receipt")
+        void shouldOpenLayerForReceipt() {
+            inventoryService.recordMovement(TENANT_ID, request(InventoryMovementType.RECEIPT, 10, 120L));
+
+            ArgumentCaptor<InventoryCostLayer> captor = ArgumentCaptor.forClass(InventoryCostLayer.class);
+            verify(layerRepo).save(captor.capture());
+            InventoryCostLayer opened = captor.getValue();
+            assertThat(opened.getMovementId()).isEqualTo(MOVEMENT_ID);
+            assertThat(opened.getReceivedDate()).isEqualTo(REF_DATE);
+            assertThat(opened.getRemainingQuantity()).isEqualTo(10L);
+            assertThat(opened.getUnitCost()).isEqualTo(120L);
+            verify(layerRepo, never()).findOpenLayersForUpdate(any(), any());
+        }
+
+        @Test
+        @DisplayName("should consume the oldest layers first and cost the issue from them")
+        void shouldConsumeOldestLayersForIssue() {
+            InventoryCostLayer oldest = layer(4, 100);
+            InventoryCostLayer newer = layer(10, 130);
+            when(layerRepo.findOpenLayersForUpdate(TENANT_ID, ITEM_ID)).thenReturn(List.of(oldest, newer));
+
+            inventoryService.recordMovement(TENANT_ID, request(InventoryMovementType.ISSUE, 6, null));
+
+            assertThat(oldest.getRemainingQuantity()).isZero();
+            assertThat(newer.getRemainingQuantity()).isEqualTo(8L);
+            InventoryMovement movement = savedMovement();
+            assertThat(movement.getTotalCost()).isEqualTo(4 * 100L + 2 * 130L);
+            assertThat(movement.getUnitCost()).isEqualTo(110L);
+            verify(layerRepo).saveAll(List.of(oldest, newer));
+            verify(layerRepo, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should cost quantity beyond the open layers at standard cost")
+        void shouldFallBackToStandardCostWhenLayersExhausted() {
+            when(layerRepo.findOpenLayersForUpdate(TENANT_ID, ITEM_ID)).thenReturn(List.of(layer(2, 100)));
+
+            inventoryService.recordMovement(TENANT_ID, request(InventoryMovementType.ISSUE, 5, null));
+
+            assertThat(savedMovement().getTotalCost()).isEqualTo(2 * 100L + 3 * 50L);
+        }
+
+        @Test
+        @DisplayName("should keep an explicit issue cost while still consuming layers")
+        void shouldKeepExplicitIssueCost() {
+            InventoryCostLayer open = layer(10, 100);
+            when(layerRepo.findOpenLayersForUpdate(TENANT_ID, ITEM_ID)).thenReturn(List.of(open));
+
+            inventoryService.recordMovement(TENANT_ID, request(InventoryMovementType.ISSUE, 3, 90L));
+
+            assertThat(open.getRemainingQuantity()).isEqualTo(7L);
+            assertThat(savedMovement().getTotalCost()).isEqualTo(270L);
+        }
+
+        @Test
+        @DisplayName("should leave layers untouched for an adjustment without a unit cost")
+        void shouldIgnoreLayersForUncostedAdjustment() {
+            inventoryService.recordMovement(TENANT_ID, request(InventoryMovementType.ADJUSTMENT, 3, null));
+
+            verifyNoInteractions(layerRepo);
+            InventoryMovement movement = savedMovement();
+            assertThat(movement.getUnitCost()).isNull();
+            assertThat(movement.getTotalCost()).isZero();
+        }
+
+        @Test
+        @DisplayName("should consume layers for an adjustment with a negative unit cost")
+        void shouldConsumeLayersForNegativeAdjustment() {
+            InventoryCostLayer open = layer(10, 100);
+            when(layerRepo.findOpenLayersForUpdate(TENANT_ID, ITEM_ID)).thenReturn(List.of(open));
+
+            inventoryService.recordMovement(TENANT_ID, request(InventoryMovementType.ADJUSTMENT, 4, -100L));
+
+            assertThat(open.getRemainingQuantity()).isEqualTo(6L);
+            assertThat(savedMovement().getTotalCost()).isEqualTo(-400L);
+            verify(layerRepo, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should leave layers untouched for a transfer")
+        void shouldIgnoreLayersForTransfer() {
+            inventoryService.recordMovement(TENANT_ID, request(InventoryMovementType.TRANSFER, 3, null));
+
+            verifyNoInteractions(layerRepo);
+        }
+
+        @Test
+        @DisplayName("should reject a movement for an unknown item")
+        void shouldRejectUnknownItem() {
+            when(itemRepo.findByTenantIdAndId(TENANT_ID, ITEM_ID)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> inventoryService.recordMovement(TENANT_ID,
+                    request(InventoryMovementType.RECEIPT, 1, 10L)))
+                    .isInstanceOf(InventoryItemNotFoundException.class);
+            verify(moveRepo, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("getValuation")
+    class GetValuationTests {
+
+        @Test
+        @DisplayName("should value FIFO items from open layers and others from item fields")
+        void shouldValueFromLayers() {
+            InventoryItem averaged = InventoryItem.builder()
+                    .id(UUID.randomUUID())
+                    .sku("SKU-2")
+                    .name("Gadget")
+                    .costMethod(InventoryValuationMethod.WEIGHTED_AVERAGE)
+                    .quantityOnHand(4L)
+                    .totalValue(1_000L)
+                    .build();
+            InventoryItem fifoWithoutLayers = InventoryItem.builder()
+                    .id(UUID.randomUUID())
+                    .sku("SKU-3")
+                    .name("Gizmo")
+                    .costMethod(InventoryValuationMethod.FIFO)
+                    .quantityOnHand(2L)
+                    .standardCost(70L)
+                    .build();
+            when(itemRepo.findByTenantId(TENANT_ID)).thenReturn(List.of(item, averaged, fifoWithoutLayers));
+            ItemLayerTotalProjection totals = mock(ItemLayerTotalProjection.class);
+            when(totals.getItemId()).thenReturn(ITEM_ID);
+            when(totals.getQuantity()).thenReturn(3L);
+            when(totals.getTotalValue()).thenReturn(350L);
+            when(layerRepo.sumOpenLayersByItem(TENANT_ID)).thenReturn(List.of(totals));
+
+            InventoryValuationResponseDto valuation = inventoryService.getValuation(TENANT_ID, "2026-05");
+
+            assertThat(valuation.getItems()).hasSize(3);
+            assertThat(valuation.getItems().get(0).getQuantity()).isEqualTo(3L);
+            assertThat(valuation.getItems().get(0).getTotalValue()).isEqualTo(350L);
+            assertThat(valuation.getItems().get(0).getUnitCost()).isEqualTo(116L);
+            assertThat(valuation.getItems().get(1).getTotalValue()).isEqualTo(1_000L);
+            assertThat(valuation.getItems().get(2).getTotalValue()).isEqualTo(140L);
+            assertThat(valuation.getTotalValue()).isEqualTo(1_490L);
+            verify(moveRepo, never()).findByItemIdAndTypeOrderByReferenceDateAsc(any(), any());
+        }
+    }
+}
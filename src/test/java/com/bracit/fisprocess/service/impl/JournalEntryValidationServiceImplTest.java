@@ -8,22 +8,30 @@ import com.bracit.fisprocess.exception.AccountNotFoundException;
 import com.bracit.fisprocess.exception.InactiveAccountException;
 import com.bracit.fisprocess.exception.UnbalancedEntryException;
 import com.bracit.fisprocess.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,12 +40,21 @@ class JournalEntryValidationServiceImplTest {
 
         @Mock
         private AccountRepository accountRepository;
+        @Mock
+        private StringRedisTemplate redisTemplate;
+        @Mock
+        private RedisMessageListenerContainer listenerContainer;
 
-        @InjectMocks
         private JournalEntryValidationServiceImpl validationService;
 
         private static final UUID TENANT_ID = UUID.randomUUID();
 
+        @BeforeEach
+        void setUp() {
+                validationService = new JournalEntryValidationServiceImpl(new TenantAccountResolver(
+                                accountRepository, redisTemplate, listenerContainer, 100, 1000, 300));
+        }
+
         private Account activeAccount(String code) {
                 return Account.builder()
                                 .accountId(UUID.randomUUID())
@@ -84,15 +101,26 @@ class JournalEntryValidationServiceImplTest {
                 void shouldPassForBalancedEntry() {
                         DraftJournalEntry draft = balancedDraft();
 
-                        when(accountRepository.findByTenantIdAndCode(TENANT_ID, "CASH"))
-                                        .thenReturn(Optional.of(activeAccount("CASH")));
-                        when(accountRepository.findByTenantIdAndCode(TENANT_ID, "REVENUE"))
-                                        .thenReturn(Optional.of(activeAccount("REVENUE")));
+                        when(accountRepository.findByTenantIdAndCodeIn(eq(TENANT_ID), anyCollection()))
+                                        .thenReturn(List.of(activeAccount("CASH"), activeAccount("REVENUE")));
 
                         assertThatCode(() -> validationService.validate(draft))
                                         .doesNotThrowAnyException();
                 }
 
+                @Test
+                @DisplayName("should look up all line accounts with one query and reuse them afterwards")
+                void shouldLookUpAccountsOnce() {
+                        when(accountRepository.findByTenantIdAndCodeIn(eq(TENANT_ID), anyCollection()))
+                                        .thenReturn(List.of(activeAccount("CASH"), activeAccount("REVENUE")));
+
+                        validationService.validate(balancedDraft());
+                        validationService.validate(balancedDraft());
+
+                        verify(accountRepository, times(1)).findByTenantIdAndCodeIn(eq(TENANT_ID), anyCollection());
+                        verify(accountRepository, never()).findByTenantIdAndCode(any(), anyString());
+                }
+
                 @Test
                 @DisplayName("should reject unbalanced entry (debits > credits)")
                 void shouldRejectUnbalancedEntry() {
@@ -180,8 +208,8 @@ class JournalEntryValidationServiceImplTest {
                 void shouldRejectMissingAccount() {
                         DraftJournalEntry draft = balancedDraft();
 
-                        when(accountRepository.findByTenantIdAndCode(TENANT_ID, "CASH"))
-                                        .thenReturn(Optional.empty());
+                        when(accountRepository.findByTenantIdAndCodeIn(eq(TENANT_ID), anyCollection()))
+                                        .thenReturn(List.of(activeAccount("REVENUE")));
 
                         assertThatThrownBy(() -> validationService.validate(draft))
                                         .isInstanceOf(AccountNotFoundException.class);
@@ -195,8 +223,8 @@ class JournalEntryValidationServiceImplTest {
                         Account inactiveAccount = activeAccount("CASH");
                         inactiveAccount.setActive(false);
 
-                        when(accountRepository.findByTenantIdAndCode(TENANT_ID, "CASH"))
-                                        .thenReturn(Optional.of(inactiveAccount));
+                        when(accountRepository.findByTenantIdAndCodeIn(eq(TENANT_ID), anyCollection()))
+                                        .thenReturn(List.of(inactiveAccount, activeAccount("REVENUE")));
 
                         assertThatThrownBy(() -> validationService.validate(draft))
                                         .isInstanceOf(InactiveAccountException.class);
@@ -48,6 +48,7 @@ class JournalPostingEngineTest {
     @Mock private MultiCurrencyService multiCurrencyService;
     @Mock private ActorRoleResolver actorRoleResolver;
     @Mock private OutboxService outboxService;
+    @Mock private ReadYourWritesTracker readYourWritesTracker;
 
     private ModelMapper modelMapper;
     private JournalPostingEngine engine;
@@ -63,7 +64,7 @@ class JournalPostingEngineTest {
                 .setSkipNullEnabled(true);
         engine = new JournalPostingEngine(
                 validationService, ledgerPersistenceService, periodValidationService,
-                multiCurrencyService, actorRoleResolver, outboxService, modelMapper);
+                multiCurrencyService, actorRoleResolver, outboxService, modelMapper, readYourWritesTracker);
     }
 
     private DraftJournalEntry buildDraft() {
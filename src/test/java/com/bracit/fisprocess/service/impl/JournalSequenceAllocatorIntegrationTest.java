@@ -0,0 +1,87 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.TestcontainersIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.hikari.maximum-pool-size=2")
+@DisplayName("JournalSequenceAllocator Integration Tests")
+class JournalSequenceAllocatorIntegrationTest extends TestcontainersIntegrationTest {
+
+    private static final int FISCAL_YEAR = 2026;
+    private static final int POSTINGS = 12;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JournalSequenceAllocator allocator;
+
+    private UUID tenantId;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO fis_business_entity (tenant_id, name, base_currency, is_active, created_at, updated_at)
+                VALUES (?, ?, 'USD', TRUE, ?, ?)
+                """, tenantId, "Sequence Block Tenant", OffsetDateTime.now(), OffsetDateTime.now());
+        ReflectionTestUtils.setField(allocator, "gapPolicy", JournalSequenceAllocator.GapPolicy.BLOCK);
+        ReflectionTestUtils.setField(allocator, "blockSize", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(allocator, "gapPolicy", JournalSequenceAllocator.GapPolicy.GAPLESS);
+        ReflectionTestUtils.setField(allocator, "blockSize", 100);
+    }
+
+    @Test
+    @DisplayName("should reserve blocks while every pooled connection is held by a waiting posting")
+    void shouldReserveWhilePoolIsExhausted() throws Exception {
+        TransactionTemplate posting = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(POSTINGS);
+        try {
+            List<Future<Long>> numbers = new ArrayList<>();
+            for (int i = 0; i < POSTINGS; i++) {
+                numbers.add(executor.submit(() -> posting.execute(status -> {
+                    // Holds a pooled connection before waiting on the block lock, as a posting does
+                    jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                    return allocator.allocateFromBlock(tenantId, FISCAL_YEAR, 1, (start, newBlock) -> start);
+                })));
+            }
+
+            List<Long> allocated = new ArrayList<>();
+            for (Future<Long> number : numbers) {
+                allocated.add(number.get(20, TimeUnit.SECONDS));
+            }
+
+            assertThat(allocated).doesNotHaveDuplicates().hasSize(POSTINGS);
+            assertThat(jdbcTemplate.queryForObject("""
+                    SELECT next_value FROM fis_journal_sequence WHERE tenant_id = ? AND fiscal_year = ?
+                    """, Long.class, tenantId, FISCAL_YEAR)).isEqualTo(POSTINGS + 1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
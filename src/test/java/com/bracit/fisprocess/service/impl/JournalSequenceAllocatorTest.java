@@ -0,0 +1,153 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.exception.JournalSequenceBlockOwnedException;
+import com.bracit.fisprocess.repository.JournalSequenceBlockStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JournalSequenceAllocator Tests")
+class JournalSequenceAllocatorTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+    private static final int FISCAL_YEAR = 2026;
+
+    @Mock
+    private JournalSequenceBlockStore blockStore;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JournalSequenceAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        allocator = new JournalSequenceAllocator(blockStore, meterRegistry);
+        ReflectionTestUtils.setField(allocator, "gapPolicy", JournalSequenceAllocator.GapPolicy.BLOCK);
+        ReflectionTestUtils.setField(allocator, "blockSize", 3);
+    }
+
+    @Test
+    @DisplayName("should keep regulated tenants gapless when the default policy is block")
+    void shouldHonourGaplessTenants() {
+        UUID regulated = UUID.randomUUID();
+        ReflectionTestUtils.setField(allocator, "gaplessTenants", Set.of(regulated));
+
+        assertThat(allocator.policyFor(regulated)).isEqualTo(JournalSequenceAllocator.GapPolicy.GAPLESS);
+        assertThat(allocator.policyFor(TENANT_ID)).isEqualTo(JournalSequenceAllocator.GapPolicy.BLOCK);
+    }
+
+    @Test
+    @DisplayName("should default every tenant to gapless")
+    void shouldDefaultToGapless() {
+        JournalSequenceAllocator defaults = new JournalSequenceAllocator(blockStore, meterRegistry);
+
+        assertThat(defaults.policyFor(TENANT_ID)).isEqualTo(JournalSequenceAllocator.GapPolicy.GAPLESS);
+    }
+
+    @Test
+    @DisplayName("should serve a block from memory and reserve the next one when exhausted")
+    void shouldReserveNextBlockWhenExhausted() {
+        when(blockStore.reserve(eq(TENANT_ID), eq(FISCAL_YEAR), eq(3), anyString(), anyInt()))
+                .thenReturn(Optional.of(1L), Optional.of(4L));
+
+        long first = allocator.allocateFromBlock(TENANT_ID, FISCAL_YEAR, 1, (start, newBlock) -> start);
+        long second = allocator.allocateFromBlock(TENANT_ID, FISCAL_YEAR, 2, (start, newBlock) -> start);
+        long third = allocator.allocateFromBlock(TENANT_ID, FISCAL_YEAR, 1, (start, newBlock) -> start);
+
+        assertThat(first).isEqualTo(1L);
+        assertThat(second).isEqualTo(2L);
+        assertThat(third).isEqualTo(4L);
+        verify(blockStore, times(2))
+                .reserve(eq(TENANT_ID), eq(FISCAL_YEAR), eq(3), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should abandon a too-small remainder and reserve a block large enough for the request")
+    void shouldReserveLargeBlockForBigRequest() {
+        when(blockStore.reserve(eq(TENANT_ID), eq(FISCAL_YEAR), eq(3), anyString(), anyInt()))
+                .thenReturn(Optional.of(1L));
+        when(blockStore.reserve(eq(TENANT_ID), eq(FISCAL_YEAR), eq(5), anyString(), anyInt()))
+                .thenReturn(Optional.of(4L));
+
+        allocator.allocateFromBlock(TENANT_ID, FISCAL_YEAR, 1, (start, newBlock) -> start);
+        long start = allocator.allocateFromBlock(TENANT_ID, FISCAL_YEAR, 5, (s, newBlock) -> s);
+
+        assertThat(start).isEqualTo(4L);
+        assertThat(meterRegistry.counter("fis.sequence.block.abandoned").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("should initialize a missing sequence row before reserving")
+    void shouldInitializeMissingRow() {
+        when(blockStore.reserve(eq(TENANT_ID), eq(FISCAL_YEAR), eq(3), anyString(), anyInt()))
+                .thenReturn(Optional.empty(), Optional.of(1L));
+        when(blockStore.initializeIfAbsent(TENANT_ID, FISCAL_YEAR)).thenReturn(1);
+
+        long start = allocator.allocateFromBlock(TENANT_ID, FISCAL_YEAR, 1, (s, newBlock) -> s);
+
+        assertThat(start).isEqualTo(1L);
+        verify(blockStore).initializeIfAbsent(TENANT_ID, FISCAL_YEAR);
+    }
+
+    @Test
+    @DisplayName("should tell the assignment when a new block was reserved")
+    void shouldFlagNewBlock() {
+        when(blockStore.reserve(eq(TENANT_ID), eq(FISCAL_YEAR), eq(3), anyString(), anyInt()))
+                .thenReturn(Optional.of(1L), Optional.of(4L));
+
+        List<Boolean> flags = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            allocator.allocateFromBlock(TENANT_ID, FISCAL_YEAR, 1, (start, newBlock) -> flags.add(newBlock));
+        }
+
+        assertThat(flags).containsExactly(true, false, false, true);
+    }
+
+    @Test
+    @DisplayName("should refuse to allocate while another instance holds the lease")
+    void shouldRefuseWhenLeasedElsewhere() {
+        when(blockStore.reserve(eq(TENANT_ID), eq(FISCAL_YEAR), eq(3), anyString(), anyInt()))
+                .thenReturn(Optional.empty());
+        when(blockStore.initializeIfAbsent(TENANT_ID, FISCAL_YEAR)).thenReturn(0);
+
+        assertThatThrownBy(() -> allocator.allocateFromBlock(TENANT_ID, FISCAL_YEAR, 1, (start, newBlock) -> start))
+                .isInstanceOf(JournalSequenceBlockOwnedException.class);
+        verify(blockStore, times(1))
+                .reserve(eq(TENANT_ID), eq(FISCAL_YEAR), eq(3), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should reserve a fresh block once half of the lease has passed")
+    void shouldRenewLeaseBeforeExpiry() {
+        ReflectionTestUtils.setField(allocator, "blockLeaseSeconds", 0);
+        when(blockStore.reserve(eq(TENANT_ID), eq(FISCAL_YEAR), eq(3), anyString(), anyInt()))
+                .thenReturn(Optional.of(1L), Optional.of(4L));
+
+        allocator.allocateFromBlock(TENANT_ID, FISCAL_YEAR, 1, (start, newBlock) -> start);
+        long start = allocator.allocateFromBlock(TENANT_ID, FISCAL_YEAR, 1, (s, newBlock) -> s);
+
+        assertThat(start).isEqualTo(4L);
+        assertThat(meterRegistry.counter("fis.sequence.block.abandoned").count()).isEqualTo(2.0);
+    }
+}
@@ -9,14 +9,17 @@ import com.bracit.fisprocess.domain.enums.JournalStatus;
 import com.bracit.fisprocess.domain.model.DraftJournalEntry;
 import com.bracit.fisprocess.domain.model.DraftJournalLine;
 import com.bracit.fisprocess.exception.AccountNotFoundException;
+import com.bracit.fisprocess.repository.AccountBalanceSnapshotRepository;
 import com.bracit.fisprocess.repository.AccountRepository;
 import com.bracit.fisprocess.repository.BatchJournalRepository;
 import com.bracit.fisprocess.repository.JournalEntryRepository;
+import com.bracit.fisprocess.repository.JournalSequenceBlockStore;
 import com.bracit.fisprocess.repository.JournalSequenceRepository;
 import com.bracit.fisprocess.service.HashChainService;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -27,6 +30,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -34,14 +40,19 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -53,22 +64,31 @@ class LedgerPersistenceServiceImplTest {
     @Mock private JournalEntryRepository journalEntryRepository;
     @Mock private AccountRepository accountRepository;
     @Mock private JournalSequenceRepository journalSequenceRepository;
+    @Mock private JournalSequenceBlockStore blockStore;
     @Mock private HashChainService hashChainService;
     @Mock private BatchJournalRepository batchJournalRepository;
+    @Mock private AccountBalanceSnapshotRepository balanceSnapshotRepository;
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private RedisMessageListenerContainer listenerContainer;
     @Mock private MeterRegistry meterRegistry;
     @Mock private Timer mockTimer;
     @Mock private Counter mockCounter;
 
     private LedgerPersistenceServiceImpl service;
+    private JournalSequenceAllocator sequenceAllocator;
 
     private static final UUID TENANT_ID = UUID.randomUUID();
     private static final LocalDate POSTED_DATE = LocalDate.of(2026, 4, 13);
 
     @BeforeEach
     void setUp() {
+        TenantAccountResolver tenantAccountResolver = new TenantAccountResolver(
+                accountRepository, redisTemplate, listenerContainer, 100, 1000, 300);
+        sequenceAllocator = new JournalSequenceAllocator(blockStore, meterRegistry);
         service = new LedgerPersistenceServiceImpl(
-                journalEntryRepository, accountRepository, journalSequenceRepository,
-                hashChainService, batchJournalRepository, meterRegistry);
+                journalEntryRepository, tenantAccountResolver, journalSequenceRepository, sequenceAllocator,
+                hashChainService, new HashChainHeadCache(journalEntryRepository, meterRegistry),
+                batchJournalRepository, balanceSnapshotRepository, meterRegistry);
         when(meterRegistry.timer(anyString())).thenReturn(mockTimer);
         when(meterRegistry.counter(anyString())).thenReturn(mockCounter);
     }
@@ -120,18 +140,30 @@ class LedgerPersistenceServiceImplTest {
         seq.setNextValue(100L);
         when(journalSequenceRepository.findForUpdate(TENANT_ID, POSTED_DATE.getYear()))
                 .thenReturn(Optional.of(seq));
-        when(hashChainService.getLatestHash(TENANT_ID, POSTED_DATE.getYear()))
-                .thenReturn("genesis-hash");
+        when(journalEntryRepository.findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(TENANT_ID, POSTED_DATE.getYear()))
+                .thenReturn(Optional.of(JournalEntry.builder().hash("genesis-hash").sequenceNumber(99L).build()));
         when(hashChainService.computeHash(any(), anyString(), any(), any()))
                 .thenReturn("computed-hash-123");
     }
 
+    private LedgerPersistenceServiceImpl newBatchService() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new LedgerPersistenceServiceImpl(
+                journalEntryRepository,
+                new TenantAccountResolver(accountRepository, redisTemplate, listenerContainer, 100, 1000, 300),
+                journalSequenceRepository, sequenceAllocator, hashChainService,
+                new HashChainHeadCache(journalEntryRepository, registry), batchJournalRepository,
+                balanceSnapshotRepository, registry);
+    }
+
     private void stubAccountLookups(List<DraftJournalLine> lines) {
-        for (DraftJournalLine line : lines) {
-            Account account = buildAccount(line.getAccountCode(), AccountType.ASSET);
-            when(accountRepository.findByTenantIdAndCode(TENANT_ID, line.getAccountCode()))
-                    .thenReturn(Optional.of(account));
-        }
+        List<Account> accounts = lines.stream()
+                .map(DraftJournalLine::getAccountCode)
+                .distinct()
+                .map(code -> buildAccount(code, AccountType.ASSET))
+                .toList();
+        when(accountRepository.findByTenantIdAndCodeIn(eq(TENANT_ID), anyCollection()))
+                .thenReturn(accounts);
     }
 
     @Nested
@@ -161,9 +193,10 @@ class LedgerPersistenceServiceImplTest {
             assertThat(result.getLines()).hasSize(2);
             verify(journalSequenceRepository).initializeIfAbsent(TENANT_ID, POSTED_DATE.getYear());
             verify(journalSequenceRepository).findForUpdate(TENANT_ID, POSTED_DATE.getYear());
-            verify(hashChainService).getLatestHash(TENANT_ID, POSTED_DATE.getYear());
+            verify(journalEntryRepository).findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(TENANT_ID, POSTED_DATE.getYear());
             verify(hashChainService).computeHash(any(), anyString(), any(), any());
             verify(journalEntryRepository).save(any(JournalEntry.class));
+            verify(balanceSnapshotRepository).applyEntries(List.of(result));
         }
 
 @Test
@@ -224,11 +257,100 @@ class LedgerPersistenceServiceImplTest {
                     DraftJournalLine.builder().accountCode("REV").amountCents(100L).baseAmountCents(100L).isCredit(true).build());
             DraftJournalEntry draft = buildDraft(lines);
             stubSequenceAndHash();
-            when(accountRepository.findByTenantIdAndCode(TENANT_ID, "MISSING"))
-                    .thenReturn(Optional.empty());
+            when(accountRepository.findByTenantIdAndCodeIn(eq(TENANT_ID), anyCollection()))
+                    .thenReturn(List.of(buildAccount("REV", AccountType.REVENUE)));
 
             assertThatThrownBy(() -> service.persist(draft))
                     .isInstanceOf(AccountNotFoundException.class);
+            verify(journalSequenceRepository, never()).findForUpdate(any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("account resolution")
+    class AccountResolution {
+
+        @Test
+        @DisplayName("persistBatch should resolve all account codes with a single query")
+        void shouldResolveBatchAccountsOnce() {
+            List<DraftJournalLine> lines = List.of(
+                    DraftJournalLine.builder().accountCode("CASH").amountCents(100L).baseAmountCents(100L).isCredit(false).build(),
+                    DraftJournalLine.builder().accountCode("REV").amountCents(100L).baseAmountCents(100L).isCredit(true).build());
+            List<DraftJournalEntry> drafts = List.of(buildDraft(lines), buildDraft(lines), buildDraft(lines));
+            stubSequenceAndHash();
+            stubAccountLookups(lines);
+            LedgerPersistenceServiceImpl batchService = newBatchService();
+
+            List<JournalEntry> persisted = batchService.persistBatch(drafts);
+
+            assertThat(persisted).hasSize(3);
+            assertThat(persisted).allSatisfy(entry -> assertThat(entry.getLines()).hasSize(2));
+            verify(accountRepository, times(1)).findByTenantIdAndCodeIn(eq(TENANT_ID), anyCollection());
+            verify(accountRepository, never()).findByTenantIdAndCode(any(), anyString());
+        }
+
+        @Test
+        @DisplayName("should serve repeat postings from the resolver cache")
+        void shouldUseCachedAccountIds() {
+            List<DraftJournalLine> lines = List.of(
+                    DraftJournalLine.builder().accountCode("CASH").amountCents(100L).baseAmountCents(100L).isCredit(false).build(),
+                    DraftJournalLine.builder().accountCode("REV").amountCents(100L).baseAmountCents(100L).isCredit(true).build());
+            stubSequenceAndHash();
+            stubAccountLookups(lines);
+            when(accountRepository.getReferenceById(any(UUID.class)))
+                    .thenAnswer(inv -> Account.builder().accountId(inv.getArgument(0)).build());
+
+            service.persist(buildDraft(lines));
+            service.persist(buildDraft(lines));
+
+            verify(accountRepository, times(1)).findByTenantIdAndCodeIn(eq(TENANT_ID), anyCollection());
+            verify(accountRepository, times(2)).getReferenceById(any(UUID.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("hash chain head")
+    class HashChainHead {
+
+        @Test
+        @DisplayName("persistBatch should read the chain head once and chain entries forward")
+        void shouldChainBatchEntriesForward() {
+            List<DraftJournalLine> lines = List.of(
+                    DraftJournalLine.builder().accountCode("CASH").amountCents(100L).baseAmountCents(100L).isCredit(false).build(),
+                    DraftJournalLine.builder().accountCode("REV").amountCents(100L).baseAmountCents(100L).isCredit(true).build());
+            stubSequenceAndHash();
+            stubAccountLookups(lines);
+            AtomicInteger counter = new AtomicInteger();
+            when(hashChainService.computeHash(any(), anyString(), any(), any()))
+                    .thenAnswer(inv -> "hash-" + counter.incrementAndGet());
+
+            List<JournalEntry> persisted = newBatchService()
+                    .persistBatch(List.of(buildDraft(lines), buildDraft(lines), buildDraft(lines)));
+
+            assertThat(persisted).extracting(JournalEntry::getSequenceNumber).containsExactly(100L, 101L, 102L);
+            assertThat(persisted).extracting(JournalEntry::getPreviousHash)
+                    .containsExactly("genesis-hash", "hash-1", "hash-2");
+            verify(journalEntryRepository, times(1))
+                    .findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(TENANT_ID, POSTED_DATE.getYear());
+        }
+
+        @Test
+        @DisplayName("persist should reuse the committed head instead of querying the latest entry")
+        void shouldReuseCommittedHead() {
+            List<DraftJournalLine> lines = List.of(
+                    DraftJournalLine.builder().accountCode("CASH").amountCents(100L).baseAmountCents(100L).isCredit(false).build(),
+                    DraftJournalLine.builder().accountCode("REV").amountCents(100L).baseAmountCents(100L).isCredit(true).build());
+            stubSequenceAndHash();
+            stubAccountLookups(lines);
+            when(hashChainService.computeHash(any(), anyString(), any(), any())).thenReturn("first", "second");
+            when(journalEntryRepository.save(any(JournalEntry.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            service.persist(buildDraft(lines));
+            JournalEntry second = service.persist(buildDraft(lines));
+
+            assertThat(second.getPreviousHash()).isEqualTo("first");
+            verify(journalEntryRepository, times(1))
+                    .findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(TENANT_ID, POSTED_DATE.getYear());
         }
     }
 
@@ -248,7 +370,8 @@ class LedgerPersistenceServiceImplTest {
             seq.setNextValue(42L);
             when(journalSequenceRepository.findForUpdate(TENANT_ID, 2026))
                     .thenReturn(Optional.of(seq));
-            when(hashChainService.getLatestHash(TENANT_ID, 2026)).thenReturn("prev");
+            when(journalEntryRepository.findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(TENANT_ID, 2026))
+                    .thenReturn(Optional.of(JournalEntry.builder().hash("prev").sequenceNumber(41L).build()));
             when(hashChainService.computeHash(any(), anyString(), any(), any())).thenReturn("hash");
             stubAccountLookups(lines);
             when(journalEntryRepository.save(any(JournalEntry.class))).thenAnswer(inv -> {
@@ -278,5 +401,59 @@ class LedgerPersistenceServiceImplTest {
                     .isInstanceOf(IllegalStateException.class)
                     .hasMessageContaining("Journal sequence missing");
         }
+
+        @Test
+        @DisplayName("block policy should reserve one block and serve later postings from memory")
+        void shouldServeBlockPolicyFromMemory() {
+            List<DraftJournalLine> lines = List.of(
+                    DraftJournalLine.builder().accountCode("CASH").amountCents(100L).baseAmountCents(100L).isCredit(false).build(),
+                    DraftJournalLine.builder().accountCode("REV").amountCents(100L).baseAmountCents(100L).isCredit(true).build());
+            ReflectionTestUtils.setField(sequenceAllocator, "gapPolicy", JournalSequenceAllocator.GapPolicy.BLOCK);
+            ReflectionTestUtils.setField(sequenceAllocator, "blockSize", 10);
+            when(blockStore.reserve(eq(TENANT_ID), eq(2026), eq(10), anyString(), anyInt()))
+                    .thenReturn(Optional.of(500L));
+            when(journalEntryRepository.findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(TENANT_ID, 2026))
+                    .thenReturn(Optional.of(JournalEntry.builder().hash("prev").sequenceNumber(499L).build()));
+            when(hashChainService.computeHash(any(), anyString(), any(), any())).thenReturn("first", "second");
+            stubAccountLookups(lines);
+            when(journalEntryRepository.save(any(JournalEntry.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            JournalEntry first = service.persist(buildDraft(lines));
+            JournalEntry second = service.persist(buildDraft(lines));
+
+            assertThat(first.getSequenceNumber()).isEqualTo(500L);
+            assertThat(first.getPreviousHash()).isEqualTo("prev");
+            assertThat(second.getSequenceNumber()).isEqualTo(501L);
+            assertThat(second.getPreviousHash()).isEqualTo("first");
+            verify(blockStore, times(1))
+                    .reserve(eq(TENANT_ID), eq(2026), eq(10), anyString(), anyInt());
+            verify(journalSequenceRepository, never()).findForUpdate(any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("block policy should number and chain a batch from one reservation")
+        void shouldAllocateBatchFromBlock() {
+            List<DraftJournalLine> lines = List.of(
+                    DraftJournalLine.builder().accountCode("CASH").amountCents(100L).baseAmountCents(100L).isCredit(false).build(),
+                    DraftJournalLine.builder().accountCode("REV").amountCents(100L).baseAmountCents(100L).isCredit(true).build());
+            ReflectionTestUtils.setField(sequenceAllocator, "gapPolicy", JournalSequenceAllocator.GapPolicy.BLOCK);
+            ReflectionTestUtils.setField(sequenceAllocator, "blockSize", 2);
+            when(blockStore.reserve(eq(TENANT_ID), eq(2026), eq(3), anyString(), anyInt()))
+                    .thenReturn(Optional.of(7L));
+            when(journalEntryRepository.findTopByTenantIdAndFiscalYearOrderBySequenceNumberDesc(TENANT_ID, 2026))
+                    .thenReturn(Optional.empty());
+            AtomicInteger counter = new AtomicInteger();
+            when(hashChainService.computeHash(any(), anyString(), any(), any()))
+                    .thenAnswer(inv -> "hash-" + counter.incrementAndGet());
+            stubAccountLookups(lines);
+
+            List<JournalEntry> persisted = newBatchService()
+                    .persistBatch(List.of(buildDraft(lines), buildDraft(lines), buildDraft(lines)));
+
+            assertThat(persisted).extracting(JournalEntry::getSequenceNumber).containsExactly(7L, 8L, 9L);
+            assertThat(persisted).extracting(JournalEntry::getPreviousHash)
+                    .containsExactly(HashChainHeadCache.GENESIS_HASH, "hash-1", "hash-2");
+            verify(journalSequenceRepository, never()).findForUpdate(any(), anyInt());
+        }
     }
 }
@@ -14,7 +14,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import tools.jackson.databind.json.JsonMapper;
 
 import java.time.OffsetDateTime;
@@ -24,9 +27,12 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -45,6 +51,8 @@ class OutboxServiceImplTest {
     private JsonMapper jsonMapper;
     @Mock
     private DeadLetterQueueService deadLetterQueueService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     private SimpleMeterRegistry meterRegistry;
     private CircuitBreaker circuitBreaker;
@@ -70,143 +78,140 @@ class OutboxServiceImplTest {
                 meterRegistry,
                 deadLetterQueueService,
                 alertConfig,
-                circuitBreaker);
+                circuitBreaker,
+                transactionManager);
         outboxService.initMetrics();
+        ReflectionTestUtils.setField(outboxService, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxService, "confirmTimeoutMs", 200L);
     }
 
     @Test
-    @DisplayName("relayUnpublished should increment success metrics on successful publish")
-    void relayUnpublishedShouldIncrementSuccessMetrics() {
-        OutboxEvent event = OutboxEvent.builder()
-                .outboxId(UUID.randomUUID())
-                .tenantId(UUID.randomUUID())
-                .eventType("fis.journal.posted")
-                .aggregateType("JOURNAL_ENTRY")
-                .aggregateId(UUID.randomUUID())
-                .payload("{\"x\":1}")
-                .published(false)
-                .retryCount(0)
-                .maxRetries(50)
-                .createdAt(OffsetDateTime.now().minusMinutes(2))
-                .build();
-
-        when(outboxEventRepository.findTop100ByPublishedFalseAndDlqFalseOrderByCreatedAtAsc())
-                .thenReturn(List.of(event));
-        when(outboxEventRepository.countByPublishedFalseAndDlqFalse()).thenReturn(1L, 0L);
-        when(outboxEventRepository.findOldestUnpublishedCreatedAt())
-                .thenReturn(Optional.of(OffsetDateTime.now().minusMinutes(2)), Optional.empty());
-        when(outboxEventRepository.save(any(OutboxEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(deadLetterQueueService.dlqSize()).thenReturn(0L);
-        doNothing().when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(), any(MessagePostProcessor.class));
+    @DisplayName("relayUnpublished should mark the whole batch published with one update once confirms arrive")
+    void relayUnpublishedShouldBulkMarkConfirmedEvents() {
+        OutboxEvent first = event(0, 2);
+        OutboxEvent second = event(0, 2);
+        when(outboxEventRepository.claimUnpublishedBatch(2)).thenReturn(List.of(first, second), List.of());
+        confirmAll(true);
 
         outboxService.relayUnpublished();
 
-        assertThat(meterRegistry.get("fis.outbox.publish.success.count").counter().count()).isEqualTo(1.0);
+        verify(outboxEventRepository).markPublished(eq(List.of(first.getOutboxId(), second.getOutboxId())),
+                any(OffsetDateTime.class));
+        verify(outboxEventRepository, never()).recordPublishFailure(any(), any());
+        verify(outboxEventRepository, never()).save(any(OutboxEvent.class));
+        assertThat(meterRegistry.get("fis.outbox.publish.success.count").counter().count()).isEqualTo(2.0);
         assertThat(meterRegistry.get("fis.outbox.publish.failure.count").counter().count()).isEqualTo(0.0);
         assertThat(meterRegistry.get("fis.outbox.retry.streak").gauge().value()).isEqualTo(0.0);
         assertThat(meterRegistry.get("fis.outbox.unpublished.backlog").gauge().value()).isEqualTo(0.0);
-        assertThat(event.isPublished()).isTrue();
-        assertThat(event.getPublishedAt()).isNotNull();
-        verify(outboxEventRepository).save(any(OutboxEvent.class));
     }
 
     @Test
-    @DisplayName("relayUnpublished should increment failure metrics and retry streak on publish failure")
-    void relayUnpublishedShouldIncrementFailureMetricsOnError() {
-        OutboxEvent event = OutboxEvent.builder()
-                .outboxId(UUID.randomUUID())
-                .tenantId(UUID.randomUUID())
-                .eventType("fis.journal.posted")
-                .aggregateType("JOURNAL_ENTRY")
-                .aggregateId(UUID.randomUUID())
-                .payload("{\"x\":1}")
-                .published(false)
-                .retryCount(0)
-                .maxRetries(50)
-                .createdAt(OffsetDateTime.now().minusMinutes(3))
-                .build();
-
-        when(outboxEventRepository.findTop100ByPublishedFalseAndDlqFalseOrderByCreatedAtAsc())
-                .thenReturn(List.of(event));
-        when(outboxEventRepository.countByPublishedFalseAndDlqFalse()).thenReturn(1L, 1L, 1L);
-        when(outboxEventRepository.findOldestUnpublishedCreatedAt())
-                .thenReturn(Optional.of(OffsetDateTime.now().minusMinutes(3)));
-        when(outboxEventRepository.save(any(OutboxEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(deadLetterQueueService.dlqSize()).thenReturn(0L);
-        doThrow(new RuntimeException("broker unavailable"))
-                .when(rabbitTemplate)
-                .convertAndSend(anyString(), anyString(), any(), any(MessagePostProcessor.class));
+    @DisplayName("relayUnpublished should record a failure and back off when the broker nacks")
+    void relayUnpublishedShouldRecordFailureOnNack() {
+        OutboxEvent event = event(0, 50);
+        when(outboxEventRepository.claimUnpublishedBatch(2)).thenReturn(List.of(event));
+        confirmAll(false);
 
+        outboxService.relayUnpublished();
         outboxService.relayUnpublished();
 
-        assertThat(meterRegistry.get("fis.outbox.publish.success.count").counter().count()).isEqualTo(0.0);
+        verify(outboxEventRepository, times(1)).claimUnpublishedBatch(anyInt());
+        verify(outboxEventRepository).recordPublishFailure(eq(event.getOutboxId()), contains("nacked"));
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any());
         assertThat(meterRegistry.get("fis.outbox.publish.failure.count").counter().count()).isEqualTo(1.0);
         assertThat(meterRegistry.get("fis.outbox.retry.streak").gauge().value()).isEqualTo(1.0);
         assertThat(meterRegistry.get("fis.outbox.oldest.unpublished.age.seconds").gauge().value()).isGreaterThan(0.0);
-        // Event should have its retryCount incremented
-        assertThat(event.getRetryCount()).isEqualTo(1);
     }
 
     @Test
-    @DisplayName("relayUnpublished should refresh lag gauges when queue is empty")
-    void relayUnpublishedShouldRefreshLagGaugesWhenQueueIsEmpty() {
-        when(outboxEventRepository.findTop100ByPublishedFalseAndDlqFalseOrderByCreatedAtAsc()).thenReturn(List.of());
-        when(outboxEventRepository.countByPublishedFalseAndDlqFalse()).thenReturn(3L, 0L);
-        when(outboxEventRepository.findOldestUnpublishedCreatedAt())
-                .thenReturn(Optional.of(OffsetDateTime.now().minusMinutes(4)), Optional.empty());
-        when(deadLetterQueueService.dlqSize()).thenReturn(0L);
+    @DisplayName("relayUnpublished should treat a missing confirm as a failure")
+    void relayUnpublishedShouldFailOnConfirmTimeout() {
+        OutboxEvent event = event(0, 50);
+        when(outboxEventRepository.claimUnpublishedBatch(2)).thenReturn(List.of(event));
 
-        outboxService.relayUnpublished();
         outboxService.relayUnpublished();
 
-        assertThat(meterRegistry.get("fis.outbox.unpublished.backlog").gauge().value()).isEqualTo(0.0);
-        assertThat(meterRegistry.get("fis.outbox.oldest.unpublished.age.seconds").gauge().value()).isEqualTo(0.0);
-        assertThat(meterRegistry.get("fis.outbox.retry.streak").gauge().value()).isEqualTo(0.0);
-        verify(outboxEventRepository, never()).save(any(OutboxEvent.class));
+        verify(outboxEventRepository).recordPublishFailure(eq(event.getOutboxId()), contains("not received"));
+        verify(outboxEventRepository, never()).markPublished(anyCollection(), any());
     }
 
     @Test
     @DisplayName("relayUnpublished should clear retry streak after a subsequent successful publish")
     void relayUnpublishedShouldClearRetryStreakAfterRecovery() {
-        OutboxEvent event = OutboxEvent.builder()
-                .outboxId(UUID.randomUUID())
-                .tenantId(UUID.randomUUID())
-                .eventType("fis.journal.posted")
-                .aggregateType("JOURNAL_ENTRY")
-                .aggregateId(UUID.randomUUID())
-                .payload("{\"x\":1}")
-                .published(false)
-                .retryCount(0)
-                .maxRetries(50)
-                .createdAt(OffsetDateTime.now().minusMinutes(1))
-                .build();
-
-        when(outboxEventRepository.findTop100ByPublishedFalseAndDlqFalseOrderByCreatedAtAsc())
-                .thenReturn(List.of(event), List.of(event));
-        when(outboxEventRepository.countByPublishedFalseAndDlqFalse()).thenReturn(1L, 1L, 1L, 0L);
-        when(outboxEventRepository.findOldestUnpublishedCreatedAt())
-                .thenReturn(Optional.of(OffsetDateTime.now().minusMinutes(1)), Optional.empty());
-        when(outboxEventRepository.save(any(OutboxEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(deadLetterQueueService.dlqSize()).thenReturn(0L);
+        OutboxEvent event = event(0, 50);
+        when(outboxEventRepository.claimUnpublishedBatch(2)).thenReturn(List.of(event));
         doThrow(new RuntimeException("broker unavailable"))
-                .doNothing()
+                .doAnswer(invocation -> {
+                    invocation.getArgument(4, CorrelationData.class).getFuture()
+                            .complete(new CorrelationData.Confirm(true, null));
+                    return null;
+                })
                 .when(rabbitTemplate)
-                .convertAndSend(anyString(), anyString(), any(), any(MessagePostProcessor.class));
+                .convertAndSend(anyString(), anyString(), any(), any(MessagePostProcessor.class),
+                        any(CorrelationData.class));
 
         outboxService.relayUnpublished();
         assertThat(meterRegistry.get("fis.outbox.retry.streak").gauge().value()).isEqualTo(1.0);
 
+        ReflectionTestUtils.setField(outboxService, "backoffUntilMillis", 0L);
         outboxService.relayUnpublished();
+
         assertThat(meterRegistry.get("fis.outbox.retry.streak").gauge().value()).isEqualTo(0.0);
-        assertThat(event.isPublished()).isTrue();
-        // First relay saves on failure (retryCount++), second saves on success (published=true)
-        verify(outboxEventRepository, times(2)).save(any(OutboxEvent.class));
+        verify(outboxEventRepository).recordPublishFailure(eq(event.getOutboxId()), eq("broker unavailable"));
+        verify(outboxEventRepository).markPublished(eq(List.of(event.getOutboxId())), any(OffsetDateTime.class));
     }
 
     @Test
     @DisplayName("relayUnpublished should move event to DLQ after max retries exhausted")
     void relayUnpublishedShouldMoveToDlqAfterMaxRetries() {
-        OutboxEvent event = OutboxEvent.builder()
+        OutboxEvent event = event(49, 50);
+        when(outboxEventRepository.claimUnpublishedBatch(2)).thenReturn(List.of(event));
+        doThrow(new RuntimeException("DLQ trigger"))
+                .when(rabbitTemplate)
+                .convertAndSend(anyString(), anyString(), any(), any(MessagePostProcessor.class),
+                        any(CorrelationData.class));
+
+        outboxService.relayUnpublished();
+
+        verify(outboxEventRepository).recordPublishFailure(event.getOutboxId(), "DLQ trigger");
+        verify(deadLetterQueueService).moveToDlq(eq(event.getOutboxId()), any());
+        assertThat(meterRegistry.get("fis.outbox.dlq.auto.move.count").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("fis.outbox.dlq.size").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("relayUnpublished should reset lag gauges when nothing is claimed")
+    void relayUnpublishedShouldResetLagGaugesWhenQueueIsEmpty() {
+        when(outboxEventRepository.countByPublishedFalseAndDlqFalse()).thenReturn(3L);
+        when(outboxEventRepository.findOldestUnpublishedCreatedAt())
+                .thenReturn(Optional.of(OffsetDateTime.now().minusMinutes(4)));
+        when(deadLetterQueueService.dlqSize()).thenReturn(0L);
+        when(outboxEventRepository.claimUnpublishedBatch(2)).thenReturn(List.of());
+
+        outboxService.resyncLagMetrics();
+        assertThat(meterRegistry.get("fis.outbox.unpublished.backlog").gauge().value()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("fis.outbox.oldest.unpublished.age.seconds").gauge().value()).isGreaterThan(0.0);
+
+        outboxService.relayUnpublished();
+
+        assertThat(meterRegistry.get("fis.outbox.unpublished.backlog").gauge().value()).isEqualTo(0.0);
+        assertThat(meterRegistry.get("fis.outbox.oldest.unpublished.age.seconds").gauge().value()).isEqualTo(0.0);
+        assertThat(meterRegistry.get("fis.outbox.retry.streak").gauge().value()).isEqualTo(0.0);
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+    }
+
+    private void confirmAll(boolean ack) {
+        doAnswer(invocation -> {
+            invocation.getArgument(4, CorrelationData.class).getFuture()
+                    .complete(new CorrelationData.Confirm(ack, ack ? null : "queue full"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(), any(MessagePostProcessor.class),
+                any(CorrelationData.class));
+    }
+
+    private static OutboxEvent event(int retryCount, int maxRetries) {
+        return OutboxEvent.builder()
                 .outboxId(UUID.randomUUID())
                 .tenantId(UUID.randomUUID())
                 .eventType("fis.journal.posted")
@@ -214,25 +219,9 @@ class OutboxServiceImplTest {
                 .aggregateId(UUID.randomUUID())
                 .payload("{\"x\":1}")
                 .published(false)
-                .retryCount(49)
-                .maxRetries(50)
-                .createdAt(OffsetDateTime.now().minusMinutes(5))
+                .retryCount(retryCount)
+                .maxRetries(maxRetries)
+                .createdAt(OffsetDateTime.now().minusMinutes(2))
                 .build();
-
-        when(outboxEventRepository.findTop100ByPublishedFalseAndDlqFalseOrderByCreatedAtAsc())
-                .thenReturn(List.of(event));
-        when(outboxEventRepository.countByPublishedFalseAndDlqFalse()).thenReturn(1L);
-        when(outboxEventRepository.findOldestUnpublishedCreatedAt())
-                .thenReturn(Optional.of(OffsetDateTime.now().minusMinutes(5)));
-        when(outboxEventRepository.save(any(OutboxEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(deadLetterQueueService.dlqSize()).thenReturn(0L);
-        doThrow(new RuntimeException("DLQ trigger"))
-                .when(rabbitTemplate)
-                .convertAndSend(anyString(), anyString(), any(), any(MessagePostProcessor.class));
-
-        outboxService.relayUnpublished();
-
-        assertThat(event.getRetryCount()).isEqualTo(50);
-        verify(deadLetterQueueService).moveToDlq(eq(event.getOutboxId()), any());
     }
 }
@@ -1,11 +1,9 @@
 package com.bracit.fisprocess.service.impl;
 
-import com.bracit.fisprocess.domain.entity.AccountingPeriod;
 import com.bracit.fisprocess.domain.enums.ActorRole;
 import com.bracit.fisprocess.domain.enums.PeriodStatus;
 import com.bracit.fisprocess.exception.AccountingPeriodNotFoundException;
 import com.bracit.fisprocess.exception.PeriodClosedException;
-import com.bracit.fisprocess.repository.AccountingPeriodRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,7 +12,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThatCode;
@@ -26,7 +23,7 @@ import static org.mockito.Mockito.when;
 class PeriodValidationServiceImplTest {
 
     @Mock
-    private AccountingPeriodRepository accountingPeriodRepository;
+    private AccountingPeriodCalendarCache periodCalendarCache;
 
     @InjectMocks
     private PeriodValidationServiceImpl service;
@@ -36,8 +33,7 @@ class PeriodValidationServiceImplTest {
     void shouldAllowSoftClosedForAdmin() {
         UUID tenantId = UUID.randomUUID();
         LocalDate postedDate = LocalDate.of(2026, 2, 20);
-        when(accountingPeriodRepository.findContainingDate(tenantId, postedDate))
-                .thenReturn(Optional.of(AccountingPeriod.builder().status(PeriodStatus.SOFT_CLOSED).build()));
+        when(periodCalendarCache.statusOn(tenantId, postedDate)).thenReturn(PeriodStatus.SOFT_CLOSED);
 
         assertThatCode(() -> service.validatePostingAllowed(tenantId, postedDate, ActorRole.FIS_ADMIN))
                 .doesNotThrowAnyException();
@@ -48,8 +44,7 @@ class PeriodValidationServiceImplTest {
     void shouldRejectHardClosed() {
         UUID tenantId = UUID.randomUUID();
         LocalDate postedDate = LocalDate.of(2026, 2, 20);
-        when(accountingPeriodRepository.findContainingDate(tenantId, postedDate))
-                .thenReturn(Optional.of(AccountingPeriod.builder().status(PeriodStatus.HARD_CLOSED).build()));
+        when(periodCalendarCache.statusOn(tenantId, postedDate)).thenReturn(PeriodStatus.HARD_CLOSED);
 
         assertThatThrownBy(() -> service.validatePostingAllowed(tenantId, postedDate, ActorRole.FIS_ACCOUNTANT))
                 .isInstanceOf(PeriodClosedException.class);
@@ -60,7 +55,7 @@ class PeriodValidationServiceImplTest {
     void shouldRejectWhenPeriodMissing() {
         UUID tenantId = UUID.randomUUID();
         LocalDate postedDate = LocalDate.of(2026, 2, 20);
-        when(accountingPeriodRepository.findContainingDate(tenantId, postedDate)).thenReturn(Optional.empty());
+        when(periodCalendarCache.statusOn(tenantId, postedDate)).thenReturn(null);
 
         assertThatThrownBy(() -> service.validatePostingAllowed(tenantId, postedDate, ActorRole.FIS_ACCOUNTANT))
                 .isInstanceOf(AccountingPeriodNotFoundException.class);
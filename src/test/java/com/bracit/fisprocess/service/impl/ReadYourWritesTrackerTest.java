@@ -0,0 +1,83 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.config.ReadReplicas;
+import com.bracit.fisprocess.config.ReadTokenFilter;
+import com.bracit.fisprocess.config.ReplicaSet;
+import com.bracit.fisprocess.service.ReadConsistencyContext;
+import com.bracit.fisprocess.service.Shard;
+import com.bracit.fisprocess.service.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReadYourWritesTracker Unit Tests")
+class ReadYourWritesTrackerTest {
+
+    private static final UUID TENANT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Mock
+    private ReadReplicas readReplicas;
+    @Mock
+    private ReplicaSet replicaSet;
+    @Mock
+    private ShardRouter shardRouter;
+
+    private ReadYourWritesTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ReadYourWritesTracker(readReplicas, shardRouter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        ReadConsistencyContext.clear();
+    }
+
+    @Test
+    @DisplayName("should not read the primary's WAL position for a write outside an HTTP request")
+    void shouldSkipWritesOutsideRequest() {
+        when(readReplicas.isEmpty()).thenReturn(false);
+
+        tracker.recordWrite(TENANT_ID);
+
+        verifyNoInteractions(shardRouter, replicaSet);
+        verify(readReplicas, never()).forShard(any());
+    }
+
+    @Test
+    @DisplayName("should return a read token for a write made by an HTTP request")
+    void shouldIssueTokenForRequest() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        when(readReplicas.isEmpty()).thenReturn(false);
+        when(shardRouter.getShardForTenant(TENANT_ID)).thenReturn(Shard.SHARD_1);
+        when(readReplicas.forShard(Shard.SHARD_1)).thenReturn(replicaSet);
+        when(replicaSet.shard()).thenReturn(Shard.SHARD_1);
+        when(replicaSet.currentPrimaryLsn()).thenReturn(0x16B3748L);
+
+        tracker.recordWrite(TENANT_ID);
+
+        assertThat(response.getHeader(ReadTokenFilter.READ_TOKEN_HEADER)).isNotBlank();
+    }
+}
@@ -0,0 +1,102 @@
+package com.bracit.fisprocess.service.impl;
+
+import com.bracit.fisprocess.config.ShardingProperties;
+import com.bracit.fisprocess.domain.enums.ShardPlacementStatus;
+import com.bracit.fisprocess.domain.model.TenantShardPlacement;
+import com.bracit.fisprocess.repository.TenantShardPlacementStore;
+import com.bracit.fisprocess.repository.TenantWriteFence;
+import com.bracit.fisprocess.service.Shard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ShardRebalancingServiceImpl Unit Tests")
+class ShardRebalancingServiceImplTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    @Mock
+    private TenantShardDirectory directory;
+    @Mock
+    private TenantShardPlacementStore placementStore;
+    @Mock
+    private TenantShardDataCopier dataCopier;
+    @Mock
+    private TenantWriteFence tenantWriteFence;
+
+    private ShardingProperties shardingProperties;
+    private ShardRebalancingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        shardingProperties = new ShardingProperties();
+        shardingProperties.setEnabled(true);
+        shardingProperties.getMigration().setDrainMillis(0);
+        service = new ShardRebalancingServiceImpl(shardingProperties.shardTopology(), shardingProperties,
+                directory, placementStore, dataCopier, tenantWriteFence);
+    }
+
+    @Test
+    @DisplayName("should refuse to start with a drain shorter than the directory expiry")
+    void shouldRejectDrainShorterThanDirectoryExpiry() {
+        shardingProperties.getMigration().setDrainMillis(5000);
+        ReflectionTestUtils.setField(service, "directoryExpireAfterWriteSeconds", 60L);
+
+        assertThatThrownBy(service::validateDrain)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("drain-millis");
+    }
+
+    @Test
+    @DisplayName("should copy and flip the tenant while its writes are fenced on the source")
+    void shouldCopyInsideWriteFence() {
+        TenantWriteFence.ClosedWrites closedWrites = stubMigration();
+        when(placementStore.completeMigration(TENANT_ID, Shard.SHARD_2)).thenReturn(true);
+
+        service.migrateTenant(TENANT_ID, Shard.SHARD_2);
+
+        InOrder order = inOrder(tenantWriteFence, dataCopier, placementStore, closedWrites);
+        order.verify(tenantWriteFence).closeWrites(TENANT_ID, Shard.SHARD_1);
+        order.verify(dataCopier).copy(TENANT_ID, Shard.SHARD_1, Shard.SHARD_2);
+        order.verify(placementStore).completeMigration(TENANT_ID, Shard.SHARD_2);
+        order.verify(closedWrites).close();
+    }
+
+    @Test
+    @DisplayName("should reopen the fence and abort when the copy fails")
+    void shouldAbortWhenCopyFails() {
+        TenantWriteFence.ClosedWrites closedWrites = stubMigration();
+        doThrow(new IllegalStateException("copy failed")).when(dataCopier)
+                .copy(TENANT_ID, Shard.SHARD_1, Shard.SHARD_2);
+
+        assertThatThrownBy(() -> service.migrateTenant(TENANT_ID, Shard.SHARD_2))
+                .hasMessage("copy failed");
+
+        verify(closedWrites).close();
+        verify(placementStore).abortMigration(TENANT_ID);
+    }
+
+    private TenantWriteFence.ClosedWrites stubMigration() {
+        when(directory.placementOf(TENANT_ID)).thenReturn(
+                new TenantShardPlacement(TENANT_ID, Shard.SHARD_1, ShardPlacementStatus.ACTIVE, null));
+        when(placementStore.markMigrating(TENANT_ID, Shard.SHARD_1, Shard.SHARD_2)).thenReturn(true);
+        TenantWriteFence.ClosedWrites closedWrites = mock(TenantWriteFence.ClosedWrites.class);
+        when(tenantWriteFence.closeWrites(TENANT_ID, Shard.SHARD_1)).thenReturn(closedWrites);
+        return closedWrites;
+    }
+}
@@ -1,27 +1,49 @@
 package com.bracit.fisprocess.service.impl;
 
+import com.bracit.fisprocess.config.ShardingProperties;
+import com.bracit.fisprocess.domain.enums.ShardPlacementStatus;
+import com.bracit.fisprocess.domain.model.TenantShardPlacement;
+import com.bracit.fisprocess.exception.TenantShardMigrationInProgressException;
 import com.bracit.fisprocess.service.Shard;
 import com.bracit.fisprocess.service.ShardContextHolder;
+import com.bracit.fisprocess.service.ShardTopology;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ShardRoutingServiceImplTest {
 
+    @Mock
+    private TenantShardDirectory directory;
+
+    private ShardingProperties shardingProperties;
+    private ShardTopology topology;
     private ShardRoutingServiceImpl shardRoutingService;
 
     @BeforeEach
     void setUp() {
-        shardRoutingService = new ShardRoutingServiceImpl();
-        shardRoutingService.setShardingEnabled(true);
-        shardRoutingService.setDefaultShard(Shard.SHARD_1);
+        shardingProperties = new ShardingProperties();
+        shardingProperties.setEnabled(true);
+        topology = shardingProperties.shardTopology();
+        lenient().when(directory.placementOf(any(UUID.class))).thenAnswer(invocation -> {
+            UUID tenantId = invocation.getArgument(0);
+            return new TenantShardPlacement(tenantId, topology.ring().shardFor(tenantId),
+                    ShardPlacementStatus.ACTIVE, null);
+        });
+        shardRoutingService = new ShardRoutingServiceImpl(topology, shardingProperties, directory);
         ShardContextHolder.clear();
     }
 
@@ -35,7 +57,7 @@ class ShardRoutingServiceImplTest {
         Shard shard = shardRoutingService.getShardForAccount("1000");
 
         assertThat(shard).isEqualTo(Shard.SHARD_1);
-        assertThat(ShardContextHolder.getCurrentShard()).isEqualTo(Shard.SHARD_1);
+        assertThat(ShardContextHolder.getCurrentShard()).isNull();
     }
 
     @Test
@@ -83,14 +105,17 @@ class ShardRoutingServiceImplTest {
     }
 
     @Test
-    void shouldSetTenantContextOnGetShardForTenant() {
+    void shouldBindTenantContextOnlyWithinScope() {
         UUID tenantId = UUID.randomUUID();
-
         Shard shard = shardRoutingService.getShardForTenant(tenantId);
+        assertThat(ShardContextHolder.getCurrentShard()).isNull();
 
-        assertThat(shard).isNotNull();
-        assertThat(ShardContextHolder.getCurrentShard()).isEqualTo(shard);
-        assertThat(ShardContextHolder.getCurrentTenantId()).isEqualTo(tenantId);
+        try (ShardContextHolder.Scope ignored = shardRoutingService.enterTenant(tenantId)) {
+            assertThat(ShardContextHolder.getCurrentShard()).isEqualTo(shard);
+            assertThat(ShardContextHolder.getCurrentTenantId()).isEqualTo(tenantId);
+        }
+        assertThat(ShardContextHolder.getCurrentShard()).isNull();
+        assertThat(ShardContextHolder.getCurrentTenantId()).isNull();
     }
 
     @Test
@@ -101,7 +126,7 @@ class ShardRoutingServiceImplTest {
         for (int i = 0; i < tenantCount; i++) {
             UUID tenantId = UUID.randomUUID();
             Shard shard = shardRoutingService.getShardForTenant(tenantId);
-            shardCounts[shard.ordinal()]++;
+            shardCounts[shardRoutingService.getShardIndex(shard)]++;
         }
 
         assertThat(shardCounts[0]).isGreaterThan(0);
@@ -109,6 +134,37 @@ class ShardRoutingServiceImplTest {
         assertThat(shardCounts[2]).isGreaterThan(0);
     }
 
+    @Test
+    void shouldRoutePinnedTenantWithoutDirectory() {
+        UUID tenantId = UUID.randomUUID();
+        shardingProperties.getPinnedTenants().put(tenantId, "SHARD_3");
+        topology = shardingProperties.shardTopology();
+        shardRoutingService = new ShardRoutingServiceImpl(topology, shardingProperties, directory);
+
+        assertThat(shardRoutingService.getShardForTenant(tenantId)).isEqualTo(Shard.SHARD_3);
+        verifyNoInteractions(directory);
+    }
+
+    @Test
+    void shouldRouteTenantToRecordedPlacement() {
+        UUID tenantId = UUID.randomUUID();
+        Shard recorded = topology.ring().shardFor(tenantId).equals(Shard.SHARD_2) ? Shard.SHARD_3 : Shard.SHARD_2;
+        when(directory.placementOf(tenantId))
+                .thenReturn(new TenantShardPlacement(tenantId, recorded, ShardPlacementStatus.ACTIVE, null));
+
+        assertThat(shardRoutingService.getShardForTenant(tenantId)).isEqualTo(recorded);
+    }
+
+    @Test
+    void shouldRejectTenantWhileMigrating() {
+        UUID tenantId = UUID.randomUUID();
+        when(directory.placementOf(tenantId)).thenReturn(new TenantShardPlacement(
+                tenantId, Shard.SHARD_1, ShardPlacementStatus.MIGRATING, Shard.SHARD_2));
+
+        assertThatThrownBy(() -> shardRoutingService.getShardForTenant(tenantId))
+                .isInstanceOf(TenantShardMigrationInProgressException.class);
+    }
+
     @Test
     void shouldHandleNonNumericAccountCode() {
         Shard shard = shardRoutingService.getShardForAccount("ACCT-1000");